@@ -0,0 +1,121 @@
+package com.abhi.the_bank_app.load;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+// Writes load-test customers straight into the users table with JDBC batches, far faster than opening them
+// through the API. Customer i always gets the same account number, name, email and phone number, so the driver
+// can address accounts by index without reading them back. Names, states and genders follow skewed
+// distributions, and every account opens ACTIVE with the same balance.
+// The schema must already exist: start the application once on the database (e.g. the durable profile), stop it,
+// then seed. Seeding again tops the table up to the requested count.
+public class AccountSeeder {
+
+    // Far above anything users_seq hands out, and clear of the benchmark dataset's ids
+    public static final long FIRST_ID = 5_000_000_000_000L;
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_EVERY = 100_000;
+
+    private static final String[] FIRST_NAMES = {"Chinedu", "Adaeze", "Oluwaseun", "Ngozi", "Emeka", "Funmilayo",
+            "Ibrahim", "Aisha", "Tunde", "Chiamaka", "Yusuf", "Folake", "Obinna", "Zainab", "Segun", "Amaka", "Musa",
+            "Bisi", "Ikechukwu", "Halima", "Kunle", "Nneka", "Temitope", "Uche", "Fatima", "John", "Mary", "David",
+            "Grace", "Samuel", "Blessing", "Daniel", "Joy", "Michael", "Esther", "Peter", "Ruth", "Joseph", "Faith"};
+    private static final String[] LAST_NAMES = {"Okafor", "Adeyemi", "Bello", "Okonkwo", "Ibrahim", "Eze", "Abubakar",
+            "Nwosu", "Adebayo", "Mohammed", "Okeke", "Balogun", "Umar", "Chukwu", "Olawale", "Danjuma", "Nnadi",
+            "Ogunleye", "Yakubu", "Obi", "Afolabi", "Suleiman", "Onyekachi", "Adewale", "Garba", "Ekwueme", "Lawal"};
+    private static final String[] STATES = {"Lagos", "Abia", "Anambra", "Enugu", "FCT", "Kano", "Kaduna", "Oyo",
+            "Ogun", "Rivers", "Delta", "Edo", "Imo", "Kwara", "Plateau", "Osun", "Ondo", "Borno", "Benue", "Sokoto"};
+
+    private final long seed;
+
+    public AccountSeeder(long seed) {
+        this.seed = seed;
+    }
+
+    // 11 digits starting with 8: never produced by the application's generators
+    public static String accountNumber(long index) {
+        return String.format("8%010d", index);
+    }
+
+    // Tops the users table up to the given number of seeded accounts; returns how many were inserted
+    public long seed(Connection connection, long accounts, long openingBalanceMinor) throws SQLException {
+        long existing = countSeeded(connection);
+        if (existing >= accounts) {
+            return 0;
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = connection.prepareStatement("insert into users (id, first_name, last_name, " +
+                "gender, address, state_of_origin, account_number, account_balance, balance_slots, email, phone_number, " +
+                "status, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, 'ACTIVE', ?, ?)")) {
+            for (long i = existing; i < accounts; i++) {
+                SplittableRandom random = new SplittableRandom(seed ^ (i * 0x9E3779B97F4A7C15L));
+                String firstName = FIRST_NAMES[skewed(random, FIRST_NAMES.length)];
+                String lastName = LAST_NAMES[skewed(random, LAST_NAMES.length)];
+                String state = STATES[skewed(random, STATES.length)];
+                insert.setLong(1, FIRST_ID + i);
+                insert.setString(2, firstName);
+                insert.setString(3, lastName);
+                insert.setString(4, random.nextBoolean() ? "M" : "F");
+                insert.setString(5, (1 + random.nextInt(300)) + " Market Road, " + state);
+                insert.setString(6, state);
+                insert.setString(7, accountNumber(i));
+                insert.setLong(8, openingBalanceMinor);
+                insert.setString(9, "load.user" + i + "@example.com");
+                insert.setString(10, String.format("070%08d", i));
+                insert.setTimestamp(11, now);
+                insert.setTimestamp(12, now);
+                insert.addBatch();
+                if ((i - existing + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                if ((i - existing + 1) % COMMIT_EVERY == 0) {
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return accounts - existing;
+    }
+
+    // Sum of the balances of seeded accounts 0 .. accounts - 1 in minor units, slots of striped accounts included
+    public static long totalBalance(Connection connection, long accounts) throws SQLException {
+        try (PreparedStatement sum = connection.prepareStatement("select coalesce(sum(u.account_balance), 0) + " +
+                "coalesce((select sum(s.balance) from account_slots s join users x on x.account_number = s.account_number " +
+                "where x.id >= ? and x.id < ?), 0) from users u where u.id >= ? and u.id < ?")) {
+            sum.setLong(1, FIRST_ID);
+            sum.setLong(2, FIRST_ID + accounts);
+            sum.setLong(3, FIRST_ID);
+            sum.setLong(4, FIRST_ID + accounts);
+            try (ResultSet result = sum.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    private static long countSeeded(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet count = statement.executeQuery("select count(*) from users where id >= " + FIRST_ID)) {
+            count.next();
+            return count.getLong(1);
+        }
+    }
+
+    // Low indexes much more likely than high ones
+    private static int skewed(SplittableRandom random, int size) {
+        double r = random.nextDouble();
+        return (int) (size * r * r);
+    }
+}
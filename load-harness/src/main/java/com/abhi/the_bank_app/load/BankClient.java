@@ -0,0 +1,196 @@
+package com.abhi.the_bank_app.load;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+// Builds the HTTP requests for each operation against /api/user and reads the responses. Money movements carry an
+// Idempotency-Key, so one whose outcome is unknown (e.g. it timed out) can be sent again to find out what happened
+// without moving the money twice.
+public class BankClient {
+
+    private static final String ACCOUNT_CREATED = "002";
+    private static final String ACCOUNT_FOUND = "004";
+    private static final String CREDITED = "005";
+    private static final String DEBITED = "007";
+    private static final String TRANSFERRED = "008";
+    private static final String ACCOUNT_NOT_EXIST = "User provided account not exist!";
+    private static final long MAX_AMOUNT_MINOR = 50_000;
+
+    public enum Outcome {
+        // The bank did what was asked
+        OK,
+        // The bank answered but refused, e.g. insufficient balance
+        REJECTED,
+        // No usable answer: a transport failure, a timeout or an HTTP error
+        ERROR
+    }
+
+    // One request, with what it does to the seeded accounts' total balance if it succeeds
+    public record Call(Operation operation, HttpRequest request, long creditMinor, long debitMinor) {
+    }
+
+    // Balances are read as BigDecimal, never through a double
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final long accounts;
+    private final ZipfSampler accountSampler;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong created = new AtomicLong();
+
+    public BankClient(String baseUrl, Duration timeout, long accounts, double zipfExponent) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.accounts = accounts;
+        this.accountSampler = new ZipfSampler(accounts, zipfExponent);
+        // The application is served over HTTP/1.1; keep-alive connections are pooled by the client
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    // Account 0 is the busiest, account 1 the next and so on
+    public String pickAccount(RandomGenerator random) {
+        return AccountSeeder.accountNumber(accountSampler.sample(random) - 1);
+    }
+
+    public Call call(Operation operation, RandomGenerator random) {
+        return switch (operation) {
+            case CREATE_ACCOUNT -> new Call(operation, post("", newAccount(random)), 0, 0);
+            case BALANCE_ENQUIRY -> new Call(operation, getWithBody("/balanceEnquiry", enquiry(pickAccount(random))), 0, 0);
+            case NAME_ENQUIRY -> new Call(operation, getWithBody("/nameEnquiry", enquiry(pickAccount(random))), 0, 0);
+            case CREDIT -> {
+                long amount = amount(random);
+                yield new Call(operation, moneyPost("/credit", creditDebit(pickAccount(random), amount)), amount, 0);
+            }
+            case DEBIT -> {
+                long amount = amount(random);
+                yield new Call(operation, moneyPost("/debit", creditDebit(pickAccount(random), amount)), 0, amount);
+            }
+            case TRANSFER -> {
+                String source = pickAccount(random);
+                String destination = pickAccount(random);
+                while (accounts > 1 && destination.equals(source)) {
+                    destination = pickAccount(random);
+                }
+                ObjectNode body = objectMapper.createObjectNode()
+                        .put("sourceAccountNumber", source)
+                        .put("destinationAccountNumber", destination)
+                        .put("amount", decimal(amount(random)));
+                yield new Call(operation, moneyPost("/transfer", body), 0, 0);
+            }
+        };
+    }
+
+    public HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    public Outcome outcome(Call call, HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            return Outcome.ERROR;
+        }
+        if (call.operation() == Operation.NAME_ENQUIRY) {
+            return ACCOUNT_NOT_EXIST.equals(response.body()) ? Outcome.REJECTED : Outcome.OK;
+        }
+        String expected = switch (call.operation()) {
+            case CREATE_ACCOUNT -> ACCOUNT_CREATED;
+            case BALANCE_ENQUIRY -> ACCOUNT_FOUND;
+            case CREDIT -> CREDITED;
+            case DEBIT -> DEBITED;
+            default -> TRANSFERRED;
+        };
+        try {
+            return expected.equals(objectMapper.readTree(response.body()).path("responseCode").asText())
+                    ? Outcome.OK : Outcome.REJECTED;
+        } catch (IOException e) {
+            return Outcome.ERROR;
+        }
+    }
+
+    // Current balance in minor units, or -1 when the account doesn't exist
+    public long balance(String accountNumber) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(getWithBody("/balanceEnquiry", enquiry(accountNumber)));
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Balance enquiry for " + accountNumber + " failed with HTTP " + response.statusCode());
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        if (!ACCOUNT_FOUND.equals(body.path("responseCode").asText())) {
+            return -1;
+        }
+        return body.path("accountInfo").path("accountBalance").decimalValue().movePointRight(2).longValueExact();
+    }
+
+    private ObjectNode newAccount(RandomGenerator random) {
+        long n = created.incrementAndGet();
+        return objectMapper.createObjectNode()
+                .put("firstName", "Load")
+                .put("lastName", "Tester" + n)
+                .put("gender", random.nextBoolean() ? "M" : "F")
+                .put("address", n + " Test Street")
+                .put("stateOfOrigin", "Lagos")
+                .put("email", "load." + runId + "." + n + "@example.com")
+                .put("phoneNumber", String.format("090%08d", n % 100_000_000));
+    }
+
+    private ObjectNode enquiry(String accountNumber) {
+        return objectMapper.createObjectNode().put("accountNumber", accountNumber);
+    }
+
+    private ObjectNode creditDebit(String accountNumber, long amountMinor) {
+        return objectMapper.createObjectNode()
+                .put("accountNumber", accountNumber)
+                .put("amount", decimal(amountMinor));
+    }
+
+    // 0.01 .. 500.00
+    private static long amount(RandomGenerator random) {
+        return 1 + random.nextLong(MAX_AMOUNT_MINOR);
+    }
+
+    private static BigDecimal decimal(long minor) {
+        return BigDecimal.valueOf(minor, 2);
+    }
+
+    private HttpRequest post(String path, ObjectNode body) {
+        return request(path).POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+    }
+
+    private HttpRequest moneyPost(String path, ObjectNode body) {
+        return request(path)
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    // balanceEnquiry and nameEnquiry are GETs that read a JSON body
+    private HttpRequest getWithBody(String path, ObjectNode body) {
+        return request(path).method("GET", HttpRequest.BodyPublishers.ofString(body.toString())).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/user" + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json");
+    }
+}
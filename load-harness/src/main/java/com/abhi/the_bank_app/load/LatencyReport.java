@@ -0,0 +1,119 @@
+package com.abhi.the_bank_app.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency and outcome counts per operation over the measurement window. Only requests scheduled inside the
+// window count, so warm-up traffic is left out. Latencies are recorded in microseconds into HdrHistograms; in the
+// open-loop mode they run from when a request was due, not when it was sent, so a stalled server shows up as the
+// queueing it causes instead of being hidden (coordinated omission).
+public class LatencyReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final long windowStart;
+    private final long windowEnd;
+
+    public LatencyReport(long windowStartNanos, long windowEndNanos) {
+        this.windowStart = windowStartNanos;
+        this.windowEnd = windowEndNanos;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public void record(Operation operation, BankClient.Outcome outcome, long scheduledNanos, long latencyNanos) {
+        if (scheduledNanos < windowStart || scheduledNanos >= windowEnd) {
+            return;
+        }
+        Stats operationStats = stats.get(operation);
+        operationStats.histogram.recordValue(Math.min(HIGHEST_MICROS, Math.max(1, latencyNanos / 1_000)));
+        if (outcome == BankClient.Outcome.REJECTED) {
+            operationStats.rejected.increment();
+        } else if (outcome == BankClient.Outcome.ERROR) {
+            operationStats.errors.increment();
+        }
+    }
+
+    // Open loop only: the request was due but max-in-flight were already outstanding, so it was never sent
+    public void dropped(Operation operation, long scheduledNanos) {
+        if (scheduledNanos >= windowStart && scheduledNanos < windowEnd) {
+            stats.get(operation).dropped.increment();
+        }
+    }
+
+    public long errors() {
+        return stats.values().stream().mapToLong(operationStats -> operationStats.errors.sum()).sum();
+    }
+
+    public void print(PrintStream out) {
+        double seconds = (windowEnd - windowStart) / 1e9;
+        out.printf(Locale.ROOT, "%-15s %9s %8s %9s %7s %7s %9s %9s %9s %9s %9s%n", "operation", "requests", "req/s",
+                "rejected", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(HIGHEST_MICROS, 3);
+        long rejected = 0;
+        long errors = 0;
+        long dropped = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            Histogram histogram = operationStats.histogram.copy();
+            if (histogram.getTotalCount() == 0 && operationStats.dropped.sum() == 0) {
+                continue;
+            }
+            all.add(histogram);
+            rejected += operationStats.rejected.sum();
+            errors += operationStats.errors.sum();
+            dropped += operationStats.dropped.sum();
+            printRow(out, entry.getKey().label(), histogram, seconds, operationStats.rejected.sum(),
+                    operationStats.errors.sum(), operationStats.dropped.sum());
+        }
+        printRow(out, "all", all, seconds, rejected, errors, dropped);
+    }
+
+    // One percentile distribution file per operation (<label>.hgrm, values in ms), readable by HdrHistogram's
+    // plotter, plus the summary table
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram.copy();
+            if (histogram.getTotalCount() > 0) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().label() + ".hgrm")))) {
+                    histogram.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("summary.txt")))) {
+            print(out);
+        }
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram histogram, double seconds, long rejected,
+                                 long errors, long dropped) {
+        out.printf(Locale.ROOT, "%-15s %9d %8.1f %9d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", label,
+                histogram.getTotalCount(), histogram.getTotalCount() / seconds, rejected, errors, dropped,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static class Stats {
+        final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+}
@@ -0,0 +1,150 @@
+package com.abhi.the_bank_app.load;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Replays the operation mix against the application, in one of two shapes:
+// - closed loop: a fixed number of clients, each sending its next request as soon as the last one is answered.
+//   Throughput is whatever the server manages; latency is measured from send to answer.
+// - open loop: requests are due at a fixed rate whatever the server does, the way independent customers arrive.
+//   Latency is measured from when a request was due, and requests that can't be sent because max-in-flight are
+//   already outstanding are counted as dropped.
+// Successful credits and debits are added up so the run can be checked for conservation of money afterwards.
+public class LoadDriver {
+
+    private static final int RESOLVE_ATTEMPTS = 3;
+
+    // What the run did to the seeded accounts' total balance
+    public record Result(long creditedMinor, long debitedMinor, long unresolved) {
+    }
+
+    private final BankClient client;
+    private final Operation.Mix mix;
+    private final long seed;
+    private final LongAdder credited = new LongAdder();
+    private final LongAdder debited = new LongAdder();
+    // Credits and debits that got no usable answer: they may or may not have been applied
+    private final Queue<BankClient.Call> unknown = new ConcurrentLinkedQueue<>();
+
+    public LoadDriver(BankClient client, Operation.Mix mix, long seed) {
+        this.client = client;
+        this.mix = mix;
+        this.seed = seed;
+    }
+
+    public LatencyReport runClosed(int clients, Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long windowStart = start + warmup.toNanos();
+        long end = windowStart + duration.toNanos();
+        LatencyReport report = new LatencyReport(windowStart, end);
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            SplittableRandom random = new SplittableRandom(seed + i);
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    BankClient.Call call = client.call(mix.next(random), random);
+                    long sent = System.nanoTime();
+                    BankClient.Outcome outcome;
+                    try {
+                        outcome = settle(call, client.send(call.request()));
+                    } catch (IOException e) {
+                        outcome = settle(call, null);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    report.record(call.operation(), outcome, sent, System.nanoTime() - sent);
+                }
+            }, "load-client-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return report;
+    }
+
+    public LatencyReport runOpen(double rate, int maxInFlight, Duration warmup, Duration duration)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long windowStart = start + warmup.toNanos();
+        long end = windowStart + duration.toNanos();
+        LatencyReport report = new LatencyReport(windowStart, end);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        SplittableRandom random = new SplittableRandom(seed);
+        double interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * interval);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            BankClient.Call call = client.call(mix.next(random), random);
+            if (!inFlight.tryAcquire()) {
+                report.dropped(call.operation(), due);
+                continue;
+            }
+            client.sendAsync(call.request()).whenComplete((response, failure) -> {
+                try {
+                    report.record(call.operation(), settle(call, response), due, System.nanoTime() - due);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        // Let the stragglers finish so their outcomes are counted
+        inFlight.acquire(maxInFlight);
+        return report;
+    }
+
+    // Sends each credit or debit with an unknown outcome again under the same Idempotency-Key: the application
+    // either applies it now or answers with what it did the first time, so the money is never moved twice
+    public Result resolve() throws InterruptedException {
+        long unresolved = 0;
+        BankClient.Call call;
+        while ((call = unknown.poll()) != null) {
+            BankClient.Outcome outcome = BankClient.Outcome.ERROR;
+            for (int attempt = 0; attempt < RESOLVE_ATTEMPTS && outcome == BankClient.Outcome.ERROR; attempt++) {
+                try {
+                    outcome = count(call, client.outcome(call, client.send(call.request())));
+                } catch (IOException e) {
+                    outcome = BankClient.Outcome.ERROR;
+                }
+            }
+            if (outcome == BankClient.Outcome.ERROR) {
+                unresolved++;
+            }
+        }
+        return new Result(credited.sum(), debited.sum(), unresolved);
+    }
+
+    private BankClient.Outcome settle(BankClient.Call call, HttpResponse<String> response) {
+        BankClient.Outcome outcome = response == null ? BankClient.Outcome.ERROR : client.outcome(call, response);
+        if (outcome == BankClient.Outcome.ERROR && (call.creditMinor() != 0 || call.debitMinor() != 0)) {
+            unknown.add(call);
+        }
+        return count(call, outcome);
+    }
+
+    private BankClient.Outcome count(BankClient.Call call, BankClient.Outcome outcome) {
+        if (outcome == BankClient.Outcome.OK) {
+            credited.add(call.creditMinor());
+            debited.add(call.debitMinor());
+        }
+        return outcome;
+    }
+}
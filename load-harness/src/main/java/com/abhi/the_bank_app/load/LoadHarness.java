@@ -0,0 +1,188 @@
+package com.abhi.the_bank_app.load;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Command line entry point.
+//   seed  writes N accounts straight into the application's database
+//   run   replays the operation mix against a running application, prints a latency table per endpoint and checks
+//         that the seeded accounts' total balance moved by exactly what the successful credits and debits say
+// Options are --name=value; run without arguments for the list.
+public class LoadHarness {
+
+    private static final String USAGE = """
+            Usage:
+              seed --jdbc-url=URL [--user=sa] [--password=sa] --accounts=N [--opening-balance=1000.00] [--seed=42]
+              run  [--base-url=http://localhost:8080] --accounts=N [--mode=closed|open] [--clients=16]
+                   [--rate=500] [--max-in-flight=1000] [--warmup=PT30S] [--duration=PT2M]
+                   [--mix=%s]
+                   [--zipf-exponent=1.0] [--timeout=PT10S] [--seed=42] [--report-dir=DIR]
+                   [--check-balances=true] [--jdbc-url=URL [--user=sa] [--password=sa]]
+
+            The accounts passed to run must already have been seeded. The balance check reads the totals through
+            the JDBC URL when one is given (an H2 file database needs ;AUTO_SERVER=TRUE on both sides), otherwise
+            through a balance enquiry per account. Nothing else may move money on the seeded accounts during the
+            run, e.g. an end-of-day run.
+            """.formatted(Operation.DEFAULT_MIX);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.print(USAGE);
+            return;
+        }
+        Map<String, String> options = options(args);
+        int status = switch (args[0]) {
+            case "seed" -> seed(options);
+            case "run" -> run(options);
+            default -> {
+                System.err.print(USAGE);
+                yield 2;
+            }
+        };
+        System.exit(status);
+    }
+
+    private static int seed(Map<String, String> options) throws SQLException {
+        long accounts = Long.parseLong(required(options, "accounts"));
+        long openingBalance = minor(options.getOrDefault("opening-balance", "1000.00"));
+        long started = System.nanoTime();
+        long inserted;
+        try (Connection connection = connect(options)) {
+            inserted = new AccountSeeder(Long.parseLong(options.getOrDefault("seed", "42")))
+                    .seed(connection, accounts, openingBalance);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf(Locale.ROOT, "Inserted %d accounts in %.1f s (%.0f rows/s)%n", inserted, seconds,
+                inserted / seconds);
+        return 0;
+    }
+
+    private static int run(Map<String, String> options) throws Exception {
+        long accounts = Long.parseLong(required(options, "accounts"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT30S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT2M"));
+        boolean checkBalances = Boolean.parseBoolean(options.getOrDefault("check-balances", "true"));
+        Operation.Mix mix = new Operation.Mix(options.getOrDefault("mix", Operation.DEFAULT_MIX));
+        BankClient client = new BankClient(options.getOrDefault("base-url", "http://localhost:8080"),
+                Duration.parse(options.getOrDefault("timeout", "PT10S")), accounts,
+                Double.parseDouble(options.getOrDefault("zipf-exponent", "1.0")));
+        LoadDriver driver = new LoadDriver(client, mix, seed);
+
+        long before = checkBalances ? totalBalance(options, client, accounts) : 0;
+        String mode = options.getOrDefault("mode", "closed");
+        System.out.printf("%s loop over %d accounts, mix: %s%n", mode, accounts, mix);
+        LatencyReport report = switch (mode) {
+            case "closed" -> driver.runClosed(Integer.parseInt(options.getOrDefault("clients", "16")), warmup, duration);
+            case "open" -> driver.runOpen(Double.parseDouble(options.getOrDefault("rate", "500")),
+                    Integer.parseInt(options.getOrDefault("max-in-flight", "1000")), warmup, duration);
+            default -> throw new IllegalArgumentException("--mode is closed or open, not " + mode);
+        };
+        LoadDriver.Result result = driver.resolve();
+        report.print(System.out);
+        if (options.containsKey("report-dir")) {
+            report.write(Path.of(options.get("report-dir")));
+        }
+        if (!checkBalances) {
+            return 0;
+        }
+
+        long after = totalBalance(options, client, accounts);
+        long expected = result.creditedMinor() - result.debitedMinor();
+        System.out.printf("Balance check: before %s, after %s, credited %s, debited %s%n", decimal(before),
+                decimal(after), decimal(result.creditedMinor()), decimal(result.debitedMinor()));
+        if (result.unresolved() > 0) {
+            System.out.printf("Balance check inconclusive: %d credits or debits still have no known outcome%n",
+                    result.unresolved());
+            return 1;
+        }
+        if (after - before != expected) {
+            System.out.printf("Balance check FAILED: the total moved by %s, the successful calls account for %s%n",
+                    decimal(after - before), decimal(expected));
+            return 1;
+        }
+        System.out.println("Balance check passed: money was conserved");
+        return 0;
+    }
+
+    private static long totalBalance(Map<String, String> options, BankClient client, long accounts) throws Exception {
+        if (options.containsKey("jdbc-url")) {
+            try (Connection connection = connect(options)) {
+                return AccountSeeder.totalBalance(connection, accounts);
+            }
+        }
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> parts = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                long from = accounts * t / threads;
+                long to = accounts * (t + 1) / threads;
+                parts.add(executor.submit(() -> {
+                    long sum = 0;
+                    for (long i = from; i < to; i++) {
+                        long balance = client.balance(AccountSeeder.accountNumber(i));
+                        if (balance < 0) {
+                            throw new IllegalStateException("Account " + AccountSeeder.accountNumber(i)
+                                    + " doesn't exist; seed the accounts before the run");
+                        }
+                        sum += balance;
+                    }
+                    return sum;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> part : parts) {
+                total += part.get();
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Connection connect(Map<String, String> options) throws SQLException {
+        return DriverManager.getConnection(required(options, "jdbc-url"), options.getOrDefault("user", "sa"),
+                options.getOrDefault("password", "sa"));
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].startsWith("--") || !args[i].contains("=")) {
+                throw new IllegalArgumentException("Options look like --name=value, not '" + args[i] + "'");
+            }
+            int equals = args[i].indexOf('=');
+            options.put(args[i].substring(2, equals), args[i].substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " is required");
+        }
+        return value;
+    }
+
+    private static long minor(String amount) {
+        return new BigDecimal(amount).movePointRight(2).longValueExact();
+    }
+
+    private static String decimal(long minor) {
+        return BigDecimal.valueOf(minor, 2).toPlainString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.abhi.the_bank_app.load;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+// The UserController endpoints the driver calls, by the name used in --mix
+public enum Operation {
+
+    CREATE_ACCOUNT("createAccount"),
+    BALANCE_ENQUIRY("balanceEnquiry"),
+    NAME_ENQUIRY("nameEnquiry"),
+    CREDIT("credit"),
+    DEBIT("debit"),
+    TRANSFER("transfer");
+
+    public static final String DEFAULT_MIX =
+            "balanceEnquiry=35,nameEnquiry=20,credit=15,debit=10,transfer=15,createAccount=5";
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static Operation byLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equalsIgnoreCase(label.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + label + "'; expected one of "
+                + Arrays.stream(values()).map(Operation::label).toList());
+    }
+
+    // Weighted choice between operations, e.g. "balanceEnquiry=70,transfer=30"
+    public static class Mix {
+
+        private final Operation[] operations;
+        private final double[] cumulative;
+
+        public Mix(String spec) {
+            Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.split("=");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Mix entries look like name=weight, not '" + entry + "'");
+                }
+                double weight = Double.parseDouble(parts[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative weight for " + parts[0]);
+                }
+                weights.merge(byLabel(parts[0]), weight, Double::sum);
+            }
+            weights.values().removeIf(weight -> weight == 0);
+            double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+            if (total == 0) {
+                throw new IllegalArgumentException("The mix has no operation with a weight above 0");
+            }
+            operations = weights.keySet().toArray(new Operation[0]);
+            cumulative = new double[operations.length];
+            double sum = 0;
+            for (int i = 0; i < operations.length; i++) {
+                sum += weights.get(operations[i]) / total;
+                cumulative[i] = sum;
+            }
+            cumulative[operations.length - 1] = 1;
+        }
+
+        public Operation next(RandomGenerator random) {
+            double draw = random.nextDouble();
+            for (int i = 0; i < cumulative.length; i++) {
+                if (draw < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder description = new StringBuilder();
+            double previous = 0;
+            for (int i = 0; i < operations.length; i++) {
+                description.append(i == 0 ? "" : ", ").append(operations[i].label())
+                        .append(String.format(Locale.ROOT, " %.0f%%", (cumulative[i] - previous) * 100));
+                previous = cumulative[i];
+            }
+            return description.toString();
+        }
+    }
+}
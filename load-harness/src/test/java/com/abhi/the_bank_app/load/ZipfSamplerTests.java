@@ -0,0 +1,55 @@
+package com.abhi.the_bank_app.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfSamplerTests {
+
+	@Test
+	void ranksFollowTheZipfDistribution() {
+		int n = 10;
+		int draws = 200_000;
+		ZipfSampler sampler = new ZipfSampler(n, 1.0);
+		SplittableRandom random = new SplittableRandom(7);
+		long[] counts = new long[n + 1];
+		for (int i = 0; i < draws; i++) {
+			counts[(int) sampler.sample(random)]++;
+		}
+
+		double harmonic = 0;
+		for (int k = 1; k <= n; k++) {
+			harmonic += 1.0 / k;
+		}
+		for (int k = 1; k <= n; k++) {
+			assertThat((double) counts[k] / draws).isCloseTo(1 / (k * harmonic), within(0.005));
+		}
+	}
+
+	@Test
+	void staysInRangeForHugeUniverses() {
+		ZipfSampler sampler = new ZipfSampler(5_000_000_000L, 1.2);
+		SplittableRandom random = new SplittableRandom(7);
+		for (int i = 0; i < 100_000; i++) {
+			assertThat(sampler.sample(random)).isBetween(1L, 5_000_000_000L);
+		}
+	}
+
+	@Test
+	void mixDrawsOperationsByWeight() {
+		Operation.Mix mix = new Operation.Mix("balanceEnquiry=3,transfer=1,credit=0");
+		SplittableRandom random = new SplittableRandom(7);
+		int transfers = 0;
+		for (int i = 0; i < 100_000; i++) {
+			Operation operation = mix.next(random);
+			assertThat(operation).isIn(Operation.BALANCE_ENQUIRY, Operation.TRANSFER);
+			if (operation == Operation.TRANSFER) {
+				transfers++;
+			}
+		}
+		assertThat(transfers / 100_000.0).isCloseTo(0.25, within(0.01));
+	}
+}
@@ -0,0 +1,165 @@
+package com.abhi.the_bank_app.grpc;
+
+import com.abhi.the_bank_app.grpc.proto.AccountEnquiry;
+import com.abhi.the_bank_app.grpc.proto.BankReply;
+import com.abhi.the_bank_app.grpc.proto.CreditDebit;
+import com.abhi.the_bank_app.grpc.proto.MoneyTransfer;
+import com.abhi.the_bank_app.grpc.proto.NewAccount;
+import com.abhi.the_bank_app.grpc.proto.UserServiceGrpc;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserGrpcServiceTests {
+
+	@Autowired
+	private GrpcServer grpcServer;
+
+	private ManagedChannel channel;
+	private UserServiceGrpc.UserServiceBlockingStub blockingStub;
+
+	@BeforeEach
+	void connect() {
+		channel = ManagedChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+		blockingStub = UserServiceGrpc.newBlockingStub(channel);
+	}
+
+	@AfterEach
+	void disconnect() throws InterruptedException {
+		channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void unaryCallsMirrorTheRestApi() {
+		String source = createAccount("Source");
+		String destination = createAccount("Destination");
+
+		CreditDebit credit = CreditDebit.newBuilder()
+				.setAccountNumber(source)
+				.setAmountMinor(100_00)
+				.setIdempotencyKey("grpc-credit-" + System.nanoTime())
+				.build();
+		assertThat(blockingStub.creditAccount(credit).getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_CREDITEd_SUCCESS);
+		// A retry with the same key is answered from the idempotency store and doesn't credit again
+		assertThat(blockingStub.creditAccount(credit).getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_CREDITEd_SUCCESS);
+		assertThat(blockingStub.debitAccount(CreditDebit.newBuilder().setAccountNumber(source).setAmountMinor(250_00).build())
+				.getResponseCode()).isEqualTo("006");
+		assertThat(blockingStub.transfer(transfer(source, destination, 40_25)).getResponseCode())
+				.isEqualTo(AccountUtils.TRANSFER_SUCCESS_CODE);
+
+		BankReply balance = blockingStub.balanceEnquiry(enquiry(source));
+		assertThat(balance.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_FOUND_CODE);
+		assertThat(balance.getAccountInfo().getAccountBalanceMinor()).isEqualTo(59_75);
+		assertThat(blockingStub.nameEnquiry(enquiry(destination)).getAccountName()).startsWith("Grpc Destination");
+
+		BankReply unknown = blockingStub.balanceEnquiry(enquiry("NOSUCHACCOUNT"));
+		assertThat(unknown.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_NOT_EXIST_CODE);
+		assertThat(unknown.hasAccountInfo()).isFalse();
+		assertThat(blockingStub.nameEnquiry(enquiry("NOSUCHACCOUNT")).getAccountName())
+				.isEqualTo(AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE);
+	}
+
+	@Test
+	void nonPositiveAmountsAreRejected() {
+		String source = createAccount("NegativeSource");
+		String destination = createAccount("NegativeDestination");
+		blockingStub.creditAccount(CreditDebit.newBuilder().setAccountNumber(destination).setAmountMinor(10_00).build());
+
+		for (long amountMinor : new long[] {0, -5_00}) {
+			assertThat(blockingStub.creditAccount(CreditDebit.newBuilder().setAccountNumber(source)
+					.setAmountMinor(amountMinor).build()).getResponseCode()).isEqualTo(AccountUtils.INVALID_REQUEST_CODE);
+			assertThat(blockingStub.debitAccount(CreditDebit.newBuilder().setAccountNumber(source)
+					.setAmountMinor(amountMinor).build()).getResponseCode()).isEqualTo(AccountUtils.INVALID_REQUEST_CODE);
+			assertThat(blockingStub.transfer(transfer(source, destination, amountMinor)).getResponseCode())
+					.isEqualTo(AccountUtils.INVALID_REQUEST_CODE);
+		}
+		assertThat(blockingStub.balanceEnquiry(enquiry(source)).getAccountInfo().getAccountBalanceMinor()).isZero();
+		assertThat(blockingStub.balanceEnquiry(enquiry(destination)).getAccountInfo().getAccountBalanceMinor())
+				.isEqualTo(10_00);
+	}
+
+	@Test
+	void transferStreamAnswersEveryRequestInOrder() throws Exception {
+		String source = createAccount("StreamSource");
+		String destination = createAccount("StreamDestination");
+		blockingStub.creditAccount(CreditDebit.newBuilder().setAccountNumber(source).setAmountMinor(10_00).build());
+
+		// 1.00 each: the first ten apply, the rest bounce on insufficient funds, and every fifth goes nowhere
+		List<BankReply> replies = new ArrayList<>();
+		CompletableFuture<Void> completed = new CompletableFuture<>();
+		StreamObserver<MoneyTransfer> requests = UserServiceGrpc.newStub(channel).transfers(new StreamObserver<>() {
+			@Override
+			public void onNext(BankReply reply) {
+				replies.add(reply);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				completed.completeExceptionally(t);
+			}
+
+			@Override
+			public void onCompleted() {
+				completed.complete(null);
+			}
+		});
+		for (int i = 0; i < 500; i++) {
+			requests.onNext(transfer(source, i % 5 == 4 ? "NOSUCHACCOUNT" : destination, 1_00));
+		}
+		requests.onCompleted();
+		completed.get(30, TimeUnit.SECONDS);
+
+		assertThat(replies).hasSize(500);
+		int applied = 0;
+		for (int i = 0; i < replies.size(); i++) {
+			String code = replies.get(i).getResponseCode();
+			if (i % 5 == 4) {
+				assertThat(code).as("reply %d", i).isEqualTo(AccountUtils.ACCOUNT_NOT_EXIST_CODE);
+			} else if (applied < 10) {
+				assertThat(code).as("reply %d", i).isEqualTo(AccountUtils.TRANSFER_SUCCESS_CODE);
+				applied++;
+			} else {
+				assertThat(code).as("reply %d", i).isEqualTo("006");
+			}
+		}
+		assertThat(blockingStub.balanceEnquiry(enquiry(source)).getAccountInfo().getAccountBalanceMinor()).isZero();
+		assertThat(blockingStub.balanceEnquiry(enquiry(destination)).getAccountInfo().getAccountBalanceMinor())
+				.isEqualTo(10_00);
+	}
+
+	private String createAccount(String lastName) {
+		BankReply created = blockingStub.createAccount(NewAccount.newBuilder()
+				.setFirstName("Grpc")
+				.setLastName(lastName)
+				.setEmail("grpc-" + lastName.toLowerCase() + "-" + System.nanoTime() + "@example.com")
+				.build());
+		assertThat(created.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_CREATION_SUCCESS);
+		return created.getAccountInfo().getAccountNumber();
+	}
+
+	private static AccountEnquiry enquiry(String accountNumber) {
+		return AccountEnquiry.newBuilder().setAccountNumber(accountNumber).build();
+	}
+
+	private static MoneyTransfer transfer(String source, String destination, long amountMinor) {
+		return MoneyTransfer.newBuilder()
+				.setSourceAccountNumber(source)
+				.setDestinationAccountNumber(destination)
+				.setAmountMinor(amountMinor)
+				.build();
+	}
+}
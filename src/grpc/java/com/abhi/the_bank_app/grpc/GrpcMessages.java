@@ -0,0 +1,76 @@
+package com.abhi.the_bank_app.grpc;
+
+import com.abhi.the_bank_app.dto.AccountInfo;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.grpc.proto.AccountDetails;
+import com.abhi.the_bank_app.grpc.proto.AccountEnquiry;
+import com.abhi.the_bank_app.grpc.proto.BankReply;
+import com.abhi.the_bank_app.grpc.proto.CreditDebit;
+import com.abhi.the_bank_app.grpc.proto.MoneyTransfer;
+import com.abhi.the_bank_app.grpc.proto.NewAccount;
+import com.abhi.the_bank_app.money.Money;
+
+// Converts between the protobuf messages and the DTOs the service layer takes. proto3 can't tell an empty string
+// from a missing one, so empty strings become null, as a field left out of the JSON would.
+final class GrpcMessages {
+
+    private GrpcMessages() {
+    }
+
+    static UserRequest userRequest(NewAccount account) {
+        return UserRequest.builder()
+                .firstName(emptyToNull(account.getFirstName()))
+                .lastName(emptyToNull(account.getLastName()))
+                .otherName(emptyToNull(account.getOtherName()))
+                .gender(emptyToNull(account.getGender()))
+                .address(emptyToNull(account.getAddress()))
+                .stateOfOrigin(emptyToNull(account.getStateOfOrigin()))
+                .email(emptyToNull(account.getEmail()))
+                .phoneNumber(emptyToNull(account.getPhoneNumber()))
+                .alternativePhoneNumber(emptyToNull(account.getAlternativePhoneNumber()))
+                .build();
+    }
+
+    static EnquiryRequest enquiryRequest(AccountEnquiry enquiry) {
+        return new EnquiryRequest(emptyToNull(enquiry.getAccountNumber()));
+    }
+
+    static CreditDebitRequest creditDebitRequest(CreditDebit creditDebit) {
+        return new CreditDebitRequest(emptyToNull(creditDebit.getAccountNumber()),
+                Money.ofMinor(creditDebit.getAmountMinor()));
+    }
+
+    static TransferRequest transferRequest(MoneyTransfer transfer) {
+        return new TransferRequest(emptyToNull(transfer.getSourceAccountNumber()),
+                emptyToNull(transfer.getDestinationAccountNumber()), Money.ofMinor(transfer.getAmountMinor()));
+    }
+
+    static BankReply bankReply(BankResponse response) {
+        BankReply.Builder reply = BankReply.newBuilder()
+                .setResponseCode(nullToEmpty(response.getResponseCode()))
+                .setResponseMessage(nullToEmpty(response.getResponseMessage()));
+        AccountInfo info = response.getAccountInfo();
+        if (info != null) {
+            AccountDetails.Builder details = AccountDetails.newBuilder()
+                    .setAccountName(nullToEmpty(info.getAccountName()))
+                    .setAccountNumber(nullToEmpty(info.getAccountNumber()));
+            if (info.getAccountBalance() != null) {
+                details.setAccountBalanceMinor(info.getAccountBalance().getMinorUnits());
+            }
+            reply.setAccountInfo(details);
+        }
+        return reply.build();
+    }
+
+    static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
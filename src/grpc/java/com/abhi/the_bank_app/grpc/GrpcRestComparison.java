@@ -0,0 +1,431 @@
+package com.abhi.the_bank_app.grpc;
+
+import com.abhi.the_bank_app.grpc.proto.AccountEnquiry;
+import com.abhi.the_bank_app.grpc.proto.BankReply;
+import com.abhi.the_bank_app.grpc.proto.CreditDebit;
+import com.abhi.the_bank_app.grpc.proto.MoneyTransfer;
+import com.abhi.the_bank_app.grpc.proto.NewAccount;
+import com.abhi.the_bank_app.grpc.proto.UserServiceGrpc;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Compares the JSON REST API with the gRPC endpoint of one running app over loopback, for a balance enquiry and a
+// transfer, each made three ways: REST over HTTP/1.1, gRPC unary calls, and one gRPC stream per client. For each:
+//  - bytes per request and per reply on the connection, headers and framing included. A pass-through TCP proxy
+//    counts them over a short run of one client, once its connection is open;
+//  - CPU per request of the server process (user + system time from /proc/<pid>/stat, less what it burns idle)
+//    and of this client process, over the timed run;
+//  - p50 and p99 latency of a closed loop: each client sends its next request when the previous answer arrives.
+// The timed runs don't go through the proxy. The gRPC clients share one channel, i.e. one HTTP/2 connection, as a
+// caller's stub would; the REST clients share the JDK client's pool of keep-alive connections. Start the app with
+// -Pgrpc, then:
+//   java -cp <grpc classpath> com.abhi.the_bank_app.grpc.GrpcRestComparison http://localhost:8080 localhost:9090 <server pid>
+// Optional further arguments: clients (16), seconds per run (20), warm-up seconds per run (5), accounts (200).
+public class GrpcRestComparison {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // USER_HZ, the unit of the CPU times in /proc/<pid>/stat
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final int SIZING_CALLS = 1_000;
+
+    private enum Transport { REST, GRPC_UNARY, GRPC_STREAM }
+
+    private enum Operation {
+        BALANCE_ENQUIRY(AccountUtils.ACCOUNT_FOUND_CODE),
+        TRANSFER(AccountUtils.TRANSFER_SUCCESS_CODE);
+
+        private final String successCode;
+
+        Operation(String successCode) {
+            this.successCode = successCode;
+        }
+    }
+
+    // One client's connection for one operation; it returns the response code. A stream caller has its own stream.
+    private interface Caller extends AutoCloseable {
+
+        String call(String source, String destination) throws Exception;
+
+        @Override
+        default void close() {
+        }
+    }
+
+    private final URI restUri;
+    private final String grpcTarget;
+    private final long serverPid;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    GrpcRestComparison(URI restUri, String grpcTarget, long serverPid) {
+        this.restUri = restUri;
+        this.grpcTarget = grpcTarget;
+        this.serverPid = serverPid;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: GrpcRestComparison <base url> <grpc host:port> <server pid> [clients] [seconds] "
+                    + "[warm-up seconds] [accounts]");
+            System.exit(2);
+        }
+        GrpcRestComparison comparison = new GrpcRestComparison(URI.create(args[0]), args[1], Long.parseLong(args[2]));
+        int clients = argument(args, 3, 16);
+        Duration duration = Duration.ofSeconds(argument(args, 4, 20));
+        Duration warmup = Duration.ofSeconds(argument(args, 5, 5));
+        int accounts = argument(args, 6, 200);
+
+        ManagedChannel channel = ManagedChannelBuilder.forTarget(args[1]).usePlaintext().build();
+        try {
+            List<String> accountNumbers = comparison.createAccounts(channel, accounts);
+            double idleTicksPerSecond = comparison.idleTicksPerSecond();
+            System.out.printf(Locale.ROOT, "%-15s %-11s %7s %7s %9s %8s %7s %7s %10s %10s %6s%n", "operation",
+                    "transport", "req B", "reply B", "requests", "req/s", "p50 ms", "p99 ms", "server us", "client us",
+                    "errors");
+            for (Operation operation : Operation.values()) {
+                for (Transport transport : Transport.values()) {
+                    comparison.compare(operation, transport, channel, accountNumbers, clients, warmup, duration,
+                            idleTicksPerSecond);
+                }
+            }
+            System.out.println("req B and reply B are bytes on the connection per call; server us and client us are "
+                    + "CPU microseconds per call");
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static int argument(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    List<String> createAccounts(ManagedChannel channel, int count) {
+        UserServiceGrpc.UserServiceBlockingStub stub = UserServiceGrpc.newBlockingStub(channel);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<String> accountNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String accountNumber = stub.createAccount(NewAccount.newBuilder()
+                    .setFirstName("Load")
+                    .setLastName("Test" + i)
+                    .setEmail("grpc-load-" + run + "-" + i + "@example.com")
+                    .build()).getAccountInfo().getAccountNumber();
+            stub.creditAccount(CreditDebit.newBuilder().setAccountNumber(accountNumber).setAmountMinor(100_000_000).build());
+            accountNumbers.add(accountNumber);
+        }
+        return accountNumbers;
+    }
+
+    // What the server burns with nothing to do (schedulers, outbox polls), so it isn't charged to the requests
+    double idleTicksPerSecond() throws Exception {
+        Thread.sleep(2_000);
+        long before = serverCpuTicks();
+        Thread.sleep(5_000);
+        return (serverCpuTicks() - before) / 5.0;
+    }
+
+    void compare(Operation operation, Transport transport, ManagedChannel channel, List<String> accountNumbers,
+                 int clients, Duration warmup, Duration duration, double idleTicksPerSecond) throws Exception {
+        long[] bytesPerCall = bytesPerCall(operation, transport, accountNumbers);
+
+        List<Caller> callers = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            callers.add(caller(operation, transport, restUri, channel));
+        }
+        try {
+            closedLoop(operation, callers, accountNumbers, warmup, new AtomicLong());
+
+            AtomicLong errors = new AtomicLong();
+            long serverTicks = serverCpuTicks();
+            long clientNanos = clientCpuNanos();
+            long started = System.nanoTime();
+            long[] latencies = closedLoop(operation, callers, accountNumbers, duration, errors);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            double serverMicros = Math.max(0, serverCpuTicks() - serverTicks - idleTicksPerSecond * seconds)
+                    * 1e6 / CLOCK_TICKS_PER_SECOND;
+            double clientMicros = (clientCpuNanos() - clientNanos) / 1e3;
+
+            int calls = Math.max(1, latencies.length);
+            System.out.printf(Locale.ROOT, "%-15s %-11s %7d %7d %9d %8.0f %7.2f %7.2f %10.0f %10.0f %6d%n",
+                    operation.name().toLowerCase(), transport.name().toLowerCase(), bytesPerCall[0], bytesPerCall[1],
+                    latencies.length, latencies.length / seconds, percentile(latencies, 0.50),
+                    percentile(latencies, 0.99), serverMicros / calls, clientMicros / calls, errors.get());
+        } finally {
+            callers.forEach(Caller::close);
+        }
+    }
+
+    // Bytes per call each way, through the proxy: one call opens the connection, then the next ones are counted
+    private long[] bytesPerCall(Operation operation, Transport transport, List<String> accountNumbers) throws Exception {
+        String[] hostAndPort = transport == Transport.REST
+                ? new String[]{restUri.getHost(), Integer.toString(restUri.getPort())}
+                : grpcTarget.split(":");
+        try (CountingProxy proxy = new CountingProxy(hostAndPort[0], Integer.parseInt(hostAndPort[1]))) {
+            ManagedChannel proxyChannel = ManagedChannelBuilder.forAddress("localhost", proxy.port()).usePlaintext().build();
+            URI proxyUri = URI.create("http://localhost:" + proxy.port());
+            try (Caller caller = caller(operation, transport, proxyUri, proxyChannel)) {
+                caller.call(accountNumbers.get(0), accountNumbers.get(1));
+                long toServer = proxy.toServer.get();
+                long toClient = proxy.toClient.get();
+                for (int i = 0; i < SIZING_CALLS; i++) {
+                    caller.call(accountNumbers.get(i % accountNumbers.size()),
+                            accountNumbers.get((i + 1) % accountNumbers.size()));
+                }
+                return new long[]{(proxy.toServer.get() - toServer) / SIZING_CALLS,
+                        (proxy.toClient.get() - toClient) / SIZING_CALLS};
+            } finally {
+                proxyChannel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    // Each client sends its next request as soon as the previous answer arrives; returns the sorted latencies
+    private static long[] closedLoop(Operation operation, List<Caller> callers, List<String> accountNumbers,
+                                     Duration duration, AtomicLong errors) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> results = new ArrayList<>(callers.size());
+        ExecutorService pool = Executors.newFixedThreadPool(callers.size());
+        try {
+            for (Caller caller : callers) {
+                results.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] latencies = new long[1024];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        String source = accountNumbers.get(random.nextInt(accountNumbers.size()));
+                        String destination = accountNumbers.get(random.nextInt(accountNumbers.size()));
+                        long started = System.nanoTime();
+                        try {
+                            if (!operation.successCode.equals(caller.call(source, destination))) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (n == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, n * 2);
+                        }
+                        latencies[n++] = System.nanoTime() - started;
+                    }
+                    return Arrays.copyOf(latencies, n);
+                }));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private Caller caller(Operation operation, Transport transport, URI uri, ManagedChannel channel) {
+        UserServiceGrpc.UserServiceBlockingStub blockingStub = UserServiceGrpc.newBlockingStub(channel);
+        UserServiceGrpc.UserServiceStub stub = UserServiceGrpc.newStub(channel);
+        return switch (transport) {
+            case REST -> operation == Operation.BALANCE_ENQUIRY
+                    ? (source, destination) -> rest(uri, "GET", "/api/user/balanceEnquiry",
+                            "{\"accountNumber\":\"" + source + "\"}")
+                    : (source, destination) -> rest(uri, "POST", "/api/user/transfer",
+                            "{\"sourceAccountNumber\":\"" + source + "\",\"destinationAccountNumber\":\"" + destination
+                                    + "\",\"amount\":1.00}");
+            case GRPC_UNARY -> operation == Operation.BALANCE_ENQUIRY
+                    ? (source, destination) -> blockingStub.balanceEnquiry(enquiry(source)).getResponseCode()
+                    : (source, destination) -> blockingStub.transfer(transfer(source, destination)).getResponseCode();
+            case GRPC_STREAM -> operation == Operation.BALANCE_ENQUIRY
+                    ? new StreamCaller<>(stub::balanceEnquiries, (source, destination) -> enquiry(source))
+                    : new StreamCaller<>(stub::transfers, GrpcRestComparison::transfer);
+        };
+    }
+
+    private String rest(URI uri, String method, String path, String json) throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri.resolve(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException(path + " returned " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body()).path("responseCode").asText();
+    }
+
+    private static AccountEnquiry enquiry(String accountNumber) {
+        return AccountEnquiry.newBuilder().setAccountNumber(accountNumber).build();
+    }
+
+    private static MoneyTransfer transfer(String source, String destination) {
+        return MoneyTransfer.newBuilder()
+                .setSourceAccountNumber(source)
+                .setDestinationAccountNumber(destination)
+                .setAmountMinor(1_00)
+                .build();
+    }
+
+    // Sends a request down the client's stream and waits for its reply, so calls are made one at a time like the
+    // unary ones. A stream that failed stays failed.
+    private static final class StreamCaller<Q> implements Caller {
+
+        private final BlockingQueue<Object> replies = new ArrayBlockingQueue<>(1);
+        private final BiFunction<String, String, Q> message;
+        private final StreamObserver<Q> requests;
+        private Throwable failure;
+
+        StreamCaller(Function<StreamObserver<BankReply>, StreamObserver<Q>> open, BiFunction<String, String, Q> message) {
+            this.message = message;
+            this.requests = open.apply(new StreamObserver<>() {
+                @Override
+                public void onNext(BankReply reply) {
+                    replies.add(reply);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    replies.add(t);
+                }
+
+                @Override
+                public void onCompleted() {
+                }
+            });
+        }
+
+        @Override
+        public String call(String source, String destination) throws Exception {
+            if (failure != null) {
+                throw new IOException("stream failed", failure);
+            }
+            requests.onNext(message.apply(source, destination));
+            Object reply = replies.take();
+            if (reply instanceof Throwable t) {
+                failure = t;
+                throw new IOException("stream failed", t);
+            }
+            return ((BankReply) reply).getResponseCode();
+        }
+
+        @Override
+        public void close() {
+            if (failure == null) {
+                requests.onCompleted();
+            }
+        }
+    }
+
+    private long serverCpuTicks() throws IOException {
+        // The command name in field 2 may contain spaces, so count the fields from the ")" that closes it:
+        // utime and stime are fields 14 and 15
+        String stat = Files.readString(Path.of("/proc", Long.toString(serverPid), "stat"));
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+    }
+
+    private static long clientCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    // Forwards every connection to the target and counts the bytes going each way
+    private static final class CountingProxy implements AutoCloseable {
+
+        final AtomicLong toServer = new AtomicLong();
+        final AtomicLong toClient = new AtomicLong();
+        private final ServerSocket serverSocket;
+        private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+
+        CountingProxy(String host, int port) throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            daemon(() -> {
+                try {
+                    while (true) {
+                        Socket client = serverSocket.accept();
+                        Socket server = new Socket(host, port);
+                        client.setTcpNoDelay(true);
+                        server.setTcpNoDelay(true);
+                        sockets.add(client);
+                        sockets.add(server);
+                        daemon(() -> pump(client, server, toServer));
+                        daemon(() -> pump(server, client, toClient));
+                    }
+                } catch (IOException closed) {
+                    // the proxy was closed
+                }
+            });
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        // Counts the bytes before passing them on, so they are counted by the time the other side has them
+        private static void pump(Socket from, Socket to, AtomicLong counter) {
+            byte[] buffer = new byte[16 * 1024];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                    counter.addAndGet(n);
+                    out.write(buffer, 0, n);
+                    out.flush();
+                }
+            } catch (IOException closed) {
+                // either side went away
+            }
+        }
+
+        private static void daemon(Runnable task) {
+            Thread thread = new Thread(task, "counting-proxy");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+}
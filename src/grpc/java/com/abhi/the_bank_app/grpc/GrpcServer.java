@@ -0,0 +1,93 @@
+package com.abhi.the_bank_app.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serves every gRPC service bean over plaintext HTTP/2 on bank.grpc.port, alongside Tomcat. It starts with the web
+// server, once the context is refreshed, and on shutdown stops taking calls and gives the running ones the grace
+// period before the beans they use are destroyed. Calls run on a bounded pool: the service layer blocks on the
+// database, like a Tomcat request thread does.
+@Slf4j
+@Component
+public class GrpcServer implements SmartLifecycle {
+
+    @Autowired
+    private List<BindableService> services;
+
+    @Value("${bank.grpc.port:9090}")
+    private int port;
+
+    @Value("${bank.grpc.threads:200}")
+    private int threads;
+
+    // Clients keeping a stream open through idle periods may ping this often without being disconnected
+    @Value("${bank.grpc.permit-keep-alive-time:30s}")
+    private Duration permitKeepAliveTime;
+
+    @Value("${bank.grpc.shutdown-grace-period:10s}")
+    private Duration shutdownGracePeriod;
+
+    private volatile Server server;
+    private ThreadPoolTaskExecutor executor;
+
+    @Override
+    public void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("grpc-");
+        executor.initialize();
+
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port)
+                .executor(executor)
+                .permitKeepAliveTime(permitKeepAliveTime.toMillis(), TimeUnit.MILLISECONDS)
+                .permitKeepAliveWithoutCalls(true);
+        services.forEach(builder::addService);
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            executor.shutdown();
+            throw new UncheckedIOException("Could not start the gRPC server on port " + port, e);
+        }
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        server = null;
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    // The port actually bound, which differs from bank.grpc.port when that is 0
+    public int getPort() {
+        return server.getPort();
+    }
+}
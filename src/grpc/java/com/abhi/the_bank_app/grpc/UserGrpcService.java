@@ -0,0 +1,146 @@
+package com.abhi.the_bank_app.grpc;
+
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.grpc.proto.AccountEnquiry;
+import com.abhi.the_bank_app.grpc.proto.BankReply;
+import com.abhi.the_bank_app.grpc.proto.CreditDebit;
+import com.abhi.the_bank_app.grpc.proto.MoneyTransfer;
+import com.abhi.the_bank_app.grpc.proto.NameReply;
+import com.abhi.the_bank_app.grpc.proto.NewAccount;
+import com.abhi.the_bank_app.grpc.proto.UserServiceGrpc;
+import com.abhi.the_bank_app.service.IdempotencyService;
+import com.abhi.the_bank_app.service.UserService;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+// The UserController operations over gRPC, on the same UserService and IdempotencyService beans, so metrics,
+// caching, sharding and the Idempotency-Key store behave exactly as they do for REST calls.
+@Component
+public class UserGrpcService extends UserServiceGrpc.UserServiceImplBase {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Override
+    public void createAccount(NewAccount request, StreamObserver<BankReply> responseObserver) {
+        reply(responseObserver, GrpcMessages.bankReply(userService.createAccount(GrpcMessages.userRequest(request))));
+    }
+
+    @Override
+    public void balanceEnquiry(AccountEnquiry request, StreamObserver<BankReply> responseObserver) {
+        reply(responseObserver, balanceEnquiry(request));
+    }
+
+    @Override
+    public void nameEnquiry(AccountEnquiry request, StreamObserver<NameReply> responseObserver) {
+        reply(responseObserver, nameEnquiry(request));
+    }
+
+    @Override
+    public void creditAccount(CreditDebit request, StreamObserver<BankReply> responseObserver) {
+        CreditDebitRequest credit = GrpcMessages.creditDebitRequest(request);
+        reply(responseObserver, GrpcMessages.bankReply(idempotencyService.execute(
+                GrpcMessages.emptyToNull(request.getIdempotencyKey()), "credit", credit,
+                () -> userService.creditAccount(credit))));
+    }
+
+    @Override
+    public void debitAccount(CreditDebit request, StreamObserver<BankReply> responseObserver) {
+        CreditDebitRequest debit = GrpcMessages.creditDebitRequest(request);
+        reply(responseObserver, GrpcMessages.bankReply(idempotencyService.execute(
+                GrpcMessages.emptyToNull(request.getIdempotencyKey()), "debit", debit,
+                () -> userService.debitAccount(debit))));
+    }
+
+    @Override
+    public void transfer(MoneyTransfer request, StreamObserver<BankReply> responseObserver) {
+        reply(responseObserver, transfer(request));
+    }
+
+    @Override
+    public StreamObserver<AccountEnquiry> balanceEnquiries(StreamObserver<BankReply> responseObserver) {
+        return inOrder(responseObserver, this::balanceEnquiry);
+    }
+
+    @Override
+    public StreamObserver<AccountEnquiry> nameEnquiries(StreamObserver<NameReply> responseObserver) {
+        return inOrder(responseObserver, this::nameEnquiry);
+    }
+
+    @Override
+    public StreamObserver<MoneyTransfer> transfers(StreamObserver<BankReply> responseObserver) {
+        return inOrder(responseObserver, this::transfer);
+    }
+
+    private BankReply balanceEnquiry(AccountEnquiry request) {
+        return GrpcMessages.bankReply(userService.balanceEnquiry(GrpcMessages.enquiryRequest(request)));
+    }
+
+    private NameReply nameEnquiry(AccountEnquiry request) {
+        return NameReply.newBuilder()
+                .setAccountName(userService.nameEnquiry(GrpcMessages.enquiryRequest(request)))
+                .build();
+    }
+
+    private BankReply transfer(MoneyTransfer request) {
+        TransferRequest transfer = GrpcMessages.transferRequest(request);
+        return GrpcMessages.bankReply(idempotencyService.execute(GrpcMessages.emptyToNull(request.getIdempotencyKey()),
+                "transfer", transfer, () -> userService.transfer(transfer)));
+    }
+
+    private static <T> void reply(StreamObserver<T> responseObserver, T reply) {
+        responseObserver.onNext(reply);
+        responseObserver.onCompleted();
+    }
+
+    // Answers a stream one request at a time, in order. The next request is only read once the last reply could be
+    // sent, so a caller that stops reading makes the server stop reading too, instead of its replies piling up in
+    // memory. gRPC runs a call's callbacks one after another, so the waiting flag needs no locking.
+    private static <Q, R> StreamObserver<Q> inOrder(StreamObserver<R> responseObserver, Function<Q, R> handler) {
+        ServerCallStreamObserver<R> call = (ServerCallStreamObserver<R>) responseObserver;
+        call.disableAutoRequest();
+        StreamObserver<Q> requests = new StreamObserver<>() {
+
+            private boolean waitingForReady;
+
+            {
+                call.setOnReadyHandler(() -> {
+                    if (waitingForReady && call.isReady()) {
+                        waitingForReady = false;
+                        call.request(1);
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(Q request) {
+                call.onNext(handler.apply(request));
+                if (call.isReady()) {
+                    call.request(1);
+                } else {
+                    waitingForReady = true;
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // The caller cancelled or the connection dropped; there is no one left to answer
+            }
+
+            @Override
+            public void onCompleted() {
+                call.onCompleted();
+            }
+        };
+        call.request(1);
+        return requests;
+    }
+}
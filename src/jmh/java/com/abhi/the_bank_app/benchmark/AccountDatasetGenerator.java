@@ -0,0 +1,152 @@
+package com.abhi.the_bank_app.benchmark;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+// Synthetic customers for the search and load benchmarks. Account i always gets the same name, email, phone
+// number, state and status, so a benchmark can pick existing accounts to look up without querying for them.
+// Names are skewed the way real ones are (a few very common surnames, a long tail of rare ones), as are states
+// and statuses; account numbers, emails and ids are unique and can't clash with accounts the app opens itself.
+// Rows are written with plain JDBC batches, not through JPA. On its own, against a database whose schema exists
+// (e.g. the durable profile's, after the app has started once):
+//   java -cp <test classpath> com.abhi.the_bank_app.benchmark.AccountDatasetGenerator jdbc:h2:file:./data/bank 5000000
+public class AccountDatasetGenerator {
+
+	// Far above anything users_seq hands out, far below the sharding id spacing
+	public static final long FIRST_ID = 4_000_000_000_000L;
+
+	static final String[] FIRST_NAMES = {"Chinedu", "Adaeze", "Oluwaseun", "Ngozi", "Emeka", "Funmilayo", "Ibrahim",
+			"Aisha", "Tunde", "Chiamaka", "Yusuf", "Folake", "Obinna", "Zainab", "Segun", "Amaka", "Musa", "Bisi",
+			"Ikechukwu", "Halima", "Kunle", "Nneka", "Abdullahi", "Temitope", "Uche", "Fatima", "Babatunde", "Ifeoma",
+			"Sani", "Yetunde", "Chukwuma", "Hauwa", "Femi", "Ebere", "Aliyu", "Kemi", "Nnamdi", "Maryam", "Gbenga",
+			"Chioma", "John", "Mary", "David", "Grace", "Samuel", "Blessing", "Daniel", "Joy", "Michael", "Esther",
+			"Peter", "Ruth", "Joseph", "Faith", "Paul", "Mercy", "James", "Patience", "Victor", "Comfort"};
+	private static final String[] SURNAME_SYLLABLES = {"ba", "de", "ok", "ol", "ade", "chi", "nwa", "eze", "ibe",
+			"ogu", "uba", "ak", "ani", "bel", "lo", "mu", "sa", "yi", "wo", "jo", "fa", "ko", "ma", "nu", "ra", "ti",
+			"du", "ge", "ho", "ye"};
+	static final String[] STATES = {"Lagos", "Abia", "Adamawa", "Akwa Ibom", "Anambra", "Bauchi", "Bayelsa", "Benue",
+			"Borno", "Cross River", "Delta", "Ebonyi", "Edo", "Ekiti", "Enugu", "FCT", "Gombe", "Imo", "Jigawa",
+			"Kaduna", "Kano", "Katsina", "Kebbi", "Kogi", "Kwara", "Nasarawa", "Niger", "Ogun", "Ondo", "Osun", "Oyo",
+			"Plateau", "Rivers", "Sokoto", "Taraba", "Yobe", "Zamfara"};
+
+	private final long seed;
+
+	public AccountDatasetGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	public record Account(long id, String accountNumber, String firstName, String lastName, String gender,
+						  String email, String phoneNumber, String stateOfOrigin, String status, long balance) {
+	}
+
+	public Account account(long i) {
+		SplittableRandom random = new SplittableRandom(seed ^ (i * 0x9E3779B97F4A7C15L));
+		String firstName = FIRST_NAMES[skewed(random, FIRST_NAMES.length)];
+		StringBuilder surname = new StringBuilder();
+		int syllables = 2 + random.nextInt(2);
+		for (int s = 0; s < syllables; s++) {
+			surname.append(SURNAME_SYLLABLES[skewed(random, SURNAME_SYLLABLES.length)]);
+		}
+		surname.setCharAt(0, Character.toUpperCase(surname.charAt(0)));
+		String lastName = surname.toString();
+		// A fifth of all customers are from Lagos, the rest spread evenly
+		String state = random.nextInt(5) == 0 ? STATES[0] : STATES[1 + random.nextInt(STATES.length - 1)];
+		int statusDraw = random.nextInt(1000);
+		String status = statusDraw < 940 ? "ACTIVE" : statusDraw < 980 ? "DORMANT" : statusDraw < 995 ? "BLOCKED" : "CLOSED";
+		return new Account(FIRST_ID + i, accountNumber(i), firstName, lastName, random.nextBoolean() ? "M" : "F",
+				firstName + "." + lastName + i + "@Bench.Example.com", String.format("080%08d", i), state, status,
+				random.nextLong(1_000_000_000L));
+	}
+
+	// 11 digits starting with 9: never produced by the sequence or snowflake generators
+	public static String accountNumber(long i) {
+		return String.format("9%010d", i);
+	}
+
+	// Low indexes much more likely than high ones
+	private static int skewed(SplittableRandom random, int size) {
+		double r = random.nextDouble();
+		return (int) (size * r * r);
+	}
+
+	// Inserts accounts [from, to)
+	public void insert(Connection connection, long from, long to) throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		LocalDateTime now = LocalDateTime.now();
+		try (PreparedStatement insert = connection.prepareStatement("insert into users (id, first_name, last_name, " +
+				"gender, address, state_of_origin, account_number, account_balance, balance_slots, email, phone_number, " +
+				"status, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?)")) {
+			for (long i = from; i < to; i++) {
+				Account account = account(i);
+				insert.setLong(1, account.id());
+				insert.setString(2, account.firstName());
+				insert.setString(3, account.lastName());
+				insert.setString(4, account.gender());
+				insert.setString(5, (i % 200) + " Broad Street, " + account.stateOfOrigin());
+				insert.setString(6, account.stateOfOrigin());
+				insert.setString(7, account.accountNumber());
+				insert.setLong(8, account.balance());
+				insert.setString(9, account.email());
+				insert.setString(10, account.phoneNumber());
+				insert.setString(11, account.status());
+				insert.setTimestamp(12, Timestamp.valueOf(now));
+				insert.setTimestamp(13, Timestamp.valueOf(now));
+				insert.addBatch();
+				if ((i - from + 1) % 1_000 == 0) {
+					insert.executeBatch();
+				}
+				if ((i - from + 1) % 100_000 == 0) {
+					connection.commit();
+				}
+			}
+			insert.executeBatch();
+			connection.commit();
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	// Tops the database up to the given number of generated accounts; returns how many were added
+	public long fill(DataSource dataSource, long accounts) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			long existing = countGenerated(connection);
+			if (existing < accounts) {
+				insert(connection, existing, accounts);
+			}
+			return Math.max(0, accounts - existing);
+		}
+	}
+
+	private static long countGenerated(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+			 ResultSet count = statement.executeQuery("select count(*) from users where id >= " + FIRST_ID)) {
+			count.next();
+			return count.getLong(1);
+		}
+	}
+
+	public static void main(String[] args) throws SQLException {
+		if (args.length < 2) {
+			System.err.println("usage: AccountDatasetGenerator <jdbc url> <accounts> [user] [password] [seed]");
+			System.exit(2);
+		}
+		long accounts = Long.parseLong(args[1]);
+		AccountDatasetGenerator generator = new AccountDatasetGenerator(args.length > 4 ? Long.parseLong(args[4]) : 42);
+		long started = System.nanoTime();
+		try (Connection connection = DriverManager.getConnection(args[0], args.length > 2 ? args[2] : "sa",
+				args.length > 3 ? args[3] : "sa")) {
+			long existing = countGenerated(connection);
+			generator.insert(connection, Math.min(existing, accounts), accounts);
+		}
+		System.out.printf("%d accounts in place after %d s%n", accounts, (System.nanoTime() - started) / 1_000_000_000);
+	}
+}
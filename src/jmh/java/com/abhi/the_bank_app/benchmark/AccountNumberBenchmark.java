@@ -0,0 +1,43 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.abhi.the_bank_app.utils.SnowflakeAccountNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Account number generation: the legacy random generator, the sequence generator's formatting step
+// (year + serial + Luhn digit, leasing excluded) and the Snowflake generator
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountNumberBenchmark {
+
+	private final SnowflakeAccountNumberGenerator snowflake = new SnowflakeAccountNumberGenerator(1);
+	private long serial;
+
+	@Benchmark
+	@SuppressWarnings("deprecation")
+	public String legacyRandom() {
+		return AccountUtils.generateAccountNumber();
+	}
+
+	@Benchmark
+	public String sequenceFormat() {
+		return AccountUtils.formatAccountNumber(2024, ++serial);
+	}
+
+	@Benchmark
+	public String snowflake() {
+		return snowflake.nextAccountNumber();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public String snowflakeContended() {
+		return snowflake.nextAccountNumber();
+	}
+}
@@ -0,0 +1,156 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.TheBankAppApplication;
+import com.abhi.the_bank_app.dto.AccountSearchRequest;
+import com.abhi.the_bank_app.dto.AccountSearchResponse;
+import com.abhi.the_bank_app.service.AccountSearchService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Account search latency over a generated customer base (AccountDatasetGenerator). The database is an H2 file in
+// target/, so the accounts are generated by the first run only (several minutes for 5M); later runs reuse it.
+// Every lookup is for an account that exists, picked at random.
+// Run with: mvn -Pbenchmark verify -Djmh.includes=AccountSearchBenchmark [-Djmh.args="-p accounts=100000"]
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class AccountSearchBenchmark {
+
+	private static final int PAGE = 20;
+	private static final int DEEP_PAGES = 20;
+	private static final String[] RARE_STATUSES = {"BLOCKED", "CLOSED", "DORMANT"};
+
+	@Param({"5000000"})
+	public long accounts;
+
+	private final AccountDatasetGenerator generator = new AccountDatasetGenerator(42);
+	private ConfigurableApplicationContext context;
+	private AccountSearchService accountSearchService;
+	private final List<AccountSearchRequest> deepPages = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void startApplication() throws SQLException {
+		SpringApplication application = new SpringApplication(TheBankAppApplication.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		// The durable profile: Flyway owns the schema, so a reused database is only validated
+		context = application.run(
+				"--spring.profiles.active=durable",
+				"--spring.datasource.url=jdbc:h2:file:./target/jmh-search-" + accounts + ";CACHE_SIZE=524288",
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN",
+				"--bank.email.outbox.enabled=false",
+				"--bank.events.enabled=false");
+		long started = System.nanoTime();
+		long added = generator.fill(context.getBean(DataSource.class), accounts);
+		if (added > 0) {
+			System.out.printf("%nGenerated %d accounts in %d s%n", added, (System.nanoTime() - started) / 1_000_000_000);
+		}
+		accountSearchService = context.getBean(AccountSearchService.class);
+		started = System.nanoTime();
+		accountSearchService.rebuildNameIndex();
+		System.out.printf("%nFuzzy name index built in %d ms (heap used %d MB)%n",
+				(System.nanoTime() - started) / 1_000_000,
+				(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / (1024 * 1024));
+
+		// Cursors DEEP_PAGES pages into the results for common surname prefixes
+		for (int attempt = 0; attempt < 1_000 && deepPages.size() < 50; attempt++) {
+			AccountSearchRequest request = AccountSearchRequest.builder().name(randomSurnamePrefix()).limit(PAGE).build();
+			for (int page = 0; page < DEEP_PAGES && request != null; page++) {
+				String nextCursor = accountSearchService.search(request).getNextCursor();
+				request = nextCursor == null ? null
+						: AccountSearchRequest.builder().name(request.getName()).limit(PAGE).cursor(nextCursor).build();
+			}
+			if (request != null) {
+				deepPages.add(request);
+			}
+		}
+		if (deepPages.isEmpty()) {
+			throw new IllegalStateException("No surname prefix has " + DEEP_PAGES + " pages; use more accounts");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	private AccountDatasetGenerator.Account randomAccount() {
+		return generator.account(ThreadLocalRandom.current().nextLong(accounts));
+	}
+
+	private String randomSurnamePrefix() {
+		return randomAccount().lastName().substring(0, 3);
+	}
+
+	@Benchmark
+	public AccountSearchResponse namePrefix() {
+		return accountSearchService.search(AccountSearchRequest.builder().name(randomSurnamePrefix()).limit(PAGE).build());
+	}
+
+	// Full surname plus the start of the first name, as staff would type it
+	@Benchmark
+	public AccountSearchResponse fullName() {
+		AccountDatasetGenerator.Account account = randomAccount();
+		return accountSearchService.search(AccountSearchRequest.builder()
+				.name(account.lastName() + " " + account.firstName().substring(0, 2)).limit(PAGE).build());
+	}
+
+	@Benchmark
+	public AccountSearchResponse namePrefixDeepPage() {
+		return accountSearchService.search(deepPages.get(ThreadLocalRandom.current().nextInt(deepPages.size())));
+	}
+
+	@Benchmark
+	public AccountSearchResponse email() {
+		return accountSearchService.search(AccountSearchRequest.builder()
+				.email(randomAccount().email().toLowerCase()).build());
+	}
+
+	@Benchmark
+	public AccountSearchResponse phoneNumber() {
+		return accountSearchService.search(AccountSearchRequest.builder()
+				.phoneNumber(randomAccount().phoneNumber()).build());
+	}
+
+	@Benchmark
+	public AccountSearchResponse stateAndStatus() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return accountSearchService.search(AccountSearchRequest.builder()
+				.stateOfOrigin(AccountDatasetGenerator.STATES[random.nextInt(AccountDatasetGenerator.STATES.length)])
+				.status(RARE_STATUSES[random.nextInt(RARE_STATUSES.length)])
+				.limit(PAGE)
+				.build());
+	}
+
+	// Name prefix narrowed to one state: the state is checked on the rows the name index yields
+	@Benchmark
+	public AccountSearchResponse namePrefixInState() {
+		AccountDatasetGenerator.Account account = randomAccount();
+		return accountSearchService.search(AccountSearchRequest.builder()
+				.name(account.lastName()).stateOfOrigin(account.stateOfOrigin()).limit(PAGE).build());
+	}
+
+	// First and last name the other way round, with the last name's final letter dropped
+	@Benchmark
+	public AccountSearchResponse fuzzyName() {
+		AccountDatasetGenerator.Account account = randomAccount();
+		String lastName = account.lastName();
+		return accountSearchService.search(AccountSearchRequest.builder()
+				.name(account.firstName() + " " + lastName.substring(0, lastName.length() - 1))
+				.fuzzy(true)
+				.limit(PAGE)
+				.build());
+	}
+}
@@ -0,0 +1,68 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Quick checks that the benchmarks measure what they claim, run with: mvn -Pbenchmark test -Dtest=BenchmarkSmokeTests
+class BenchmarkSmokeTests {
+
+	// The harness runs in-process and writes the JSON result file regressions are compared on
+	@Test
+	void resultsAreWrittenAsJson(@TempDir Path directory) throws Exception {
+		Path results = directory.resolve("jmh-result.json");
+		Options options = new OptionsBuilder()
+				.include(ResponseBenchmark.class.getName() + ".buildResponse")
+				.param("mapper", "blackbird")
+				.forks(0)
+				.warmupIterations(0)
+				.measurementIterations(1)
+				.measurementTime(TimeValue.milliseconds(200))
+				.resultFormat(ResultFormatType.JSON)
+				.result(results.toString())
+				.build();
+
+		new Runner(options).run();
+
+		JsonNode run = new ObjectMapper().readTree(results.toFile()).get(0);
+		assertThat(run.get("benchmark").asText()).isEqualTo(ResponseBenchmark.class.getName() + ".buildResponse");
+		assertThat(run.get("params").get("mapper").asText()).isEqualTo("blackbird");
+		assertThat(run.get("primaryMetric").get("score").asDouble()).isPositive();
+	}
+
+	// Every service benchmark times the successful path, not an error response
+	@Test
+	void serviceOperationsSucceed() {
+		UserServiceBenchmark benchmark = new UserServiceBenchmark.OneThread();
+		benchmark.transferMode = AccountUtils.TRANSFER_MODE_LOCKING;
+		benchmark.ledgerEnabled = "true";
+		benchmark.eventsEnabled = "true";
+		benchmark.cacheType = "caffeine";
+		benchmark.startApplication();
+		try {
+			for (int i = 0; i < 100; i++) {
+				assertThat(benchmark.credit()).extracting(BankResponse::getResponseCode)
+						.isEqualTo(AccountUtils.ACCOUNT_CREDITEd_SUCCESS);
+				assertThat(benchmark.debit()).extracting(BankResponse::getResponseCode).isEqualTo("007");
+				assertThat(benchmark.transfer()).extracting(BankResponse::getResponseCode)
+						.isEqualTo(AccountUtils.TRANSFER_SUCCESS_CODE);
+				assertThat(benchmark.balanceEnquiry()).extracting(BankResponse::getResponseCode)
+						.isEqualTo(AccountUtils.ACCOUNT_FOUND_CODE);
+			}
+		} finally {
+			benchmark.stopApplication();
+		}
+	}
+}
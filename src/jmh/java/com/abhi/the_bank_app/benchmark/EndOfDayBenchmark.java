@@ -0,0 +1,82 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.TheBankAppApplication;
+import com.abhi.the_bank_app.dto.EndOfDayResponse;
+import com.abhi.the_bank_app.service.EndOfDayService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// One full end-of-day run over a generated customer base (AccountDatasetGenerator) per measurement, each for the
+// next business date. The H2 file in target/ is generated by the first run and reused; every run also adds one
+// ledger row per account to it. The accounts/s of each run is printed; bank.eod.threads defaults to one per CPU.
+// Run with: mvn -Pbenchmark verify -Djmh.includes=EndOfDayBenchmark [-Djmh.args="-p accounts=100000 -p threads=8"]
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class EndOfDayBenchmark {
+
+	@Param({"1000000"})
+	public long accounts;
+
+	@Param({"0"})
+	public int threads;
+
+	private ConfigurableApplicationContext context;
+	private EndOfDayService endOfDayService;
+	// Consecutive days from a year back: dates must follow one another and can't be after today
+	private LocalDate businessDate = LocalDate.now().minusYears(1);
+
+	@Setup(Level.Trial)
+	public void startApplication() throws SQLException {
+		SpringApplication application = new SpringApplication(TheBankAppApplication.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		int poolSize = Math.max(threads, Runtime.getRuntime().availableProcessors()) + 2;
+		context = application.run(
+				"--spring.profiles.active=durable",
+				"--spring.datasource.url=jdbc:h2:file:./target/jmh-eod-" + accounts + ";CACHE_SIZE=524288",
+				"--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+				"--spring.datasource.hikari.minimum-idle=" + poolSize,
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN",
+				"--bank.email.outbox.enabled=false",
+				"--bank.events.enabled=false",
+				"--bank.eod.threads=" + threads);
+		long started = System.nanoTime();
+		long added = new AccountDatasetGenerator(42).fill(context.getBean(DataSource.class), accounts);
+		if (added > 0) {
+			System.out.printf("%nGenerated %d accounts in %d s%n", added, (System.nanoTime() - started) / 1_000_000_000);
+		}
+		// Dates already run by an earlier trial would only be reported. The durable pool's connections don't
+		// auto-commit, hence the transaction.
+		new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+				context.getBean(JdbcTemplate.class).update("delete from end_of_day_partitions"));
+		endOfDayService = context.getBean(EndOfDayService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	public EndOfDayResponse endOfDay() {
+		EndOfDayResponse response = endOfDayService.runEndOfDay(businessDate);
+		businessDate = businessDate.plusDays(1);
+		System.out.printf("%n%s: %d accounts, %d partitions, %d accounts/s%n", response.getBusinessDate(),
+				response.getAccountsProcessed(), response.getPartitions(), response.getAccountsPerSecond());
+		return response;
+	}
+}
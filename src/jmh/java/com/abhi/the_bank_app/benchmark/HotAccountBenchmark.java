@@ -0,0 +1,96 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.TheBankAppApplication;
+import com.abhi.the_bank_app.dto.BalanceSlotsRequest;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.service.HotAccountService;
+import com.abhi.the_bank_app.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 16 threads crediting one merchant account, striped over 0 (plain users row), 1, 4 and 16 slots. With 0 or 1
+// every credit queues on the same row lock until the previous one commits; with more slots the credits spread
+// over that many locks, so throughput should grow with the slot count until the cores or the commit path run out.
+// Run with: mvn -Pbenchmark verify -Djmh.includes=HotAccountBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class HotAccountBenchmark {
+
+	private static final int PAYERS = 1_000;
+	private static final String MERCHANT = "JMHMERCHANT";
+	private static final Money AMOUNT = Money.of("1.00");
+
+	@Param({"0", "1", "4", "16"})
+	public int slots;
+
+	@Param({"locking"})
+	public String transferMode;
+
+	private ConfigurableApplicationContext context;
+	private UserService userService;
+	private List<String> payers;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		SpringApplication application = new SpringApplication(TheBankAppApplication.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		context = application.run(
+				"--spring.datasource.url=jdbc:h2:mem:jmh-hot;DB_CLOSE_DELAY=-1",
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN",
+				"--bank.email.outbox.enabled=false",
+				"--bank.events.enabled=false",
+				"--bank.transfer.mode=" + transferMode);
+		userService = context.getBean(UserService.class);
+
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		List<User> users = new ArrayList<>(PAYERS + 1);
+		for (int i = 0; i <= PAYERS; i++) {
+			users.add(User.builder()
+					.firstName("Bench")
+					.lastName("Payer" + i)
+					.accountNumber(i == PAYERS ? MERCHANT : "JMHPAYER" + i)
+					.accountBalance(Money.of("1000000000.00"))
+					.email("hot-bench" + i + "@example.com")
+					.status("ACTIVE")
+					.build());
+		}
+		userRepository.saveAll(users);
+		payers = users.subList(0, PAYERS).stream().map(User::getAccountNumber).toList();
+		context.getBean(HotAccountService.class).setBalanceSlots(new BalanceSlotsRequest(MERCHANT, slots));
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	public BankResponse credit() {
+		return userService.creditAccount(new CreditDebitRequest(MERCHANT, AMOUNT));
+	}
+
+	// Card payments: a random payer's row is locked, then the merchant's (slot) row
+	@Benchmark
+	public BankResponse payment() {
+		return userService.transfer(new TransferRequest(payers.get(ThreadLocalRandom.current().nextInt(PAYERS)),
+				MERCHANT, AMOUNT));
+	}
+}
@@ -0,0 +1,57 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// The balance arithmetic of a locking-mode transfer (check, debit, credit) on BigDecimal and on Money. Each
+// operation moves the amount there and back, so the balances never run out. Run with -prof gc to see the
+// allocation per operation.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+	private BigDecimal sourceDecimal = new BigDecimal("1000000.00");
+	private BigDecimal destinationDecimal = new BigDecimal("250.75");
+	private final BigDecimal amountDecimal = new BigDecimal("12.34");
+
+	private Money sourceMoney = Money.of("1000000.00");
+	private Money destinationMoney = Money.of("250.75");
+	private final Money amountMoney = Money.of("12.34");
+
+	@Benchmark
+	public boolean bigDecimalTransfer() {
+		boolean there = sourceDecimal.compareTo(amountDecimal) >= 0;
+		if (there) {
+			sourceDecimal = sourceDecimal.subtract(amountDecimal);
+			destinationDecimal = destinationDecimal.add(amountDecimal);
+		}
+		boolean back = destinationDecimal.compareTo(amountDecimal) >= 0;
+		if (back) {
+			destinationDecimal = destinationDecimal.subtract(amountDecimal);
+			sourceDecimal = sourceDecimal.add(amountDecimal);
+		}
+		return there & back;
+	}
+
+	@Benchmark
+	public boolean moneyTransfer() {
+		boolean there = sourceMoney.compareTo(amountMoney) >= 0;
+		if (there) {
+			sourceMoney = sourceMoney.minus(amountMoney);
+			destinationMoney = destinationMoney.plus(amountMoney);
+		}
+		boolean back = destinationMoney.compareTo(amountMoney) >= 0;
+		if (back) {
+			destinationMoney = destinationMoney.minus(amountMoney);
+			sourceMoney = sourceMoney.plus(amountMoney);
+		}
+		return there & back;
+	}
+}
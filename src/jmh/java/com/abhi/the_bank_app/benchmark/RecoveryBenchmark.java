@@ -0,0 +1,85 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.TheBankAppApplication;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Restart time of the durable profile with a large existing database: each measurement starts the application
+// on the H2 file, serves one balance enquiry from it and shuts down. The database (10M accounts by default) is
+// built once per trial under target/jmh-recovery and reused; building 10M rows takes several minutes.
+// Run with: mvn -Pbenchmark verify -Djmh.includes=RecoveryBenchmark [-Djmh.args="-p accounts=1000000"]
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecoveryBenchmark {
+
+	private static final int INSERT_CHUNK = 1_000_000;
+
+	@Param({"10000000"})
+	public int accounts;
+
+	private String databaseUrl;
+
+	@Setup(Level.Trial)
+	public void buildDatabase() throws IOException {
+		Path directory = Path.of("target", "jmh-recovery", Integer.toString(accounts));
+		databaseUrl = "jdbc:h2:file:" + directory.toAbsolutePath() + "/bank;DB_CLOSE_ON_EXIT=FALSE;WRITE_DELAY=0;" +
+				"CACHE_SIZE=262144;QUERY_CACHE_SIZE=64";
+		if (directory.resolve("bank.mv.db").toFile().exists()) {
+			return;
+		}
+		FileSystemUtils.deleteRecursively(directory);
+
+		// The first start applies the migrations; the accounts are then bulk loaded with plain SQL
+		try (ConfigurableApplicationContext context = start()) {
+			// The durable pool hands out connections with auto-commit off, so each chunk is its own transaction
+			JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+			TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+			for (long from = 1; from <= accounts; from += INSERT_CHUNK) {
+				long first = from;
+				long last = Math.min(from + INSERT_CHUNK - 1, accounts);
+				transaction.executeWithoutResult(status -> jdbcTemplate.update("insert into users (id, first_name, last_name, account_number, account_balance, " +
+						"email, status, created_at, updated_at) " +
+						"select x, 'Recovery', 'User' || x, cast(2024000000000 + x as varchar), 100000, " +
+						"'recovery' || x || '@example.com', 'ACTIVE', current_timestamp, current_timestamp " +
+						"from system_range(?, ?)", first, last));
+			}
+			jdbcTemplate.execute("alter sequence users_seq restart with " + (accounts + 100));
+		}
+	}
+
+	@Benchmark
+	public BankResponse restart() {
+		try (ConfigurableApplicationContext context = start()) {
+			return context.getBean(UserService.class)
+					.balanceEnquiry(new EnquiryRequest(Long.toString(2024000000000L + accounts / 2)));
+		}
+	}
+
+	private ConfigurableApplicationContext start() {
+		SpringApplication application = new SpringApplication(TheBankAppApplication.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		application.setAdditionalProfiles("durable");
+		return application.run(
+				"--spring.datasource.url=" + databaseUrl,
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN",
+				"--bank.email.outbox.enabled=false");
+	}
+}
@@ -0,0 +1,84 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.dto.AccountInfo;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of building the response DTOs with their Lombok builders and of serializing them with Jackson,
+// with and without the Blackbird module the application registers
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+
+	@Param({"reflection", "blackbird"})
+	public String mapper;
+
+	private ObjectMapper objectMapper;
+	private final String firstName = "Abhinandan";
+	private final String lastName = "Mahalathkar";
+	private final Money balance = Money.of("12345.67");
+	private BankResponse response;
+
+	@Setup
+	public void setUp() {
+		objectMapper = new ObjectMapper();
+		if ("blackbird".equals(mapper)) {
+			objectMapper.registerModule(new BlackbirdModule());
+		}
+		response = buildResponse();
+	}
+
+	@Benchmark
+	public BankResponse buildResponse() {
+		return BankResponse.builder()
+				.responseCode(AccountUtils.ACCOUNT_FOUND_CODE)
+				.responseMessage(AccountUtils.ACCOUNT_FOUND_MESSAGE)
+				.accountInfo(AccountInfo.builder()
+						.accountBalance(balance)
+						.accountNumber("20240000011")
+						.accountName(firstName + " " + lastName)
+						.build())
+				.build();
+	}
+
+	@Benchmark
+	public String serializeResponse() throws JsonProcessingException {
+		return objectMapper.writeValueAsString(response);
+	}
+
+	@Benchmark
+	public String buildAndSerializeResponse() throws JsonProcessingException {
+		return objectMapper.writeValueAsString(buildResponse());
+	}
+
+	@Benchmark
+	public BankResponse buildNotFoundResponse() {
+		return BankResponse.builder()
+				.responseCode(AccountUtils.ACCOUNT_NOT_EXIST_CODE)
+				.responseMessage(AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE)
+				.accountInfo(null)
+				.build();
+	}
+
+	@Benchmark
+	public String serializeNotFoundResponse() throws JsonProcessingException {
+		return objectMapper.writeValueAsString(buildNotFoundResponse());
+	}
+
+	@Benchmark
+	public String serializeSharedNotFoundResponse() throws JsonProcessingException {
+		return objectMapper.writeValueAsString(BankResponses.ACCOUNT_NOT_EXIST);
+	}
+}
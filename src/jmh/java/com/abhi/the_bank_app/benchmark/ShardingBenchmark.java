@@ -0,0 +1,97 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.TheBankAppApplication;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Write throughput of the sharded store at 1, 2 and 4 shards, each shard an H2 file database under
+// target/jmh-shards. With enough cores the credit rate should grow close to linearly with the shard count,
+// since every shard has its own pool, store and commit log; transfers include the cross-shard saga cost.
+// Run with: mvn -Pbenchmark verify -Djmh.includes=ShardingBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ShardingBenchmark {
+
+	private static final int ACCOUNTS = 4_000;
+	private static final Money AMOUNT = Money.of("1.00");
+
+	@Param({"1", "2", "4"})
+	public int shards;
+
+	private ConfigurableApplicationContext context;
+	private UserService userService;
+	private List<String> accountNumbers;
+
+	@Setup(Level.Trial)
+	public void startApplication() throws IOException {
+		Path directory = Path.of("target", "jmh-shards", Integer.toString(shards));
+		FileSystemUtils.deleteRecursively(directory);
+
+		SpringApplication application = new SpringApplication(TheBankAppApplication.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		context = application.run(
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN",
+				"--bank.email.outbox.enabled=false",
+				"--bank.sharding.enabled=true",
+				"--bank.sharding.shard-count=" + shards,
+				"--bank.sharding.url-template=jdbc:h2:file:" + directory.toAbsolutePath() + "/shard-{shard}/bank",
+				"--spring.jpa.open-in-view=false");
+		userService = context.getBean(UserService.class);
+
+		// Created through the service so every account lands on the shard its number hashes to
+		List<UserRequest> requests = new ArrayList<>(ACCOUNTS);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			requests.add(UserRequest.builder()
+					.firstName("Bench")
+					.lastName("User" + i)
+					.email("shard-bench" + i + "@example.com")
+					.build());
+		}
+		accountNumbers = userService.createAccounts(requests).stream()
+				.map(response -> response.getAccountInfo().getAccountNumber())
+				.toList();
+		accountNumbers.forEach(accountNumber ->
+				userService.creditAccount(new CreditDebitRequest(accountNumber, Money.of("1000000000.00"))));
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	private String randomAccount() {
+		return accountNumbers.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+	}
+
+	@Benchmark
+	public BankResponse credit() {
+		return userService.creditAccount(new CreditDebitRequest(randomAccount(), AMOUNT));
+	}
+
+	@Benchmark
+	public BankResponse transfer() {
+		return userService.transfer(new TransferRequest(randomAccount(), randomAccount(), AMOUNT));
+	}
+}
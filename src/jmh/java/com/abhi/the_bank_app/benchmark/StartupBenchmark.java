@@ -0,0 +1,145 @@
+package com.abhi.the_bank_app.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Cold start of the application, a fresh JVM per start: time from launching the process to the first answered
+// request (a name enquiry, so MVC, the cache and the database are all up), and the process's resident set size at
+// that point. Each start is one of:
+//   default        java -jar on the regular jar, default profile
+//   fast-startup   the extracted jar with the fast-startup profile (validate instead of update, lazy docs and mail)
+//   + AOT          ... started with the build-time bean definitions
+//   + AOT + CDS    ... and the class data sharing archive recorded at build time
+// The starts take turns, so drift on the machine hits every variant alike. Not a JMH benchmark: it only needs the
+// JDK and launches the jar itself. After mvn -Pfast-startup -DskipTests package, from the project directory:
+//   java src/jmh/java/com/abhi/the_bank_app/benchmark/StartupBenchmark.java [starts per variant (5)] [JVM options...]
+public class StartupBenchmark {
+
+	private static final Path TARGET = Path.of("target");
+	private static final String JAR = "the-bank-app-0.0.1-SNAPSHOT.jar";
+	private static final Path FAST_STARTUP = TARGET.resolve("fast-startup");
+	private static final Duration START_TIMEOUT = Duration.ofMinutes(3);
+
+	private record Variant(String name, Path directory, List<String> jvmOptions, List<String> arguments) {
+	}
+
+	private record Start(long millis, long rssKb) {
+	}
+
+	private static final HttpClient CLIENT = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(1))
+			.build();
+
+	public static void main(String[] args) throws Exception {
+		int starts = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		List<String> jvmOptions = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : List.of();
+		if (!Files.exists(FAST_STARTUP.resolve("application.jsa"))) {
+			System.err.println("No " + FAST_STARTUP.resolve("application.jsa") + "; run mvn -Pfast-startup -DskipTests package first");
+			System.exit(2);
+		}
+		List<String> fastStartup = List.of("--spring.profiles.active=fast-startup");
+		List<Variant> variants = List.of(
+				new Variant("default", TARGET, List.of(), List.of()),
+				new Variant("fast-startup", FAST_STARTUP, List.of(), fastStartup),
+				new Variant("+ AOT", FAST_STARTUP, List.of("-Dspring.aot.enabled=true"), fastStartup),
+				new Variant("+ AOT + CDS", FAST_STARTUP,
+						List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=application.jsa"), fastStartup));
+
+		List<List<Start>> results = new ArrayList<>();
+		variants.forEach(variant -> results.add(new ArrayList<>()));
+		for (int i = 0; i < starts; i++) {
+			for (int v = 0; v < variants.size(); v++) {
+				Start start = start(variants.get(v), jvmOptions);
+				results.get(v).add(start);
+				System.out.printf(Locale.ROOT, "%-13s start %d: %6d ms, RSS %4d MB%n", variants.get(v).name(), i + 1,
+						start.millis(), start.rssKb() / 1024);
+			}
+		}
+
+		System.out.printf("%n%-13s %18s %11s %11s %11s%n", "variant", "first request ms", "min ms", "max ms", "RSS MB");
+		for (int v = 0; v < variants.size(); v++) {
+			long[] millis = results.get(v).stream().mapToLong(Start::millis).sorted().toArray();
+			long[] rss = results.get(v).stream().mapToLong(Start::rssKb).sorted().toArray();
+			System.out.printf("%-13s %18d %11d %11d %11d%n", variants.get(v).name(), millis[millis.length / 2],
+					millis[0], millis[millis.length - 1], rss[rss.length / 2] / 1024);
+		}
+		System.out.println("first request and RSS are medians");
+	}
+
+	private static Start start(Variant variant, List<String> jvmOptions) throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(jvmOptions);
+		command.addAll(variant.jvmOptions());
+		command.add("-jar");
+		command.add(JAR);
+		command.add("--server.port=" + port);
+		command.add("--spring.main.banner-mode=off");
+		command.addAll(variant.arguments());
+
+		HttpRequest firstRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/user/nameEnquiry"))
+				.header("Content-Type", "application/json")
+				.method("GET", HttpRequest.BodyPublishers.ofString("{\"accountNumber\":\"0\"}"))
+				.timeout(Duration.ofSeconds(10))
+				.build();
+		long launched = System.nanoTime();
+		Process process = new ProcessBuilder(command)
+				.directory(variant.directory().toFile())
+				.redirectErrorStream(true)
+				.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+				.start();
+		try {
+			while (true) {
+				if (!process.isAlive()) {
+					throw new IllegalStateException(variant.name() + " exited with " + process.exitValue() + ": " + command);
+				}
+				if (System.nanoTime() - launched > START_TIMEOUT.toNanos()) {
+					throw new IllegalStateException(variant.name() + " did not answer within " + START_TIMEOUT);
+				}
+				try {
+					if (CLIENT.send(firstRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+						return new Start(millis, rssKb(process.pid()));
+					}
+				} catch (IOException notListeningYet) {
+					// keep polling
+				}
+				Thread.sleep(5);
+			}
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	// VmRSS from /proc, so Linux only
+	private static long rssKb(long pid) throws IOException {
+		for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+			if (line.startsWith("VmRSS:")) {
+				return Long.parseLong(line.replaceAll("\\D", ""));
+			}
+		}
+		return -1;
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.abhi.the_bank_app.benchmark;
+
+import com.abhi.the_bank_app.TheBankAppApplication;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// UserService against embedded H2, through the real Spring context (transactions, locking, ledger, cache).
+// The nested classes run the same operations at 1, 8 and 64 threads. Engine settings can be switched with
+// JMH parameters, e.g.
+// -Djmh.args="-p transferMode=conditional -p ledgerEnabled=false -p eventsEnabled=false -p cacheType=none".
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class UserServiceBenchmark {
+
+	private static final int ACCOUNTS = 10_000;
+	private static final Money AMOUNT = Money.of("1.00");
+
+	@Param({"locking"})
+	public String transferMode;
+
+	@Param({"true"})
+	public String ledgerEnabled;
+
+	@Param({"true"})
+	public String eventsEnabled;
+
+	@Param({"caffeine"})
+	public String cacheType;
+
+	private ConfigurableApplicationContext context;
+	private UserService userService;
+	private List<String> accountNumbers;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		SpringApplication application = new SpringApplication(TheBankAppApplication.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		context = application.run(
+				"--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN",
+				"--bank.email.outbox.enabled=false",
+				"--bank.transfer.mode=" + transferMode,
+				"--bank.ledger.enabled=" + ledgerEnabled,
+				"--bank.events.enabled=" + eventsEnabled,
+				"--spring.cache.type=" + cacheType);
+		userService = context.getBean(UserService.class);
+
+		// Large balances so debits and transfers practically never fail for lack of funds
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		List<User> users = new ArrayList<>(ACCOUNTS);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			users.add(User.builder()
+					.firstName("Bench")
+					.lastName("User" + i)
+					.accountNumber("JMH" + i)
+					.accountBalance(Money.of("1000000000.00"))
+					.email("bench" + i + "@example.com")
+					.status("ACTIVE")
+					.build());
+		}
+		userRepository.saveAll(users);
+		accountNumbers = users.stream().map(User::getAccountNumber).toList();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	private String randomAccount() {
+		return accountNumbers.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+	}
+
+	@Benchmark
+	public BankResponse credit() {
+		return userService.creditAccount(new CreditDebitRequest(randomAccount(), AMOUNT));
+	}
+
+	@Benchmark
+	public BankResponse debit() {
+		return userService.debitAccount(new CreditDebitRequest(randomAccount(), AMOUNT));
+	}
+
+	// Two different accounts: a transfer to the source account itself is rejected as an invalid request
+	@Benchmark
+	public BankResponse transfer() {
+		int source = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+		int destination = (source + 1 + ThreadLocalRandom.current().nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+		return userService.transfer(new TransferRequest(accountNumbers.get(source), accountNumbers.get(destination),
+				AMOUNT));
+	}
+
+	@Benchmark
+	public BankResponse balanceEnquiry() {
+		return userService.balanceEnquiry(new EnquiryRequest(randomAccount()));
+	}
+
+	@Threads(1)
+	public static class OneThread extends UserServiceBenchmark {
+	}
+
+	@Threads(8)
+	public static class EightThreads extends UserServiceBenchmark {
+	}
+
+	@Threads(64)
+	public static class SixtyFourThreads extends UserServiceBenchmark {
+	}
+}
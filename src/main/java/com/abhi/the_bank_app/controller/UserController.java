@@ -1,11 +1,32 @@
 package com.abhi.the_bank_app.controller;
 
 import com.abhi.the_bank_app.dto.*;
+import com.abhi.the_bank_app.service.AccountSearchService;
+import com.abhi.the_bank_app.service.EndOfDayService;
+import com.abhi.the_bank_app.service.HotAccountService;
+import com.abhi.the_bank_app.service.IdempotencyService;
+import com.abhi.the_bank_app.service.LedgerService;
+import com.abhi.the_bank_app.service.StatementService;
 import com.abhi.the_bank_app.service.UserService;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping("api/user")
@@ -13,6 +34,31 @@ public class UserController {
 
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private AccountSearchService accountSearchService;
+
+    @Autowired
+    private EndOfDayService endOfDayService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${bank.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
     @Operation(
             summary = "Create New User Account",
             description = "Creating a new user and assigning an account ID"
@@ -25,6 +71,60 @@ public class UserController {
     public BankResponse createAccount(@RequestBody UserRequest userRequest){
         return userService.createAccount(userRequest);
     }
+    @Operation(
+            summary = "Bulk Create User Accounts",
+            description = "Upload one UserRequest JSON object per line (NDJSON). One BankResponse line is streamed " +
+                    "back per input line, in the same order, as each chunk of accounts is committed"
+    )
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    public StreamingResponseBody createAccounts(HttpServletRequest httpRequest) {
+        return output -> {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(httpRequest.getInputStream(), StandardCharsets.UTF_8));
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+            // Slot per input line; lines that don't parse get their error response straight away
+            List<BankResponse> results = new ArrayList<>(bulkChunkSize);
+            List<UserRequest> chunk = new ArrayList<>(bulkChunkSize);
+            List<Integer> chunkSlots = new ArrayList<>(bulkChunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(objectMapper.readValue(line, UserRequest.class));
+                    chunkSlots.add(results.size());
+                    results.add(null);
+                } catch (JsonProcessingException e) {
+                    results.add(BankResponses.INVALID_REQUEST);
+                }
+                if (results.size() >= bulkChunkSize) {
+                    writeChunk(writer, results, chunk, chunkSlots);
+                }
+            }
+            writeChunk(writer, results, chunk, chunkSlots);
+        };
+    }
+
+    // Creates the accounts for one chunk in a single transaction and streams its results out
+    private void writeChunk(Writer writer, List<BankResponse> results, List<UserRequest> chunk,
+                            List<Integer> chunkSlots) throws IOException {
+        if (!chunk.isEmpty()) {
+            List<BankResponse> created = userService.createAccounts(chunk);
+            for (int i = 0; i < created.size(); i++) {
+                results.set(chunkSlots.get(i), created.get(i));
+            }
+        }
+        for (BankResponse result : results) {
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.write('\n');
+        }
+        writer.flush();
+        results.clear();
+        chunk.clear();
+        chunkSlots.clear();
+    }
     @Operation(
             summary = "Balance Enquiry",
             description = "Giving account number, check how much the user has"
@@ -39,24 +139,117 @@ public class UserController {
         return userService.balanceEnquiry(request);
     }
 
+    @Operation(
+            summary = "Account Search",
+            description = "Finds accounts by name prefix (\"lastName firstName\"), email, phoneNumber, stateOfOrigin " +
+                    "and status, combined with AND. Pages are keyset paginated: pass nextCursor back as cursor. " +
+                    "With fuzzy=true names are ranked by similarity instead, when the fuzzy index is enabled"
+    )
+    @GetMapping("/search")
+    public AccountSearchResponse search(@ModelAttribute AccountSearchRequest request) {
+        return accountSearchService.search(request);
+    }
+
     @GetMapping("/nameEnquiry")
     public String nameEnquiry(@RequestBody EnquiryRequest request){
         return userService.nameEnquiry(request);
     }
 
+    // Money movements accept an optional Idempotency-Key header; a retried request with the same key
+    // returns the original response instead of moving the money again
     @PostMapping("/credit")
-    public BankResponse creditAccount(@RequestBody CreditDebitRequest request){
-        return userService.creditAccount(request);
+    public BankResponse creditAccount(@RequestBody CreditDebitRequest request,
+                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+        return idempotencyService.execute(idempotencyKey, "credit", request, () -> userService.creditAccount(request));
     }
     @PostMapping("/debit")
-    public BankResponse debitAccount(@RequestBody CreditDebitRequest request) {
-        return userService.debitAccount(request);
+    public BankResponse debitAccount(@RequestBody CreditDebitRequest request,
+                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "debit", request, () -> userService.debitAccount(request));
     }
 
     @PostMapping("/transfer")
-    public BankResponse transfer(@RequestBody TransferRequest transferRequest) {
-        return userService.transfer(transferRequest);
+    public BankResponse transfer(@RequestBody TransferRequest transferRequest,
+                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "transfer", transferRequest,
+                () -> userService.transfer(transferRequest));
+    }
+
+    @Operation(
+            summary = "Batch Transfer",
+            description = "Applies many transfers in one request. ALL_OR_NOTHING commits them together or not at all; " +
+                    "BEST_EFFORT commits them in chunks and skips the ones that fail"
+    )
+    @PostMapping("/transfer/batch")
+    public BatchTransferResponse batchTransfer(@RequestBody BatchTransferRequest request) {
+        return userService.batchTransfer(request);
+    }
+
+    @Operation(
+            summary = "Balance Slots",
+            description = "Stripes a high-volume account's balance over N slot rows so concurrent credits don't queue " +
+                    "on one row lock; 0 slots turns striping off. The balance itself is unchanged"
+    )
+    @PostMapping("/balanceSlots")
+    public BankResponse balanceSlots(@RequestBody BalanceSlotsRequest request) {
+        return hotAccountService.setBalanceSlots(request);
+    }
+
+    @Operation(
+            summary = "Rebuild Balance",
+            description = "Recomputes the account's stored balance, slots included, from its ledger entries. Refused " +
+                    "when the ledger is disabled or the account's balance predates it"
+    )
+    @PostMapping("/rebuildBalance")
+    public BankResponse rebuildBalance(@RequestBody EnquiryRequest request) {
+        return ledgerService.rebuildBalance(request.getAccountNumber());
+    }
+
+    @Operation(
+            summary = "End of Day",
+            description = "Pays a day's interest on every active account and, on the last day of the month, charges " +
+                    "the maintenance fee. Running a date again resumes it if it was interrupted; a finished date is " +
+                    "only reported"
+    )
+    @PostMapping("/endOfDay")
+    public EndOfDayResponse endOfDay(@RequestBody(required = false) EndOfDayRequest request) {
+        LocalDate businessDate = request == null || request.getBusinessDate() == null
+                ? LocalDate.now() : request.getBusinessDate();
+        return endOfDayService.runEndOfDay(businessDate);
     }
-}
 
+    @Operation(
+            summary = "Account Statement",
+            description = "Streams the account's transactions between fromDate and toDate (inclusive) as csv, jsonl or pdf"
+    )
+    @GetMapping("/statement")
+    public ResponseEntity<StreamingResponseBody> statement(@ModelAttribute StatementRequest request)
+            throws JsonProcessingException {
+        // An unknown format or account is answered with the BankResponse instead of an empty statement
+        BankResponse rejection = statementService.rejectionOf(request).orElse(null);
+        if (rejection != null) {
+            byte[] body = objectMapper.writeValueAsBytes(rejection);
+            return ResponseEntity.status(AccountUtils.INVALID_REQUEST_CODE.equals(rejection.getResponseCode())
+                            ? HttpStatus.BAD_REQUEST : HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(output -> output.write(body));
+        }
+        String format = request.getFormat() == null ? AccountUtils.STATEMENT_FORMAT_CSV : request.getFormat().toLowerCase();
+        MediaType mediaType = switch (format) {
+            case AccountUtils.STATEMENT_FORMAT_JSONL -> MediaType.parseMediaType("application/x-ndjson");
+            case AccountUtils.STATEMENT_FORMAT_PDF -> MediaType.APPLICATION_PDF;
+            case AccountUtils.STATEMENT_FORMAT_CSV -> MediaType.parseMediaType("text/csv");
+            default -> throw new IllegalStateException("Unknown statement format " + format);
+        };
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header("Content-Disposition", "attachment; filename=\"statement-" + request.getAccountNumber() +
+                        "." + format + "\"")
+                .body(output -> statementService.writeStatement(request, output));
+    }
 
+    @PostMapping("/statement/email")
+    public BankResponse emailStatement(@RequestBody StatementRequest request) {
+        return statementService.emailStatement(request);
+    }
+}
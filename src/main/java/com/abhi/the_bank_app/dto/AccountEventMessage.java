@@ -0,0 +1,25 @@
+package com.abhi.the_bank_app.dto;
+
+import com.abhi.the_bank_app.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// What the event sinks publish. eventId is unique and increases per account, so consumers can drop the
+// duplicates that at-least-once delivery produces.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountEventMessage {
+
+    private Long eventId;
+    private String eventType;
+    private String accountNumber;
+    private String counterpartyAccountNumber;
+    private Money amount;
+    private LocalDateTime occurredAt;
+}
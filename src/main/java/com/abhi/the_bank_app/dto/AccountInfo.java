@@ -1,20 +1,21 @@
 package com.abhi.the_bank_app.dto;
 
+import com.abhi.the_bank_app.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
+import java.io.Serializable;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class AccountInfo {
+public class AccountInfo implements Serializable {
 
     private String accountName;
-    private BigDecimal accountBalance;
+    private Money accountBalance;
     private String accountNumber;
 
 }
\ No newline at end of file
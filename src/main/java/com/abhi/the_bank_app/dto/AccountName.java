@@ -0,0 +1,18 @@
+package com.abhi.the_bank_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What the fuzzy name index is built from
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountName {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+}
@@ -0,0 +1,26 @@
+package com.abhi.the_bank_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Every criterion is optional and they are combined with AND. name matches the start of "lastName firstName",
+// email case-insensitively, the others exactly.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountSearchRequest {
+
+    private String name;
+    private String email;
+    private String phoneNumber;
+    private String stateOfOrigin;
+    private String status;
+    // Ranks accounts by how closely their name resembles name (typos, either name first) instead of by prefix
+    private boolean fuzzy;
+    private Integer limit;
+    // nextCursor of the previous page
+    private String cursor;
+}
@@ -0,0 +1,21 @@
+package com.abhi.the_bank_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountSearchResponse {
+
+    private String responseCode;
+    private String responseMessage;
+    private List<AccountSummary> accounts;
+    // Pass back as cursor for the next page; null on the last page
+    private String nextCursor;
+}
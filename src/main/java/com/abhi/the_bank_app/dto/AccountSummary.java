@@ -0,0 +1,25 @@
+package com.abhi.the_bank_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One search hit, read straight from the query into this DTO
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountSummary {
+
+    private String accountName;
+    private String accountNumber;
+    private String email;
+    private String phoneNumber;
+    private String stateOfOrigin;
+    private String status;
+    // users.search_name, what name searches are ordered by; only needed to build the next cursor
+    @JsonIgnore
+    private String searchName;
+}
@@ -0,0 +1,17 @@
+package com.abhi.the_bank_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Stripes an account's balance over the given number of slots; 0 turns striping off
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BalanceSlotsRequest {
+
+    private String accountNumber;
+    private Integer slots;
+}
@@ -0,0 +1,58 @@
+package com.abhi.the_bank_app.dto;
+
+import com.abhi.the_bank_app.utils.AccountUtils;
+
+// Shared instances of the responses that carry no account data. They are returned on every failed lookup,
+// so they are built once; the setters throw, so no caller can change what every other caller sees.
+public final class BankResponses {
+
+    public static final BankResponse ACCOUNT_EXISTS =
+            fixed(AccountUtils.ACCOUNT_EXIST_CODE, AccountUtils.ACCOUNT_EXIST_MESSAGE);
+    public static final BankResponse ACCOUNT_NOT_EXIST =
+            fixed(AccountUtils.ACCOUNT_NOT_EXIST_CODE, AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE);
+    public static final BankResponse SOURCE_ACCOUNT_NOT_EXIST =
+            fixed(AccountUtils.ACCOUNT_NOT_EXIST_CODE, "Source account does not exist!");
+    public static final BankResponse DESTINATION_ACCOUNT_NOT_EXIST =
+            fixed(AccountUtils.ACCOUNT_NOT_EXIST_CODE, "Destination account does not exist!");
+    public static final BankResponse INVALID_REQUEST =
+            fixed(AccountUtils.INVALID_REQUEST_CODE, AccountUtils.INVALID_REQUEST_MESSAGE);
+    public static final BankResponse IDEMPOTENCY_KEY_REUSED =
+            fixed(AccountUtils.IDEMPOTENCY_KEY_REUSED_CODE, AccountUtils.IDEMPOTENCY_KEY_REUSED_MESSAGE);
+    public static final BankResponse IDEMPOTENCY_KEY_IN_PROGRESS =
+            fixed(AccountUtils.IDEMPOTENCY_KEY_IN_PROGRESS_CODE, AccountUtils.IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE);
+    public static final BankResponse BATCH_TRANSFER_ROLLED_BACK =
+            fixed(AccountUtils.BATCH_TRANSFER_ROLLED_BACK_CODE, AccountUtils.BATCH_TRANSFER_ROLLED_BACK_MESSAGE);
+    public static final BankResponse LEDGER_DISABLED =
+            fixed(AccountUtils.LEDGER_DISABLED_CODE, AccountUtils.LEDGER_DISABLED_MESSAGE);
+    public static final BankResponse BALANCE_PREDATES_LEDGER =
+            fixed(AccountUtils.BALANCE_PREDATES_LEDGER_CODE, AccountUtils.BALANCE_PREDATES_LEDGER_MESSAGE);
+
+    private BankResponses() {
+    }
+
+    private static BankResponse fixed(String responseCode, String responseMessage) {
+        return new FixedBankResponse(responseCode, responseMessage);
+    }
+
+    private static final class FixedBankResponse extends BankResponse {
+
+        private FixedBankResponse(String responseCode, String responseMessage) {
+            super(responseCode, responseMessage, null);
+        }
+
+        @Override
+        public void setResponseCode(String responseCode) {
+            throw new UnsupportedOperationException("Shared response");
+        }
+
+        @Override
+        public void setResponseMessage(String responseMessage) {
+            throw new UnsupportedOperationException("Shared response");
+        }
+
+        @Override
+        public void setAccountInfo(AccountInfo accountInfo) {
+            throw new UnsupportedOperationException("Shared response");
+        }
+    }
+}
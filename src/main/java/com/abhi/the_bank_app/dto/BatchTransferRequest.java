@@ -0,0 +1,19 @@
+package com.abhi.the_bank_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTransferRequest {
+
+    private List<TransferRequest> transfers;
+    // ALL_OR_NOTHING or BEST_EFFORT (the default)
+    private String mode;
+}
@@ -0,0 +1,20 @@
+package com.abhi.the_bank_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTransferResponse {
+
+    private String responseCode;
+    private String responseMessage;
+    // One result per requested transfer, in request order
+    private List<BankResponse> results;
+}
@@ -1,11 +1,11 @@
 package com.abhi.the_bank_app.dto;
 
+import com.abhi.the_bank_app.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 @Data
 @Builder
 @AllArgsConstructor
@@ -13,5 +13,5 @@ import java.math.BigDecimal;
 public class CreditDebitRequest {
 
     private String accountNumber;
-    private BigDecimal amount;
+    private Money amount;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.abhi.the_bank_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Runs (or resumes) end of day for the given date; today when it is left out
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EndOfDayRequest {
+
+    private LocalDate businessDate;
+}
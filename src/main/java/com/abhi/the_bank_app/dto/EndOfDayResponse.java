@@ -0,0 +1,30 @@
+package com.abhi.the_bank_app.dto;
+
+import com.abhi.the_bank_app.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EndOfDayResponse {
+
+    private String responseCode;
+    private String responseMessage;
+    private LocalDate businessDate;
+    private int partitions;
+    private int partitionsDone;
+    // Totals for the business date so far, including the work of earlier attempts that were resumed
+    private long accountsProcessed;
+    private long accountsSkipped;
+    private Money interestPaid;
+    private Money feesCharged;
+    // This attempt only
+    private long elapsedMillis;
+    private long accountsPerSecond;
+}
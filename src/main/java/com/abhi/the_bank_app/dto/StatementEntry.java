@@ -0,0 +1,24 @@
+package com.abhi.the_bank_app.dto;
+
+import com.abhi.the_bank_app.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementEntry {
+
+    private Long id;
+    private LocalDateTime createdAt;
+    private String transactionReference;
+    private String transactionType;
+    private Money amount;
+    private String counterpartyAccountNumber;
+    private String description;
+}
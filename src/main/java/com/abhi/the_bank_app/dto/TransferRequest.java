@@ -1,11 +1,11 @@
 package com.abhi.the_bank_app.dto;
 
+import com.abhi.the_bank_app.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 
 @Data
 @NoArgsConstructor
@@ -15,5 +15,5 @@ public class TransferRequest {
 
     private String sourceAccountNumber;
     private String destinationAccountNumber;
-    private BigDecimal amount;
+    private Money amount;
 }
\ No newline at end of file
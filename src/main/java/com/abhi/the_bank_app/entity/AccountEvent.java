@@ -0,0 +1,40 @@
+package com.abhi.the_bank_app.entity;
+
+import com.abhi.the_bank_app.money.Money;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Outbox row for one balance-change event. It is inserted in the same transaction as the change it describes
+// and deleted by the AccountEventDispatcher once every sink has accepted it.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "account_events")
+public class AccountEvent {
+
+    public static final String TYPE_ACCOUNT_CREATED = "AccountCreated";
+    public static final String TYPE_ACCOUNT_CREDITED = "AccountCredited";
+    public static final String TYPE_ACCOUNT_DEBITED = "AccountDebited";
+    public static final String TYPE_TRANSFER_COMPLETED = "TransferCompleted";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_events_seq")
+    @SequenceGenerator(name = "account_events_seq", sequenceName = "account_events_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+    // Destination of a transfer; empty for the other event types
+    private String counterpartyAccountNumber;
+    private Money amount;
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
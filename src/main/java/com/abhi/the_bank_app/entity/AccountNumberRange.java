@@ -0,0 +1,18 @@
+package com.abhi.the_bank_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// One row per number series; nodes lease blocks of numbers by advancing nextValue
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "account_number_range")
+public class AccountNumberRange {
+    @Id
+    private String name;
+    private long nextValue;
+}
@@ -0,0 +1,29 @@
+package com.abhi.the_bank_app.entity;
+
+import com.abhi.the_bank_app.money.Money;
+import jakarta.persistence.*;
+import lombok.*;
+
+// One sub-balance of a striped (hot) account. Credits land on a random slot instead of the users row, so
+// concurrent credits to the same account lock different rows; the account's balance is its users row plus
+// all of its slots. See HotAccountService.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "account_slots", uniqueConstraints =
+        @UniqueConstraint(name = "uk_account_slots_account_slot", columnNames = {"account_number", "slot"}))
+public class AccountSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_slots_seq")
+    @SequenceGenerator(name = "account_slots_seq", sequenceName = "account_slots_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+    // 0 .. balanceSlots - 1 of the owning user
+    @Column(name = "slot", nullable = false)
+    private int slot;
+    private Money balance;
+}
@@ -0,0 +1,47 @@
+package com.abhi.the_bank_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_outbox_claim_token", columnList = "claim_token"),
+        @Index(name = "idx_email_outbox_status_sent_at", columnList = "status, sent_at")
+})
+public class EmailOutbox {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+    private String recipient;
+    private String subject;
+    @Column(length = 4000)
+    private String messageBody;
+    private String attachment;
+    @Column(nullable = false)
+    private String status;
+    private int attempts;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    // Set by the dispatcher poll that last claimed the message
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+    @Column(length = 1000)
+    private String lastError;
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+}
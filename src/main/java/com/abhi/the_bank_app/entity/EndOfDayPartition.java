@@ -0,0 +1,52 @@
+package com.abhi.the_bank_app.entity;
+
+import com.abhi.the_bank_app.money.Money;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One slice of an end-of-day run: the accounts with ids firstId..lastId on this shard. nextId is the checkpoint,
+// the last id whose postings have committed; it moves in the same transaction as the balances it covers, so a run
+// that crashed is resumed from exactly where it stopped. The totals are kept up to date the same way.
+// See EndOfDayService.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "end_of_day_partitions", uniqueConstraints =
+        @UniqueConstraint(name = "uk_end_of_day_partitions_date_partition", columnNames = {"business_date", "partition_no"}))
+public class EndOfDayPartition {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_DONE = "DONE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "end_of_day_partitions_seq")
+    @SequenceGenerator(name = "end_of_day_partitions_seq", sequenceName = "end_of_day_partitions_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+    @Column(nullable = false)
+    private long firstId;
+    @Column(nullable = false)
+    private long lastId;
+    @Column(nullable = false)
+    private long nextId;
+    @Column(nullable = false)
+    private String status;
+    @Column(nullable = false)
+    private long accounts;
+    @Column(nullable = false)
+    private long skipped;
+    @Column(nullable = false)
+    private Money interest;
+    @Column(nullable = false)
+    private Money fees;
+    private LocalDateTime updatedAt;
+}
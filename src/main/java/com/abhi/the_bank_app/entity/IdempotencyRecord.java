@@ -0,0 +1,41 @@
+package com.abhi.the_bank_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Response stored for an Idempotency-Key. Keys are assigned by the client, so the entity reports itself as
+// new to make save() a plain INSERT (a duplicate key then fails on the primary key instead of merging).
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+    // Operation name plus a hash of the request, so a key reused for a different request can be rejected
+    private String requestFingerprint;
+    @Column(length = 4000)
+    private String responseBody;
+    private LocalDateTime createdAt;
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
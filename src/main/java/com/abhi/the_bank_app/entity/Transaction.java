@@ -0,0 +1,46 @@
+package com.abhi.the_bank_app.entity;
+
+import com.abhi.the_bank_app.money.Money;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// One leg of a balance change. Rows are only ever inserted; a transfer writes a DEBIT and a CREDIT leg
+// that share the same transactionReference.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Immutable
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_created", columnList = "account_number, created_at"),
+        @Index(name = "idx_transactions_reference", columnList = "transaction_reference")
+})
+public class Transaction {
+
+    public static final String TYPE_CREDIT = "CREDIT";
+    public static final String TYPE_DEBIT = "DEBIT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "transaction_reference", nullable = false)
+    private String transactionReference;
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+    @Column(nullable = false)
+    private String transactionType;
+    @Column(nullable = false)
+    private Money amount;
+    private String counterpartyAccountNumber;
+    private String description;
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
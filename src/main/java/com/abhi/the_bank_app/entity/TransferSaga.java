@@ -0,0 +1,54 @@
+package com.abhi.the_bank_app.entity;
+
+import com.abhi.the_bank_app.money.Money;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Progress of a transfer between accounts on different shards. The source shard holds the saga row
+// (DEBITED -> COMPLETED, or COMPENSATED if the money had to go back); the destination shard holds a CREDITED
+// row with the same reference, written with the credit, so the credit can never be applied twice.
+// Rows are only ever inserted (save() is a plain INSERT) and moved between states with conditional updates.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "transfer_sagas", indexes = {
+        @Index(name = "idx_transfer_sagas_status_updated_at", columnList = "status, updated_at")
+})
+public class TransferSaga implements Persistable<String> {
+
+    public static final String STATUS_DEBITED = "DEBITED";
+    public static final String STATUS_CREDITED = "CREDITED";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_COMPENSATED = "COMPENSATED";
+
+    @Id
+    @Column(name = "transaction_reference", length = 36)
+    private String transactionReference;
+    @Column(nullable = false)
+    private String sourceAccountNumber;
+    @Column(nullable = false)
+    private String destinationAccountNumber;
+    @Column(nullable = false)
+    private Money amount;
+    @Column(nullable = false)
+    private String status;
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Override
+    public String getId() {
+        return transactionReference;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
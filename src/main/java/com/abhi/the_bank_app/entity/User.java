@@ -1,11 +1,11 @@
 package com.abhi.the_bank_app.entity;
 
+import com.abhi.the_bank_app.money.Money;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -14,10 +14,24 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_account_number", columnNames = "account_number"),
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+}, indexes = {
+        // Account search (AccountSearchRepository): each index ends in account_number, the keyset of every search,
+        // so a page is a seek to "value = ? and account_number > ?" however deep it is
+        @Index(name = "idx_users_search_name", columnList = "search_name, account_number"),
+        @Index(name = "idx_users_email_lower", columnList = "email_lower"),
+        @Index(name = "idx_users_phone_number", columnList = "phone_number, account_number"),
+        @Index(name = "idx_users_state_status", columnList = "state_of_origin, status, account_number"),
+        @Index(name = "idx_users_state", columnList = "state_of_origin, account_number"),
+        @Index(name = "idx_users_status", columnList = "status, account_number")
+})
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    // Pooled sequence: one sequence call hands out 50 ids, which keeps JDBC insert batching possible
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     private  String firstName;
     private  String lastName;
@@ -25,12 +39,29 @@ public class User {
     private  String gender;
     private  String address;
     private  String stateOfOrigin;
+    @Column(name = "account_number", nullable = false)
     private  String accountNumber;
-    private BigDecimal accountBalance;
+    private Money accountBalance;
+    // Number of AccountSlot rows that take this account's credits; 0 for a regular account
+    @Column(name = "balance_slots", nullable = false)
+    private int balanceSlots;
+    @Column(name = "email")
     private  String email;
     private  String phoneNumber;
     private  String alternativePhoneNumber;
     private  String status;
+    // When the ledger started recording every change to this balance; null when the balance predates the ledger
+    // (opening balances loaded directly, accounts created with bank.ledger.enabled off), so it can't be rebuilt
+    @Column(name = "ledger_since")
+    private LocalDateTime ledgerSince;
+    // Lower-cased copies for case-insensitive search, computed by the database on every insert and update
+    // (so bulk loads and the reactive app keep them right too); Hibernate never writes them
+    @Column(name = "search_name", insertable = false, updatable = false,
+            columnDefinition = "varchar(511) generated always as (lower(concat(last_name, ' ', first_name)))")
+    private String searchName;
+    @Column(name = "email_lower", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(email))")
+    private String emailLower;
     @CreationTimestamp
     private LocalDateTime createdAt;
     @UpdateTimestamp
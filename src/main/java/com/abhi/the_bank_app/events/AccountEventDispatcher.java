@@ -0,0 +1,163 @@
+package com.abhi.the_bank_app.events;
+
+import com.abhi.the_bank_app.dto.AccountEventMessage;
+import com.abhi.the_bank_app.entity.AccountEvent;
+import com.abhi.the_bank_app.repository.AccountEventRepository;
+import com.abhi.the_bank_app.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Moves events from the account_events outbox to the sinks. Each poll reads the oldest events in batches,
+// offers every batch to all sinks in turn and deletes it once they have all accepted it. Sinks are called
+// synchronously, so the outbox drains only as fast as the slowest sink and a burst simply queues up in the
+// table (see the bank.events.outbox.depth gauge). When a sink fails the batch stays put and the dispatcher
+// pauses with exponential backoff; delivery is at least once, in id order.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.events.enabled", havingValue = "true", matchIfMissing = true)
+public class AccountEventDispatcher {
+
+    @Autowired
+    private AccountEventRepository accountEventRepository;
+
+    @Autowired
+    private ObjectProvider<AccountEventSink> sinkProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${bank.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${bank.events.batches-per-poll:20}")
+    private int batchesPerPoll;
+
+    @Value("${bank.events.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${bank.events.max-retry-backoff-ms:60000}")
+    private long maxRetryBackoffMs;
+
+    private List<AccountEventSink> sinks;
+    private final Map<String, Timer> publishLatency = new HashMap<>();
+    private final Map<String, Counter> failedCounters = new HashMap<>();
+    private Counter publishedCounter;
+    private Timer lag;
+
+    // Only touched by the scheduler thread
+    private int consecutiveFailures;
+    private long pausedUntil;
+
+    @PostConstruct
+    void init() {
+        sinks = sinkProvider.orderedStream().toList();
+        if (sinks.isEmpty()) {
+            log.warn("bank.events.enabled is set but no event sink is enabled; events will stay in the outbox");
+        }
+        for (AccountEventSink sink : sinks) {
+            publishLatency.put(sink.name(), Timer.builder("bank.events.publish.latency")
+                    .description("Time taken by a sink to accept one batch of events")
+                    .tag("sink", sink.name())
+                    .register(meterRegistry));
+            failedCounters.put(sink.name(), Counter.builder("bank.events.publish.failed")
+                    .description("Batches a sink rejected; they are offered again after a backoff")
+                    .tag("sink", sink.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("bank.events.outbox.depth", this, AccountEventDispatcher::pendingCount)
+                .description("Events waiting to be published")
+                .register(meterRegistry);
+        publishedCounter = Counter.builder("bank.events.published").register(meterRegistry);
+        lag = Timer.builder("bank.events.lag")
+                .description("Time from the balance change committing to its event reaching every sink")
+                .register(meterRegistry);
+    }
+
+    // Events are stored on the shard of the account they are about, so every shard is polled
+    @Scheduled(fixedDelayString = "${bank.events.poll-interval-ms:200}")
+    public void dispatch() {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        shardRouter.forEachShard(shard -> dispatchShard());
+    }
+
+    private void dispatchShard() {
+        for (int i = 0; i < batchesPerPoll && System.currentTimeMillis() >= pausedUntil; i++) {
+            List<AccountEvent> batch = accountEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+            if (batch.isEmpty() || !publish(batch)) {
+                return;
+            }
+            accountEventRepository.deleteAllByIdInBatch(batch.stream().map(AccountEvent::getId).toList());
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    // False when a sink rejected the batch; the sinks before it have already seen it and will see it again
+    private boolean publish(List<AccountEvent> batch) {
+        List<AccountEventMessage> events = batch.stream().map(AccountEventDispatcher::toMessage).toList();
+        for (AccountEventSink sink : sinks) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                sink.publish(events);
+            } catch (Exception e) {
+                failedCounters.get(sink.name()).increment();
+                consecutiveFailures++;
+                // Exponential backoff: retryBackoffMs, 2x, 4x, ... capped at maxRetryBackoffMs
+                long backoff = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(consecutiveFailures - 1, 20));
+                pausedUntil = System.currentTimeMillis() + backoff;
+                log.warn("Event sink {} rejected {} events (attempt {}); retrying in {} ms", sink.name(),
+                        events.size(), consecutiveFailures, backoff, e);
+                return false;
+            } finally {
+                sample.stop(publishLatency.get(sink.name()));
+            }
+        }
+        consecutiveFailures = 0;
+        publishedCounter.increment(events.size());
+        LocalDateTime oldest = batch.get(0).getCreatedAt();
+        if (oldest != null) {
+            lag.record(Duration.between(oldest, LocalDateTime.now()));
+        }
+        return true;
+    }
+
+    private double pendingCount() {
+        long[] pending = {0};
+        shardRouter.forEachShard(shard -> pending[0] += accountEventRepository.count());
+        return pending[0];
+    }
+
+    private static AccountEventMessage toMessage(AccountEvent event) {
+        return AccountEventMessage.builder()
+                .eventId(event.getId())
+                .eventType(event.getEventType())
+                .accountNumber(event.getAccountNumber())
+                .counterpartyAccountNumber(event.getCounterpartyAccountNumber())
+                .amount(event.getAmount())
+                .occurredAt(event.getCreatedAt())
+                .build();
+    }
+}
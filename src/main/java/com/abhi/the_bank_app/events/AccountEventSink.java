@@ -0,0 +1,15 @@
+package com.abhi.the_bank_app.events;
+
+import com.abhi.the_bank_app.dto.AccountEventMessage;
+
+import java.util.List;
+
+// Destination for the account event stream. publish gets the events in id order and must only return once
+// they are accepted; throwing leaves the whole batch in the outbox and it is offered again later, so a sink
+// can see a batch more than once.
+public interface AccountEventSink {
+
+    String name();
+
+    void publish(List<AccountEventMessage> events) throws Exception;
+}
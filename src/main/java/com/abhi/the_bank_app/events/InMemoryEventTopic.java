@@ -0,0 +1,132 @@
+package com.abhi.the_bank_app.events;
+
+import com.abhi.the_bank_app.dto.AccountEventMessage;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Local stand-in for a Kafka topic, for development and for in-process consumers. Events are keyed by account
+// number onto a fixed number of partitions, so each account's events keep their order, and every record gets
+// an offset within its partition. Consumers track their own offsets and poll from them. Each partition is a
+// ring buffer that keeps the latest bank.events.topic.capacity records; a consumer that falls further behind
+// resumes from the oldest record still held, like auto.offset.reset=earliest.
+@Component
+@ConditionalOnProperty(name = "bank.events.topic.enabled", havingValue = "true", matchIfMissing = true)
+public class InMemoryEventTopic implements AccountEventSink {
+
+    private final Partition[] partitions;
+
+    public InMemoryEventTopic(@Value("${bank.events.topic.partitions:8}") int partitionCount,
+                              @Value("${bank.events.topic.capacity:65536}") int capacity) {
+        partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(capacity);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "topic";
+    }
+
+    @Override
+    public void publish(List<AccountEventMessage> events) {
+        for (AccountEventMessage event : events) {
+            partitions[partitionFor(event.getAccountNumber())].append(event);
+        }
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    public int partitionFor(String accountNumber) {
+        return AccountUtils.shardOf(accountNumber, partitions.length);
+    }
+
+    // Up to maxRecords records of the partition starting at offset; empty when the consumer is caught up
+    public List<TopicRecord> poll(int partition, long offset, int maxRecords) {
+        return partitions[partition].read(partition, offset, maxRecords);
+    }
+
+    public long beginningOffset(int partition) {
+        return partitions[partition].beginningOffset();
+    }
+
+    public long endOffset(int partition) {
+        return partitions[partition].endOffset();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class TopicRecord {
+
+        private final int partition;
+        private final long offset;
+        private final AccountEventMessage event;
+    }
+
+    private static final class Partition {
+
+        private final AccountEventMessage[] records;
+        private final int mask;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long nextOffset;
+
+        Partition(int capacity) {
+            int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+            records = new AccountEventMessage[size];
+            mask = size - 1;
+        }
+
+        void append(AccountEventMessage event) {
+            lock.lock();
+            try {
+                records[(int) (nextOffset & mask)] = event;
+                nextOffset++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<TopicRecord> read(int partition, long offset, int maxRecords) {
+            lock.lock();
+            try {
+                long from = Math.max(offset, beginningOffset());
+                long to = Math.min(nextOffset, from + maxRecords);
+                List<TopicRecord> batch = new ArrayList<>((int) Math.max(0, to - from));
+                for (long position = from; position < to; position++) {
+                    batch.add(new TopicRecord(partition, position, records[(int) (position & mask)]));
+                }
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long beginningOffset() {
+            lock.lock();
+            try {
+                return Math.max(0, nextOffset - records.length);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long endOffset() {
+            lock.lock();
+            try {
+                return nextOffset;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
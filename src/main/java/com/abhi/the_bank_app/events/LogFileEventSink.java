@@ -0,0 +1,71 @@
+package com.abhi.the_bank_app.events;
+
+import com.abhi.the_bank_app.dto.AccountEventMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Appends each event as one line of JSON. A batch is written with a single write and forced to disk before
+// publish returns, because the dispatcher deletes the events from the outbox as soon as it does.
+@Component
+@ConditionalOnProperty(name = "bank.events.log-file.enabled", havingValue = "true")
+public class LogFileEventSink implements AccountEventSink {
+
+    private static final byte NEWLINE = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LogFileEventSink(ObjectMapper objectMapper,
+                            @Value("${bank.events.log-file.path:./data/events/account-events.jsonl}") Path path)
+            throws IOException {
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public String name() {
+        return "log-file";
+    }
+
+    @Override
+    public void publish(List<AccountEventMessage> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 192);
+        for (AccountEventMessage event : events) {
+            objectMapper.writeValue(lines, event);
+            lines.write(NEWLINE);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        lock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        channel.close();
+    }
+}
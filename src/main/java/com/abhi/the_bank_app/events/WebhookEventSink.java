@@ -0,0 +1,50 @@
+package com.abhi.the_bank_app.events;
+
+import com.abhi.the_bank_app.dto.AccountEventMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+// POSTs every batch as a JSON array to bank.events.webhook.url. Any non-2xx answer or timeout fails the
+// batch, so the receiver should acknowledge only after it has stored the events and dedupe on eventId.
+@Component
+@ConditionalOnProperty(name = "bank.events.webhook.enabled", havingValue = "true")
+public class WebhookEventSink implements AccountEventSink {
+
+    private final RestClient restClient;
+
+    public WebhookEventSink(RestClient.Builder restClientBuilder,
+                            @Value("${bank.events.webhook.url}") String url,
+                            @Value("${bank.events.webhook.connect-timeout:2s}") Duration connectTimeout,
+                            @Value("${bank.events.webhook.read-timeout:5s}") Duration readTimeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build());
+        requestFactory.setReadTimeout(readTimeout);
+        restClient = restClientBuilder
+                .baseUrl(url)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void publish(List<AccountEventMessage> events) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(events)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,98 @@
+package com.abhi.the_bank_app.metrics;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BatchTransferResponse;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Instruments every UserService operation and every repository call.
+// - bank.operation: timer (and tracing span) per operation, tagged with operation and response code
+// - bank.db.queries: SQL statements issued per operation
+// - bank.transfer.amount: amounts of successful transfers
+// - bank.repository: timer (and child span) per repository method
+// HTTP requests already get an http.server.requests observation from Spring MVC, so a trace runs
+// controller -> service -> repository. Runs outside the transaction so commit-time flushes are counted too.
+@Aspect
+@Order(0)
+@Component
+public class BankingMetricsAspect {
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(* com.abhi.the_bank_app.service.UserService.*(..))")
+    public Object observeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        // A UserService calling another one (e.g. the sharding front delegating) is still one operation
+        Observation current = observationRegistry.getCurrentObservation();
+        if (current != null && "bank.operation".equals(current.getContext().getName())) {
+            return joinPoint.proceed();
+        }
+        String operation = joinPoint.getSignature().getName();
+        Observation observation = Observation.createNotStarted("bank.operation", observationRegistry)
+                .contextualName("bank " + operation)
+                .lowCardinalityKeyValue("operation", operation)
+                .start();
+        int queriesBefore = QueryCountingStatementInspector.current();
+        try (Observation.Scope scope = observation.openScope()) {
+            Object result = joinPoint.proceed();
+            String code = responseCode(result);
+            observation.lowCardinalityKeyValue("code", code);
+            if (AccountUtils.TRANSFER_SUCCESS_CODE.equals(code) && joinPoint.getArgs()[0] instanceof TransferRequest request
+                    && request.getAmount() != null) {
+                DistributionSummary.builder("bank.transfer.amount")
+                        .description("Amounts moved by successful transfers")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(request.getAmount().doubleValue());
+            }
+            return result;
+        } catch (Throwable e) {
+            observation.lowCardinalityKeyValue("code", "exception");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+            DistributionSummary.builder("bank.db.queries")
+                    .description("SQL statements issued by one banking operation")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .record(QueryCountingStatementInspector.current() - queriesBefore);
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object observeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        String repository = interfaces.length > 0 ? interfaces[0].getSimpleName() : "unknown";
+        return Observation.createNotStarted("bank.repository", observationRegistry)
+                .contextualName(repository + "." + joinPoint.getSignature().getName())
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", joinPoint.getSignature().getName())
+                .observeChecked(() -> joinPoint.proceed());
+    }
+
+    // BankResponse code, or a fixed tag for operations that return something else
+    private static String responseCode(Object result) {
+        if (result instanceof BankResponse response && response.getResponseCode() != null) {
+            return response.getResponseCode();
+        }
+        if (result instanceof BatchTransferResponse response && response.getResponseCode() != null) {
+            return response.getResponseCode();
+        }
+        return result instanceof String ? "text" : "none";
+    }
+}
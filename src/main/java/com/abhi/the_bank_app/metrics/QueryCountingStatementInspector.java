@@ -0,0 +1,20 @@
+package com.abhi.the_bank_app.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on the current thread, so BankingMetricsAspect can report
+// how many queries each operation issued. Registered through hibernate.session_factory.statement_inspector.
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
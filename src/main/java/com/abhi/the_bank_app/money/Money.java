@@ -0,0 +1,141 @@
+package com.abhi.the_bank_app.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+// An amount held as a whole number of minor units (paise for INR), so arithmetic and comparisons are plain long
+// operations with no rounding. The scale is the currency's own: an amount with more decimal places than that
+// is rejected rather than rounded, and any result that would overflow a long throws ArithmeticException.
+// Balances and amounts are stored as BIGINT minor units (MoneyAttributeConverter) and read and written in
+// JSON as plain decimal numbers, e.g. 1250.50 (MoneyJsonSerializer, MoneyJsonDeserializer).
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money implements Comparable<Money>, Serializable {
+
+    // Every account and amount in the bank is in this currency; the database columns carry no currency code
+    public static final Currency BANK_CURRENCY = Currency.getInstance("INR");
+
+    public static final Money ZERO = new Money(0, BANK_CURRENCY);
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, BANK_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return currency == BANK_CURRENCY ? ofMinor(minorUnits) : new Money(minorUnits, currency);
+    }
+
+    // Throws ArithmeticException when the amount has more decimal places than the currency or doesn't fit a long
+    public static Money of(BigDecimal amount) {
+        return of(amount, BANK_CURRENCY);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        long minorUnits = amount.setScale(currency.getDefaultFractionDigits(), RoundingMode.UNNECESSARY)
+                .unscaledValue()
+                .longValueExact();
+        return ofMinor(minorUnits, currency);
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits), currency);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    public double doubleValue() {
+        return minorUnits / Math.pow(10, currency.getDefaultFractionDigits());
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot combine " + currency + " and " + other.currency + " amounts");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+    }
+
+    // Plain decimal with the currency's scale, e.g. "1250.50" or "-0.05"; this is also the JSON form
+    @Override
+    public String toString() {
+        int scale = currency.getDefaultFractionDigits();
+        if (scale <= 0) {
+            return Long.toString(minorUnits);
+        }
+        StringBuilder digits = new StringBuilder(24);
+        if (minorUnits < 0) {
+            digits.append('-');
+        }
+        // Long.MIN_VALUE has no positive counterpart, so work on the unsigned magnitude
+        String magnitude = Long.toUnsignedString(minorUnits < 0 ? -minorUnits : minorUnits);
+        for (int pad = scale + 1 - magnitude.length(); pad > 0; pad--) {
+            digits.append('0');
+        }
+        digits.append(magnitude);
+        digits.insert(digits.length() - scale, '.');
+        return digits.toString();
+    }
+}
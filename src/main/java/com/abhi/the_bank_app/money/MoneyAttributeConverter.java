@@ -0,0 +1,29 @@
+package com.abhi.the_bank_app.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+
+// Stores every Money attribute as a BIGINT count of minor units of the bank currency. Money is immutable, so
+// Hibernate can keep the loaded instance as the dirty-checking snapshot instead of copying it through the column.
+@Converter(autoApply = true)
+@Immutable
+public class MoneyAttributeConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        if (money == null) {
+            return null;
+        }
+        if (!Money.BANK_CURRENCY.equals(money.getCurrency())) {
+            throw new IllegalArgumentException("Only " + Money.BANK_CURRENCY + " amounts can be stored, got "
+                    + money.getCurrency());
+        }
+        return money.getMinorUnits();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minorUnits) {
+        return minorUnits == null ? null : Money.ofMinor(minorUnits);
+    }
+}
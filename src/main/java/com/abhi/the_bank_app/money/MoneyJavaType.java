@@ -0,0 +1,70 @@
+package com.abhi.the_bank_app.money;
+
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractClassJavaType;
+import org.hibernate.type.descriptor.java.ImmutableMutabilityPlan;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.JdbcTypeIndicators;
+
+// Tells Hibernate what a Money is. Without it Money falls back to the generic Serializable handling, which
+// compares two unequal values (every dirty balance) by serializing both of them.
+public class MoneyJavaType extends AbstractClassJavaType<Money> {
+
+    public static final MoneyJavaType INSTANCE = new MoneyJavaType();
+
+    private MoneyJavaType() {
+        super(Money.class, ImmutableMutabilityPlan.instance());
+    }
+
+    @Override
+    public JdbcType getRecommendedJdbcType(JdbcTypeIndicators indicators) {
+        return indicators.getJdbcType(SqlTypes.BIGINT);
+    }
+
+    @Override
+    public boolean areEqual(Money one, Money another) {
+        return one == another || one != null && one.equals(another);
+    }
+
+    @Override
+    public int extractHashCode(Money value) {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString(Money value) {
+        return value.toString();
+    }
+
+    @Override
+    public Money fromString(CharSequence string) {
+        return Money.of(string.toString());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> X unwrap(Money value, Class<X> type, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (Money.class.isAssignableFrom(type)) {
+            return (X) value;
+        }
+        if (Long.class.isAssignableFrom(type)) {
+            return (X) Long.valueOf(value.getMinorUnits());
+        }
+        throw unknownUnwrap(type);
+    }
+
+    @Override
+    public <X> Money wrap(X value, WrapperOptions options) {
+        if (value == null || value instanceof Money) {
+            return (Money) value;
+        }
+        if (value instanceof Number number) {
+            return Money.ofMinor(number.longValue());
+        }
+        throw unknownWrap(value.getClass());
+    }
+}
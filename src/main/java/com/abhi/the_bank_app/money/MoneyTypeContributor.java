@@ -0,0 +1,14 @@
+package com.abhi.the_bank_app.money;
+
+import org.hibernate.boot.model.TypeContributions;
+import org.hibernate.boot.model.TypeContributor;
+import org.hibernate.service.ServiceRegistry;
+
+// Registered through META-INF/services, so Hibernate knows MoneyJavaType before it maps any entity
+public class MoneyTypeContributor implements TypeContributor {
+
+    @Override
+    public void contribute(TypeContributions typeContributions, ServiceRegistry serviceRegistry) {
+        typeContributions.contributeJavaType(MoneyJavaType.INSTANCE);
+    }
+}
@@ -0,0 +1,13 @@
+package com.abhi.the_bank_app.repository;
+
+import com.abhi.the_bank_app.entity.AccountEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface AccountEventRepository extends JpaRepository<AccountEvent, Long> {
+
+    // Oldest unpublished events first
+    List<AccountEvent> findAllByOrderByIdAsc(Limit limit);
+}
@@ -0,0 +1,17 @@
+package com.abhi.the_bank_app.repository;
+
+import com.abhi.the_bank_app.entity.AccountNumberRange;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface AccountNumberRangeRepository extends JpaRepository<AccountNumberRange, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from AccountNumberRange r where r.name = :name")
+    Optional<AccountNumberRange> findForUpdateByName(@Param("name") String name);
+}
@@ -0,0 +1,83 @@
+package com.abhi.the_bank_app.repository;
+
+import com.abhi.the_bank_app.dto.AccountName;
+import com.abhi.the_bank_app.dto.AccountSummary;
+import com.abhi.the_bank_app.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+// Account search, one query per index. AccountSearchServiceImpl picks the most selective criterion given and runs
+// its query; the remaining criteria are "is null or" filters that only ever narrow the rows that index yields.
+// Every page is keyset paginated on account_number (after the name for name searches): the next page starts
+// where the last one ended, at the same cost as the first.
+public interface AccountSearchRepository extends Repository<User, Long> {
+
+    String SUMMARY = "select new com.abhi.the_bank_app.dto.AccountSummary(concat(u.firstName, ' ', u.lastName), " +
+            "u.accountNumber, u.email, u.phoneNumber, u.stateOfOrigin, u.status, u.searchName) from User u ";
+    String NAME_FILTER = "and (:namePattern is null or u.searchName like :namePattern escape '\\') ";
+    String STATE_STATUS_FILTER = "and (:stateOfOrigin is null or u.stateOfOrigin = :stateOfOrigin) " +
+            "and (:status is null or u.status = :status) ";
+
+    // Emails are unique, so there is at most one row and no paging
+    @Query(SUMMARY + "where u.emailLower = :email " +
+            "and (:phoneNumber is null or u.phoneNumber = :phoneNumber) " + NAME_FILTER + STATE_STATUS_FILTER)
+    List<AccountSummary> searchByEmail(@Param("email") String email, @Param("phoneNumber") String phoneNumber,
+                                       @Param("namePattern") String namePattern,
+                                       @Param("stateOfOrigin") String stateOfOrigin, @Param("status") String status);
+
+    @Query(SUMMARY + "where u.phoneNumber = :phoneNumber and u.accountNumber > :afterAccount " +
+            NAME_FILTER + STATE_STATUS_FILTER + "order by u.accountNumber")
+    List<AccountSummary> searchByPhoneNumber(@Param("phoneNumber") String phoneNumber,
+                                             @Param("afterAccount") String afterAccount,
+                                             @Param("namePattern") String namePattern,
+                                             @Param("stateOfOrigin") String stateOfOrigin,
+                                             @Param("status") String status, Limit limit);
+
+    // A range scan over the prefix, starting at the last name returned. Only the rows sharing that exact name
+    // and an earlier account number are read again, which H2 can't skip with a two-column keyset.
+    @Query(SUMMARY + "where u.searchName like :namePattern escape '\\' and u.searchName >= :afterName " +
+            "and (u.searchName > :afterName or u.accountNumber > :afterAccount) " +
+            STATE_STATUS_FILTER + "order by u.searchName, u.accountNumber")
+    List<AccountSummary> searchByName(@Param("namePattern") String namePattern, @Param("afterName") String afterName,
+                                      @Param("afterAccount") String afterAccount,
+                                      @Param("stateOfOrigin") String stateOfOrigin, @Param("status") String status,
+                                      Limit limit);
+
+    @Query(SUMMARY + "where u.stateOfOrigin = :stateOfOrigin and u.status = :status " +
+            "and u.accountNumber > :afterAccount order by u.accountNumber")
+    List<AccountSummary> searchByStateAndStatus(@Param("stateOfOrigin") String stateOfOrigin,
+                                                @Param("status") String status,
+                                                @Param("afterAccount") String afterAccount, Limit limit);
+
+    @Query(SUMMARY + "where u.stateOfOrigin = :stateOfOrigin and u.accountNumber > :afterAccount " +
+            "order by u.accountNumber")
+    List<AccountSummary> searchByState(@Param("stateOfOrigin") String stateOfOrigin,
+                                       @Param("afterAccount") String afterAccount, Limit limit);
+
+    @Query(SUMMARY + "where u.status = :status and u.accountNumber > :afterAccount order by u.accountNumber")
+    List<AccountSummary> searchByStatus(@Param("status") String status, @Param("afterAccount") String afterAccount,
+                                        Limit limit);
+
+    // No criteria: every account, in account number order
+    @Query(SUMMARY + "where u.accountNumber > :afterAccount order by u.accountNumber")
+    List<AccountSummary> listAccounts(@Param("afterAccount") String afterAccount, Limit limit);
+
+    @Query(SUMMARY + "where u.id in :ids")
+    List<AccountSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Forward-only cursor for building the fuzzy name index; must be consumed (and closed) inside a transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select new com.abhi.the_bank_app.dto.AccountName(u.id, u.firstName, u.lastName) from User u")
+    Stream<AccountName> streamNames();
+}
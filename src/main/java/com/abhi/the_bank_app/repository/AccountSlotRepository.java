@@ -0,0 +1,32 @@
+package com.abhi.the_bank_app.repository;
+
+import com.abhi.the_bank_app.entity.AccountSlot;
+import com.abhi.the_bank_app.money.Money;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface AccountSlotRepository extends JpaRepository<AccountSlot, Long> {
+
+    // Adds the amount to one slot in a single UPDATE; returns 0 when the slot doesn't exist. Slot rows are never
+    // loaded in the same persistence context as a credit, so there is nothing to flush or clear around it.
+    @Modifying
+    @Query("update AccountSlot s set s.balance = s.balance + :amount " +
+            "where s.accountNumber = :accountNumber and s.slot = :slot")
+    int creditSlot(@Param("accountNumber") String accountNumber, @Param("slot") int slot,
+                   @Param("amount") Money amount);
+
+    // Sum of all slots in minor units, 0 when the account has none
+    @Query("select coalesce(sum(s.balance), 0) from AccountSlot s where s.accountNumber = :accountNumber")
+    long sumBalance(@Param("accountNumber") String accountNumber);
+
+    // Locks every slot of the account, always in slot order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountSlot s where s.accountNumber = :accountNumber order by s.slot")
+    List<AccountSlot> findAllForUpdateByAccountNumber(@Param("accountNumber") String accountNumber);
+}
@@ -0,0 +1,35 @@
+package com.abhi.the_bank_app.repository;
+
+import com.abhi.the_bank_app.entity.EmailOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Oldest messages that are due for a (re)send attempt
+    @Query("select o.id from EmailOutbox o where o.status = 'PENDING' and o.nextAttemptAt <= :now order by o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+
+    // Claims the messages that are still due by stamping them with the caller's token and pushing their next
+    // attempt out to the end of the lease; a message another poll claimed first no longer matches
+    @Modifying
+    @Query("update EmailOutbox o set o.claimToken = :claimToken, o.nextAttemptAt = :leaseUntil " +
+            "where o.id in :ids and o.status = 'PENDING' and o.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<EmailOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    long countByStatus(String status);
+
+    @Modifying
+    @Query("delete from EmailOutbox o where o.status = 'SENT' and o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,34 @@
+package com.abhi.the_bank_app.repository;
+
+import com.abhi.the_bank_app.entity.EndOfDayPartition;
+import com.abhi.the_bank_app.money.Money;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface EndOfDayPartitionRepository extends JpaRepository<EndOfDayPartition, Long> {
+
+    List<EndOfDayPartition> findByBusinessDateOrderByPartitionNo(LocalDate businessDate);
+
+    boolean existsByBusinessDate(LocalDate businessDate);
+
+    boolean existsByBusinessDateAndStatusNot(LocalDate businessDate, String status);
+
+    @Query("select max(p.businessDate) from EndOfDayPartition p")
+    LocalDate findLatestBusinessDate();
+
+    // Moves the checkpoint past one committed chunk and adds the chunk's totals, but only from where the chunk
+    // started: 0 rows means another run has moved it in the meantime
+    @Modifying
+    @Query("update EndOfDayPartition p set p.nextId = :nextId, p.status = :status, p.accounts = p.accounts + :accounts, " +
+            "p.skipped = p.skipped + :skipped, p.interest = p.interest + :interest, p.fees = p.fees + :fees, " +
+            "p.updatedAt = local datetime where p.id = :id and p.nextId = :expectedNextId")
+    int checkpoint(@Param("id") Long id, @Param("expectedNextId") long expectedNextId, @Param("nextId") long nextId,
+                   @Param("status") String status,
+                   @Param("accounts") long accounts, @Param("skipped") long skipped,
+                   @Param("interest") Money interest, @Param("fees") Money fees);
+}
@@ -0,0 +1,24 @@
+package com.abhi.the_bank_app.repository;
+
+import com.abhi.the_bank_app.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Query("select r.idempotencyKey from IdempotencyRecord r where r.expiresAt > :now")
+    Stream<String> streamLiveKeys(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :idempotencyKey and r.expiresAt <= :now")
+    int deleteExpiredKey(@Param("idempotencyKey") String idempotencyKey, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,58 @@
+package com.abhi.the_bank_app.repository;
+
+import com.abhi.the_bank_app.dto.StatementEntry;
+import com.abhi.the_bank_app.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    // Balance implied by the ledger, in minor units: all credits minus all debits
+    @Query("select coalesce(sum(case when t.transactionType = 'CREDIT' then t.amount else -t.amount end), 0) " +
+            "from Transaction t where t.accountNumber = :accountNumber")
+    long sumBalance(@Param("accountNumber") String accountNumber);
+
+    List<Transaction> findByTransactionReference(String transactionReference);
+
+    // First page of an account's entries in [from, to), oldest first
+    @Query("select new com.abhi.the_bank_app.dto.StatementEntry(t.id, t.createdAt, t.transactionReference, " +
+            "t.transactionType, t.amount, t.counterpartyAccountNumber, t.description) from Transaction t " +
+            "where t.accountNumber = :accountNumber and t.createdAt >= :from and t.createdAt < :to " +
+            "order by t.createdAt, t.id")
+    List<StatementEntry> findStatementPage(@Param("accountNumber") String accountNumber,
+                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                           Limit limit);
+
+    // Keyset pagination: the page after (afterCreatedAt, afterId), so each page is an index range scan
+    // no matter how deep into the statement we are
+    @Query("select new com.abhi.the_bank_app.dto.StatementEntry(t.id, t.createdAt, t.transactionReference, " +
+            "t.transactionType, t.amount, t.counterpartyAccountNumber, t.description) from Transaction t " +
+            "where t.accountNumber = :accountNumber and t.createdAt < :to " +
+            "and (t.createdAt > :afterCreatedAt or (t.createdAt = :afterCreatedAt and t.id > :afterId)) " +
+            "order by t.createdAt, t.id")
+    List<StatementEntry> findStatementPageAfter(@Param("accountNumber") String accountNumber,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                @Param("afterId") Long afterId,
+                                                Limit limit);
+
+    // Forward-only cursor over the same range; must be consumed (and closed) inside a transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select new com.abhi.the_bank_app.dto.StatementEntry(t.id, t.createdAt, t.transactionReference, " +
+            "t.transactionType, t.amount, t.counterpartyAccountNumber, t.description) from Transaction t " +
+            "where t.accountNumber = :accountNumber and t.createdAt >= :from and t.createdAt < :to " +
+            "order by t.createdAt, t.id")
+    Stream<StatementEntry> streamStatement(@Param("accountNumber") String accountNumber,
+                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
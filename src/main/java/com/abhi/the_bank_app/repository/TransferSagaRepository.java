@@ -0,0 +1,23 @@
+package com.abhi.the_bank_app.repository;
+
+import com.abhi.the_bank_app.entity.TransferSaga;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransferSagaRepository extends JpaRepository<TransferSaga, String> {
+
+    // Sagas that have sat in one state for too long, e.g. debited but never credited
+    List<TransferSaga> findByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(String status, LocalDateTime before, Limit limit);
+
+    // Moves a saga on only if it is still in the expected state; returns 0 when someone else got there first
+    @Modifying
+    @Query("update TransferSaga s set s.status = :to, s.updatedAt = local datetime " +
+            "where s.transactionReference = :reference and s.status = :from")
+    int updateStatus(@Param("reference") String reference, @Param("from") String from, @Param("to") String to);
+}
@@ -1,12 +1,58 @@
 package com.abhi.the_bank_app.repository;
 
+import com.abhi.the_bank_app.dto.AccountInfo;
 import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email); // Note: `existsByEmail`, not `existByEmail`
 
+    // Which of the given emails are already registered, in one query
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     Boolean existsByAccountNumber(String accountNumber); // Corrected method name
 
-    User findByAccountNumber(String accountNumber);
-}
\ No newline at end of file
+    // Accounts whose credits are spread over AccountSlot rows
+    List<User> findByBalanceSlotsGreaterThan(int balanceSlots);
+
+    // Single round trip lookup backed by the unique index on users.account_number
+    Optional<User> findByAccountNumber(String accountNumber);
+
+    // Just the three columns a response needs, read straight into the DTO: no entity, no persistence context entry
+    @Query("select new com.abhi.the_bank_app.dto.AccountInfo(concat(u.firstName, ' ', u.lastName), " +
+            "u.accountBalance, u.accountNumber) from User u where u.accountNumber = :accountNumber")
+    Optional<AccountInfo> findAccountInfoByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // Same lookup, but takes a row lock (SELECT ... FOR UPDATE) until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.accountNumber = :accountNumber")
+    Optional<User> findForUpdateByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // Locks all the given accounts with one IN query, in account number order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.accountNumber in :accountNumbers order by u.accountNumber")
+    List<User> findAllForUpdateByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    // Adds the amount in a single UPDATE; returns 0 when the account doesn't exist
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.accountBalance = u.accountBalance + :amount, u.updatedAt = local datetime " +
+            "where u.accountNumber = :accountNumber")
+    int creditBalance(@Param("accountNumber") String accountNumber, @Param("amount") Money amount);
+
+    // Subtracts the amount only if the balance covers it; returns 0 when the account doesn't exist or is short
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.accountBalance = u.accountBalance - :amount, u.updatedAt = local datetime " +
+            "where u.accountNumber = :accountNumber and u.accountBalance >= :amount")
+    int debitBalance(@Param("accountNumber") String accountNumber, @Param("amount") Money amount);
+}
@@ -0,0 +1,11 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.money.Money;
+
+public interface AccountEventService {
+
+    void recordAccountCreated(String accountNumber);
+    void recordCredit(String accountNumber, Money amount);
+    void recordDebit(String accountNumber, Money amount);
+    void recordTransfer(String sourceAccountNumber, String destinationAccountNumber, Money amount);
+}
@@ -0,0 +1,56 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.entity.AccountEvent;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.AccountEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class AccountEventServiceImpl implements AccountEventService {
+
+    @Autowired
+    private AccountEventRepository accountEventRepository;
+
+    @Value("${bank.events.enabled:true}")
+    private boolean eventsEnabled;
+
+    // Like the ledger, events join the caller's transaction: one is published exactly when its change commits
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccountCreated(String accountNumber) {
+        record(AccountEvent.TYPE_ACCOUNT_CREATED, accountNumber, null, null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCredit(String accountNumber, Money amount) {
+        record(AccountEvent.TYPE_ACCOUNT_CREDITED, accountNumber, null, amount);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDebit(String accountNumber, Money amount) {
+        record(AccountEvent.TYPE_ACCOUNT_DEBITED, accountNumber, null, amount);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransfer(String sourceAccountNumber, String destinationAccountNumber, Money amount) {
+        record(AccountEvent.TYPE_TRANSFER_COMPLETED, sourceAccountNumber, destinationAccountNumber, amount);
+    }
+
+    private void record(String type, String accountNumber, String counterparty, Money amount) {
+        if (eventsEnabled) {
+            accountEventRepository.save(AccountEvent.builder()
+                    .eventType(type)
+                    .accountNumber(accountNumber)
+                    .counterpartyAccountNumber(counterparty)
+                    .amount(amount)
+                    .build());
+        }
+    }
+}
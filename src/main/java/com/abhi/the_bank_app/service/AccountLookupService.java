@@ -0,0 +1,11 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.AccountInfo;
+
+import java.util.Optional;
+
+public interface AccountLookupService {
+
+    Optional<AccountInfo> findAccountInfo(String accountNumber);
+    void evict(String accountNumber);
+}
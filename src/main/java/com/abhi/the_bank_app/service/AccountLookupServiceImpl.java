@@ -0,0 +1,94 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.AccountInfo;
+import com.abhi.the_bank_app.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Read-through cache in front of UserRepository for the enquiry endpoints. Entries hold the account name
+// already joined together, so a hit costs neither a query nor a string concatenation.
+//
+// A miss that read the balance just before a change committed must not put that balance back after the
+// change evicted it, or the enquiry would serve the old balance until the entry expires. Every eviction
+// first bumps an invalidation stamp for the key, and a miss re-checks the stamp after its put and takes the
+// entry back out if an eviction ran in between. The stamps are striped, so an unrelated account that shares
+// a stripe only costs an extra miss. They are kept per process: with a distributed provider, another node's
+// eviction is not seen by this node's loaders, and the entry's expiry still bounds how stale it can get.
+@Service
+public class AccountLookupServiceImpl implements AccountLookupService {
+
+    public static final String ACCOUNTS_CACHE = "accounts";
+
+    private static final int STAMP_STRIPES = 1024;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private Cache accounts;
+
+    @PostConstruct
+    void init() {
+        accounts = cacheManager.getCache(ACCOUNTS_CACHE);
+    }
+
+    // Unknown accounts are not cached, so an account is visible as soon as it is created
+    @Override
+    public Optional<AccountInfo> findAccountInfo(String accountNumber) {
+        if (accountNumber == null) {
+            return Optional.empty();
+        }
+        AccountInfo cached = accounts.get(accountNumber, AccountInfo.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        int stripe = stripeOf(accountNumber);
+        long stamp = stamps.get(stripe);
+        Optional<AccountInfo> loaded = userRepository.findAccountInfoByAccountNumber(accountNumber);
+        if (loaded.isPresent()) {
+            accounts.put(accountNumber, loaded.get());
+            if (stamps.get(stripe) != stamp) {
+                accounts.evict(accountNumber);
+            }
+        }
+        return loaded;
+    }
+
+    // Called by every balance change; deferred until the change commits, so a rolled back change never evicts
+    // and a miss never caches a balance that was not committed
+    @Override
+    public void evict(String accountNumber) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(accountNumber);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(accountNumber);
+            }
+        });
+    }
+
+    private void invalidate(String accountNumber) {
+        stamps.incrementAndGet(stripeOf(accountNumber));
+        accounts.evict(accountNumber);
+    }
+
+    private static int stripeOf(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), STAMP_STRIPES);
+    }
+}
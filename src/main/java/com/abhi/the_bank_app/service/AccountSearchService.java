@@ -0,0 +1,10 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.AccountSearchRequest;
+import com.abhi.the_bank_app.dto.AccountSearchResponse;
+
+public interface AccountSearchService {
+
+    AccountSearchResponse search(AccountSearchRequest request);
+    void rebuildNameIndex();
+}
@@ -0,0 +1,258 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.AccountName;
+import com.abhi.the_bank_app.dto.AccountSearchRequest;
+import com.abhi.the_bank_app.dto.AccountSearchResponse;
+import com.abhi.the_bank_app.dto.AccountSummary;
+import com.abhi.the_bank_app.repository.AccountSearchRepository;
+import com.abhi.the_bank_app.sharding.ShardRouter;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.abhi.the_bank_app.utils.NameTrigramIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Searches run the query of the most selective criterion given (email, phone number, name, state and status,
+// state, status, in that order) on every shard, and merge the shards' pages. Rows are projected straight into
+// AccountSummary, so no User entity is loaded.
+@Service
+public class AccountSearchServiceImpl implements AccountSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountSearchServiceImpl.class);
+
+    private static final Comparator<AccountSummary> BY_ACCOUNT_NUMBER =
+            Comparator.comparing(AccountSummary::getAccountNumber);
+    private static final Comparator<AccountSummary> BY_NAME =
+            Comparator.comparing(AccountSummary::getSearchName).thenComparing(BY_ACCOUNT_NUMBER);
+
+    @Autowired
+    private AccountSearchRepository accountSearchRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bank.search.page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${bank.search.max-page-size:100}")
+    private int maxPageSize;
+
+    // Fuzzy name matching keeps a trigram index of every account name in memory (roughly 60 bytes per account)
+    // and rebuilds it in the background, so accounts opened since the last rebuild are only found by prefix
+    @Value("${bank.search.fuzzy.enabled:false}")
+    private boolean fuzzyEnabled;
+
+    @Value("${bank.search.fuzzy.min-similarity:0.3}")
+    private double minSimilarity;
+
+    @Value("${bank.search.fuzzy.refresh-interval:10m}")
+    private Duration fuzzyRefreshInterval;
+
+    private volatile NameTrigramIndex nameIndex;
+    private ScheduledExecutorService nameIndexRefresher;
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    // Not on the shared @Scheduled thread: a rebuild over millions of accounts would hold up the outbox dispatchers
+    @EventListener(ApplicationReadyEvent.class)
+    public void startNameIndex() {
+        if (!fuzzyEnabled) {
+            return;
+        }
+        nameIndexRefresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "name-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        nameIndexRefresher.scheduleWithFixedDelay(() -> {
+            try {
+                rebuildNameIndex();
+            } catch (RuntimeException e) {
+                log.warn("Could not rebuild the fuzzy name index", e);
+            }
+        }, 0, fuzzyRefreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopNameIndex() {
+        if (nameIndexRefresher != null) {
+            nameIndexRefresher.shutdownNow();
+        }
+    }
+
+    @Override
+    public void rebuildNameIndex() {
+        long started = System.nanoTime();
+        NameTrigramIndex.Builder builder = new NameTrigramIndex.Builder();
+        shardRouter.forEachShard(shard -> readTransaction.executeWithoutResult(status -> {
+            try (Stream<AccountName> names = accountSearchRepository.streamNames()) {
+                names.forEach(name -> builder.add(name.getId(), name.getFirstName(), name.getLastName()));
+            }
+        }));
+        nameIndex = builder.build();
+        log.info("Fuzzy name index rebuilt with {} accounts in {} ms", nameIndex.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public AccountSearchResponse search(AccountSearchRequest request) {
+        int limit = request.getLimit() == null ? defaultPageSize : Math.min(request.getLimit(), maxPageSize);
+        Cursor cursor = Cursor.decode(request.getCursor());
+        if (limit < 1 || (trimmed(request.getCursor()) != null && cursor == null)) {
+            return AccountSearchResponse.builder()
+                    .responseCode(AccountUtils.INVALID_REQUEST_CODE)
+                    .responseMessage(AccountUtils.INVALID_REQUEST_MESSAGE)
+                    .accounts(List.of())
+                    .build();
+        }
+        Criteria criteria = new Criteria(lowerCase(request.getName()), lowerCase(request.getEmail()),
+                trimmed(request.getPhoneNumber()), trimmed(request.getStateOfOrigin()), trimmed(request.getStatus()));
+
+        NameTrigramIndex index = nameIndex;
+        if (request.isFuzzy() && criteria.name() != null && index != null) {
+            return response(fuzzySearch(index, criteria, limit), null);
+        }
+
+        List<AccountSummary> rows = new ArrayList<>();
+        shardRouter.forEachShard(shard -> rows.addAll(searchShard(criteria, cursor, limit + 1)));
+        rows.sort(criteria.drivenByName() ? BY_NAME : BY_ACCOUNT_NUMBER);
+        if (rows.size() <= limit) {
+            return response(rows, null);
+        }
+        List<AccountSummary> page = rows.subList(0, limit);
+        AccountSummary last = page.get(limit - 1);
+        return response(page, new Cursor(criteria.drivenByName() ? last.getSearchName() : null,
+                last.getAccountNumber()).encode());
+    }
+
+    private List<AccountSummary> searchShard(Criteria criteria, Cursor cursor, int rows) {
+        String afterAccount = cursor == null ? "" : cursor.accountNumber();
+        String namePattern = criteria.name() == null ? null : escapeLike(criteria.name()) + "%";
+        if (criteria.email() != null) {
+            return cursor != null ? List.of() : accountSearchRepository.searchByEmail(criteria.email(),
+                    criteria.phoneNumber(), namePattern, criteria.stateOfOrigin(), criteria.status());
+        }
+        if (criteria.phoneNumber() != null) {
+            return accountSearchRepository.searchByPhoneNumber(criteria.phoneNumber(), afterAccount, namePattern,
+                    criteria.stateOfOrigin(), criteria.status(), Limit.of(rows));
+        }
+        if (criteria.name() != null) {
+            String afterName = cursor == null || cursor.searchName() == null ? criteria.name() : cursor.searchName();
+            return accountSearchRepository.searchByName(namePattern, afterName, afterAccount,
+                    criteria.stateOfOrigin(), criteria.status(), Limit.of(rows));
+        }
+        if (criteria.stateOfOrigin() != null && criteria.status() != null) {
+            return accountSearchRepository.searchByStateAndStatus(criteria.stateOfOrigin(), criteria.status(),
+                    afterAccount, Limit.of(rows));
+        }
+        if (criteria.stateOfOrigin() != null) {
+            return accountSearchRepository.searchByState(criteria.stateOfOrigin(), afterAccount, Limit.of(rows));
+        }
+        if (criteria.status() != null) {
+            return accountSearchRepository.searchByStatus(criteria.status(), afterAccount, Limit.of(rows));
+        }
+        return accountSearchRepository.listAccounts(afterAccount, Limit.of(rows));
+    }
+
+    // Ranked by similarity, so there are no further pages. The other criteria are checked on the fetched rows,
+    // which is why more names than the page holds are looked up.
+    private List<AccountSummary> fuzzySearch(NameTrigramIndex index, Criteria criteria, int limit) {
+        List<Long> ids = index.search(criteria.name(), limit * 4, minSimilarity);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<AccountSummary> rows = new ArrayList<>(ids.size());
+        shardRouter.forEachShard(shard -> rows.addAll(accountSearchRepository.findSummariesByIdIn(ids)));
+        return rows.stream()
+                .filter(row -> criteria.email() == null || criteria.email().equalsIgnoreCase(row.getEmail()))
+                .filter(row -> criteria.phoneNumber() == null || criteria.phoneNumber().equals(row.getPhoneNumber()))
+                .filter(row -> criteria.stateOfOrigin() == null || criteria.stateOfOrigin().equals(row.getStateOfOrigin()))
+                .filter(row -> criteria.status() == null || criteria.status().equals(row.getStatus()))
+                .sorted(Comparator.comparingDouble(
+                        (AccountSummary row) -> NameTrigramIndex.similarity(criteria.name(), row.getAccountName()))
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static AccountSearchResponse response(List<AccountSummary> accounts, String nextCursor) {
+        return AccountSearchResponse.builder()
+                .responseCode(AccountUtils.ACCOUNT_SEARCH_CODE)
+                .responseMessage(AccountUtils.ACCOUNT_SEARCH_MESSAGE)
+                .accounts(accounts)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static String trimmed(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // Matches users.search_name and users.email_lower, which the database lower-cases
+    private static String lowerCase(String value) {
+        String trimmed = trimmed(value);
+        return trimmed == null ? null : trimmed.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record Criteria(String name, String email, String phoneNumber, String stateOfOrigin, String status) {
+
+        // Name searches are ordered by name; every other search by account number
+        boolean drivenByName() {
+            return name != null && email == null && phoneNumber == null;
+        }
+    }
+
+    // Where the previous page ended: its last account number, and for name searches that account's search_name
+    private record Cursor(String searchName, String accountNumber) {
+
+        String encode() {
+            String value = (searchName == null ? "" : searchName) + "\n" + accountNumber;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.lastIndexOf('\n');
+                if (separator < 0) {
+                    return null;
+                }
+                return new Cursor(separator == 0 ? null : value.substring(0, separator), value.substring(separator + 1));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
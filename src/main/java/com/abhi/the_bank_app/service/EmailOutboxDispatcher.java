@@ -0,0 +1,288 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.entity.EmailOutbox;
+import com.abhi.the_bank_app.repository.EmailOutboxRepository;
+import com.abhi.the_bank_app.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailSendException;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+// Background sender for the email outbox. Each poll claims the due messages, sends them in batches
+// on a bounded pool (one SMTP connection per batch) and writes the outcome back. Failed messages are
+// retried with exponential backoff until bank.email.outbox.max-attempts is reached.
+//
+// A claim commits before anything is sent and holds the messages for bank.email.outbox.lease-ms, so polls on
+// other instances skip them, and a poll that dies mid-send leaves them to be picked up once the lease runs
+// out. The lease must comfortably outlast a poll's sends, or a slow batch could be sent twice.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.email.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxDispatcher {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    // A proxy: the sender is only built for the first email (the fast-startup profile leaves it lazy)
+    @Lazy
+    @Autowired
+    private JavaMailSender javaMailSender;
+
+    @Autowired
+    @Qualifier("emailSenderExecutor")
+    private AsyncTaskExecutor emailSenderExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.mail.username}")
+    private String senderEmail;
+
+    @Value("${bank.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${bank.email.outbox.batches-per-poll:4}")
+    private int batchesPerPoll;
+
+    @Value("${bank.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${bank.email.outbox.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${bank.email.outbox.max-retry-backoff-ms:3600000}")
+    private long maxRetryBackoffMs;
+
+    @Value("${bank.email.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${bank.email.outbox.sent-retention-hours:168}")
+    private long sentRetentionHours;
+
+    private TransactionTemplate transaction;
+    private Timer sendLatency;
+    private Counter sentCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        Gauge.builder("bank.email.outbox.depth", this, EmailOutboxDispatcher::pendingCount)
+                .description("Emails waiting in the outbox")
+                .register(meterRegistry);
+        sendLatency = Timer.builder("bank.email.send.latency")
+                .description("Time taken to hand one batch of emails to the SMTP server")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("bank.email.sent").register(meterRegistry);
+        failedCounter = Counter.builder("bank.email.failed")
+                .description("Send attempts that failed, including ones that will be retried")
+                .register(meterRegistry);
+    }
+
+    // Emails are stored on the shard of the account they are about, so every shard is polled
+    @Scheduled(fixedDelayString = "${bank.email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        shardRouter.forEachShard(shard -> dispatchShard());
+    }
+
+    private void dispatchShard() {
+        List<EmailOutbox> due = claimDue();
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Send the batches in parallel and wait, so the outcome is written back well within the lease. A batch
+        // that fails unexpectedly must not stop the outcomes of the others from being written: its messages stay
+        // claimed and go again once the lease runs out.
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<EmailOutbox> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            sends.add(CompletableFuture.runAsync(() -> sendBatch(batch), emailSenderExecutor)
+                    .handle((ignored, failure) -> {
+                        if (failure != null) {
+                            log.error("Sending a batch of {} emails failed", batch.size(), failure);
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+
+        emailOutboxRepository.saveAll(due);
+    }
+
+    // Sent messages are kept for bank.email.outbox.sent-retention-hours, then deleted; failed ones are kept
+    @Scheduled(fixedDelayString = "${bank.email.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minusHours(sentRetentionHours);
+        int[] deleted = {0};
+        shardRouter.forEachShard(shard -> deleted[0] += transaction.execute(
+                status -> emailOutboxRepository.deleteSentBefore(before)));
+        if (deleted[0] > 0) {
+            log.info("Purged {} sent emails from the outbox", deleted[0]);
+        }
+    }
+
+    // Claims up to one poll's worth of due messages for this poll alone and returns them
+    private List<EmailOutbox> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        String claimToken = UUID.randomUUID().toString();
+        return transaction.execute(status -> {
+            List<Long> ids = emailOutboxRepository.findDueIds(now, Limit.of(batchSize * batchesPerPoll));
+            if (ids.isEmpty() || emailOutboxRepository.claim(ids, claimToken, now,
+                    now.plusNanos(leaseMs * 1_000_000)) == 0) {
+                return List.of();
+            }
+            return emailOutboxRepository.findByClaimTokenOrderByIdAsc(claimToken);
+        });
+    }
+
+    private double pendingCount() {
+        long[] pending = {0};
+        shardRouter.forEachShard(shard -> pending[0] += emailOutboxRepository.countByStatus(EmailOutbox.STATUS_PENDING));
+        return pending[0];
+    }
+
+    // Sends the whole batch over one SMTP connection and records the outcome on each outbox row
+    private void sendBatch(List<EmailOutbox> batch) {
+        // A message that cannot be built (no recipient, a missing attachment) will not build on a retry either,
+        // so it fails for good and the rest of the batch goes without it
+        List<EmailOutbox> sendable = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (EmailOutbox outbox : batch) {
+            try {
+                messages.add(toMailMessage(outbox));
+                sendable.add(outbox);
+            } catch (MessagingException | RuntimeException e) {
+                markUnsendable(outbox, e);
+            }
+        }
+        if (sendable.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            javaMailSender.send(messages.toArray(new MimeMessage[0]));
+            sendable.forEach(this::markSent);
+        } catch (MailSendException e) {
+            // Only the messages listed as failed need another attempt; if none are listed the connection failed
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (int i = 0; i < sendable.size(); i++) {
+                Exception failure = failedMessages.isEmpty() ? e : failedMessages.get(messages.get(i));
+                if (failure == null) {
+                    markSent(sendable.get(i));
+                } else {
+                    markFailed(sendable.get(i), failure);
+                }
+            }
+        } catch (RuntimeException e) {
+            sendable.forEach(message -> markFailed(message, e));
+        } finally {
+            sample.stop(sendLatency);
+        }
+    }
+
+    // Plain text message; the attachment field, when set, is the path of a file to attach
+    private MimeMessage toMailMessage(EmailOutbox outbox) throws MessagingException {
+        MimeMessage mailMessage = javaMailSender.createMimeMessage();
+        boolean hasAttachment = outbox.getAttachment() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(mailMessage, hasAttachment, "UTF-8");
+        helper.setFrom(senderEmail);
+        helper.setTo(outbox.getRecipient());
+        helper.setText(outbox.getMessageBody());
+        helper.setSubject(outbox.getSubject());
+        if (hasAttachment) {
+            File file = new File(outbox.getAttachment());
+            helper.addAttachment(file.getName(), new FileSystemResource(file));
+        }
+        return mailMessage;
+    }
+
+    private void markSent(EmailOutbox outbox) {
+        outbox.setStatus(EmailOutbox.STATUS_SENT);
+        outbox.setSentAt(LocalDateTime.now());
+        outbox.setLastError(null);
+        sentCounter.increment();
+        deleteAttachment(outbox);
+    }
+
+    private void markFailed(EmailOutbox outbox, Exception failure) {
+        failedCounter.increment();
+        int attempts = outbox.getAttempts() + 1;
+        outbox.setAttempts(attempts);
+        outbox.setLastError(abbreviate(failure.getMessage()));
+        if (attempts >= maxAttempts) {
+            outbox.setStatus(EmailOutbox.STATUS_FAILED);
+            log.warn("Giving up on email {} to {} after {} attempts", outbox.getId(), outbox.getRecipient(), attempts);
+            deleteAttachment(outbox);
+            return;
+        }
+        // Exponential backoff: retryBackoffMs, 2x, 4x, ... capped at maxRetryBackoffMs
+        long backoff = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+        outbox.setNextAttemptAt(LocalDateTime.now().plusNanos(backoff * 1_000_000));
+    }
+
+    private void markUnsendable(EmailOutbox outbox, Exception failure) {
+        failedCounter.increment();
+        outbox.setAttempts(outbox.getAttempts() + 1);
+        outbox.setLastError(abbreviate(failure.getMessage()));
+        outbox.setStatus(EmailOutbox.STATUS_FAILED);
+        log.warn("Email {} to {} cannot be sent: {}", outbox.getId(), outbox.getRecipient(), failure.getMessage());
+        deleteAttachment(outbox);
+    }
+
+    // Attachments are files rendered for this one email (statements), so they go once it is sent or given up on
+    private static void deleteAttachment(EmailOutbox outbox) {
+        if (outbox.getAttachment() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Path.of(outbox.getAttachment()));
+        } catch (IOException e) {
+            log.warn("Could not delete attachment {} of email {}", outbox.getAttachment(), outbox.getId(), e);
+        }
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
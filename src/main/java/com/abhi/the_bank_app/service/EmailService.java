@@ -5,4 +5,7 @@ import com.abhi.the_bank_app.dto.EmailDetails;
 public interface EmailService {
 
     void sendEmailAlert(EmailDetails emailDetails);
+
+    // Stores the email in the outbox as part of the caller's transaction; it is sent later in the background
+    void queueEmailAlert(EmailDetails emailDetails);
 }
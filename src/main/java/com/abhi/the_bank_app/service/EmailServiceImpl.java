@@ -3,19 +3,32 @@ package com.abhi.the_bank_app.service;
 import com.abhi.the_bank_app.dto.EmailDetails;
 
 
+import com.abhi.the_bank_app.entity.EmailOutbox;
+import com.abhi.the_bank_app.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
+@Slf4j
 @Service
 public class EmailServiceImpl implements EmailService {
 
+    // A proxy: the sender is only built for the first email (the fast-startup profile leaves it lazy)
+    @Lazy
     @Autowired
     private JavaMailSender javaMailSender;
 
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
     @Value("${spring.mail.username}")
     private String senderEmail;
 
@@ -31,10 +44,26 @@ public class EmailServiceImpl implements EmailService {
 
             // Send the email
             javaMailSender.send(mailMessage);
-            System.out.println("Mail sent successfully");
+            log.info("Mail sent successfully to {}", emailDetails.getRecipient());
         } catch (MailException e) {
             // Catch mail-related exceptions and rethrow as runtime exception
             throw new RuntimeException("Error sending email: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Writes the email to the outbox table instead of talking to SMTP, so the caller never blocks on the
+    // mail server and the row commits (or rolls back) together with the caller's own changes
+    @Override
+    @Transactional
+    public void queueEmailAlert(EmailDetails emailDetails) {
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(emailDetails.getRecipient())
+                .subject(emailDetails.getSubject())
+                .messageBody(emailDetails.getMessageBody())
+                .attachment(emailDetails.getAttachment())
+                .status(EmailOutbox.STATUS_PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,10 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.EndOfDayResponse;
+
+import java.time.LocalDate;
+
+public interface EndOfDayService {
+
+    EndOfDayResponse runEndOfDay(LocalDate businessDate);
+}
@@ -0,0 +1,413 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.EndOfDayResponse;
+import com.abhi.the_bank_app.entity.EndOfDayPartition;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.EndOfDayPartitionRepository;
+import com.abhi.the_bank_app.sharding.ShardRouter;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// End of day: a day's interest on every ACTIVE account and, on the last day of the month, its maintenance fee.
+// Each shard's accounts are split into id ranges holding about the same number of rows (EndOfDayPartition) and
+// the ranges are worked through in parallel on a fork-join pool. A partition reads its accounts a chunk at a time
+// by primary key seek, writes the balance changes as one JDBC batch of relative UPDATEs, records the ledger legs
+// and moves its checkpoint, all in one transaction per chunk. Running a date again resumes its unfinished
+// partitions and never posts a committed chunk twice; a date that has finished is only reported. Dates run in
+// order: a new date must be the day after the last one, once that has completed, and never later than today.
+// A chunk only commits if its partition's checkpoint is still where the chunk started, so two nodes running the
+// same date can't both post a chunk; the one that loses leaves the partition to the other.
+// Postings go to the ledger like any other balance change, but raise no account events or emails.
+@Slf4j
+@Service
+public class EndOfDayServiceImpl implements EndOfDayService {
+
+    private static final BigDecimal DAYS_IN_YEAR = BigDecimal.valueOf(365);
+
+    // Active accounts after the checkpoint, in id order, with what their slots hold if they are striped
+    private static final String SELECT_CHUNK = "select u.id, u.account_number, u.account_balance, " +
+            "case when u.balance_slots > 0 then (select coalesce(sum(s.balance), 0) from account_slots s " +
+            "where s.account_number = u.account_number) else 0 end " +
+            "from users u where u.id > ? and u.id <= ? and u.status = 'ACTIVE' order by u.id limit ?";
+    // Relative, so a credit or debit that committed after the chunk was read is kept; never takes a balance below 0
+    private static final String UPDATE_BALANCE = "update users set account_balance = account_balance + ?, " +
+            "updated_at = ? where id = ? and account_balance + ? >= 0";
+    // The id a given number of rows on from another one; walking the boundaries this way reads the index once
+    private static final String ID_AFTER_ROWS = "select id from users where id >= ? order by id limit 1 offset ?";
+
+    @Autowired
+    private EndOfDayPartitionRepository partitionRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bank.eod.interest.annual-rate:0}")
+    private BigDecimal annualInterestRate;
+
+    @Value("${bank.eod.maintenance-fee:0}")
+    private BigDecimal maintenanceFee;
+
+    // 0: one per available processor. The connection pool must be at least this big.
+    @Value("${bank.eod.threads:0}")
+    private int threads;
+
+    @Value("${bank.eod.partitions-per-thread:4}")
+    private int partitionsPerThread;
+
+    @Value("${bank.eod.chunk-size:1000}")
+    private int chunkSize;
+
+    // Attempts per chunk when it hits a lock timeout or deadlock with live traffic
+    @Value("${bank.eod.chunk-attempts:3}")
+    private int chunkAttempts;
+
+    private TransactionTemplate transaction;
+    private long maintenanceFeeMinor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger pendingPartitions = new AtomicInteger();
+    private volatile double accountsPerSecond;
+    private Counter accountsCounter;
+    private Counter skippedCounter;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        maintenanceFeeMinor = Money.of(maintenanceFee).getMinorUnits();
+        accountsCounter = Counter.builder("bank.eod.accounts")
+                .description("Accounts taken through end of day")
+                .register(meterRegistry);
+        skippedCounter = Counter.builder("bank.eod.accounts.skipped")
+                .description("Accounts left out of end of day because a concurrent debit left too little for the fee")
+                .register(meterRegistry);
+        chunkTimer = Timer.builder("bank.eod.chunk")
+                .description("Time to read, post and checkpoint one chunk of accounts")
+                .register(meterRegistry);
+        Gauge.builder("bank.eod.throughput", this, service -> service.accountsPerSecond)
+                .description("Accounts per second of the current, or else the last, end-of-day run")
+                .baseUnit("accounts/s")
+                .register(meterRegistry);
+        Gauge.builder("bank.eod.partitions.pending", pendingPartitions, AtomicInteger::get)
+                .description("Partitions of the current end-of-day run that have not finished")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public EndOfDayResponse runEndOfDay(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            return EndOfDayResponse.builder()
+                    .responseCode(AccountUtils.END_OF_DAY_RUNNING_CODE)
+                    .responseMessage(AccountUtils.END_OF_DAY_RUNNING_MESSAGE)
+                    .businessDate(businessDate)
+                    .build();
+        }
+        try {
+            EndOfDayResponse rejection = rejectionOf(businessDate);
+            return rejection != null ? rejection : run(businessDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // A date already started is resumed or reported. Any other date must follow the last date run, once that has
+    // completed on every shard; the very first run may be for any date up to today.
+    private EndOfDayResponse rejectionOf(LocalDate businessDate) {
+        if (businessDate.isAfter(LocalDate.now())) {
+            return rejection(businessDate, AccountUtils.END_OF_DAY_FUTURE_DATE_CODE,
+                    AccountUtils.END_OF_DAY_FUTURE_DATE_MESSAGE);
+        }
+        boolean[] started = {false};
+        LocalDate[] latest = {null};
+        shardRouter.forEachShard(shard -> {
+            started[0] |= partitionRepository.existsByBusinessDate(businessDate);
+            LocalDate shardLatest = partitionRepository.findLatestBusinessDate();
+            if (shardLatest != null && (latest[0] == null || shardLatest.isAfter(latest[0]))) {
+                latest[0] = shardLatest;
+            }
+        });
+        if (started[0] || latest[0] == null) {
+            return null;
+        }
+        boolean[] latestComplete = {true};
+        shardRouter.forEachShard(shard -> latestComplete[0] &=
+                !partitionRepository.existsByBusinessDateAndStatusNot(latest[0], EndOfDayPartition.STATUS_DONE));
+        if (!latestComplete[0] || !businessDate.equals(latest[0].plusDays(1))) {
+            return rejection(businessDate, AccountUtils.END_OF_DAY_OUT_OF_SEQUENCE_CODE,
+                    AccountUtils.END_OF_DAY_OUT_OF_SEQUENCE_MESSAGE + " (" + latest[0] + ")");
+        }
+        return null;
+    }
+
+    private static EndOfDayResponse rejection(LocalDate businessDate, String code, String message) {
+        return EndOfDayResponse.builder()
+                .responseCode(code)
+                .responseMessage(message)
+                .businessDate(businessDate)
+                .build();
+    }
+
+    private EndOfDayResponse run(LocalDate businessDate) {
+        long started = System.nanoTime();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        AtomicLong processed = new AtomicLong();
+        shardRouter.forEachShard(shard -> {
+            for (EndOfDayPartition partition : transaction.execute(status ->
+                    partitions(businessDate, poolSize * partitionsPerThread))) {
+                if (!EndOfDayPartition.STATUS_DONE.equals(partition.getStatus())) {
+                    tasks.add(() -> {
+                        runPartition(shard, partition, processed, started);
+                        return null;
+                    });
+                }
+            }
+        });
+        pendingPartitions.set(tasks.size());
+        accountsPerSecond = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(poolSize);
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    // Logged by runPartition; the partition is picked up again by the next run for this date
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        return response(businessDate, System.nanoTime() - started, processed.get());
+    }
+
+    // The date's partitions on the current shard, planned on its first run
+    private List<EndOfDayPartition> partitions(LocalDate businessDate, int count) {
+        List<EndOfDayPartition> existing = partitionRepository.findByBusinessDateOrderByPartitionNo(businessDate);
+        if (!existing.isEmpty()) {
+            return existing;
+        }
+        Long minId = jdbcTemplate.queryForObject("select min(id) from users", Long.class);
+        if (minId == null) {
+            return List.of();
+        }
+        long maxId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+        long rows = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        long rowsPerPartition = Math.max(1, (rows + count - 1) / count);
+
+        // Accounts opened after this point have higher ids and are left for the next day
+        List<EndOfDayPartition> planned = new ArrayList<>(count);
+        for (long firstId = minId; ; ) {
+            Long nextFirstId = jdbcTemplate.query(ID_AFTER_ROWS,
+                    resultSet -> resultSet.next() ? resultSet.getLong(1) : null, firstId, rowsPerPartition);
+            long lastId = nextFirstId == null ? maxId : nextFirstId - 1;
+            planned.add(EndOfDayPartition.builder()
+                    .businessDate(businessDate)
+                    .partitionNo(planned.size())
+                    .firstId(firstId)
+                    .lastId(lastId)
+                    .nextId(firstId - 1)
+                    .status(EndOfDayPartition.STATUS_PENDING)
+                    .interest(Money.ZERO)
+                    .fees(Money.ZERO)
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+            if (nextFirstId == null || nextFirstId > maxId) {
+                return partitionRepository.saveAll(planned);
+            }
+            firstId = nextFirstId;
+        }
+    }
+
+    private void runPartition(int shard, EndOfDayPartition partition, AtomicLong processed, long started) {
+        boolean feeDay = partition.getBusinessDate().getDayOfMonth() == partition.getBusinessDate().lengthOfMonth();
+        long after = partition.getNextId();
+        try (ShardRouter.Scope ignored = shardRouter.routeTo(shard)) {
+            for (boolean done = false; !done; ) {
+                long from = after;
+                ChunkResult chunk = null;
+                for (int attempt = 1; chunk == null; attempt++) {
+                    try {
+                        chunk = chunkTimer.record(() -> transaction.execute(status -> applyChunk(partition, from, feeDay)));
+                    } catch (TransientDataAccessException e) {
+                        if (attempt >= chunkAttempts) {
+                            throw e;
+                        }
+                        log.debug("End-of-day chunk after id {} on shard {} failed (attempt {}); retrying", from, shard,
+                                attempt, e);
+                    }
+                }
+                accountsCounter.increment(chunk.accounts());
+                skippedCounter.increment(chunk.skipped());
+                accountsPerSecond = processed.addAndGet(chunk.accounts()) * 1e9 / Math.max(1, System.nanoTime() - started);
+                after = chunk.nextId();
+                done = chunk.last();
+            }
+            pendingPartitions.decrementAndGet();
+        } catch (CheckpointMovedException e) {
+            pendingPartitions.decrementAndGet();
+            log.info("End-of-day partition {} for {} on shard {} is being run elsewhere; leaving it after id {}",
+                    partition.getPartitionNo(), partition.getBusinessDate(), shard, after);
+        } catch (RuntimeException e) {
+            log.warn("End-of-day partition {} for {} on shard {} stopped after id {}; the next run resumes it",
+                    partition.getPartitionNo(), partition.getBusinessDate(), shard, after, e);
+            throw e;
+        }
+    }
+
+    // Runs in the chunk's transaction
+    private ChunkResult applyChunk(EndOfDayPartition partition, long after, boolean feeDay) {
+        List<AccountRow> rows = jdbcTemplate.query(connection -> {
+            PreparedStatement select = connection.prepareStatement(SELECT_CHUNK);
+            select.setFetchSize(chunkSize);
+            select.setLong(1, after);
+            select.setLong(2, partition.getLastId());
+            select.setInt(3, chunkSize);
+            return select;
+        }, (resultSet, rowNum) -> new AccountRow(resultSet.getLong(1), resultSet.getString(2),
+                resultSet.getLong(3), resultSet.getLong(4)));
+        boolean last = rows.size() < chunkSize;
+        long nextId = last ? partition.getLastId() : rows.get(rows.size() - 1).id();
+
+        List<Posting> postings = new ArrayList<>(rows.size());
+        for (AccountRow row : rows) {
+            long interest = dailyInterest(row.balance() + row.slotBalance());
+            // Never more than the users row holds: a striped account's slots are left alone
+            long fee = feeDay ? Math.max(0, Math.min(maintenanceFeeMinor, row.balance() + interest)) : 0;
+            if (interest != 0 || fee != 0) {
+                postings.add(new Posting(row.id(), row.accountNumber(), interest, fee));
+            }
+        }
+        // Account number order is the order transfers lock accounts in, so a chunk and a transfer can't deadlock
+        postings.sort(Comparator.comparing(Posting::accountNumber));
+
+        long skipped = 0;
+        long interestPaid = 0;
+        long feesCharged = 0;
+        if (!postings.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            int[][] updated = jdbcTemplate.batchUpdate(UPDATE_BALANCE, postings, postings.size(), (statement, posting) -> {
+                statement.setLong(1, posting.interest() - posting.fee());
+                statement.setTimestamp(2, now);
+                statement.setLong(3, posting.id());
+                statement.setLong(4, posting.interest() - posting.fee());
+            });
+            String description = " for " + partition.getBusinessDate();
+            for (int i = 0; i < postings.size(); i++) {
+                Posting posting = postings.get(i);
+                if (updated[0][i] == 0) {
+                    skipped++;
+                    continue;
+                }
+                if (posting.interest() > 0) {
+                    ledgerService.recordCredit(posting.accountNumber(), Money.ofMinor(posting.interest()),
+                            "Interest" + description);
+                }
+                if (posting.fee() > 0) {
+                    ledgerService.recordDebit(posting.accountNumber(), Money.ofMinor(posting.fee()),
+                            "Maintenance fee" + description);
+                }
+                accountLookupService.evict(posting.accountNumber());
+                interestPaid += posting.interest();
+                feesCharged += posting.fee();
+            }
+        }
+        int moved = partitionRepository.checkpoint(partition.getId(), after, nextId,
+                last ? EndOfDayPartition.STATUS_DONE : EndOfDayPartition.STATUS_PENDING,
+                rows.size() - skipped, skipped, Money.ofMinor(interestPaid), Money.ofMinor(feesCharged));
+        if (moved == 0) {
+            // Rolls the chunk's postings back
+            throw new CheckpointMovedException();
+        }
+        return new ChunkResult(rows.size() - skipped, skipped, nextId, last);
+    }
+
+    // Actual/365, rounded half-even to the minor unit; nothing on a balance at or below zero
+    private long dailyInterest(long balance) {
+        if (balance <= 0 || annualInterestRate.signum() == 0) {
+            return 0;
+        }
+        return BigDecimal.valueOf(balance).multiply(annualInterestRate)
+                .divide(DAYS_IN_YEAR, 0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    // Totals over every shard's partitions for the date
+    private EndOfDayResponse response(LocalDate businessDate, long elapsedNanos, long processedNow) {
+        List<EndOfDayPartition> partitions = new ArrayList<>();
+        shardRouter.forEachShard(shard ->
+                partitions.addAll(partitionRepository.findByBusinessDateOrderByPartitionNo(businessDate)));
+        int done = (int) partitions.stream()
+                .filter(partition -> EndOfDayPartition.STATUS_DONE.equals(partition.getStatus()))
+                .count();
+        boolean complete = done == partitions.size();
+        return EndOfDayResponse.builder()
+                .responseCode(complete ? AccountUtils.END_OF_DAY_COMPLETED_CODE : AccountUtils.END_OF_DAY_INCOMPLETE_CODE)
+                .responseMessage(complete ? AccountUtils.END_OF_DAY_COMPLETED_MESSAGE
+                        : AccountUtils.END_OF_DAY_INCOMPLETE_MESSAGE)
+                .businessDate(businessDate)
+                .partitions(partitions.size())
+                .partitionsDone(done)
+                .accountsProcessed(partitions.stream().mapToLong(EndOfDayPartition::getAccounts).sum())
+                .accountsSkipped(partitions.stream().mapToLong(EndOfDayPartition::getSkipped).sum())
+                .interestPaid(partitions.stream().map(EndOfDayPartition::getInterest).reduce(Money.ZERO, Money::plus))
+                .feesCharged(partitions.stream().map(EndOfDayPartition::getFees).reduce(Money.ZERO, Money::plus))
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .accountsPerSecond(processedNow * 1_000_000_000L / Math.max(1, elapsedNanos))
+                .build();
+    }
+
+    private record AccountRow(long id, String accountNumber, long balance, long slotBalance) {
+    }
+
+    private record Posting(long id, String accountNumber, long interest, long fee) {
+    }
+
+    private record ChunkResult(long accounts, long skipped, long nextId, boolean last) {
+    }
+
+    // Another run committed a chunk of the same partition first
+    private static class CheckpointMovedException extends RuntimeException {
+    }
+}
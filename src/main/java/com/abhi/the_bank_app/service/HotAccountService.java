@@ -0,0 +1,17 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BalanceSlotsRequest;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+
+public interface HotAccountService {
+
+    BankResponse setBalanceSlots(BalanceSlotsRequest request);
+    boolean isStriped(String accountNumber);
+    boolean creditSlot(String accountNumber, Money amount);
+    void coverDebit(User account, Money amount);
+    Money sweepSlots(String accountNumber);
+    Money slotBalance(String accountNumber);
+    Money cachedSlotBalance(String accountNumber);
+}
@@ -0,0 +1,210 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.AccountInfo;
+import com.abhi.the_bank_app.dto.BalanceSlotsRequest;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.entity.AccountSlot;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.AccountSlotRepository;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.sharding.ShardRouter;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Striped balances for hot accounts, e.g. a merchant account that takes thousands of credits a second.
+// A striped account keeps its balance in its users row plus N account_slots rows. Credits go to a random slot,
+// so they queue on N row locks instead of one; debits are checked against the users row and, when it is short,
+// sweep every slot into it first.
+// Lock order, which is what keeps this deadlock free: users rows (in account number order), then the slots of
+// an account whose users row is held, with a slot credit only ever as the last lock a transaction takes.
+@Service
+public class HotAccountServiceImpl implements HotAccountService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountSlotRepository accountSlotRepository;
+
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${bank.hot-accounts.max-slots:64}")
+    private int maxSlots;
+
+    // How long a balance enquiry may serve a cached sum of the slots; 0 sums them on every enquiry
+    @Value("${bank.hot-accounts.aggregate-ttl:0s}")
+    private Duration aggregateTtl;
+
+    // Slot count of every striped account, reloaded from the users table by refresh(). A stale entry is harmless:
+    // a credit aimed at a slot that doesn't exist falls back to the users row.
+    private final Map<String, Integer> slotCounts = new ConcurrentHashMap<>();
+    private Cache<String, Money> slotTotals;
+
+    @PostConstruct
+    void init() {
+        if (!aggregateTtl.isZero()) {
+            slotTotals = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(aggregateTtl).build();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bank.hot-accounts.refresh-interval-ms:10000}")
+    public void refresh() {
+        Map<String, Integer> striped = new HashMap<>();
+        shardRouter.forEachShard(shard -> userRepository.findByBalanceSlotsGreaterThan(0)
+                .forEach(user -> striped.put(user.getAccountNumber(), user.getBalanceSlots())));
+        slotCounts.keySet().retainAll(striped.keySet());
+        slotCounts.putAll(striped);
+    }
+
+    // Resizes the account's slots. Whatever they hold is moved into the users row first, so the balance is unchanged.
+    @Override
+    @Transactional
+    public BankResponse setBalanceSlots(BalanceSlotsRequest request) {
+        if (request.getAccountNumber() == null || request.getSlots() == null
+                || request.getSlots() < 0 || request.getSlots() > maxSlots) {
+            return BankResponses.INVALID_REQUEST;
+        }
+        // Nothing has touched the database yet, so the transaction's connection still comes from this shard
+        try (ShardRouter.Scope ignored = shardRouter.routeTo(shardRouter.shardOf(request.getAccountNumber()))) {
+            return setBalanceSlotsOnShard(request.getAccountNumber(), request.getSlots());
+        }
+    }
+
+    private BankResponse setBalanceSlotsOnShard(String accountNumber, int slots) {
+        User user = userRepository.findForUpdateByAccountNumber(accountNumber).orElse(null);
+        if (user == null) {
+            return BankResponses.ACCOUNT_NOT_EXIST;
+        }
+        List<AccountSlot> existing = accountSlotRepository.findAllForUpdateByAccountNumber(accountNumber);
+        user.setAccountBalance(user.getAccountBalance().plus(drain(existing)));
+        user.setBalanceSlots(slots);
+
+        Set<Integer> present = new HashSet<>();
+        for (AccountSlot slot : existing) {
+            if (slot.getSlot() >= slots) {
+                accountSlotRepository.delete(slot);
+            } else {
+                present.add(slot.getSlot());
+            }
+        }
+        List<AccountSlot> added = new ArrayList<>();
+        for (int slot = 0; slot < slots; slot++) {
+            if (!present.contains(slot)) {
+                added.add(AccountSlot.builder().accountNumber(accountNumber).slot(slot).balance(Money.ZERO).build());
+            }
+        }
+        accountSlotRepository.saveAll(added);
+
+        accountLookupService.evict(accountNumber);
+        afterCommit(() -> {
+            if (slots > 0) {
+                slotCounts.put(accountNumber, slots);
+            } else {
+                slotCounts.remove(accountNumber);
+            }
+            invalidateSlotTotal(accountNumber);
+        });
+        return BankResponse.builder()
+                .responseCode(AccountUtils.BALANCE_SLOTS_UPDATED_CODE)
+                .responseMessage(AccountUtils.BALANCE_SLOTS_UPDATED_MESSAGE)
+                .accountInfo(AccountInfo.builder()
+                        .accountBalance(user.getAccountBalance())
+                        .accountNumber(accountNumber)
+                        .accountName(user.getFirstName() + " " + user.getLastName())
+                        .build())
+                .build();
+    }
+
+    @Override
+    public boolean isStriped(String accountNumber) {
+        return slotCounts.containsKey(accountNumber);
+    }
+
+    // False when the account isn't striped (or its slots are gone); the caller then credits the users row
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean creditSlot(String accountNumber, Money amount) {
+        Integer slots = slotCounts.get(accountNumber);
+        return slots != null && accountSlotRepository.creditSlot(accountNumber,
+                ThreadLocalRandom.current().nextInt(slots), amount) > 0;
+    }
+
+    // Called with the account's users row locked, before its balance is checked for a debit
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void coverDebit(User account, Money amount) {
+        if (account.getAccountBalance().isLessThan(amount) && isStriped(account.getAccountNumber())) {
+            account.setAccountBalance(account.getAccountBalance().plus(sweepSlots(account.getAccountNumber())));
+        }
+    }
+
+    // Empties the account's slots and returns what they held; the caller adds it to the users row it has locked
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Money sweepSlots(String accountNumber) {
+        Money swept = drain(accountSlotRepository.findAllForUpdateByAccountNumber(accountNumber));
+        if (swept.signum() != 0) {
+            afterCommit(() -> invalidateSlotTotal(accountNumber));
+        }
+        return swept;
+    }
+
+    @Override
+    public Money slotBalance(String accountNumber) {
+        return isStriped(accountNumber) ? Money.ofMinor(accountSlotRepository.sumBalance(accountNumber)) : Money.ZERO;
+    }
+
+    // For balance enquiries: the sum of the slots, up to aggregate-ttl old when that is set
+    @Override
+    public Money cachedSlotBalance(String accountNumber) {
+        if (slotTotals == null || !isStriped(accountNumber)) {
+            return slotBalance(accountNumber);
+        }
+        return slotTotals.get(accountNumber, this::slotBalance);
+    }
+
+    private static Money drain(List<AccountSlot> slots) {
+        Money total = Money.ZERO;
+        for (AccountSlot slot : slots) {
+            total = total.plus(slot.getBalance());
+            slot.setBalance(Money.ZERO);
+        }
+        return total;
+    }
+
+    private void invalidateSlotTotal(String accountNumber) {
+        if (slotTotals != null) {
+            slotTotals.invalidate(accountNumber);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    // Runs the action once per key; a replay of the same key returns the response stored the first time
+    BankResponse execute(String idempotencyKey, String operation, Object request, Supplier<BankResponse> action);
+}
@@ -0,0 +1,298 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.entity.IdempotencyRecord;
+import com.abhi.the_bank_app.repository.IdempotencyRecordRepository;
+import com.abhi.the_bank_app.sharding.ShardRouter;
+import com.abhi.the_bank_app.utils.BloomFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Dedupe store for Idempotency-Key headers.
+// Lookup order: recent responses in memory -> Bloom filter of every live key -> idempotency_keys table. A brand
+// new key is rejected by the Bloom filter, so the common case costs no extra database read. The money movement
+// and the stored response commit in one transaction; if two requests race with the same key, the primary key
+// makes the loser roll back and it returns the winner's response instead. Failed operations store their answer
+// too, including ones that roll themselves back, so a retry gets the same answer whichever transfer mode ran.
+// An expired key that has not been purged yet is deleted when a new request with that key collides with it.
+// A cross-shard transfer commits in its own saga steps, so it can't share a transaction with the key. Its key is
+// reserved first, as a row without a response, and the response is filled in once the saga answers; a request
+// that finds the key reserved but not yet answered is told to retry later instead of moving the money again.
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private record StoredResponse(String requestFingerprint, BankResponse response) {
+    }
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${bank.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${bank.idempotency.cache-size:100000}")
+    private long cacheSize;
+
+    @Value("${bank.idempotency.expected-keys:1000000}")
+    private long expectedKeys;
+
+    @Value("${bank.idempotency.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    private Cache<String, StoredResponse> recentResponses;
+    private volatile BloomFilter knownKeys;
+    private TransactionTemplate transaction;
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    void init() {
+        recentResponses = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(ttl).build();
+        knownKeys = new BloomFilter(expectedKeys, falsePositiveProbability);
+        transaction = new TransactionTemplate(transactionManager);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    // Keys stored before a restart (or by other nodes before this one started) must pass the Bloom filter
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadKnownKeys() {
+        knownKeys = buildFilter();
+    }
+
+    // With sharding, a key is stored on the shard of the account being credited, debited or transferred from
+    @Override
+    public BankResponse execute(String idempotencyKey, String operation, Object request, Supplier<BankResponse> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (request instanceof TransferRequest transferRequest && shardRouter.shardOf(transferRequest
+                .getSourceAccountNumber()) != shardRouter.shardOf(transferRequest.getDestinationAccountNumber())) {
+            return shardRouter.call(shardRouter.shardOf(transferRequest.getSourceAccountNumber()),
+                    () -> executeReserved(idempotencyKey, operation, request, action));
+        }
+        return shardRouter.call(shardRouter.shardOf(routingAccountNumber(request)),
+                () -> executeOnce(idempotencyKey, operation, request, action));
+    }
+
+    private BankResponse executeOnce(String idempotencyKey, String operation, Object request,
+                                     Supplier<BankResponse> action) {
+        String fingerprint = fingerprint(operation, request);
+
+        StoredResponse stored = recentResponses.getIfPresent(idempotencyKey);
+        if (stored == null && knownKeys.mightContain(idempotencyKey)) {
+            stored = load(idempotencyKey);
+        }
+        if (stored != null) {
+            return replay(stored, fingerprint);
+        }
+
+        AtomicReference<BankResponse> result = new AtomicReference<>();
+        try {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    result.set(action.get());
+                    idempotencyRecordRepository.saveAndFlush(newRecord(idempotencyKey, fingerprint, result.get()));
+                });
+            } catch (UnexpectedRollbackException e) {
+                // The operation rolled itself back (e.g. a failed conditional transfer), so nothing was applied.
+                // Its answer is still stored, as it is when a locking transfer fails without rolling back.
+                transaction.executeWithoutResult(status -> idempotencyRecordRepository.saveAndFlush(
+                        newRecord(idempotencyKey, fingerprint, result.get())));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another request with the same key committed first; our changes were rolled back. If the key's row
+            // had only expired, it is deleted and the request runs again.
+            StoredResponse winner = load(idempotencyKey);
+            if (winner != null) {
+                return replay(winner, fingerprint);
+            }
+            if (discardExpired(idempotencyKey)) {
+                return executeOnce(idempotencyKey, operation, request, action);
+            }
+            throw e;
+        }
+
+        knownKeys.put(idempotencyKey);
+        recentResponses.put(idempotencyKey, new StoredResponse(fingerprint, result.get()));
+        return result.get();
+    }
+
+    // Reserves the key in a transaction of its own before running the action, and stores the response after it
+    private BankResponse executeReserved(String idempotencyKey, String operation, Object request,
+                                         Supplier<BankResponse> action) {
+        String fingerprint = fingerprint(operation, request);
+
+        StoredResponse stored = recentResponses.getIfPresent(idempotencyKey);
+        if (stored == null && knownKeys.mightContain(idempotencyKey)) {
+            stored = load(idempotencyKey);
+        }
+        if (stored != null) {
+            return replay(stored, fingerprint);
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> idempotencyRecordRepository.saveAndFlush(
+                    newRecord(idempotencyKey, fingerprint, null)));
+        } catch (DataIntegrityViolationException e) {
+            // Another request reserved the key first; it is either still running or has answered by now
+            StoredResponse winner = load(idempotencyKey);
+            if (winner != null) {
+                return replay(winner, fingerprint);
+            }
+            if (discardExpired(idempotencyKey)) {
+                return executeReserved(idempotencyKey, operation, request, action);
+            }
+            throw e;
+        }
+        knownKeys.put(idempotencyKey);
+
+        BankResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Nothing was answered, so the reservation goes and a retry with the same key runs again
+            transaction.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(idempotencyKey));
+            throw e;
+        }
+        transaction.executeWithoutResult(status -> idempotencyRecordRepository.findById(idempotencyKey)
+                .ifPresent(record -> record.setResponseBody(toJson(response))));
+        recentResponses.put(idempotencyKey, new StoredResponse(fingerprint, response));
+        return response;
+    }
+
+    // Expired keys are deleted and the Bloom filter is rebuilt from the remaining ones
+    @Scheduled(fixedDelayString = "${bank.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int[] deleted = {0};
+        shardRouter.forEachShard(shard -> deleted[0] += transaction.execute(
+                status -> idempotencyRecordRepository.deleteExpired(LocalDateTime.now())));
+        if (deleted[0] > 0) {
+            knownKeys = buildFilter();
+            log.info("Purged {} expired idempotency keys", deleted[0]);
+        }
+    }
+
+    private BloomFilter buildFilter() {
+        BloomFilter filter = new BloomFilter(expectedKeys, falsePositiveProbability);
+        shardRouter.forEachShard(shard -> readTransaction.executeWithoutResult(status -> {
+            try (Stream<String> keys = idempotencyRecordRepository.streamLiveKeys(LocalDateTime.now())) {
+                keys.forEach(filter::put);
+            }
+        }));
+        return filter;
+    }
+
+    // A key whose row has expired but not been purged yet is free again: the row makes way for the new request
+    private boolean discardExpired(String idempotencyKey) {
+        return transaction.execute(status ->
+                idempotencyRecordRepository.deleteExpiredKey(idempotencyKey, LocalDateTime.now())) > 0;
+    }
+
+    // A null response reserves the key without answering it
+    private IdempotencyRecord newRecord(String idempotencyKey, String fingerprint, BankResponse response) {
+        return IdempotencyRecord.builder()
+                .idempotencyKey(idempotencyKey)
+                .requestFingerprint(fingerprint)
+                .responseBody(response == null ? null : toJson(response))
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build();
+    }
+
+    private static String routingAccountNumber(Object request) {
+        if (request instanceof CreditDebitRequest creditDebitRequest) {
+            return creditDebitRequest.getAccountNumber();
+        }
+        if (request instanceof TransferRequest transferRequest) {
+            return transferRequest.getSourceAccountNumber();
+        }
+        return null;
+    }
+
+    private StoredResponse load(String idempotencyKey) {
+        IdempotencyRecord record = idempotencyRecordRepository.findById(idempotencyKey).orElse(null);
+        if (record == null || record.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        // A reserved key has no response until its request answers, so it is only cached once it has one
+        if (record.getResponseBody() == null) {
+            return new StoredResponse(record.getRequestFingerprint(), null);
+        }
+        StoredResponse stored = new StoredResponse(record.getRequestFingerprint(), fromJson(record.getResponseBody()));
+        recentResponses.put(idempotencyKey, stored);
+        return stored;
+    }
+
+    private static BankResponse replay(StoredResponse stored, String fingerprint) {
+        if (!stored.requestFingerprint().equals(fingerprint)) {
+            return BankResponses.IDEMPOTENCY_KEY_REUSED;
+        }
+        if (stored.response() == null) {
+            return BankResponses.IDEMPOTENCY_KEY_IN_PROGRESS;
+        }
+        return stored.response();
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return operation + ":" + HexFormat.of().formatHex(digest, 0, 16);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint " + operation + " request", e);
+        }
+    }
+
+    private String toJson(BankResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response", e);
+        }
+    }
+
+    private BankResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, BankResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored response", e);
+        }
+    }
+}
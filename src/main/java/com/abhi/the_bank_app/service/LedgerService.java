@@ -0,0 +1,16 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.money.Money;
+
+public interface LedgerService {
+
+    void recordCredit(String accountNumber, Money amount, String description);
+    void recordDebit(String accountNumber, Money amount, String description);
+    void recordTransfer(String sourceAccountNumber, String destinationAccountNumber, Money amount);
+    void recordTransferLeg(String reference, String accountNumber, String transactionType, Money amount,
+                           String counterpartyAccountNumber, String description);
+    Money ledgerBalance(String accountNumber);
+    BankResponse rebuildBalance(String accountNumber);
+    boolean isEnabled();
+}
@@ -0,0 +1,154 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.AccountInfo;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.entity.Transaction;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.TransactionRepository;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.sharding.ShardRouter;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class LedgerServiceImpl implements LedgerService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${bank.ledger.enabled:true}")
+    private boolean ledgerEnabled;
+
+    // The record methods join the caller's transaction, so a ledger leg exists exactly when its balance change does
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCredit(String accountNumber, Money amount, String description) {
+        if (ledgerEnabled) {
+            transactionRepository.save(leg(newReference(), accountNumber, Transaction.TYPE_CREDIT, amount, null, description));
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDebit(String accountNumber, Money amount, String description) {
+        if (ledgerEnabled) {
+            transactionRepository.save(leg(newReference(), accountNumber, Transaction.TYPE_DEBIT, amount, null, description));
+        }
+    }
+
+    // Double entry: a debit leg on the source and a credit leg on the destination, written as one JDBC batch
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransfer(String sourceAccountNumber, String destinationAccountNumber, Money amount) {
+        if (!ledgerEnabled) {
+            return;
+        }
+        String reference = newReference();
+        transactionRepository.saveAll(List.of(
+                leg(reference, sourceAccountNumber, Transaction.TYPE_DEBIT, amount, destinationAccountNumber, "Transfer"),
+                leg(reference, destinationAccountNumber, Transaction.TYPE_CREDIT, amount, sourceAccountNumber, "Transfer")));
+    }
+
+    // One leg of a transfer whose accounts are on different shards; each leg commits on its own shard
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransferLeg(String reference, String accountNumber, String transactionType, Money amount,
+                                  String counterpartyAccountNumber, String description) {
+        if (ledgerEnabled) {
+            transactionRepository.save(leg(reference, accountNumber, transactionType, amount,
+                    counterpartyAccountNumber, description));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Money ledgerBalance(String accountNumber) {
+        return Money.ofMinor(transactionRepository.sumBalance(accountNumber));
+    }
+
+    // The stored balance is a projection of the ledger: this recomputes it from the account's legs and overwrites
+    // the users row. A striped account's slots are emptied first, so the rebuilt figure is the whole balance.
+    // Refused when the ledger is off, or when the account's balance didn't start in the ledger, as the legs would
+    // then miss part of it. Changes made while bank.ledger.enabled was off leave no legs either, which is why
+    // that switch is only meant for benchmarking.
+    @Override
+    @Transactional
+    public BankResponse rebuildBalance(String accountNumber) {
+        if (!ledgerEnabled) {
+            return BankResponses.LEDGER_DISABLED;
+        }
+        if (accountNumber == null) {
+            return BankResponses.INVALID_REQUEST;
+        }
+        // Nothing has touched the database yet, so the transaction's connection still comes from this shard
+        try (ShardRouter.Scope ignored = shardRouter.routeTo(shardRouter.shardOf(accountNumber))) {
+            return rebuildBalanceOnShard(accountNumber);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ledgerEnabled;
+    }
+
+    // The users row is locked before the slots, in line with the lock order in HotAccountServiceImpl
+    private BankResponse rebuildBalanceOnShard(String accountNumber) {
+        User user = userRepository.findForUpdateByAccountNumber(accountNumber).orElse(null);
+        if (user == null) {
+            return BankResponses.ACCOUNT_NOT_EXIST;
+        }
+        if (user.getLedgerSince() == null) {
+            return BankResponses.BALANCE_PREDATES_LEDGER;
+        }
+        hotAccountService.sweepSlots(accountNumber);
+        Money balance = Money.ofMinor(transactionRepository.sumBalance(accountNumber));
+        user.setAccountBalance(balance);
+        accountLookupService.evict(accountNumber);
+        return BankResponse.builder()
+                .responseCode(AccountUtils.BALANCE_REBUILT_CODE)
+                .responseMessage(AccountUtils.BALANCE_REBUILT_MESSAGE)
+                .accountInfo(AccountInfo.builder()
+                        .accountName(user.getFirstName() + " " + user.getLastName())
+                        .accountBalance(balance)
+                        .accountNumber(accountNumber)
+                        .build())
+                .build();
+    }
+
+    private static String newReference() {
+        return UUID.randomUUID().toString();
+    }
+
+    private static Transaction leg(String reference, String accountNumber, String type, Money amount,
+                                   String counterparty, String description) {
+        return Transaction.builder()
+                .transactionReference(reference)
+                .accountNumber(accountNumber)
+                .transactionType(type)
+                .amount(amount)
+                .counterpartyAccountNumber(counterparty)
+                .description(description)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.StatementRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+public interface StatementService {
+
+    // Why the statement can't be produced (an unknown format or account), if it can't
+    Optional<BankResponse> rejectionOf(StatementRequest request);
+    void writeStatement(StatementRequest request, OutputStream out) throws IOException;
+    BankResponse emailStatement(StatementRequest request);
+}
@@ -0,0 +1,268 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.dto.EmailDetails;
+import com.abhi.the_bank_app.dto.StatementEntry;
+import com.abhi.the_bank_app.dto.StatementRequest;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.repository.TransactionRepository;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.sharding.ShardRouter;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.abhi.the_bank_app.utils.StatementPdfWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class StatementServiceImpl implements StatementService {
+
+    private static final Set<String> FORMATS = Set.of(AccountUtils.STATEMENT_FORMAT_CSV,
+            AccountUtils.STATEMENT_FORMAT_JSONL, AccountUtils.STATEMENT_FORMAT_PDF);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bank.statement.page-size:500}")
+    private int pageSize;
+
+    @Value("${bank.statement.directory:${java.io.tmpdir}/bank-statements}")
+    private String statementDirectory;
+
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    // Streams the statement page by page using keyset pagination. No transaction is held while the client reads,
+    // and entries are unmanaged DTOs, so memory stays flat however long the statement is.
+    @Override
+    public void writeStatement(StatementRequest request, OutputStream out) throws IOException {
+        try (ShardRouter.Scope ignored = shardRouter.routeTo(shardRouter.shardOf(request.getAccountNumber()))) {
+            writeStatementPages(request, out);
+        }
+    }
+
+    private void writeStatementPages(StatementRequest request, OutputStream out) throws IOException {
+        LocalDateTime from = startOf(request.getFromDate());
+        LocalDateTime to = endOf(request.getToDate());
+        Iterator<StatementEntry> entries = new Iterator<>() {
+            private List<StatementEntry> page = transactionRepository.findStatementPage(
+                    request.getAccountNumber(), from, to, Limit.of(pageSize));
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) {
+                    return true;
+                }
+                if (page.size() < pageSize) {
+                    return false;
+                }
+                StatementEntry last = page.get(page.size() - 1);
+                page = transactionRepository.findStatementPageAfter(request.getAccountNumber(), to,
+                        last.getCreatedAt(), last.getId(), Limit.of(pageSize));
+                index = 0;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public StatementEntry next() {
+                return page.get(index++);
+            }
+        };
+        write(request, entries, out);
+    }
+
+    @Override
+    public Optional<BankResponse> rejectionOf(StatementRequest request) {
+        if (!FORMATS.contains(formatOf(request))) {
+            return Optional.of(BankResponses.INVALID_REQUEST);
+        }
+        if (shardRouter.call(shardRouter.shardOf(request.getAccountNumber()),
+                () -> accountLookupService.findAccountInfo(request.getAccountNumber())).isEmpty()) {
+            return Optional.of(BankResponses.ACCOUNT_NOT_EXIST);
+        }
+        return Optional.empty();
+    }
+
+    // Renders the statement to a file with a forward-only cursor in a read-only transaction, then queues it as an
+    // email attachment in a transaction of its own: the outbox row would never be flushed from a read-only one.
+    // The dispatcher deletes the file once the email is sent or given up on.
+    @Override
+    public BankResponse emailStatement(StatementRequest request) {
+        Optional<BankResponse> rejection = rejectionOf(request);
+        if (rejection.isPresent()) {
+            return rejection.get();
+        }
+        try (ShardRouter.Scope ignored = shardRouter.routeTo(shardRouter.shardOf(request.getAccountNumber()))) {
+            User user = userRepository.findByAccountNumber(request.getAccountNumber()).orElse(null);
+            if (user == null) {
+                return BankResponses.ACCOUNT_NOT_EXIST;
+            }
+            Path file = readTransaction.execute(status -> render(request, user));
+            try {
+                emailService.queueEmailAlert(EmailDetails.builder()
+                        .recipient(user.getEmail())
+                        .subject("Account statement")
+                        .messageBody("Please find attached the statement for account " + user.getAccountNumber() +
+                                " " + period(request) + ".")
+                        .attachment(file.toString())
+                        .build());
+            } catch (RuntimeException e) {
+                deleteQuietly(file);
+                throw e;
+            }
+        }
+
+        return BankResponse.builder()
+                .responseCode(AccountUtils.STATEMENT_EMAILED_CODE)
+                .responseMessage(AccountUtils.STATEMENT_EMAILED_MESSAGE)
+                .accountInfo(null)
+                .build();
+    }
+
+    private Path render(StatementRequest request, User user) {
+        Path file = null;
+        try {
+            Path directory = Files.createDirectories(Paths.get(statementDirectory));
+            file = Files.createTempFile(directory, "statement-" + user.getAccountNumber() + "-",
+                    "." + formatOf(request));
+            try (Stream<StatementEntry> entries = transactionRepository.streamStatement(request.getAccountNumber(),
+                    startOf(request.getFromDate()), endOf(request.getToDate()));
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                write(request, entries.iterator(), out);
+            }
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Could not write statement for " + request.getAccountNumber(), e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete statement file {}", file, e);
+        }
+    }
+
+    private void write(StatementRequest request, Iterator<StatementEntry> entries, OutputStream out) throws IOException {
+        switch (formatOf(request)) {
+            case AccountUtils.STATEMENT_FORMAT_CSV -> writeCsv(entries, out);
+            case AccountUtils.STATEMENT_FORMAT_JSONL -> writeJsonLines(entries, out);
+            case AccountUtils.STATEMENT_FORMAT_PDF -> writePdf(request, entries, out);
+            default -> throw new IllegalArgumentException("Unknown statement format " + request.getFormat());
+        }
+    }
+
+    private void writeCsv(Iterator<StatementEntry> entries, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("date,reference,type,amount,counterparty,description\n");
+        while (entries.hasNext()) {
+            StatementEntry entry = entries.next();
+            writer.write(entry.getCreatedAt() + "," + entry.getTransactionReference() + "," +
+                    entry.getTransactionType() + "," + entry.getAmount().toString() + "," +
+                    csv(entry.getCounterpartyAccountNumber()) + "," + csv(entry.getDescription()) + "\n");
+        }
+        writer.flush();
+    }
+
+    private void writeJsonLines(Iterator<StatementEntry> entries, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        while (entries.hasNext()) {
+            writer.write(objectMapper.writeValueAsString(entries.next()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writePdf(StatementRequest request, Iterator<StatementEntry> entries, OutputStream out) throws IOException {
+        try (StatementPdfWriter pdf = new StatementPdfWriter(out)) {
+            pdf.addLine("Statement for account " + request.getAccountNumber() + " " + period(request));
+            pdf.addLine("");
+            pdf.addLine(String.format("%-26s %-6s %15s  %-14s %s", "Date", "Type", "Amount", "Counterparty", "Reference"));
+            while (entries.hasNext()) {
+                StatementEntry entry = entries.next();
+                pdf.addLine(String.format("%-26s %-6s %15s  %-14s %s", entry.getCreatedAt(), entry.getTransactionType(),
+                        entry.getAmount().toString(),
+                        entry.getCounterpartyAccountNumber() == null ? "" : entry.getCounterpartyAccountNumber(),
+                        entry.getTransactionReference()));
+            }
+        }
+    }
+
+    private static String period(StatementRequest request) {
+        return (request.getFromDate() == null ? "from account opening" : "from " + request.getFromDate()) +
+                " to " + (request.getToDate() == null ? LocalDate.now() : request.getToDate());
+    }
+
+    private static String formatOf(StatementRequest request) {
+        return request.getFormat() == null ? AccountUtils.STATEMENT_FORMAT_CSV : request.getFormat().toLowerCase();
+    }
+
+    // A missing from date means "from the beginning", a missing to date means "up to today"
+    private static LocalDateTime startOf(LocalDate fromDate) {
+        return fromDate == null ? LocalDateTime.of(1970, 1, 1, 0, 0) : fromDate.atStartOfDay();
+    }
+
+    private static LocalDateTime endOf(LocalDate toDate) {
+        return (toDate == null ? LocalDate.now() : toDate).plusDays(1).atStartOfDay();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -3,13 +3,17 @@ package com.abhi.the_bank_app.service;
 import com.abhi.the_bank_app.dto.*;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public interface UserService {
 
     BankResponse createAccount(UserRequest userRequest);
+    List<BankResponse> createAccounts(List<UserRequest> userRequests);
     BankResponse balanceEnquiry(EnquiryRequest request);
     String nameEnquiry(EnquiryRequest request);
     BankResponse creditAccount(CreditDebitRequest request);
     BankResponse debitAccount(CreditDebitRequest request);
     BankResponse transfer(TransferRequest request);
+    BatchTransferResponse batchTransfer(BatchTransferRequest request);
 }
\ No newline at end of file
@@ -2,12 +2,20 @@ package com.abhi.the_bank_app.service;
 
 import com.abhi.the_bank_app.dto.*;
 import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
 import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountNumberGenerator;
 import com.abhi.the_bank_app.utils.AccountUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -18,64 +26,141 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private AccountNumberGenerator accountNumberGenerator;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountEventService accountEventService;
+
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bank.batch-transfer.chunk-size:1000}")
+    private int batchTransferChunkSize;
+
+    // "locking" reads and locks the rows before changing them; "conditional" uses single UPDATE statements
+    @Value("${bank.transfer.mode:" + AccountUtils.TRANSFER_MODE_LOCKING + "}")
+    private String transferMode;
+
     // This method handles account creation. It first checks if the email is already registered.
-    // If not, it creates a new account and sends a welcome email to the user.
+    // If not, it creates a new account and queues a welcome email to the user.
     @Override
+    @Transactional
     public BankResponse createAccount(UserRequest userRequest) {
 
         // Check if a user with the same email already exists in the system
         if (userRepository.existsByEmail(userRequest.getEmail())) {
-            return BankResponse.builder()
-                    .responseCode(AccountUtils.ACCOUNT_EXIST_CODE)
-                    .responseMessage(AccountUtils.ACCOUNT_EXIST_MESSAGE)
-                    .accountInfo(null)
-                    .build();
+            return BankResponses.ACCOUNT_EXISTS;
         }
 
-        // Create a new user entity and assign all necessary fields from the request
-        User newUser = User.builder()
+        // Create a new user entity with a freshly generated account number and save it
+        User saveUser = userRepository.save(newUser(userRequest, accountNumberGenerator.nextAccountNumber()));
+        accountEventService.recordAccountCreated(saveUser.getAccountNumber());
+
+        // Queue a welcome email with account details; it is sent by the outbox dispatcher after commit
+        emailService.queueEmailAlert(welcomeEmail(saveUser));
+
+        // Return the success response with account information
+        return accountCreatedResponse(saveUser);
+    }
+
+    // Bulk variant of createAccount for one chunk of an onboarding upload. Duplicate emails are found with a
+    // single IN query, account numbers are minted in one go and the rows are written with JDBC batch inserts.
+    // Returns one response per request, in the same order.
+    @Override
+    @Transactional
+    public List<BankResponse> createAccounts(List<UserRequest> userRequests) {
+
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(userRequests.stream()
+                .map(UserRequest::getEmail)
+                .filter(Objects::nonNull)
+                .toList()));
+
+        // Requests whose email is already registered (or repeated earlier in this chunk) are rejected
+        List<UserRequest> accepted = new ArrayList<>(userRequests.size());
+        for (UserRequest userRequest : userRequests) {
+            if (userRequest.getEmail() == null || takenEmails.add(userRequest.getEmail())) {
+                accepted.add(userRequest);
+            }
+        }
+
+        List<String> accountNumbers = accountNumberGenerator.nextAccountNumbers(accepted.size());
+        List<User> newUsers = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            newUsers.add(newUser(accepted.get(i), accountNumbers.get(i)));
+        }
+        userRepository.saveAll(newUsers);
+        newUsers.forEach(user -> {
+            accountEventService.recordAccountCreated(user.getAccountNumber());
+            emailService.queueEmailAlert(welcomeEmail(user));
+        });
+
+        List<BankResponse> responses = new ArrayList<>(userRequests.size());
+        Iterator<User> created = newUsers.iterator();
+        int acceptedIndex = 0;
+        for (UserRequest userRequest : userRequests) {
+            if (acceptedIndex < accepted.size() && accepted.get(acceptedIndex) == userRequest) {
+                acceptedIndex++;
+                responses.add(accountCreatedResponse(created.next()));
+            } else {
+                responses.add(BankResponses.ACCOUNT_EXISTS);
+            }
+        }
+        return responses;
+    }
+
+    // Builds a new, active, zero-balance user from the request. With the ledger on, the balance starts in it.
+    private User newUser(UserRequest userRequest, String accountNumber) {
+        return User.builder()
                 .firstName(userRequest.getFirstName())
                 .lastName(userRequest.getLastName())
                 .otherName(userRequest.getOtherName())
                 .gender(userRequest.getGender())
                 .address(userRequest.getAddress())
                 .stateOfOrigin(userRequest.getStateOfOrigin())
-                .accountNumber(AccountUtils.generateAccountNumber()) // Generate a unique account number
-                .accountBalance(BigDecimal.ZERO)  // Account starts with zero balance
+                .accountNumber(accountNumber)
+                .accountBalance(Money.ZERO)  // Account starts with zero balance
                 .email(userRequest.getEmail())
                 .phoneNumber(userRequest.getPhoneNumber())
                 .alternativePhoneNumber(userRequest.getAlternativePhoneNumber())
                 .status("ACTIVE")
+                .ledgerSince(ledgerService.isEnabled() ? LocalDateTime.now() : null)
                 .build();
+    }
 
-        // Save the new user in the database
-        User saveUser = userRepository.save(newUser);
-
-        // Send a welcome email with account details to the user
-        EmailDetails emailDetails = EmailDetails.builder()
-                .recipient(saveUser.getEmail())
+    private EmailDetails welcomeEmail(User user) {
+        return EmailDetails.builder()
+                .recipient(user.getEmail())
                 .subject("Account creation")
                 .messageBody(
                         "Congratulations! Your account has been successfully created.\n\n" +
                                 "Here are your account details:\n" +
                                 "------------------------------------\n" +
-                                "Account Name: " + saveUser.getFirstName() + " " + saveUser.getLastName() + "\n" +
-                                "Account Number: " + saveUser.getAccountNumber() + "\n" +
+                                "Account Name: " + user.getFirstName() + " " + user.getLastName() + "\n" +
+                                "Account Number: " + user.getAccountNumber() + "\n" +
                                 "------------------------------------\n" +
                                 "Thank you for choosing our services!"
                 )
                 .build();
+    }
 
-        emailService.sendEmailAlert(emailDetails);
-
-        // Return the success response with account information
+    private BankResponse accountCreatedResponse(User user) {
         return BankResponse.builder()
                 .responseCode(AccountUtils.ACCOUNT_CREATION_SUCCESS)
                 .responseMessage(AccountUtils.ACCOUNT_CREATION_MESSAGE)
                 .accountInfo(AccountInfo.builder()
-                        .accountBalance(saveUser.getAccountBalance())
-                        .accountNumber(saveUser.getAccountNumber())
-                        .accountName(saveUser.getFirstName() + " " + saveUser.getLastName() + " " + saveUser.getOtherName())
+                        .accountBalance(user.getAccountBalance())
+                        .accountNumber(user.getAccountNumber())
+                        .accountName(user.getFirstName() + " " + user.getLastName() + " " + user.getOtherName())
                         .build())
                 .build();
     }
@@ -85,29 +170,18 @@ public class UserServiceImpl implements UserService {
     @Override
     public BankResponse balanceEnquiry(EnquiryRequest request) {
 
-        // Check if the account number exists in the database
-        boolean isAccountExist = userRepository.existsByAccountNumber(request.getAccountNumber());
+        // Served from the account cache when possible; an empty result means the account doesn't exist
+        AccountInfo accountInfo = accountLookupService.findAccountInfo(request.getAccountNumber()).orElse(null);
 
         // If the account doesn't exist, return an error response
-        if (!isAccountExist) {
-            return BankResponse.builder()
-                    .responseCode(AccountUtils.ACCOUNT_NOT_EXIST_CODE)
-                    .responseMessage(AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE)
-                    .accountInfo(null)
-                    .build();
+        if (accountInfo == null) {
+            return BankResponses.ACCOUNT_NOT_EXIST;
         }
 
-        // If the account exists, retrieve the account details and return the balance
-        User foundUser = userRepository.findByAccountNumber(request.getAccountNumber());
-
         return BankResponse.builder()
                 .responseCode(AccountUtils.ACCOUNT_FOUND_CODE)
                 .responseMessage(AccountUtils.ACCOUNT_FOUND_MESSAGE)
-                .accountInfo(AccountInfo.builder()
-                        .accountBalance(foundUser.getAccountBalance())
-                        .accountNumber(request.getAccountNumber())
-                        .accountName(foundUser.getFirstName() + " " + foundUser.getLastName())
-                        .build())
+                .accountInfo(withSlotBalance(accountInfo, true))
                 .build();
     }
 
@@ -116,160 +190,417 @@ public class UserServiceImpl implements UserService {
     @Override
     public String nameEnquiry(EnquiryRequest request) {
 
-        // Check if the account exists in the database
-        boolean isAccountExist = userRepository.existsByAccountNumber(request.getAccountNumber());
-
-        // If the account doesn't exist, return a message saying so
-        if (!isAccountExist) {
-            return AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE;
-        }
-
-        // If the account exists, return the account holder's name
-        User foundUser = userRepository.findByAccountNumber(request.getAccountNumber());
-        return foundUser.getFirstName() + " " + foundUser.getLastName();
+        // Return the account holder's name, or a message saying the account doesn't exist
+        return accountLookupService.findAccountInfo(request.getAccountNumber())
+                .map(AccountInfo::getAccountName)
+                .orElse(AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE);
     }
 
     // This method handles crediting a specific amount to an account. It checks if the account exists,
     // and if so, it adds the specified amount to the balance.
     @Override
+    @Transactional
     public BankResponse creditAccount(CreditDebitRequest request) {
 
-        // First, check if the account exists in the database
-        boolean isAccountExist = userRepository.existsByAccountNumber(request.getAccountNumber());
-        if (!isAccountExist) {
-            return BankResponse.builder()
-                    .responseCode(AccountUtils.ACCOUNT_NOT_EXIST_CODE)
-                    .responseMessage(AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE)
-                    .accountInfo(null)
-                    .build();
+        // Only a positive amount can be credited; zero or a negative amount would be a debit in disguise
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            return BankResponses.INVALID_REQUEST;
+        }
+
+        // A striped account takes the credit on one of its slots; its users row, and so its cache entry, is untouched
+        if (hotAccountService.creditSlot(request.getAccountNumber(), request.getAmount())) {
+            ledgerService.recordCredit(request.getAccountNumber(), request.getAmount(), "Credit");
+            accountEventService.recordCredit(request.getAccountNumber(), request.getAmount());
+            return creditSuccessResponse(withSlotBalance(
+                    userRepository.findAccountInfoByAccountNumber(request.getAccountNumber()).orElseThrow(), false));
+        }
+
+        // In conditional mode the balance is changed by a single UPDATE statement
+        if (isConditionalMode()) {
+            if (userRepository.creditBalance(request.getAccountNumber(), request.getAmount()) == 0) {
+                return BankResponses.ACCOUNT_NOT_EXIST;
+            }
+            ledgerService.recordCredit(request.getAccountNumber(), request.getAmount(), "Credit");
+            accountEventService.recordCredit(request.getAccountNumber(), request.getAmount());
+            accountLookupService.evict(request.getAccountNumber());
+            return creditSuccessResponse(
+                    userRepository.findAccountInfoByAccountNumber(request.getAccountNumber()).orElseThrow());
         }
 
-        // Fetch the user and add the specified amount to their balance
-        User userToCredit = userRepository.findByAccountNumber(request.getAccountNumber());
-        userToCredit.setAccountBalance(userToCredit.getAccountBalance().add(request.getAmount()));
+        // Fetch and lock the account to credit; an empty result means it doesn't exist
+        User userToCredit = userRepository.findForUpdateByAccountNumber(request.getAccountNumber()).orElse(null);
+        if (userToCredit == null) {
+            return BankResponses.ACCOUNT_NOT_EXIST;
+        }
+
+        // Add the specified amount to their balance
+        userToCredit.setAccountBalance(userToCredit.getAccountBalance().plus(request.getAmount()));
         userRepository.save(userToCredit);
+        ledgerService.recordCredit(userToCredit.getAccountNumber(), request.getAmount(), "Credit");
+        accountEventService.recordCredit(userToCredit.getAccountNumber(), request.getAmount());
+        accountLookupService.evict(userToCredit.getAccountNumber());
 
         // Return a response with the updated balance information
-        return BankResponse.builder()
-                .responseCode(AccountUtils.ACCOUNT_CREDITEd_SUCCESS)
-                .responseMessage(AccountUtils.ACCOUNT_CREDITEd_SUCCESS_MESSAGE)
-                .accountInfo(AccountInfo.builder()
-                        .accountBalance(userToCredit.getAccountBalance())
-                        .accountNumber(request.getAccountNumber())
-                        .accountName(userToCredit.getFirstName() + " " + userToCredit.getLastName())
-                        .build())
-                .build();
+        return creditSuccessResponse(toAccountInfo(userToCredit));
     }
 
     // This method debits a specified amount from an account. It checks if the account exists and if
     // the account has enough balance. If so, it deducts the amount; otherwise, it returns an error.
     @Override
+    @Transactional
     public BankResponse debitAccount(CreditDebitRequest request) {
 
-        // Check if the account exists in the database
-        boolean isAccountExist = userRepository.existsByAccountNumber(request.getAccountNumber());
-        if (!isAccountExist) {
-            return BankResponse.builder()
-                    .responseCode(AccountUtils.ACCOUNT_NOT_EXIST_CODE)
-                    .responseMessage(AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE)
-                    .accountInfo(null)
-                    .build();
+        // Only a positive amount can be debited; a negative one would credit the account past every balance check
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            return BankResponses.INVALID_REQUEST;
         }
 
-        // Fetch the user details
-        User userToDebit = userRepository.findByAccountNumber(request.getAccountNumber());
+        // In conditional mode the balance check and the deduction are one UPDATE statement. A striped account
+        // takes the locking path instead, since its users row may first need topping up from its slots.
+        if (isConditionalMode() && !hotAccountService.isStriped(request.getAccountNumber())) {
+            boolean debited = userRepository.debitBalance(request.getAccountNumber(), request.getAmount()) > 0;
+            AccountInfo debitedAccount = userRepository.findAccountInfoByAccountNumber(request.getAccountNumber())
+                    .orElse(null);
+            if (debitedAccount == null) {
+                return BankResponses.ACCOUNT_NOT_EXIST;
+            }
+            if (!debited) {
+                return insufficientBalanceResponse(debitedAccount, "Insufficient account balance!");
+            }
+            ledgerService.recordDebit(request.getAccountNumber(), request.getAmount(), "Debit");
+            accountEventService.recordDebit(request.getAccountNumber(), request.getAmount());
+            accountLookupService.evict(request.getAccountNumber());
+            return debitSuccessResponse(debitedAccount);
+        }
+
+        // Fetch and lock the account to debit; an empty result means it doesn't exist
+        User userToDebit = userRepository.findForUpdateByAccountNumber(request.getAccountNumber()).orElse(null);
+        if (userToDebit == null) {
+            return BankResponses.ACCOUNT_NOT_EXIST;
+        }
 
         // Check if the account has sufficient balance
-        if (userToDebit.getAccountBalance().compareTo(request.getAmount()) < 0) {
-            return BankResponse.builder()
-                    .responseCode("006") // Insufficient balance error code
-                    .responseMessage("Insufficient account balance!")
-                    .accountInfo(AccountInfo.builder()
-                            .accountBalance(userToDebit.getAccountBalance())
-                            .accountNumber(request.getAccountNumber())
-                            .accountName(userToDebit.getFirstName() + " " + userToDebit.getLastName())
-                            .build())
-                    .build();
+        if (!coversDebit(userToDebit, request.getAmount())) {
+            return insufficientBalanceResponse(toAccountInfo(userToDebit), "Insufficient account balance!");
         }
 
         // Deduct the amount from the account balance
-        userToDebit.setAccountBalance(userToDebit.getAccountBalance().subtract(request.getAmount()));
+        userToDebit.setAccountBalance(userToDebit.getAccountBalance().minus(request.getAmount()));
         userRepository.save(userToDebit);
+        ledgerService.recordDebit(userToDebit.getAccountNumber(), request.getAmount(), "Debit");
+        accountEventService.recordDebit(userToDebit.getAccountNumber(), request.getAmount());
+        accountLookupService.evict(userToDebit.getAccountNumber());
 
         // Return a response with the updated balance
-        return BankResponse.builder()
-                .responseCode("007") // Debit success code
-                .responseMessage("Account debited successfully!")
-                .accountInfo(AccountInfo.builder()
-                        .accountBalance(userToDebit.getAccountBalance())
-                        .accountNumber(request.getAccountNumber())
-                        .accountName(userToDebit.getFirstName() + " " + userToDebit.getLastName())
-                        .build())
-                .build();
+        return debitSuccessResponse(toAccountInfo(userToDebit));
     }
 
     // This method handles transferring funds from one account to another.
     // It checks that both the source and destination accounts exist, and ensures the source account has enough balance.
     // If everything checks out, it debits the source account and credits the destination account.
+    // The debit and the credit run in one transaction, so a failure between them rolls both back.
     @Override
+    @Transactional
     public BankResponse transfer(TransferRequest request) {
 
-        // Check if the source account exists
-        boolean isSourceAccountExist = userRepository.existsByAccountNumber(request.getSourceAccountNumber());
-        if (!isSourceAccountExist) {
-            return BankResponse.builder()
-                    .responseCode(AccountUtils.ACCOUNT_NOT_EXIST_CODE)
-                    .responseMessage("Source account does not exist!")
-                    .accountInfo(null)
-                    .build();
+        // A negative amount would move money from the destination to the source
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            return BankResponses.INVALID_REQUEST;
+        }
+        // Both account numbers are needed to work out the lock order below
+        if (request.getSourceAccountNumber() == null) {
+            return BankResponses.SOURCE_ACCOUNT_NOT_EXIST;
+        }
+        if (request.getDestinationAccountNumber() == null) {
+            return BankResponses.DESTINATION_ACCOUNT_NOT_EXIST;
+        }
+        // A transfer to the same account would lock one row and write both ledger legs against it
+        if (request.getSourceAccountNumber().equals(request.getDestinationAccountNumber())) {
+            return BankResponses.INVALID_REQUEST;
         }
 
-        // Check if the destination account exists
-        boolean isDestinationAccountExist = userRepository.existsByAccountNumber(request.getDestinationAccountNumber());
-        if (!isDestinationAccountExist) {
-            return BankResponse.builder()
-                    .responseCode(AccountUtils.ACCOUNT_NOT_EXIST_CODE)
-                    .responseMessage("Destination account does not exist!")
-                    .accountInfo(null)
-                    .build();
+        // Into a striped account: only the source row is locked and the credit goes to a slot. Out of one: the
+        // locking path below, which can sweep the source's slots.
+        boolean stripedSource = hotAccountService.isStriped(request.getSourceAccountNumber());
+        if (!stripedSource && hotAccountService.isStriped(request.getDestinationAccountNumber())) {
+            return transferToSlot(request);
+        }
+        if (isConditionalMode() && !stripedSource) {
+            return conditionalTransfer(request);
         }
 
-        // Get details of the source account
-        User sourceAccount = userRepository.findByAccountNumber(request.getSourceAccountNumber());
+        // Lock both accounts in account number order so two opposite transfers can't deadlock each other
+        boolean sourceFirst = request.getSourceAccountNumber().compareTo(request.getDestinationAccountNumber()) <= 0;
+        User firstLocked = userRepository.findForUpdateByAccountNumber(sourceFirst
+                ? request.getSourceAccountNumber() : request.getDestinationAccountNumber()).orElse(null);
+        User secondLocked = userRepository.findForUpdateByAccountNumber(sourceFirst
+                ? request.getDestinationAccountNumber() : request.getSourceAccountNumber()).orElse(null);
+        User sourceAccount = sourceFirst ? firstLocked : secondLocked;
+        User destinationAccount = sourceFirst ? secondLocked : firstLocked;
+
+        if (sourceAccount == null) {
+            return BankResponses.SOURCE_ACCOUNT_NOT_EXIST;
+        }
+        if (destinationAccount == null) {
+            return BankResponses.DESTINATION_ACCOUNT_NOT_EXIST;
+        }
 
         // Check if the source account has enough balance for the transfer
-        if (sourceAccount.getAccountBalance().compareTo(request.getAmount()) < 0) {
-            return BankResponse.builder()
-                    .responseCode("006") // Insufficient balance error code
-                    .responseMessage("Insufficient balance in source account!")
-                    .accountInfo(AccountInfo.builder()
-                            .accountBalance(sourceAccount.getAccountBalance())
-                            .accountNumber(sourceAccount.getAccountNumber())
-                            .accountName(sourceAccount.getFirstName() + " " + sourceAccount.getLastName())
-                            .build())
-                    .build();
+        if (!coversDebit(sourceAccount, request.getAmount())) {
+            return insufficientBalanceResponse(toAccountInfo(sourceAccount), "Insufficient balance in source account!");
         }
 
-        // Get the destination account details
-        User destinationAccount = userRepository.findByAccountNumber(request.getDestinationAccountNumber());
-
         // Debit the source account
-        sourceAccount.setAccountBalance(sourceAccount.getAccountBalance().subtract(request.getAmount()));
+        sourceAccount.setAccountBalance(sourceAccount.getAccountBalance().minus(request.getAmount()));
         userRepository.save(sourceAccount);
 
         // Credit the destination account
-        destinationAccount.setAccountBalance(destinationAccount.getAccountBalance().add(request.getAmount()));
+        destinationAccount.setAccountBalance(destinationAccount.getAccountBalance().plus(request.getAmount()));
         userRepository.save(destinationAccount);
 
+        // Record both legs of the transfer in the ledger
+        ledgerService.recordTransfer(sourceAccount.getAccountNumber(), destinationAccount.getAccountNumber(),
+                request.getAmount());
+        accountEventService.recordTransfer(sourceAccount.getAccountNumber(), destinationAccount.getAccountNumber(),
+                request.getAmount());
+        accountLookupService.evict(sourceAccount.getAccountNumber());
+        accountLookupService.evict(destinationAccount.getAccountNumber());
+
         // Return the updated account information after the transfer
+        return transferSuccessResponse(toAccountInfo(sourceAccount));
+    }
+
+    // This method applies a list of transfers. Every chunk loads and locks all of its accounts with one IN query,
+    // applies the transfers in memory in request order and writes the balances back as JDBC batch updates
+    // when the chunk commits. ALL_OR_NOTHING runs the whole batch as one chunk and rolls it back if any
+    // transfer fails; BEST_EFFORT commits chunk by chunk and skips the transfers that fail.
+    @Override
+    public BatchTransferResponse batchTransfer(BatchTransferRequest request) {
+        List<TransferRequest> transfers = request.getTransfers() == null ? List.of() : request.getTransfers();
+        boolean allOrNothing = AccountUtils.BATCH_MODE_ALL_OR_NOTHING.equalsIgnoreCase(request.getMode());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<BankResponse> results = new ArrayList<>(transfers.size());
+        if (allOrNothing) {
+            results.addAll(transaction.execute(status -> {
+                List<BankResponse> applied = applyTransfers(transfers);
+                if (applied.stream().anyMatch(result -> !isTransferSuccess(result))) {
+                    status.setRollbackOnly();
+                }
+                return applied;
+            }));
+        } else {
+            for (int from = 0; from < transfers.size(); from += batchTransferChunkSize) {
+                List<TransferRequest> chunk = transfers.subList(from, Math.min(from + batchTransferChunkSize, transfers.size()));
+                results.addAll(transaction.execute(status -> applyTransfers(chunk)));
+            }
+        }
+
+        long failed = results.stream().filter(result -> !isTransferSuccess(result)).count();
+        if (failed == 0) {
+            return BatchTransferResponse.builder()
+                    .responseCode(AccountUtils.TRANSFER_SUCCESS_CODE)
+                    .responseMessage(AccountUtils.BATCH_TRANSFER_SUCCESS_MESSAGE)
+                    .results(results)
+                    .build();
+        }
+        if (allOrNothing) {
+            // Nothing was committed, so the transfers that did go through in memory are reported as rolled back
+            results.replaceAll(result -> isTransferSuccess(result) ? BankResponses.BATCH_TRANSFER_ROLLED_BACK : result);
+            return BatchTransferResponse.builder()
+                    .responseCode(AccountUtils.BATCH_TRANSFER_ROLLED_BACK_CODE)
+                    .responseMessage(AccountUtils.BATCH_TRANSFER_ROLLED_BACK_MESSAGE)
+                    .results(results)
+                    .build();
+        }
+        return BatchTransferResponse.builder()
+                .responseCode(AccountUtils.BATCH_TRANSFER_PARTIAL_CODE)
+                .responseMessage(failed + " of " + transfers.size() + " transfers failed")
+                .results(results)
+                .build();
+    }
+
+    // Applies one chunk of transfers inside the caller's transaction and returns one result per transfer
+    private List<BankResponse> applyTransfers(List<TransferRequest> transfers) {
+        Set<String> accountNumbers = new HashSet<>();
+        for (TransferRequest transfer : transfers) {
+            if (transfer.getSourceAccountNumber() != null) {
+                accountNumbers.add(transfer.getSourceAccountNumber());
+            }
+            if (transfer.getDestinationAccountNumber() != null) {
+                accountNumbers.add(transfer.getDestinationAccountNumber());
+            }
+        }
+        Map<String, User> accounts = new HashMap<>();
+        for (User user : userRepository.findAllForUpdateByAccountNumberIn(accountNumbers)) {
+            accounts.put(user.getAccountNumber(), user);
+        }
+
+        List<BankResponse> results = new ArrayList<>(transfers.size());
+        for (TransferRequest transfer : transfers) {
+            User sourceAccount = accounts.get(transfer.getSourceAccountNumber());
+            User destinationAccount = accounts.get(transfer.getDestinationAccountNumber());
+            if (transfer.getAmount() == null || transfer.getAmount().signum() <= 0
+                    || (sourceAccount != null && sourceAccount == destinationAccount)) {
+                results.add(BankResponses.INVALID_REQUEST);
+            } else if (sourceAccount == null) {
+                results.add(BankResponses.SOURCE_ACCOUNT_NOT_EXIST);
+            } else if (destinationAccount == null) {
+                results.add(BankResponses.DESTINATION_ACCOUNT_NOT_EXIST);
+            } else if (!coversDebit(sourceAccount, transfer.getAmount())) {
+                results.add(insufficientBalanceResponse(toAccountInfo(sourceAccount), "Insufficient balance in source account!"));
+            } else {
+                sourceAccount.setAccountBalance(sourceAccount.getAccountBalance().minus(transfer.getAmount()));
+                destinationAccount.setAccountBalance(destinationAccount.getAccountBalance().plus(transfer.getAmount()));
+                ledgerService.recordTransfer(sourceAccount.getAccountNumber(), destinationAccount.getAccountNumber(),
+                        transfer.getAmount());
+                accountEventService.recordTransfer(sourceAccount.getAccountNumber(),
+                        destinationAccount.getAccountNumber(), transfer.getAmount());
+                results.add(transferSuccessResponse(toAccountInfo(sourceAccount)));
+            }
+        }
+        accounts.keySet().forEach(accountLookupService::evict);
+        return results;
+    }
+
+    // Transfer from a regular account into a striped one. The source row is locked first and the slot credit comes
+    // last, in line with the lock order in HotAccountServiceImpl.
+    private BankResponse transferToSlot(TransferRequest request) {
+        String destination = request.getDestinationAccountNumber();
+        Money amount = request.getAmount();
+
+        User sourceAccount = userRepository.findForUpdateByAccountNumber(request.getSourceAccountNumber()).orElse(null);
+        if (sourceAccount == null) {
+            return BankResponses.SOURCE_ACCOUNT_NOT_EXIST;
+        }
+        if (sourceAccount.getAccountBalance().compareTo(amount) < 0) {
+            return insufficientBalanceResponse(toAccountInfo(sourceAccount), "Insufficient balance in source account!");
+        }
+        // The destination has just stopped being striped: credit its users row instead. That lock is taken out of
+        // account number order, but only in this short window after the slots were removed.
+        boolean slotCredited = hotAccountService.creditSlot(destination, amount);
+        if (!slotCredited && userRepository.creditBalance(destination, amount) == 0) {
+            return BankResponses.DESTINATION_ACCOUNT_NOT_EXIST;
+        }
+
+        sourceAccount.setAccountBalance(sourceAccount.getAccountBalance().minus(amount));
+        userRepository.save(sourceAccount);
+        ledgerService.recordTransfer(sourceAccount.getAccountNumber(), destination, amount);
+        accountEventService.recordTransfer(sourceAccount.getAccountNumber(), destination, amount);
+        accountLookupService.evict(sourceAccount.getAccountNumber());
+        if (!slotCredited) {
+            accountLookupService.evict(destination);
+        }
+        return transferSuccessResponse(toAccountInfo(sourceAccount));
+    }
+
+    // Balance check for a debit from a locked account; a striped account sweeps its slots first if it needs them
+    private boolean coversDebit(User account, Money amount) {
+        hotAccountService.coverDebit(account, amount);
+        return account.getAccountBalance().compareTo(amount) >= 0;
+    }
+
+    private static boolean isTransferSuccess(BankResponse response) {
+        return AccountUtils.TRANSFER_SUCCESS_CODE.equals(response.getResponseCode());
+    }
+
+    // Transfer made of two conditional UPDATE statements, issued in account number order.
+    // Any failure after the first statement marks the transaction rollback-only, so nothing is half-moved.
+    private BankResponse conditionalTransfer(TransferRequest request) {
+        String source = request.getSourceAccountNumber();
+        String destination = request.getDestinationAccountNumber();
+        Money amount = request.getAmount();
+
+        boolean sourceFirst = source.compareTo(destination) <= 0;
+        boolean debited = false;
+        boolean credited = false;
+        if (sourceFirst) {
+            debited = userRepository.debitBalance(source, amount) > 0;
+            if (debited) {
+                credited = userRepository.creditBalance(destination, amount) > 0;
+            }
+        } else {
+            credited = userRepository.creditBalance(destination, amount) > 0;
+            if (credited) {
+                debited = userRepository.debitBalance(source, amount) > 0;
+            }
+        }
+
+        if (debited && credited) {
+            ledgerService.recordTransfer(source, destination, amount);
+            accountEventService.recordTransfer(source, destination, amount);
+            accountLookupService.evict(source);
+            accountLookupService.evict(destination);
+            return transferSuccessResponse(userRepository.findAccountInfoByAccountNumber(source).orElseThrow());
+        }
+
+        // Something didn't apply: undo whatever did and work out which check failed
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        AccountInfo sourceAccount = userRepository.findAccountInfoByAccountNumber(source).orElse(null);
+        if (sourceAccount == null) {
+            return BankResponses.SOURCE_ACCOUNT_NOT_EXIST;
+        }
+        if (!userRepository.existsByAccountNumber(destination)) {
+            return BankResponses.DESTINATION_ACCOUNT_NOT_EXIST;
+        }
+        return insufficientBalanceResponse(sourceAccount, "Insufficient balance in source account!");
+    }
+
+    private boolean isConditionalMode() {
+        return AccountUtils.TRANSFER_MODE_CONDITIONAL.equalsIgnoreCase(transferMode);
+    }
+
+    private BankResponse insufficientBalanceResponse(AccountInfo accountInfo, String message) {
+        return BankResponse.builder()
+                .responseCode("006") // Insufficient balance error code
+                .responseMessage(message)
+                .accountInfo(accountInfo)
+                .build();
+    }
+
+    private BankResponse creditSuccessResponse(AccountInfo accountInfo) {
+        return BankResponse.builder()
+                .responseCode(AccountUtils.ACCOUNT_CREDITEd_SUCCESS)
+                .responseMessage(AccountUtils.ACCOUNT_CREDITEd_SUCCESS_MESSAGE)
+                .accountInfo(accountInfo)
+                .build();
+    }
+
+    private BankResponse debitSuccessResponse(AccountInfo accountInfo) {
+        return BankResponse.builder()
+                .responseCode("007") // Debit success code
+                .responseMessage("Account debited successfully!")
+                .accountInfo(accountInfo)
+                .build();
+    }
+
+    private BankResponse transferSuccessResponse(AccountInfo sourceAccount) {
         return BankResponse.builder()
                 .responseCode("008") // Transfer success code
                 .responseMessage("Transfer successful!")
-                .accountInfo(AccountInfo.builder()
-                        .accountBalance(sourceAccount.getAccountBalance())
-                        .accountNumber(sourceAccount.getAccountNumber())
-                        .accountName(sourceAccount.getFirstName() + " " + sourceAccount.getLastName())
-                        .build())
+                .accountInfo(sourceAccount)
+                .build();
+    }
+
+    // A striped account's balance is its users row plus its slots. cached allows the enquiry aggregate.
+    private AccountInfo withSlotBalance(AccountInfo accountInfo, boolean cached) {
+        String accountNumber = accountInfo.getAccountNumber();
+        if (!hotAccountService.isStriped(accountNumber)) {
+            return accountInfo;
+        }
+        Money slots = cached ? hotAccountService.cachedSlotBalance(accountNumber) : hotAccountService.slotBalance(accountNumber);
+        return new AccountInfo(accountInfo.getAccountName(), accountInfo.getAccountBalance().plus(slots), accountNumber);
+    }
+
+    private AccountInfo toAccountInfo(User user) {
+        Money balance = user.getAccountBalance();
+        if (hotAccountService.isStriped(user.getAccountNumber())) {
+            balance = balance.plus(hotAccountService.slotBalance(user.getAccountNumber()));
+        }
+        return AccountInfo.builder()
+                .accountBalance(balance)
+                .accountNumber(user.getAccountNumber())
+                .accountName(user.getFirstName() + " " + user.getLastName())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.abhi.the_bank_app.sharding;
+
+import com.abhi.the_bank_app.dto.AccountInfo;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.entity.Transaction;
+import com.abhi.the_bank_app.entity.TransferSaga;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.repository.TransferSagaRepository;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.service.AccountEventService;
+import com.abhi.the_bank_app.service.AccountLookupService;
+import com.abhi.the_bank_app.service.HotAccountService;
+import com.abhi.the_bank_app.service.LedgerService;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Transfer between accounts on different shards, run as a saga of local transactions instead of a
+// distributed commit:
+//   1. source shard: debit the source and insert the saga row as DEBITED
+//   2. destination shard: credit the destination and insert a CREDITED row with the same reference
+//   3. source shard: mark the saga COMPLETED
+// The caller gets its answer after step 1 succeeds; if step 2 or 3 fails, the recovery job finishes the
+// saga later. Money is never created: the CREDITED row makes the credit apply at most once, and a saga whose
+// destination is gone is compensated by crediting the source back.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.sharding.enabled", havingValue = "true")
+public class CrossShardTransferSaga {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransferSagaRepository transferSagaRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountEventService accountEventService;
+
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bank.sharding.saga.retry-after-ms:30000}")
+    private long retryAfterMs;
+
+    @Value("${bank.sharding.saga.recovery-batch-size:100}")
+    private int recoveryBatchSize;
+
+    // Every step commits on its own shard, even when called inside another transaction
+    private TransactionTemplate step;
+
+    @PostConstruct
+    void init() {
+        step = new TransactionTemplate(transactionManager);
+        step.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public BankResponse transfer(TransferRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            return BankResponses.INVALID_REQUEST;
+        }
+        String source = request.getSourceAccountNumber();
+        String destination = request.getDestinationAccountNumber();
+        int sourceShard = shardRouter.shardOf(source);
+        int destinationShard = shardRouter.shardOf(destination);
+
+        boolean destinationExists = shardRouter.call(destinationShard,
+                () -> step.execute(status -> userRepository.existsByAccountNumber(destination)));
+        if (!destinationExists) {
+            boolean sourceExists = shardRouter.call(sourceShard,
+                    () -> step.execute(status -> userRepository.existsByAccountNumber(source)));
+            return sourceExists ? BankResponses.DESTINATION_ACCOUNT_NOT_EXIST : BankResponses.SOURCE_ACCOUNT_NOT_EXIST;
+        }
+
+        TransferSaga saga = TransferSaga.builder()
+                .transactionReference(UUID.randomUUID().toString())
+                .sourceAccountNumber(source)
+                .destinationAccountNumber(destination)
+                .amount(request.getAmount())
+                .status(TransferSaga.STATUS_DEBITED)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        BankResponse debited = shardRouter.call(sourceShard, () -> step.execute(status -> debitSource(saga)));
+        if (!AccountUtils.TRANSFER_SUCCESS_CODE.equals(debited.getResponseCode())) {
+            return debited;
+        }
+
+        try {
+            complete(saga, sourceShard, destinationShard);
+        } catch (RuntimeException e) {
+            log.warn("Transfer {} is debited but not yet credited; recovery will finish it",
+                    saga.getTransactionReference(), e);
+        }
+        return debited;
+    }
+
+    // Finishes sagas left in DEBITED by a crash or a failed credit
+    @Scheduled(fixedDelayString = "${bank.sharding.saga.recovery-interval-ms:10000}")
+    public void recover() {
+        LocalDateTime before = LocalDateTime.now().minusNanos(retryAfterMs * 1_000_000);
+        shardRouter.forEachShard(sourceShard -> {
+            for (TransferSaga saga : step.execute(status -> transferSagaRepository
+                    .findByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(TransferSaga.STATUS_DEBITED, before,
+                            Limit.of(recoveryBatchSize)))) {
+                try {
+                    if (!complete(saga, sourceShard, shardRouter.shardOf(saga.getDestinationAccountNumber()))) {
+                        step.execute(status -> compensate(saga));
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Could not recover transfer {}", saga.getTransactionReference(), e);
+                }
+            }
+        });
+    }
+
+    // Steps 2 and 3; false when the destination account no longer exists
+    private boolean complete(TransferSaga saga, int sourceShard, int destinationShard) {
+        boolean credited = shardRouter.call(destinationShard, () -> step.execute(status -> creditDestination(saga)));
+        if (credited) {
+            shardRouter.call(sourceShard, () -> step.execute(status -> transferSagaRepository.updateStatus(
+                    saga.getTransactionReference(), TransferSaga.STATUS_DEBITED, TransferSaga.STATUS_COMPLETED)));
+        }
+        return credited;
+    }
+
+    private BankResponse debitSource(TransferSaga saga) {
+        User sourceAccount = userRepository.findForUpdateByAccountNumber(saga.getSourceAccountNumber()).orElse(null);
+        if (sourceAccount == null) {
+            return BankResponses.SOURCE_ACCOUNT_NOT_EXIST;
+        }
+        hotAccountService.coverDebit(sourceAccount, saga.getAmount());
+        if (sourceAccount.getAccountBalance().compareTo(saga.getAmount()) < 0) {
+            return BankResponse.builder()
+                    .responseCode("006") // Insufficient balance error code
+                    .responseMessage("Insufficient balance in source account!")
+                    .accountInfo(toAccountInfo(sourceAccount))
+                    .build();
+        }
+        sourceAccount.setAccountBalance(sourceAccount.getAccountBalance().minus(saga.getAmount()));
+        ledgerService.recordTransferLeg(saga.getTransactionReference(), sourceAccount.getAccountNumber(),
+                Transaction.TYPE_DEBIT, saga.getAmount(), saga.getDestinationAccountNumber(), "Transfer");
+        transferSagaRepository.save(saga);
+        accountLookupService.evict(sourceAccount.getAccountNumber());
+        return BankResponse.builder()
+                .responseCode(AccountUtils.TRANSFER_SUCCESS_CODE)
+                .responseMessage("Transfer successful!")
+                .accountInfo(toAccountInfo(sourceAccount))
+                .build();
+    }
+
+    private boolean creditDestination(TransferSaga saga) {
+        if (transferSagaRepository.existsById(saga.getTransactionReference())) {
+            return true;
+        }
+        User destinationAccount = userRepository.findForUpdateByAccountNumber(saga.getDestinationAccountNumber())
+                .orElse(null);
+        if (destinationAccount == null) {
+            return false;
+        }
+        destinationAccount.setAccountBalance(destinationAccount.getAccountBalance().plus(saga.getAmount()));
+        ledgerService.recordTransferLeg(saga.getTransactionReference(), destinationAccount.getAccountNumber(),
+                Transaction.TYPE_CREDIT, saga.getAmount(), saga.getSourceAccountNumber(), "Transfer");
+        // The transfer is complete once the credit lands, so its event lives on the destination shard
+        accountEventService.recordTransfer(saga.getSourceAccountNumber(), saga.getDestinationAccountNumber(),
+                saga.getAmount());
+        // A second attempt fails here on the primary key and rolls back its credit
+        transferSagaRepository.save(TransferSaga.builder()
+                .transactionReference(saga.getTransactionReference())
+                .sourceAccountNumber(saga.getSourceAccountNumber())
+                .destinationAccountNumber(saga.getDestinationAccountNumber())
+                .amount(saga.getAmount())
+                .status(TransferSaga.STATUS_CREDITED)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        accountLookupService.evict(destinationAccount.getAccountNumber());
+        return true;
+    }
+
+    // Runs on the source shard: gives the money back, unless the saga has moved on in the meantime
+    private Void compensate(TransferSaga saga) {
+        if (transferSagaRepository.updateStatus(saga.getTransactionReference(), TransferSaga.STATUS_DEBITED,
+                TransferSaga.STATUS_COMPENSATED) == 0) {
+            return null;
+        }
+        User sourceAccount = userRepository.findForUpdateByAccountNumber(saga.getSourceAccountNumber()).orElseThrow();
+        sourceAccount.setAccountBalance(sourceAccount.getAccountBalance().plus(saga.getAmount()));
+        ledgerService.recordTransferLeg(saga.getTransactionReference(), sourceAccount.getAccountNumber(),
+                Transaction.TYPE_CREDIT, saga.getAmount(), saga.getDestinationAccountNumber(), "Transfer reversal");
+        accountLookupService.evict(sourceAccount.getAccountNumber());
+        log.warn("Transfer {} reversed: destination account {} does not exist", saga.getTransactionReference(),
+                saga.getDestinationAccountNumber());
+        return null;
+    }
+
+    private static AccountInfo toAccountInfo(User user) {
+        return AccountInfo.builder()
+                .accountBalance(user.getAccountBalance())
+                .accountNumber(user.getAccountNumber())
+                .accountName(user.getFirstName() + " " + user.getLastName())
+                .build();
+    }
+}
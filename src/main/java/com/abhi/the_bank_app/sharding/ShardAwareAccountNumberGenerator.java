@@ -0,0 +1,59 @@
+package com.abhi.the_bank_app.sharding;
+
+import com.abhi.the_bank_app.utils.AccountNumberGenerator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out numbers that AccountUtils.shardOf maps to the caller's shard. Numbers are drawn from the shared
+// generator (always on the home shard, so serials stay globally unique); a number belonging to another shard
+// is kept for that shard's next account instead of being thrown away.
+class ShardAwareAccountNumberGenerator implements AccountNumberGenerator {
+
+    private final AccountNumberGenerator generator;
+    private final ShardRouter shardRouter;
+    private final List<ArrayDeque<String>> spareNumbers;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    ShardAwareAccountNumberGenerator(AccountNumberGenerator generator, ShardRouter shardRouter) {
+        this.generator = generator;
+        this.shardRouter = shardRouter;
+        this.spareNumbers = new ArrayList<>(shardRouter.shardCount());
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            spareNumbers.add(new ArrayDeque<>());
+        }
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        return nextAccountNumbers(1).get(0);
+    }
+
+    @Override
+    public List<String> nextAccountNumbers(int count) {
+        int shard = ShardRouter.currentShard();
+        List<String> accountNumbers = new ArrayList<>(count);
+        lock.lock();
+        try {
+            ArrayDeque<String> spare = spareNumbers.get(shard);
+            while (accountNumbers.size() < count) {
+                if (spare.isEmpty()) {
+                    // On average one in shardCount numbers is ours
+                    int demand = (count - accountNumbers.size()) * shardRouter.shardCount();
+                    for (String accountNumber : shardRouter.call(ShardRouter.HOME_SHARD,
+                            () -> generator.nextAccountNumbers(demand))) {
+                        spareNumbers.get(shardRouter.shardOf(accountNumber)).add(accountNumber);
+                    }
+                }
+                while (!spare.isEmpty() && accountNumbers.size() < count) {
+                    accountNumbers.add(spare.poll());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return accountNumbers;
+    }
+}
@@ -0,0 +1,80 @@
+package com.abhi.the_bank_app.sharding;
+
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+// Decides which shard a piece of work runs on. With bank.sharding.enabled=false there is a single shard and
+// routing is a no-op. Otherwise the shard is kept per thread and read by ShardRoutingDataSource when a
+// transaction first touches the database, so it must be chosen before the first statement of a transaction.
+@Component
+public class ShardRouter {
+
+    // Holds the account number ranges, and anything else that must exist exactly once
+    public static final int HOME_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final int shardCount;
+
+    public ShardRouter(@Value("${bank.sharding.enabled:false}") boolean enabled,
+                       @Value("${bank.sharding.shard-count:1}") int shardCount) {
+        if (enabled && shardCount < 1) {
+            throw new IllegalArgumentException("bank.sharding.shard-count must be at least 1");
+        }
+        this.shardCount = enabled ? shardCount : 1;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(String accountNumber) {
+        return AccountUtils.shardOf(accountNumber, shardCount);
+    }
+
+    // New accounts are placed by email, so the uniqueness check for an email only ever needs one shard
+    public int shardOfEmail(String email) {
+        return email == null ? HOME_SHARD : Math.floorMod(email.hashCode() * 0x9E3779B9, shardCount);
+    }
+
+    static int currentShard() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard == null ? HOME_SHARD : shard;
+    }
+
+    // Routes the calling thread to the shard until the returned scope is closed
+    public Scope routeTo(int shard) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        return () -> {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        };
+    }
+
+    public <T> T call(int shard, Supplier<T> action) {
+        try (Scope ignored = routeTo(shard)) {
+            return action.get();
+        }
+    }
+
+    public void forEachShard(IntConsumer action) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            try (Scope ignored = routeTo(shard)) {
+                action.accept(shard);
+            }
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,12 @@
+package com.abhi.the_bank_app.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// One pool per shard; the connection comes from the shard the calling thread is routed to
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardRouter.currentShard();
+    }
+}
@@ -0,0 +1,91 @@
+package com.abhi.the_bank_app.sharding;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+// Brings every shard other than the home shard up to (or checks it against) the mapped schema once the EntityManagerFactory is built,
+// before the web server starts taking requests.
+// Ids come from pooled sequences and Hibernate keeps one id block in memory for all shards, so the sequences
+// on shard N start at N * SHARD_ID_SPACING: blocks fetched from different shards can then never overlap.
+class ShardSchemaUpdater implements Integrator, SmartInitializingSingleton {
+
+    static final long SHARD_ID_SPACING = 1_000_000_000_000_000L;
+
+    private final ShardRouter shardRouter;
+    private Metadata metadata;
+    private SessionFactoryImplementor sessionFactory;
+
+    ShardSchemaUpdater(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (metadata == null) {
+            return;
+        }
+        // Same action as on the home shard: update with ddl-auto, validate when Flyway owns the schema
+        Map<String, Object> settings = new HashMap<>(sessionFactory.getProperties());
+        settings.put(AvailableSettings.HBM2DDL_HALT_ON_ERROR, true);
+        shardRouter.forEachShard(shard -> {
+            if (shard != ShardRouter.HOME_SHARD) {
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), settings,
+                        action -> { });
+                spaceOutSequences(shard);
+            }
+        });
+    }
+
+    private void spaceOutSequences(int shard) {
+        SequenceSupport sequences = sessionFactory.getJdbcServices().getDialect().getSequenceSupport();
+        ConnectionProvider connections = sessionFactory.getServiceRegistry().requireService(ConnectionProvider.class);
+        long start = shard * SHARD_ID_SPACING;
+        try (Connection connection = connections.getConnection(); Statement statement = connection.createStatement()) {
+            for (Namespace namespace : metadata.getDatabase().getNamespaces()) {
+                for (Sequence sequence : namespace.getSequences()) {
+                    String name = sequence.getName().getSequenceName().render();
+                    long next;
+                    try (ResultSet value = statement.executeQuery(sequences.getSequenceNextValString(name))) {
+                        value.next();
+                        next = value.getLong(1);
+                    }
+                    if (next < start) {
+                        statement.execute("alter sequence " + name + " restart with " + (start + 1));
+                    }
+                }
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not set up the id sequences on shard " + shard, e);
+        }
+    }
+}
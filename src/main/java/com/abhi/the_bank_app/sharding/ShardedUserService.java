@@ -0,0 +1,126 @@
+package com.abhi.the_bank_app.sharding;
+
+import com.abhi.the_bank_app.dto.*;
+import com.abhi.the_bank_app.service.UserService;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+// Front for UserServiceImpl when the store is sharded: routes every operation to the shard that owns its
+// account before the transaction starts. Transfers whose accounts sit on different shards go through
+// CrossShardTransferSaga.
+@Service
+@Primary
+@ConditionalOnProperty(name = "bank.sharding.enabled", havingValue = "true")
+public class ShardedUserService implements UserService {
+
+    @Autowired
+    @Qualifier("userServiceImpl")
+    private UserService shardLocal;
+
+    @Autowired
+    private CrossShardTransferSaga crossShardTransferSaga;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Override
+    public BankResponse createAccount(UserRequest userRequest) {
+        return shardRouter.call(shardRouter.shardOfEmail(userRequest.getEmail()),
+                () -> shardLocal.createAccount(userRequest));
+    }
+
+    // Splits the chunk by shard and puts the responses back in request order
+    @Override
+    public List<BankResponse> createAccounts(List<UserRequest> userRequests) {
+        Map<Integer, List<Integer>> positionsByShard = new TreeMap<>();
+        for (int i = 0; i < userRequests.size(); i++) {
+            positionsByShard.computeIfAbsent(shardRouter.shardOfEmail(userRequests.get(i).getEmail()),
+                    shard -> new ArrayList<>()).add(i);
+        }
+        BankResponse[] responses = new BankResponse[userRequests.size()];
+        positionsByShard.forEach((shard, positions) -> {
+            List<UserRequest> shardRequests = positions.stream().map(userRequests::get).toList();
+            List<BankResponse> shardResponses = shardRouter.call(shard, () -> shardLocal.createAccounts(shardRequests));
+            for (int i = 0; i < positions.size(); i++) {
+                responses[positions.get(i)] = shardResponses.get(i);
+            }
+        });
+        return Arrays.asList(responses);
+    }
+
+    @Override
+    public BankResponse balanceEnquiry(EnquiryRequest request) {
+        return shardRouter.call(shardRouter.shardOf(request.getAccountNumber()), () -> shardLocal.balanceEnquiry(request));
+    }
+
+    @Override
+    public String nameEnquiry(EnquiryRequest request) {
+        return shardRouter.call(shardRouter.shardOf(request.getAccountNumber()), () -> shardLocal.nameEnquiry(request));
+    }
+
+    @Override
+    public BankResponse creditAccount(CreditDebitRequest request) {
+        return shardRouter.call(shardRouter.shardOf(request.getAccountNumber()), () -> shardLocal.creditAccount(request));
+    }
+
+    @Override
+    public BankResponse debitAccount(CreditDebitRequest request) {
+        return shardRouter.call(shardRouter.shardOf(request.getAccountNumber()), () -> shardLocal.debitAccount(request));
+    }
+
+    @Override
+    public BankResponse transfer(TransferRequest request) {
+        int sourceShard = shardRouter.shardOf(request.getSourceAccountNumber());
+        if (sourceShard == shardRouter.shardOf(request.getDestinationAccountNumber())) {
+            return shardRouter.call(sourceShard, () -> shardLocal.transfer(request));
+        }
+        return crossShardTransferSaga.transfer(request);
+    }
+
+    // A batch that stays on one shard keeps the batched, chunked path. One that spans shards is applied
+    // transfer by transfer, which only BEST_EFFORT allows: there is no transaction that covers two shards.
+    @Override
+    public BatchTransferResponse batchTransfer(BatchTransferRequest request) {
+        List<TransferRequest> transfers = request.getTransfers() == null ? List.of() : request.getTransfers();
+        Set<Integer> shards = new HashSet<>();
+        for (TransferRequest transfer : transfers) {
+            shards.add(shardRouter.shardOf(transfer.getSourceAccountNumber()));
+            shards.add(shardRouter.shardOf(transfer.getDestinationAccountNumber()));
+        }
+        if (shards.size() <= 1) {
+            int shard = shards.isEmpty() ? ShardRouter.HOME_SHARD : shards.iterator().next();
+            return shardRouter.call(shard, () -> shardLocal.batchTransfer(request));
+        }
+        if (AccountUtils.BATCH_MODE_ALL_OR_NOTHING.equalsIgnoreCase(request.getMode())) {
+            return BatchTransferResponse.builder()
+                    .responseCode(AccountUtils.INVALID_REQUEST_CODE)
+                    .responseMessage(AccountUtils.BATCH_TRANSFER_SPANS_SHARDS_MESSAGE)
+                    .results(List.of())
+                    .build();
+        }
+
+        List<BankResponse> results = new ArrayList<>(transfers.size());
+        for (TransferRequest transfer : transfers) {
+            if (transfer.getAmount() == null || transfer.getAmount().signum() <= 0) {
+                results.add(BankResponses.INVALID_REQUEST);
+            } else {
+                results.add(transfer(transfer));
+            }
+        }
+        long failed = results.stream()
+                .filter(result -> !AccountUtils.TRANSFER_SUCCESS_CODE.equals(result.getResponseCode()))
+                .count();
+        return BatchTransferResponse.builder()
+                .responseCode(failed == 0 ? AccountUtils.TRANSFER_SUCCESS_CODE : AccountUtils.BATCH_TRANSFER_PARTIAL_CODE)
+                .responseMessage(failed == 0 ? AccountUtils.BATCH_TRANSFER_SUCCESS_MESSAGE
+                        : failed + " of " + transfers.size() + " transfers failed")
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.abhi.the_bank_app.sharding;
+
+import com.abhi.the_bank_app.utils.AccountNumberGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Splits the account store over bank.sharding.shard-count databases (see the "sharding" profile).
+// Every shard has the full schema; an account, its ledger entries and its outbox emails live on the shard
+// picked by AccountUtils.shardOf, and ShardedUserService routes each operation there.
+@Configuration
+@ConditionalOnProperty(name = "bank.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    // The proxy hands out a placeholder until the first statement, so the shard can still be chosen after
+    // a transaction has begun (e.g. inside the idempotency transaction that wraps a transfer)
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRouter shardRouter,
+                                 @Value("${bank.sharding.url-template}") String urlTemplate,
+                                 @Value("${spring.datasource.username:sa}") String username,
+                                 @Value("${spring.datasource.password:}") String password,
+                                 @Value("${bank.sharding.pool-size:10}") int poolSize) {
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + shard);
+            pool.setJdbcUrl(urlTemplate.replace("{shard}", Integer.toString(shard)));
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            shards.put(shard, pool);
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(shards);
+        routing.setDefaultTargetDataSource(shards.get(ShardRouter.HOME_SHARD));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ShardSchemaUpdater shardSchemaUpdater(ShardRouter shardRouter) {
+        return new ShardSchemaUpdater(shardRouter);
+    }
+
+    // Hibernate creates the schema on the home shard only; the updater repeats that on the others
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaIntegrator(ShardSchemaUpdater shardSchemaUpdater) {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (org.hibernate.jpa.boot.spi.IntegratorProvider) () -> List.of(shardSchemaUpdater));
+    }
+
+    // With the durable profile every shard gets the Flyway migrations, not just the home shard
+    @Bean
+    @ConditionalOnClass(Flyway.class)
+    public FlywayMigrationStrategy shardedFlywayMigration(ShardRouter shardRouter) {
+        return flyway -> shardRouter.forEachShard(shard -> flyway.migrate());
+    }
+
+    // Picks up the configured sequence or snowflake generator and only hands out numbers that belong to
+    // the shard the caller is routed to
+    @Bean
+    @Primary
+    public AccountNumberGenerator shardAwareAccountNumberGenerator(AccountNumberGenerator accountNumberGenerator,
+                                                                   ShardRouter shardRouter) {
+        return new ShardAwareAccountNumberGenerator(accountNumberGenerator, shardRouter);
+    }
+}
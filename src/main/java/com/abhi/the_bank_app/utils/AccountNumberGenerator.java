@@ -0,0 +1,19 @@
+package com.abhi.the_bank_app.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Source of new account numbers. The implementation is picked with bank.account-number.mode.
+public interface AccountNumberGenerator {
+
+    String nextAccountNumber();
+
+    // Mints several numbers at once, e.g. for bulk onboarding
+    default List<String> nextAccountNumbers(int count) {
+        List<String> accountNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accountNumbers.add(nextAccountNumber());
+        }
+        return accountNumbers;
+    }
+}
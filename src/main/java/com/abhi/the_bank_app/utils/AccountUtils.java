@@ -1,6 +1,7 @@
 package com.abhi.the_bank_app.utils;
 
 import java.time.Year;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class AccountUtils {
 
@@ -14,7 +15,66 @@ public class AccountUtils {
     public static final String ACCOUNT_FOUND_MESSAGE="User Account Found";
     public static final String ACCOUNT_CREDITEd_SUCCESS="005";
     public static final String ACCOUNT_CREDITEd_SUCCESS_MESSAGE="User Account Credited success";
+    public static final String INVALID_REQUEST_CODE="009";
+    public static final String INVALID_REQUEST_MESSAGE="Request could not be read";
+    public static final String IDEMPOTENCY_KEY_REUSED_CODE="013";
+    public static final String IDEMPOTENCY_KEY_REUSED_MESSAGE="Idempotency-Key was already used for a different request";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS_CODE="021";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE="A request with this Idempotency-Key is still in progress; retry it later";
 
+    // Balance rebuilds from the ledger
+    public static final String BALANCE_REBUILT_CODE="022";
+    public static final String BALANCE_REBUILT_MESSAGE="Account balance rebuilt from the ledger";
+    public static final String LEDGER_DISABLED_CODE="023";
+    public static final String LEDGER_DISABLED_MESSAGE="The ledger is disabled, so balances can't be rebuilt from it";
+    public static final String BALANCE_PREDATES_LEDGER_CODE="024";
+    public static final String BALANCE_PREDATES_LEDGER_MESSAGE="The account's balance predates the ledger, so it can't be rebuilt from it";
+
+    // Values for bank.transfer.mode
+    public static final String TRANSFER_MODE_LOCKING="locking";
+    public static final String TRANSFER_MODE_CONDITIONAL="conditional";
+
+    // Statement export formats
+    public static final String STATEMENT_FORMAT_CSV="csv";
+    public static final String STATEMENT_FORMAT_JSONL="jsonl";
+    public static final String STATEMENT_FORMAT_PDF="pdf";
+    public static final String STATEMENT_EMAILED_CODE="010";
+    public static final String STATEMENT_EMAILED_MESSAGE="Statement has been sent to the account email";
+
+    // Batch transfers
+    public static final String BATCH_MODE_ALL_OR_NOTHING="ALL_OR_NOTHING";
+    public static final String BATCH_MODE_BEST_EFFORT="BEST_EFFORT";
+    public static final String TRANSFER_SUCCESS_CODE="008";
+    public static final String BATCH_TRANSFER_SUCCESS_MESSAGE="All transfers in the batch were applied";
+    public static final String BATCH_TRANSFER_PARTIAL_CODE="011";
+    public static final String BATCH_TRANSFER_PARTIAL_MESSAGE="Some transfers in the batch failed";
+    public static final String BATCH_TRANSFER_ROLLED_BACK_CODE="012";
+    public static final String BATCH_TRANSFER_ROLLED_BACK_MESSAGE="Batch rolled back; no transfers were applied";
+    public static final String BATCH_TRANSFER_SPANS_SHARDS_MESSAGE="ALL_OR_NOTHING batches must keep every account on one shard";
+
+    // Hot-account striping
+    public static final String BALANCE_SLOTS_UPDATED_CODE="014";
+    public static final String BALANCE_SLOTS_UPDATED_MESSAGE="Account balance slots updated";
+
+    // Account search
+    public static final String ACCOUNT_SEARCH_CODE="015";
+    public static final String ACCOUNT_SEARCH_MESSAGE="Account search completed";
+
+    // End of day
+    public static final String END_OF_DAY_COMPLETED_CODE="016";
+    public static final String END_OF_DAY_COMPLETED_MESSAGE="End of day completed for every account";
+    public static final String END_OF_DAY_INCOMPLETE_CODE="017";
+    public static final String END_OF_DAY_INCOMPLETE_MESSAGE="End of day stopped before every account was done; run it again to resume";
+    public static final String END_OF_DAY_RUNNING_CODE="018";
+    public static final String END_OF_DAY_RUNNING_MESSAGE="An end-of-day run is already in progress";
+    public static final String END_OF_DAY_FUTURE_DATE_CODE="019";
+    public static final String END_OF_DAY_FUTURE_DATE_MESSAGE="End of day can't run for a business date after today";
+    public static final String END_OF_DAY_OUT_OF_SEQUENCE_CODE="020";
+    public static final String END_OF_DAY_OUT_OF_SEQUENCE_MESSAGE="End of day must run for the day after the last completed business date";
+
+    // Legacy year + random six digit generator. It has no collision check; new accounts get their numbers
+    // from an AccountNumberGenerator bean instead.
+    @Deprecated
     public static String generateAccountNumber() {
         // Get the current year as a string
         String year = String.valueOf(Year.now());
@@ -22,10 +82,71 @@ public class AccountUtils {
         // Generate a random six-digit number
         int min = 100000;
         int max = 999999;
-        int randNumber = (int) (Math.random() * (max - min + 1)) + min;
+        int randNumber = ThreadLocalRandom.current().nextInt(min, max + 1);
 
         // Concatenate the year and random number
         return year + randNumber;
     }
 
+    // Year, serial padded to at least six digits, then a Luhn check digit
+    public static String formatAccountNumber(int year, long serial) {
+        StringBuilder digits = new StringBuilder(16).append(year);
+        String serialDigits = Long.toString(serial);
+        for (int i = serialDigits.length(); i < 6; i++) {
+            digits.append('0');
+        }
+        return appendCheckDigit(digits.append(serialDigits).toString());
+    }
+
+    // Shard that owns the account when the store is split into shardCount databases. A well mixed hash of
+    // the number, so consecutive numbers spread evenly and any node can route without a directory lookup.
+    public static int shardOf(String accountNumber, int shardCount) {
+        if (accountNumber == null || shardCount <= 1) {
+            return 0;
+        }
+        int hash = accountNumber.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shardCount);
+    }
+
+    public static String appendCheckDigit(String digits) {
+        return digits + luhnCheckDigit(digits);
+    }
+
+    // Luhn check digit for the given digits, i.e. the digit that makes the full number pass isValidAccountNumber
+    public static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    // True when the number is all digits and its last digit is the Luhn check digit of the rest
+    public static boolean isValidAccountNumber(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() < 2) {
+            return false;
+        }
+        for (int i = 0; i < accountNumber.length(); i++) {
+            if (!Character.isDigit(accountNumber.charAt(i))) {
+                return false;
+            }
+        }
+        int last = accountNumber.length() - 1;
+        return luhnCheckDigit(accountNumber.substring(0, last)) == accountNumber.charAt(last) - '0';
+    }
+
 }
\ No newline at end of file
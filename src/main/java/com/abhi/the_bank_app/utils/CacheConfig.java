@@ -0,0 +1,12 @@
+package com.abhi.the_bank_app.utils;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Turns on Boot's cache auto-configuration, which builds the CacheManager from spring.cache.* (Caffeine by
+// default, or a distributed provider such as redis). No caching annotations are used: AccountLookupServiceImpl
+// works on its cache directly and applies its evictions after commit itself.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,41 @@
+package com.abhi.the_bank_app.utils;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.javamail.JavaMailSender;
+
+// Marks the API docs (springdoc, swagger-core and OpenAPIConfig) and the mail sender lazy, so a fresh instance
+// serves traffic before they are built: they are only needed by the first /v3/api-docs request and the first
+// email. This also overrides springdoc's own @Lazy(false), which spring.main.lazy-initialization would not.
+// Only the swagger-ui resource handlers are still set up at startup, as every WebMvcConfigurer is.
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    @Bean
+    static BeanFactoryPostProcessor lazyDocsAndMail() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                if (isDocsOrMail(beanFactory.getType(beanName, false))) {
+                    beanFactory.getBeanDefinition(beanName).setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    static boolean isDocsOrMail(Class<?> beanType) {
+        // Nothing refers to it, it just records the swagger-ui webjar version at startup, without which every
+        // swagger-ui resource is a 404
+        if (beanType == null || beanType.getName().equals("org.springdoc.core.configuration.SpringDocUIConfiguration")) {
+            return false;
+        }
+        String name = beanType.getName();
+        return name.startsWith("org.springdoc.")
+                || name.startsWith("io.swagger.")
+                || beanType == OpenAPIConfig.class
+                || name.startsWith("org.springframework.boot.autoconfigure.mail.")
+                || JavaMailSender.class.isAssignableFrom(beanType);
+    }
+}
@@ -0,0 +1,18 @@
+package com.abhi.the_bank_app.utils;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Picked up by Boot's Jackson auto-configuration and registered on the shared ObjectMapper. Blackbird swaps
+    // the reflective getter/setter calls for LambdaMetafactory-generated accessors, which is what the response
+    // serialization spends most of its time on (see ResponseBenchmark).
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
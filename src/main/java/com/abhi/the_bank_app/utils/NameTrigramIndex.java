@@ -0,0 +1,209 @@
+package com.abhi.the_bank_app.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// In-memory trigram index over account holder names for fuzzy search. Each name is split into words, each word
+// padded as "  word " (as PostgreSQL's pg_trgm does) and cut into 3-character grams; two names are as similar as
+// the Jaccard index of their gram sets, so typos, missing letters and swapped first/last names still match.
+// Immutable once built: readers need no locking, and a rebuilt index simply replaces the old one.
+public class NameTrigramIndex {
+
+    // a-z, 0-9, the padding space and one bucket for everything else
+    private static final int SYMBOLS = 38;
+    private static final int[] NO_DOCUMENTS = new int[0];
+
+    private final long[] ids;
+    private final byte[] gramCounts;
+    // Sorted document numbers (positions in ids) per gram code
+    private final int[][] postings;
+
+    private NameTrigramIndex(long[] ids, byte[] gramCounts, int[][] postings) {
+        this.ids = ids;
+        this.gramCounts = gramCounts;
+        this.postings = postings;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Ids of the names at least minSimilarity similar to the query, best first, at most limit of them
+    public List<Long> search(String query, int limit, double minSimilarity) {
+        int[] grams = grams(query);
+        if (grams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        // A name sharing fewer than this many grams with the query can't reach minSimilarity, and any name
+        // sharing that many appears in at least one of the (grams - minShared + 1) rarest posting lists
+        int minShared = Math.max(1, (int) Math.ceil(minSimilarity * grams.length));
+        Integer[] byRarity = new Integer[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            byRarity[i] = grams[i];
+        }
+        Arrays.sort(byRarity, Comparator.comparingInt(gram -> postings[gram].length));
+        int candidateLists = grams.length - minShared + 1;
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::similarity));
+        int[] cursors = new int[candidateLists];
+        while (true) {
+            // k-way merge over the candidate lists: take the smallest document number and count the lists it is in
+            int document = Integer.MAX_VALUE;
+            for (int i = 0; i < candidateLists; i++) {
+                int[] list = postings[byRarity[i]];
+                if (cursors[i] < list.length && list[cursors[i]] < document) {
+                    document = list[cursors[i]];
+                }
+            }
+            if (document == Integer.MAX_VALUE) {
+                break;
+            }
+            int shared = 0;
+            for (int i = 0; i < candidateLists; i++) {
+                int[] list = postings[byRarity[i]];
+                if (cursors[i] < list.length && list[cursors[i]] == document) {
+                    cursors[i]++;
+                    shared++;
+                }
+            }
+            for (int i = candidateLists; i < grams.length && shared + (grams.length - i) >= minShared; i++) {
+                if (Arrays.binarySearch(postings[byRarity[i]], document) >= 0) {
+                    shared++;
+                }
+            }
+            if (shared < minShared) {
+                continue;
+            }
+            double similarity = (double) shared / (grams.length + (gramCounts[document] & 0xff) - shared);
+            if (similarity >= minSimilarity && (best.size() < limit || similarity > best.peek().similarity())) {
+                best.add(new Hit(document, similarity));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::similarity).reversed());
+        List<Long> result = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            result.add(ids[hit.document()]);
+        }
+        return result;
+    }
+
+    // The same measure search() ranks by, for ordering rows fetched by id
+    public static double similarity(String a, String b) {
+        int[] left = grams(a);
+        int[] right = grams(b);
+        if (left.length == 0 || right.length == 0) {
+            return 0;
+        }
+        int shared = 0;
+        for (int gram : left) {
+            if (Arrays.binarySearch(right, gram) >= 0) {
+                shared++;
+            }
+        }
+        return (double) shared / (left.length + right.length - shared);
+    }
+
+    // Distinct gram codes of the text, sorted
+    static int[] grams(String text) {
+        if (text == null) {
+            return NO_DOCUMENTS;
+        }
+        int[] grams = new int[text.length() * 2 + 1];
+        int count = 0;
+        int a = 0;
+        int b = 0;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            int symbol = i < text.length() ? symbol(text.charAt(i)) : 0;
+            if (symbol == 0) {
+                if (inWord) {
+                    // Word ended: close it with one padding space
+                    grams[count++] = (a * SYMBOLS + b) * SYMBOLS;
+                    inWord = false;
+                }
+                continue;
+            }
+            if (!inWord) {
+                a = 0;
+                b = 0;
+                inWord = true;
+            }
+            grams[count++] = (a * SYMBOLS + b) * SYMBOLS + symbol;
+            a = b;
+            b = symbol;
+        }
+        int[] sorted = Arrays.copyOf(grams, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    // 0 separates words; letters are folded to lower case
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return Character.isLetter(c) ? SYMBOLS - 1 : 0;
+    }
+
+    private record Hit(int document, double similarity) {
+    }
+
+    public static class Builder {
+
+        private long[] ids = new long[1024];
+        private byte[] gramCounts = new byte[1024];
+        private final int[][] postings = new int[SYMBOLS * SYMBOLS * SYMBOLS][];
+        private final int[] postingSizes = new int[postings.length];
+        private int size;
+
+        // Documents are numbered in the order they are added, which keeps every posting list sorted
+        public Builder add(long id, String firstName, String lastName) {
+            int[] grams = grams((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName));
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                gramCounts = Arrays.copyOf(gramCounts, size * 2);
+            }
+            ids[size] = id;
+            gramCounts[size] = (byte) Math.min(grams.length, 255);
+            for (int gram : grams) {
+                int[] list = postings[gram];
+                if (list == null) {
+                    list = postings[gram] = new int[4];
+                } else if (postingSizes[gram] == list.length) {
+                    list = postings[gram] = Arrays.copyOf(list, list.length + (list.length >> 1) + 1);
+                }
+                list[postingSizes[gram]++] = size;
+            }
+            size++;
+            return this;
+        }
+
+        public NameTrigramIndex build() {
+            int[][] trimmed = new int[postings.length][];
+            for (int gram = 0; gram < postings.length; gram++) {
+                trimmed[gram] = postings[gram] == null ? NO_DOCUMENTS : Arrays.copyOf(postings[gram], postingSizes[gram]);
+            }
+            return new NameTrigramIndex(Arrays.copyOf(ids, size), Arrays.copyOf(gramCounts, size), trimmed);
+        }
+    }
+}
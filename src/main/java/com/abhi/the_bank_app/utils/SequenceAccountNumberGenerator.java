@@ -0,0 +1,105 @@
+package com.abhi.the_bank_app.utils;
+
+import com.abhi.the_bank_app.entity.AccountNumberRange;
+import com.abhi.the_bank_app.repository.AccountNumberRangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Default generator: year + zero-padded serial + Luhn check digit, e.g. 2024 000123 4.
+// Serials come from blocks leased from the account_number_range table, so a node only goes to the
+// database once every bank.account-number.block-size numbers and two nodes can never hand out the same serial.
+@Component
+@ConditionalOnProperty(name = "bank.account-number.mode", havingValue = "sequence", matchIfMissing = true)
+public class SequenceAccountNumberGenerator implements AccountNumberGenerator {
+
+    static final String RANGE_NAME = "account_number";
+
+    private final AccountNumberRangeRepository rangeRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Current leased block is [next, end)
+    private long next;
+    private long end;
+
+    public SequenceAccountNumberGenerator(AccountNumberRangeRepository rangeRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${bank.account-number.block-size:1000}") int blockSize) {
+        this.rangeRepository = rangeRepository;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        return AccountUtils.formatAccountNumber(Year.now().getValue(), nextSerial());
+    }
+
+    @Override
+    public List<String> nextAccountNumbers(int count) {
+        int year = Year.now().getValue();
+        List<String> accountNumbers = new ArrayList<>(count);
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                accountNumbers.add(AccountUtils.formatAccountNumber(year, nextSerialLocked(count - i)));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return accountNumbers;
+    }
+
+    private long nextSerial() {
+        lock.lock();
+        try {
+            return nextSerialLocked(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock. When the block runs out, leases one big enough for the remaining demand.
+    private long nextSerialLocked(int demand) {
+        if (next >= end) {
+            long size = Math.max(blockSize, demand);
+            long start = leaseBlock(size);
+            next = start;
+            end = start + size;
+        }
+        return next++;
+    }
+
+    // Advances the shared counter in its own short transaction, so the row lock isn't held by the caller
+    private long leaseBlock(long size) {
+        try {
+            return leaseTransaction.execute(status -> lease(size));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the range row at the same moment; it exists now
+            return leaseTransaction.execute(status -> lease(size));
+        }
+    }
+
+    private long lease(long size) {
+        AccountNumberRange range = rangeRepository.findForUpdateByName(RANGE_NAME).orElse(null);
+        if (range == null) {
+            rangeRepository.saveAndFlush(AccountNumberRange.builder().name(RANGE_NAME).nextValue(1 + size).build());
+            return 1;
+        }
+        long start = range.getNextValue();
+        range.setNextValue(start + size);
+        return start;
+    }
+}
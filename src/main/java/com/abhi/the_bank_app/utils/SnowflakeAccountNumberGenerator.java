@@ -0,0 +1,62 @@
+package com.abhi.the_bank_app.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Coordination-free generator: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a 12-bit
+// per-millisecond counter, followed by a Luhn check digit. Needs no database at all, but every node must
+// be given a distinct bank.account-number.node-id.
+@Component
+@ConditionalOnProperty(name = "bank.account-number.mode", havingValue = "snowflake")
+public class SnowflakeAccountNumberGenerator implements AccountNumberGenerator {
+
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long lastMillis = -1;
+    private long sequence;
+
+    public SnowflakeAccountNumberGenerator(@Value("${bank.account-number.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("bank.account-number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        return AccountUtils.appendCheckDigit(Long.toString(nextId()));
+    }
+
+    long nextId() {
+        lock.lock();
+        try {
+            // Never go backwards if the clock does; keep issuing from the last millisecond instead
+            long now = Math.max(System.currentTimeMillis(), lastMillis);
+            if (now == lastMillis) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    // 4096 ids used up in this millisecond, move on to the next one
+                    now = lastMillis + 1;
+                    while (System.currentTimeMillis() < now) {
+                        Thread.onSpinWait();
+                    }
+                }
+            } else {
+                sequence = 0;
+            }
+            lastMillis = now;
+            return ((now - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.abhi.the_bank_app.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Minimal streaming PDF writer for plain-text statements (A4, Courier). Each page is written as soon as it is
+// full, so memory use depends on the page size only, not on the number of statement lines.
+public class StatementPdfWriter implements Closeable {
+
+    private static final int LINES_PER_PAGE = 60;
+    private static final int CATALOG_OBJECT = 1;
+    private static final int PAGES_OBJECT = 2;
+    private static final int FONT_OBJECT = 3;
+
+    private final OutputStream out;
+    private final List<Long> objectOffsets = new ArrayList<>();
+    private final List<Integer> pageObjects = new ArrayList<>();
+    private final List<String> pageLines = new ArrayList<>(LINES_PER_PAGE);
+    private long position;
+
+    public StatementPdfWriter(OutputStream out) throws IOException {
+        this.out = out;
+        write("%PDF-1.4\n");
+        writeObject(CATALOG_OBJECT, "<< /Type /Catalog /Pages " + PAGES_OBJECT + " 0 R >>");
+        writeObject(FONT_OBJECT, "<< /Type /Font /Subtype /Type1 /BaseFont /Courier >>");
+    }
+
+    public void addLine(String line) throws IOException {
+        pageLines.add(line);
+        if (pageLines.size() == LINES_PER_PAGE) {
+            writePage();
+        }
+    }
+
+    // Writes the last page, the page tree and the cross-reference table
+    @Override
+    public void close() throws IOException {
+        if (!pageLines.isEmpty() || pageObjects.isEmpty()) {
+            writePage();
+        }
+        StringBuilder kids = new StringBuilder();
+        for (int pageObject : pageObjects) {
+            kids.append(pageObject).append(" 0 R ");
+        }
+        writeObject(PAGES_OBJECT, "<< /Type /Pages /Kids [" + kids + "] /Count " + pageObjects.size() + " >>");
+
+        long xrefPosition = position;
+        StringBuilder xref = new StringBuilder("xref\n0 ").append(objectOffsets.size() + 1).append('\n');
+        xref.append("0000000000 65535 f \n");
+        for (Long offset : objectOffsets) {
+            xref.append(String.format("%010d 00000 n \n", offset));
+        }
+        xref.append("trailer\n<< /Size ").append(objectOffsets.size() + 1)
+                .append(" /Root ").append(CATALOG_OBJECT).append(" 0 R >>\nstartxref\n")
+                .append(xrefPosition).append("\n%%EOF\n");
+        write(xref.toString());
+        out.flush();
+    }
+
+    private void writePage() throws IOException {
+        StringBuilder content = new StringBuilder("BT /F").append(FONT_OBJECT).append(" 8 Tf 11 TL 36 806 Td\n");
+        for (String line : pageLines) {
+            content.append('(').append(escape(line)).append(") Tj T*\n");
+        }
+        content.append("ET");
+        pageLines.clear();
+
+        int contentObject = nextObjectNumber();
+        writeObject(contentObject, "<< /Length " + content.length() + " >>\nstream\n" + content + "\nendstream");
+        int pageObject = nextObjectNumber();
+        writeObject(pageObject, "<< /Type /Page /Parent " + PAGES_OBJECT + " 0 R /MediaBox [0 0 595 842] " +
+                "/Resources << /Font << /F" + FONT_OBJECT + " " + FONT_OBJECT + " 0 R >> >> " +
+                "/Contents " + contentObject + " 0 R >>");
+        pageObjects.add(pageObject);
+        out.flush();
+    }
+
+    private int nextObjectNumber() {
+        // Object numbers 1-3 are reserved for the catalog, page tree and font
+        return Math.max(objectOffsets.size(), FONT_OBJECT) + 1;
+    }
+
+    private void writeObject(int number, String body) throws IOException {
+        while (objectOffsets.size() < number) {
+            objectOffsets.add(0L);
+        }
+        objectOffsets.set(number - 1, position);
+        write(number + " 0 obj\n" + body + "\nendobj\n");
+    }
+
+    private void write(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    // Escapes PDF string delimiters and replaces anything the standard font can't show
+    private static String escape(String line) {
+        StringBuilder escaped = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 32 || c > 126) {
+                escaped.append('?');
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
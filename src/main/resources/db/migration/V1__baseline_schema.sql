@@ -0,0 +1,85 @@
+-- Schema as mapped by the entities at the time migrations were introduced.
+-- Later changes go in new V<n>__*.sql files; never edit a migration that has been applied.
+
+create sequence users_seq start with 1 increment by 50;
+create sequence transactions_seq start with 1 increment by 50;
+create sequence email_outbox_seq start with 1 increment by 50;
+
+create table users (
+    id bigint not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    other_name varchar(255),
+    gender varchar(255),
+    address varchar(255),
+    state_of_origin varchar(255),
+    account_number varchar(255) not null,
+    account_balance numeric(38,2),
+    email varchar(255),
+    phone_number varchar(255),
+    alternative_phone_number varchar(255),
+    status varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_users_account_number unique (account_number),
+    constraint uk_users_email unique (email)
+);
+
+create table transactions (
+    id bigint not null,
+    transaction_reference varchar(255) not null,
+    account_number varchar(255) not null,
+    transaction_type varchar(255) not null,
+    amount numeric(38,2) not null,
+    counterparty_account_number varchar(255),
+    description varchar(255),
+    created_at timestamp(6),
+    primary key (id)
+);
+create index idx_transactions_account_created on transactions (account_number, created_at);
+create index idx_transactions_reference on transactions (transaction_reference);
+
+create table email_outbox (
+    id bigint not null,
+    recipient varchar(255),
+    subject varchar(255),
+    message_body varchar(4000),
+    attachment varchar(255),
+    status varchar(255) not null,
+    attempts integer not null,
+    next_attempt_at timestamp(6),
+    last_error varchar(1000),
+    created_at timestamp(6),
+    sent_at timestamp(6),
+    primary key (id)
+);
+create index idx_email_outbox_status_next_attempt on email_outbox (status, next_attempt_at);
+
+create table account_number_range (
+    name varchar(255) not null,
+    next_value bigint not null,
+    primary key (name)
+);
+
+create table idempotency_keys (
+    idempotency_key varchar(255) not null,
+    request_fingerprint varchar(255),
+    response_body varchar(4000),
+    created_at timestamp(6),
+    expires_at timestamp(6),
+    primary key (idempotency_key)
+);
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
+
+create table transfer_sagas (
+    transaction_reference varchar(36) not null,
+    source_account_number varchar(255) not null,
+    destination_account_number varchar(255) not null,
+    amount numeric(38,2) not null,
+    status varchar(255) not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (transaction_reference)
+);
+create index idx_transfer_sagas_status_updated_at on transfer_sagas (status, updated_at);
@@ -0,0 +1,13 @@
+-- Outbox for the account event stream (AccountEvent)
+
+create sequence account_events_seq start with 1 increment by 50;
+
+create table account_events (
+    id bigint not null,
+    event_type varchar(255) not null,
+    account_number varchar(255) not null,
+    counterparty_account_number varchar(255),
+    amount numeric(38,2),
+    created_at timestamp(6),
+    primary key (id)
+);
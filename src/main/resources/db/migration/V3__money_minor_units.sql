@@ -0,0 +1,13 @@
+-- Balances and amounts become BIGINT counts of minor units (see Money): 1250.50 is stored as 125050
+
+update users set account_balance = account_balance * 100;
+alter table users alter column account_balance set data type bigint;
+
+update transactions set amount = amount * 100;
+alter table transactions alter column amount set data type bigint;
+
+update transfer_sagas set amount = amount * 100;
+alter table transfer_sagas alter column amount set data type bigint;
+
+update account_events set amount = amount * 100;
+alter table account_events alter column amount set data type bigint;
@@ -0,0 +1,14 @@
+-- Striped balances for hot accounts (AccountSlot): credits are spread over balance_slots rows per account
+
+alter table users add column balance_slots integer default 0 not null;
+
+create sequence account_slots_seq start with 1 increment by 50;
+
+create table account_slots (
+    id bigint not null,
+    account_number varchar(255) not null,
+    slot integer not null,
+    balance bigint,
+    primary key (id),
+    constraint uk_account_slots_account_slot unique (account_number, slot)
+);
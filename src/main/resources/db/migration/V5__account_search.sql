@@ -0,0 +1,12 @@
+-- Account search (GET /api/user/search): lower-cased name and email kept by the database, and one index per way
+-- of searching, each ending in account_number so keyset pages are index seeks
+
+alter table users add column search_name varchar(511) generated always as (lower(concat(last_name, ' ', first_name)));
+alter table users add column email_lower varchar(255) generated always as (lower(email));
+
+create index idx_users_search_name on users (search_name, account_number);
+create index idx_users_email_lower on users (email_lower);
+create index idx_users_phone_number on users (phone_number, account_number);
+create index idx_users_state_status on users (state_of_origin, status, account_number);
+create index idx_users_state on users (state_of_origin, account_number);
+create index idx_users_status on users (status, account_number);
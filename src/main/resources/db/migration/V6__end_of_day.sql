@@ -0,0 +1,20 @@
+-- End-of-day runs (EndOfDayPartition): one row per id range per business date, holding the checkpoint and totals
+
+create sequence end_of_day_partitions_seq start with 1 increment by 50;
+
+create table end_of_day_partitions (
+    id bigint not null,
+    business_date date not null,
+    partition_no integer not null,
+    first_id bigint not null,
+    last_id bigint not null,
+    next_id bigint not null,
+    status varchar(255) not null,
+    accounts bigint not null,
+    skipped bigint not null,
+    interest bigint not null,
+    fees bigint not null,
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_end_of_day_partitions_date_partition unique (business_date, partition_no)
+);
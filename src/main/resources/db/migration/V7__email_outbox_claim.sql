@@ -0,0 +1,6 @@
+-- Email outbox: dispatcher polls claim their messages with a token, and sent messages are purged by sent_at
+
+alter table email_outbox add column claim_token varchar(36);
+
+create index idx_email_outbox_claim_token on email_outbox (claim_token);
+create index idx_email_outbox_status_sent_at on email_outbox (status, sent_at);
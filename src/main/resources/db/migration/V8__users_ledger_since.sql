@@ -0,0 +1,4 @@
+-- Users: when the ledger started covering each account's balance. Existing accounts stay null, since their
+-- balances were not built from the ledger.
+
+alter table users add column ledger_since timestamp(6);
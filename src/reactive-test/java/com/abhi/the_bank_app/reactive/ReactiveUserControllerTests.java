@@ -0,0 +1,117 @@
+package com.abhi.the_bank_app.reactive;
+
+import com.abhi.the_bank_app.dto.*;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = ReactiveBankApplication.class,
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.config.name=" + ReactiveBankApplication.CONFIG_NAME)
+class ReactiveUserControllerTests {
+
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	void creditDebitAndTransferKeepBalances() {
+		String source = createAccount("reactive-source-" + System.nanoTime() + "@example.com");
+		String destination = createAccount("reactive-destination-" + System.nanoTime() + "@example.com");
+
+		assertThat(post("/credit", new CreditDebitRequest(source, Money.of("100.00"))).getResponseCode())
+				.isEqualTo(AccountUtils.ACCOUNT_CREDITEd_SUCCESS);
+		assertThat(post("/debit", new CreditDebitRequest(source, Money.of("250.00"))).getResponseCode())
+				.isEqualTo("006");
+		assertThat(post("/transfer", new TransferRequest(source, destination, Money.of("40.25"))).getResponseCode())
+				.isEqualTo(AccountUtils.TRANSFER_SUCCESS_CODE);
+		// Doesn't apply, and must not leave the destination credited either
+		assertThat(post("/transfer", new TransferRequest(source, destination, Money.of("60.00"))).getResponseCode())
+				.isEqualTo("006");
+		assertThat(post("/transfer", new TransferRequest(source, "NOSUCHACCOUNT", Money.of("1.00"))).getResponseCode())
+				.isEqualTo(AccountUtils.ACCOUNT_NOT_EXIST_CODE);
+
+		assertThat(balance(source)).isEqualTo(Money.of("59.75"));
+		assertThat(balance(destination)).isEqualTo(Money.of("40.25"));
+	}
+
+	@Test
+	void bulkCreateAnswersEveryLineInOrder() {
+		String prefix = "reactive-bulk-" + System.nanoTime() + "-";
+		List<UserRequest> requests = new ArrayList<>(IntStream.range(0, 1_200)
+				.mapToObj(i -> UserRequest.builder().firstName("Bulk").lastName("User" + i).email(prefix + i + "@example.com").build())
+				.toList());
+		// A duplicate email in the middle of the upload is reported on its own line without stopping the rest
+		requests.add(600, requests.get(ThreadLocalRandom.current().nextInt(600)));
+
+		List<BankResponse> responses = webTestClient.post().uri("/api/user/bulk")
+				.contentType(NDJSON)
+				.accept(NDJSON)
+				.bodyValue(requests.stream().map(ReactiveUserControllerTests::toJson).reduce("", String::concat))
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(BankResponse.class)
+				.getResponseBody()
+				.collectList()
+				.block();
+
+		assertThat(responses).hasSize(requests.size());
+		assertThat(responses.get(600).getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_EXIST_CODE);
+		assertThat(responses.stream().filter(response -> AccountUtils.ACCOUNT_CREATION_SUCCESS.equals(response.getResponseCode()))
+				.map(response -> response.getAccountInfo().getAccountNumber())
+				.distinct()
+				.count()).isEqualTo(1_200);
+	}
+
+	private String createAccount(String email) {
+		BankResponse response = webTestClient.post().uri("/api/user")
+				.bodyValue(UserRequest.builder().firstName("Reactive").lastName("Test").email(email).build())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(BankResponse.class)
+				.returnResult()
+				.getResponseBody();
+		assertThat(response.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_CREATION_SUCCESS);
+		return response.getAccountInfo().getAccountNumber();
+	}
+
+	private BankResponse post(String path, Object body) {
+		return webTestClient.post().uri("/api/user" + path)
+				.bodyValue(body)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(BankResponse.class)
+				.returnResult()
+				.getResponseBody();
+	}
+
+	private Money balance(String accountNumber) {
+		return webTestClient.method(HttpMethod.GET).uri("/api/user/balanceEnquiry")
+				.bodyValue(new EnquiryRequest(accountNumber))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(BankResponse.class)
+				.returnResult()
+				.getResponseBody()
+				.getAccountInfo()
+				.getAccountBalance();
+	}
+
+	private static String toJson(UserRequest request) {
+		return "{\"firstName\":\"" + request.getFirstName() + "\",\"lastName\":\"" + request.getLastName()
+				+ "\",\"email\":\"" + request.getEmail() + "\"}\n";
+	}
+}
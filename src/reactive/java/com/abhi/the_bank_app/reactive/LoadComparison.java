@@ -0,0 +1,243 @@
+package com.abhi.the_bank_app.reactive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Puts the same load on the servlet app and on ReactiveBankApplication so the two can be compared:
+//  1. memory of the server process (VmRSS and the actuator's jvm.memory.used) with N idle keep-alive connections
+//     open against it, next to the same figures before they were opened;
+//  2. a closed-loop run of credits and transfers from a fixed number of clients, reporting throughput and latency.
+// It only uses the JDK, and must run as its own process (not inside the server's JVM) so the two don't share a
+// file descriptor limit. Give the servlet app enough room for the idle connections first, e.g.
+//   java -jar target/the-bank-app-0.0.1-SNAPSHOT.jar --server.tomcat.max-connections=10500 --server.tomcat.keep-alive-timeout=5m
+//   mvn -Preactive spring-boot:run
+//   java -cp <reactive classpath> com.abhi.the_bank_app.reactive.LoadComparison http://localhost:8080 <server pid>
+//   java -cp <reactive classpath> com.abhi.the_bank_app.reactive.LoadComparison http://localhost:8081 <server pid>
+// Optional further arguments: idle connections (10000), clients (64), seconds (30), accounts (200).
+public class LoadComparison {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI baseUri;
+    private final long serverPid;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    LoadComparison(URI baseUri, long serverPid) {
+        this.baseUri = baseUri;
+        this.serverPid = serverPid;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: LoadComparison <base url> <server pid> [idle connections] [clients] [seconds] [accounts]");
+            System.exit(2);
+        }
+        LoadComparison comparison = new LoadComparison(URI.create(args[0]), Long.parseLong(args[1]));
+        int idleConnections = argument(args, 2, 10_000);
+        int clients = argument(args, 3, 64);
+        int seconds = argument(args, 4, 30);
+        int accounts = argument(args, 5, 200);
+
+        comparison.idleConnections(idleConnections);
+        comparison.closedLoop(comparison.createAccounts(accounts), clients, Duration.ofSeconds(seconds));
+    }
+
+    private static int argument(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    void idleConnections(int count) throws Exception {
+        // Let the server settle after whatever ran before, so the baseline isn't mostly garbage
+        Thread.sleep(2_000);
+        report("baseline", 0);
+
+        String host = baseUri.getHost();
+        int port = baseUri.getPort();
+        byte[] request = ("GET /actuator/health HTTP/1.1\r\nHost: " + host + "\r\nConnection: keep-alive\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        List<Socket> sockets = new ArrayList<>(count);
+        long started = System.nanoTime();
+        try {
+            // Each connection makes one request and then sits idle, like a client between polls
+            for (int i = 0; i < count; i++) {
+                Socket socket = new Socket(host, port);
+                socket.setSoTimeout(10_000);
+                sockets.add(socket);
+                OutputStream out = socket.getOutputStream();
+                out.write(request);
+                out.flush();
+                readResponse(socket.getInputStream());
+            }
+            System.out.printf("opened %d connections in %d ms%n", count, (System.nanoTime() - started) / 1_000_000);
+            Thread.sleep(5_000);
+            report("idle", sockets.size());
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    // Reads one response off a keep-alive connection: the headers, then Content-Length bytes or the chunks
+    private static void readResponse(InputStream in) throws IOException {
+        String headers = readLine(in);
+        if (!headers.startsWith("HTTP/1.1 200")) {
+            throw new IOException("unexpected response: " + headers);
+        }
+        long contentLength = -1;
+        boolean chunked = false;
+        for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+            String lower = line.toLowerCase();
+            if (lower.startsWith("content-length:")) {
+                contentLength = Long.parseLong(lower.substring(15).trim());
+            } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                chunked = true;
+            }
+        }
+        if (chunked) {
+            for (long size = Long.parseLong(readLine(in).trim(), 16); size > 0; size = Long.parseLong(readLine(in).trim(), 16)) {
+                in.readNBytes((int) size);
+                readLine(in);
+            }
+            readLine(in);
+        } else if (contentLength > 0) {
+            in.readNBytes((int) contentLength);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int b = in.read(); b != '\n'; b = in.read()) {
+            if (b < 0) {
+                throw new IOException("connection closed");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    private void report(String label, int connections) throws Exception {
+        System.out.printf("%-8s connections=%-6d rss=%6d MB  jvm.memory.used=%6d MB  jvm.threads.live=%d%n", label,
+                connections, residentSetKb() / 1024, (long) metric("jvm.memory.used") / (1024 * 1024),
+                (long) metric("jvm.threads.live"));
+    }
+
+    private long residentSetKb() throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(serverPid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        throw new IOException("no VmRSS for pid " + serverPid);
+    }
+
+    private double metric(String name) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/actuator/metrics/" + name))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+        return MAPPER.readTree(response.body()).path("measurements").path(0).path("value").asDouble();
+    }
+
+    List<String> createAccounts(int count) throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<String> accountNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            JsonNode created = post("/api/user", "{\"firstName\":\"Load\",\"lastName\":\"Test" + i
+                    + "\",\"email\":\"load-" + run + "-" + i + "@example.com\"}");
+            String accountNumber = created.path("accountInfo").path("accountNumber").asText();
+            post("/api/user/credit", "{\"accountNumber\":\"" + accountNumber + "\",\"amount\":1000000.00}");
+            accountNumbers.add(accountNumber);
+        }
+        return accountNumbers;
+    }
+
+    // Each client sends its next request as soon as the previous answer arrives: one credit for every three transfers
+    void closedLoop(List<String> accountNumbers, int clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> results = new ArrayList<>(clients);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            for (int c = 0; c < clients; c++) {
+                results.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] latencies = new long[1024];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        String source = accountNumbers.get(random.nextInt(accountNumbers.size()));
+                        String destination = accountNumbers.get(random.nextInt(accountNumbers.size()));
+                        long started = System.nanoTime();
+                        try {
+                            if (random.nextInt(4) == 0) {
+                                post("/api/user/credit", "{\"accountNumber\":\"" + source + "\",\"amount\":1.00}");
+                            } else {
+                                post("/api/user/transfer", "{\"sourceAccountNumber\":\"" + source
+                                        + "\",\"destinationAccountNumber\":\"" + destination + "\",\"amount\":1.00}");
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (n == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, n * 2);
+                        }
+                        latencies[n++] = System.nanoTime() - started;
+                    }
+                    return Arrays.copyOf(latencies, n);
+                }));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        Arrays.sort(all);
+        System.out.printf("closed loop: clients=%d requests=%d errors=%d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                clients, all.length, errors.get(), all.length / (double) duration.toSeconds(),
+                percentile(all, 0.50), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private JsonNode post(String path, String json) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException(path + " returned " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body());
+    }
+}
@@ -0,0 +1,85 @@
+package com.abhi.the_bank_app.reactive;
+
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+import java.time.Year;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Non-blocking counterpart of SequenceAccountNumberGenerator: the same year + serial + Luhn format, with serials
+// leased in blocks from the same account_number_range row, so servlet and reactive nodes can share a database.
+// Callers that find the block used up all wait on the one lease in flight instead of each leasing their own.
+@Component
+public class ReactiveAccountNumberGenerator {
+
+    static final String RANGE_NAME = "account_number";
+
+    private final ReactiveAccountRepository accountRepository;
+    private final TransactionalOperator leaseTransaction;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Current leased block is [next, end); all three fields are guarded by lock
+    private long next;
+    private long end;
+    private Mono<Void> pendingLease;
+
+    public ReactiveAccountNumberGenerator(ReactiveAccountRepository accountRepository,
+                                          ReactiveTransactionManager transactionManager,
+                                          @Value("${bank.account-number.block-size:1000}") int blockSize) {
+        this.accountRepository = accountRepository;
+        // The lease commits on its own, so the range row isn't locked for the rest of the caller's transaction
+        this.leaseTransaction = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        this.blockSize = blockSize;
+    }
+
+    public Mono<String> nextAccountNumber() {
+        return Mono.defer(() -> {
+            Mono<Void> lease;
+            lock.lock();
+            try {
+                if (next < end) {
+                    return Mono.just(AccountUtils.formatAccountNumber(Year.now().getValue(), next++));
+                }
+                if (pendingLease == null) {
+                    pendingLease = leaseTransaction.transactional(accountRepository.leaseSerials(RANGE_NAME, blockSize))
+                            .doOnNext(this::installBlock)
+                            .doOnError(e -> clearPendingLease())
+                            .then()
+                            .cache();
+                }
+                lease = pendingLease;
+            } finally {
+                lock.unlock();
+            }
+            return lease.then(nextAccountNumber());
+        });
+    }
+
+    private void installBlock(long start) {
+        lock.lock();
+        try {
+            next = start;
+            end = start + blockSize;
+            pendingLease = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void clearPendingLease() {
+        lock.lock();
+        try {
+            pendingLease = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
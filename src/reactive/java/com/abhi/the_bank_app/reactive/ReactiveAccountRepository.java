@@ -0,0 +1,141 @@
+package com.abhi.the_bank_app.reactive;
+
+import com.abhi.the_bank_app.dto.AccountInfo;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.money.Money;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// SQL against the same tables the JPA entities map. Ids are taken straight from the pooled sequences: every value
+// v stands for Hibernate's block (v - 50, v], so using v itself never clashes with ids handed out by a servlet node
+// sharing the database.
+@Repository
+public class ReactiveAccountRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveAccountRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("select 1 from users where email = :email")
+                .bind("email", email)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Boolean> existsByAccountNumber(String accountNumber) {
+        return databaseClient.sql("select 1 from users where account_number = :accountNumber")
+                .bind("accountNumber", accountNumber)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    // Name and balance for a response; a striped account's slots are part of its balance
+    public Mono<AccountInfo> findAccountInfo(String accountNumber) {
+        return databaseClient.sql("select u.first_name, u.last_name, u.account_number, cast(u.account_balance + " +
+                        "coalesce((select sum(s.balance) from account_slots s where s.account_number = u.account_number), 0) " +
+                        "as bigint) as balance from users u where u.account_number = :accountNumber")
+                .bind("accountNumber", accountNumber)
+                .map(row -> new AccountInfo(row.get("first_name", String.class) + " " + row.get("last_name", String.class),
+                        Money.ofMinor(row.get("balance", Long.class)), row.get("account_number", String.class)))
+                .first();
+    }
+
+    // The reactive app always writes the ledger, so every account it creates has its balance in the ledger
+    public Mono<Void> insertUser(UserRequest request, String accountNumber) {
+        LocalDateTime now = LocalDateTime.now();
+        return nextValue("users_seq").flatMap(id -> databaseClient.sql("insert into users (id, first_name, last_name, " +
+                        "other_name, gender, address, state_of_origin, account_number, account_balance, balance_slots, " +
+                        "email, phone_number, alternative_phone_number, status, ledger_since, created_at, updated_at) " +
+                        "values (:id, :firstName, :lastName, :otherName, :gender, :address, :stateOfOrigin, " +
+                        ":accountNumber, 0, 0, :email, :phoneNumber, :alternativePhoneNumber, 'ACTIVE', :now, :now, :now)")
+                .bind("id", id)
+                .bind("accountNumber", accountNumber)
+                .bind("now", now)
+                .bind("firstName", nullable(request.getFirstName()))
+                .bind("lastName", nullable(request.getLastName()))
+                .bind("otherName", nullable(request.getOtherName()))
+                .bind("gender", nullable(request.getGender()))
+                .bind("address", nullable(request.getAddress()))
+                .bind("stateOfOrigin", nullable(request.getStateOfOrigin()))
+                .bind("email", nullable(request.getEmail()))
+                .bind("phoneNumber", nullable(request.getPhoneNumber()))
+                .bind("alternativePhoneNumber", nullable(request.getAlternativePhoneNumber()))
+                .then());
+    }
+
+    // Adds the amount in a single UPDATE; emits 0 when the account doesn't exist
+    public Mono<Long> creditBalance(String accountNumber, Money amount) {
+        return databaseClient.sql("update users set account_balance = account_balance + :amount, " +
+                        "updated_at = localtimestamp where account_number = :accountNumber")
+                .bind("amount", amount.getMinorUnits())
+                .bind("accountNumber", accountNumber)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // Subtracts the amount only if the balance covers it; emits 0 when the account doesn't exist or is short
+    public Mono<Long> debitBalance(String accountNumber, Money amount) {
+        return databaseClient.sql("update users set account_balance = account_balance - :amount, " +
+                        "updated_at = localtimestamp where account_number = :accountNumber and account_balance >= :amount")
+                .bind("amount", amount.getMinorUnits())
+                .bind("accountNumber", accountNumber)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // One ledger leg, as LedgerServiceImpl writes it
+    public Mono<Void> insertLedgerLeg(String reference, String accountNumber, String transactionType, Money amount,
+                                      String counterpartyAccountNumber, String description) {
+        return nextValue("transactions_seq").flatMap(id -> databaseClient.sql("insert into transactions (id, " +
+                        "transaction_reference, account_number, transaction_type, amount, counterparty_account_number, " +
+                        "description, created_at) values (:id, :reference, :accountNumber, :type, :amount, " +
+                        ":counterparty, :description, :now)")
+                .bind("id", id)
+                .bind("reference", reference)
+                .bind("accountNumber", accountNumber)
+                .bind("type", transactionType)
+                .bind("amount", amount.getMinorUnits())
+                .bind("counterparty", nullable(counterpartyAccountNumber))
+                .bind("description", description)
+                .bind("now", LocalDateTime.now())
+                .then());
+    }
+
+    // Locks the range row and moves it on by size; emits the first serial of the leased block
+    public Mono<Long> leaseSerials(String rangeName, long size) {
+        return databaseClient.sql("select next_value from account_number_range where name = :name for update")
+                .bind("name", rangeName)
+                .map(row -> row.get("next_value", Long.class))
+                .first()
+                .flatMap(start -> databaseClient.sql("update account_number_range set next_value = :next where name = :name")
+                        .bind("next", start + size)
+                        .bind("name", rangeName)
+                        .then()
+                        .thenReturn(start))
+                .switchIfEmpty(Mono.defer(() -> databaseClient.sql(
+                                "insert into account_number_range (name, next_value) values (:name, :next)")
+                        .bind("name", rangeName)
+                        .bind("next", 1 + size)
+                        .then()
+                        .thenReturn(1L)));
+    }
+
+    private Mono<Long> nextValue(String sequence) {
+        return databaseClient.sql("select next value for " + sequence)
+                .map(row -> row.get(0, Long.class))
+                .first();
+    }
+
+    private static Parameter nullable(String value) {
+        return Parameter.fromOrEmpty(value, String.class);
+    }
+}
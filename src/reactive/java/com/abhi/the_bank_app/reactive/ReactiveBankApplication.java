@@ -0,0 +1,38 @@
+package com.abhi.the_bank_app.reactive;
+
+import com.abhi.the_bank_app.utils.JacksonConfig;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+// Non-blocking variant of the api/user endpoints on WebFlux and R2DBC, for channels that hold many mostly idle
+// connections. It shares the DTOs, Money and the schema with the servlet app but none of its beans: it scans
+// only this package, skips the JDBC/JPA auto-configuration and reads reactive-bank.properties instead of
+// application.properties. Build and run with: mvn -Preactive spring-boot:run
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+        FlywayAutoConfiguration.class})
+@Import(JacksonConfig.class)
+public class ReactiveBankApplication {
+
+    public static final String CONFIG_NAME = "reactive-bank";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveBankApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=" + CONFIG_NAME)
+                .run(args);
+    }
+
+    // The servlet app's dependencies put Tomcat on the classpath as well, and Boot would otherwise prefer it
+    // to Netty for a reactive server
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
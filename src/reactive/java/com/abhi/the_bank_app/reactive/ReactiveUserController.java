@@ -0,0 +1,57 @@
+package com.abhi.the_bank_app.reactive;
+
+import com.abhi.the_bank_app.dto.*;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same paths, request bodies and BankResponse contract as UserController, served by WebFlux
+@RestController
+@RequestMapping("api/user")
+public class ReactiveUserController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ReactiveUserService userService;
+
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @PostMapping
+    public Mono<BankResponse> createAccount(@RequestBody UserRequest userRequest) {
+        return userService.createAccount(userRequest);
+    }
+
+    // One UserRequest per line in, one BankResponse per line out, in order. The body is read only as fast as
+    // the accounts are committed.
+    @PostMapping(value = "/bulk", consumes = NDJSON, produces = NDJSON)
+    public Flux<BankResponse> createAccounts(@RequestBody Flux<UserRequest> userRequests) {
+        return userService.createAccounts(userRequests);
+    }
+
+    @GetMapping("/balanceEnquiry")
+    public Mono<BankResponse> balanceEnquiry(@RequestBody EnquiryRequest request) {
+        return userService.balanceEnquiry(request);
+    }
+
+    @GetMapping("/nameEnquiry")
+    public Mono<String> nameEnquiry(@RequestBody EnquiryRequest request) {
+        return userService.nameEnquiry(request);
+    }
+
+    @PostMapping("/credit")
+    public Mono<BankResponse> creditAccount(@RequestBody CreditDebitRequest request) {
+        return userService.creditAccount(request);
+    }
+
+    @PostMapping("/debit")
+    public Mono<BankResponse> debitAccount(@RequestBody CreditDebitRequest request) {
+        return userService.debitAccount(request);
+    }
+
+    @PostMapping("/transfer")
+    public Mono<BankResponse> transfer(@RequestBody TransferRequest transferRequest) {
+        return userService.transfer(transferRequest);
+    }
+}
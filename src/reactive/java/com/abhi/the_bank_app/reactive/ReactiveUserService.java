@@ -0,0 +1,16 @@
+package com.abhi.the_bank_app.reactive;
+
+import com.abhi.the_bank_app.dto.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserService {
+
+    Mono<BankResponse> createAccount(UserRequest userRequest);
+    Flux<BankResponse> createAccounts(Flux<UserRequest> userRequests);
+    Mono<BankResponse> balanceEnquiry(EnquiryRequest request);
+    Mono<String> nameEnquiry(EnquiryRequest request);
+    Mono<BankResponse> creditAccount(CreditDebitRequest request);
+    Mono<BankResponse> debitAccount(CreditDebitRequest request);
+    Mono<BankResponse> transfer(TransferRequest request);
+}
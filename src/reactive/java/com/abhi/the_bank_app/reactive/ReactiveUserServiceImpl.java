@@ -0,0 +1,196 @@
+package com.abhi.the_bank_app.reactive;
+
+import com.abhi.the_bank_app.dto.*;
+import com.abhi.the_bank_app.entity.Transaction;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// The UserServiceImpl operations without blocking a thread: every balance change is a conditional UPDATE (the
+// servlet app's "conditional" transfer mode) and runs in a reactive transaction together with its ledger legs,
+// so the ledger stays in step with the balances exactly as it does on the servlet side.
+@Service
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private final ReactiveAccountRepository accountRepository;
+    private final ReactiveAccountNumberGenerator accountNumberGenerator;
+    private final TransactionalOperator transaction;
+    private final int bulkChunkSize;
+
+    public ReactiveUserServiceImpl(ReactiveAccountRepository accountRepository,
+                                   ReactiveAccountNumberGenerator accountNumberGenerator,
+                                   ReactiveTransactionManager transactionManager,
+                                   @Value("${bank.bulk.chunk-size:500}") int bulkChunkSize) {
+        this.accountRepository = accountRepository;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.transaction = TransactionalOperator.create(transactionManager);
+        this.bulkChunkSize = bulkChunkSize;
+    }
+
+    @Override
+    public Mono<BankResponse> createAccount(UserRequest userRequest) {
+        return transaction.transactional(createAccountInTransaction(userRequest));
+    }
+
+    // One transaction per chunk. concatMap asks for the next chunk only once the previous one has committed, so a
+    // fast uploader is held back by the database instead of piling requests up in memory.
+    @Override
+    public Flux<BankResponse> createAccounts(Flux<UserRequest> userRequests) {
+        return userRequests.buffer(bulkChunkSize)
+                .concatMap(chunk -> transaction.transactional(
+                        Flux.fromIterable(chunk).concatMap(this::createAccountInTransaction)));
+    }
+
+    private Mono<BankResponse> createAccountInTransaction(UserRequest userRequest) {
+        Mono<Boolean> emailTaken = userRequest.getEmail() == null
+                ? Mono.just(false) : accountRepository.existsByEmail(userRequest.getEmail());
+        return emailTaken.flatMap(taken -> taken
+                ? Mono.just(BankResponses.ACCOUNT_EXISTS)
+                : accountNumberGenerator.nextAccountNumber().flatMap(accountNumber -> accountRepository
+                        .insertUser(userRequest, accountNumber)
+                        .thenReturn(accountCreatedResponse(userRequest, accountNumber))));
+    }
+
+    @Override
+    public Mono<BankResponse> balanceEnquiry(EnquiryRequest request) {
+        return accountRepository.findAccountInfo(request.getAccountNumber())
+                .map(accountInfo -> BankResponse.builder()
+                        .responseCode(AccountUtils.ACCOUNT_FOUND_CODE)
+                        .responseMessage(AccountUtils.ACCOUNT_FOUND_MESSAGE)
+                        .accountInfo(accountInfo)
+                        .build())
+                .defaultIfEmpty(BankResponses.ACCOUNT_NOT_EXIST);
+    }
+
+    @Override
+    public Mono<String> nameEnquiry(EnquiryRequest request) {
+        return accountRepository.findAccountInfo(request.getAccountNumber())
+                .map(AccountInfo::getAccountName)
+                .defaultIfEmpty(AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE);
+    }
+
+    @Override
+    public Mono<BankResponse> creditAccount(CreditDebitRequest request) {
+        String accountNumber = request.getAccountNumber();
+        return transaction.transactional(accountRepository.creditBalance(accountNumber, request.getAmount())
+                .flatMap(updated -> updated == 0
+                        ? Mono.just(BankResponses.ACCOUNT_NOT_EXIST)
+                        : accountRepository.insertLedgerLeg(newReference(), accountNumber, Transaction.TYPE_CREDIT,
+                                        request.getAmount(), null, "Credit")
+                                .then(accountRepository.findAccountInfo(accountNumber))
+                                .map(this::creditSuccessResponse)));
+    }
+
+    @Override
+    public Mono<BankResponse> debitAccount(CreditDebitRequest request) {
+        String accountNumber = request.getAccountNumber();
+        return transaction.transactional(accountRepository.debitBalance(accountNumber, request.getAmount())
+                .flatMap(updated -> updated == 0
+                        ? accountRepository.findAccountInfo(accountNumber)
+                                .map(accountInfo -> insufficientBalanceResponse(accountInfo, "Insufficient account balance!"))
+                                .defaultIfEmpty(BankResponses.ACCOUNT_NOT_EXIST)
+                        : accountRepository.insertLedgerLeg(newReference(), accountNumber, Transaction.TYPE_DEBIT,
+                                        request.getAmount(), null, "Debit")
+                                .then(accountRepository.findAccountInfo(accountNumber))
+                                .map(this::debitSuccessResponse)));
+    }
+
+    // Two conditional UPDATE statements issued in account number order, like the servlet app's conditional mode.
+    // If either one doesn't apply the transaction is marked rollback-only, so nothing is half-moved.
+    @Override
+    public Mono<BankResponse> transfer(TransferRequest request) {
+        String source = request.getSourceAccountNumber();
+        String destination = request.getDestinationAccountNumber();
+        Money amount = request.getAmount();
+        boolean sourceFirst = source.compareTo(destination) <= 0;
+
+        return transaction.execute(status -> {
+            Mono<Boolean> applied = sourceFirst
+                    ? debit(source, amount).flatMap(debited -> debited ? credit(destination, amount) : Mono.just(false))
+                    : credit(destination, amount).flatMap(credited -> credited ? debit(source, amount) : Mono.just(false));
+            return applied.flatMap(moved -> {
+                if (moved) {
+                    String reference = newReference();
+                    return accountRepository.insertLedgerLeg(reference, source, Transaction.TYPE_DEBIT, amount,
+                                    destination, "Transfer")
+                            .then(accountRepository.insertLedgerLeg(reference, destination, Transaction.TYPE_CREDIT,
+                                    amount, source, "Transfer"))
+                            .then(accountRepository.findAccountInfo(source))
+                            .map(this::transferSuccessResponse);
+                }
+                // Something didn't apply: undo whatever did and work out which check failed
+                status.setRollbackOnly();
+                return accountRepository.findAccountInfo(source)
+                        .flatMap(sourceAccount -> accountRepository.existsByAccountNumber(destination)
+                                .map(destinationExists -> destinationExists
+                                        ? insufficientBalanceResponse(sourceAccount, "Insufficient balance in source account!")
+                                        : BankResponses.DESTINATION_ACCOUNT_NOT_EXIST))
+                        .defaultIfEmpty(BankResponses.SOURCE_ACCOUNT_NOT_EXIST);
+            });
+        }).single();
+    }
+
+    private Mono<Boolean> debit(String accountNumber, Money amount) {
+        return accountRepository.debitBalance(accountNumber, amount).map(updated -> updated > 0);
+    }
+
+    private Mono<Boolean> credit(String accountNumber, Money amount) {
+        return accountRepository.creditBalance(accountNumber, amount).map(updated -> updated > 0);
+    }
+
+    private static String newReference() {
+        return UUID.randomUUID().toString();
+    }
+
+    private BankResponse accountCreatedResponse(UserRequest userRequest, String accountNumber) {
+        return BankResponse.builder()
+                .responseCode(AccountUtils.ACCOUNT_CREATION_SUCCESS)
+                .responseMessage(AccountUtils.ACCOUNT_CREATION_MESSAGE)
+                .accountInfo(AccountInfo.builder()
+                        .accountBalance(Money.ZERO)
+                        .accountNumber(accountNumber)
+                        .accountName(userRequest.getFirstName() + " " + userRequest.getLastName() + " " +
+                                userRequest.getOtherName())
+                        .build())
+                .build();
+    }
+
+    private BankResponse insufficientBalanceResponse(AccountInfo accountInfo, String message) {
+        return BankResponse.builder()
+                .responseCode("006") // Insufficient balance error code
+                .responseMessage(message)
+                .accountInfo(accountInfo)
+                .build();
+    }
+
+    private BankResponse creditSuccessResponse(AccountInfo accountInfo) {
+        return BankResponse.builder()
+                .responseCode(AccountUtils.ACCOUNT_CREDITEd_SUCCESS)
+                .responseMessage(AccountUtils.ACCOUNT_CREDITEd_SUCCESS_MESSAGE)
+                .accountInfo(accountInfo)
+                .build();
+    }
+
+    private BankResponse debitSuccessResponse(AccountInfo accountInfo) {
+        return BankResponse.builder()
+                .responseCode("007") // Debit success code
+                .responseMessage("Account debited successfully!")
+                .accountInfo(accountInfo)
+                .build();
+    }
+
+    private BankResponse transferSuccessResponse(AccountInfo sourceAccount) {
+        return BankResponse.builder()
+                .responseCode(AccountUtils.TRANSFER_SUCCESS_CODE)
+                .responseMessage("Transfer successful!")
+                .accountInfo(sourceAccount)
+                .build();
+    }
+}
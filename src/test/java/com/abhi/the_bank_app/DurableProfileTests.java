@@ -0,0 +1,28 @@
+package com.abhi.the_bank_app;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The durable profile builds the schema from the Flyway migrations and has Hibernate validate it, so this
+// fails as soon as an entity changes without a matching migration
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:durable;DB_CLOSE_DELAY=-1",
+		"bank.email.outbox.enabled=false"
+})
+@ActiveProfiles("durable")
+class DurableProfileTests {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Test
+	void migrationsMatchTheEntities() {
+		assertThat(flyway.info().pending()).isEmpty();
+		assertThat(flyway.info().current()).isNotNull();
+	}
+}
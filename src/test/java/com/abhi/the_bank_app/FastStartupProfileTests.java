@@ -0,0 +1,38 @@
+package com.abhi.the_bank_app;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The fast-startup profile validates the Flyway schema instead of updating it, and leaves only the API docs and
+// the mail sender to be built on first use
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fast-startup;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("fast-startup")
+class FastStartupProfileTests {
+
+	@Autowired
+	private ConfigurableApplicationContext context;
+
+	@Autowired
+	private Flyway flyway;
+
+	@Test
+	void docsAndMailAreBuiltOnFirstUse() {
+		ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+		assertThat(flyway.info().pending()).isEmpty();
+		assertThat(beanFactory.containsSingleton("userController")).isTrue();
+		assertThat(beanFactory.containsSingleton("customOpenAPI")).isFalse();
+		assertThat(beanFactory.containsSingleton("openApiResource")).isFalse();
+		assertThat(beanFactory.containsSingleton("mailSender")).isFalse();
+
+		context.getBean(JavaMailSender.class);
+		assertThat(beanFactory.containsSingleton("mailSender")).isTrue();
+	}
+}
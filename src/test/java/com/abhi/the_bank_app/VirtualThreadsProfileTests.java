@@ -0,0 +1,47 @@
+package com.abhi.the_bank_app;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The virtual-threads profile sizes the connection pool as the concurrency limit and keeps SMTP on a bounded
+// platform pool. Running on virtual threads needs Java 21, so only the settings are checked here.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:virtual-threads;DB_CLOSE_DELAY=-1",
+		"bank.email.outbox.enabled=false"
+})
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTests {
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	@Qualifier("emailSenderExecutor")
+	private ThreadPoolTaskExecutor emailSenderExecutor;
+
+	@Test
+	void poolsAreSizedForVirtualThreads() throws Exception {
+		assertThat(environment.getProperty("spring.threads.virtual.enabled", Boolean.class)).isTrue();
+
+		HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+		assertThat(hikari.getMaximumPoolSize()).isEqualTo(40);
+		assertThat(hikari.getConnectionTimeout()).isEqualTo(5000);
+
+		assertThat(emailSenderExecutor.getCorePoolSize()).isEqualTo(8);
+		assertThat(emailSenderExecutor.getMaxPoolSize()).isEqualTo(8);
+		assertThat(emailSenderExecutor.getThreadNamePrefix()).isEqualTo("email-sender-");
+	}
+}
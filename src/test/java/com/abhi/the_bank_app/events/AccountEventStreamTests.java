@@ -0,0 +1,88 @@
+package com.abhi.the_bank_app.events;
+
+import com.abhi.the_bank_app.dto.AccountEventMessage;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.entity.AccountEvent;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.AccountEventRepository;
+import com.abhi.the_bank_app.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:events;DB_CLOSE_DELAY=-1",
+		"bank.email.outbox.enabled=false",
+		"bank.events.poll-interval-ms=3600000",
+		"bank.events.log-file.enabled=true",
+		"bank.events.log-file.path=target/account-events-test.jsonl"
+})
+class AccountEventStreamTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private AccountEventDispatcher accountEventDispatcher;
+
+	@Autowired
+	private AccountEventRepository accountEventRepository;
+
+	@Autowired
+	private InMemoryEventTopic topic;
+
+	private String createAccount(String name) {
+		return userService.createAccount(UserRequest.builder()
+				.firstName(name)
+				.lastName("Events")
+				.email(name + System.nanoTime() + "@example.com")
+				.build()).getAccountInfo().getAccountNumber();
+	}
+
+	private List<AccountEventMessage> eventsFor(String accountNumber) {
+		int partition = topic.partitionFor(accountNumber);
+		List<AccountEventMessage> events = new ArrayList<>();
+		for (InMemoryEventTopic.TopicRecord record : topic.poll(partition, 0, Integer.MAX_VALUE)) {
+			if (accountNumber.equals(record.getEvent().getAccountNumber())) {
+				events.add(record.getEvent());
+			}
+		}
+		return events;
+	}
+
+	@Test
+	void committedChangesArePublishedInOrderAndFailedOnesAreNot() throws IOException {
+		String source = createAccount("source");
+		String destination = createAccount("destination");
+		userService.creditAccount(new CreditDebitRequest(source, Money.of("100.00")));
+		userService.transfer(new TransferRequest(source, destination, Money.of("40.00")));
+		userService.debitAccount(new CreditDebitRequest(source, Money.of("10.00")));
+		// Rejected for lack of funds, so nothing is recorded
+		userService.transfer(new TransferRequest(source, destination, Money.of("1000.00")));
+
+		Path logFile = Path.of("target/account-events-test.jsonl");
+		long linesBefore = Files.exists(logFile) ? Files.readAllLines(logFile).size() : 0;
+		accountEventDispatcher.dispatch();
+
+		assertThat(accountEventRepository.count()).isZero();
+		assertThat(eventsFor(source)).extracting(AccountEventMessage::getEventType).containsExactly(
+				AccountEvent.TYPE_ACCOUNT_CREATED,
+				AccountEvent.TYPE_ACCOUNT_CREDITED,
+				AccountEvent.TYPE_TRANSFER_COMPLETED,
+				AccountEvent.TYPE_ACCOUNT_DEBITED);
+		AccountEventMessage transfer = eventsFor(source).get(2);
+		assertThat(transfer.getCounterpartyAccountNumber()).isEqualTo(destination);
+		assertThat(transfer.getAmount()).isEqualTo(Money.of("40.00"));
+		assertThat(Files.readAllLines(logFile).size() - linesBefore).isEqualTo(5);
+	}
+}
@@ -0,0 +1,82 @@
+package com.abhi.the_bank_app.metrics;
+
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.service.UserService;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BankingMetricsTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	// Each call is timed once under its operation and response code, with the SQL it issued counted
+	@Test
+	void operationsAreTimedByResponseCode() {
+		String accountNumber = createAccount("Timed");
+		long credits = operationCount("creditAccount", AccountUtils.ACCOUNT_CREDITEd_SUCCESS);
+		long misses = operationCount("balanceEnquiry", AccountUtils.ACCOUNT_NOT_EXIST_CODE);
+		long creditQueries = queryCount("creditAccount");
+
+		userService.creditAccount(new CreditDebitRequest(accountNumber, Money.of("100.00")));
+		userService.balanceEnquiry(new EnquiryRequest("NOSUCHACCOUNT"));
+
+		assertThat(operationCount("creditAccount", AccountUtils.ACCOUNT_CREDITEd_SUCCESS)).isEqualTo(credits + 1);
+		assertThat(operationCount("balanceEnquiry", AccountUtils.ACCOUNT_NOT_EXIST_CODE)).isEqualTo(misses + 1);
+		DistributionSummary queries = meterRegistry.get("bank.db.queries").tag("operation", "creditAccount").summary();
+		assertThat(queries.count()).isEqualTo(creditQueries + 1);
+		assertThat(queries.max()).isPositive();
+		assertThat(meterRegistry.get("bank.repository").tag("repository", "UserRepository").timers()).isNotEmpty();
+	}
+
+	// Only transfers that went through add their amount to bank.transfer.amount
+	@Test
+	void successfulTransferAmountsAreRecorded() {
+		String source = createAccount("Source");
+		String destination = createAccount("Destination");
+		userService.creditAccount(new CreditDebitRequest(source, Money.of("100.00")));
+		DistributionSummary before = meterRegistry.find("bank.transfer.amount").summary();
+		long count = before == null ? 0 : before.count();
+		double total = before == null ? 0 : before.totalAmount();
+
+		userService.transfer(new TransferRequest(source, destination, Money.of("40.25")));
+		userService.transfer(new TransferRequest(source, destination, Money.of("500.00")));
+
+		DistributionSummary amounts = meterRegistry.get("bank.transfer.amount").summary();
+		assertThat(amounts.count()).isEqualTo(count + 1);
+		assertThat(amounts.totalAmount() - total).isEqualTo(40.25);
+	}
+
+	private String createAccount(String lastName) {
+		return userService.createAccount(UserRequest.builder()
+				.firstName("Metrics")
+				.lastName(lastName)
+				.email("metrics-" + System.nanoTime() + "@example.com")
+				.build()).getAccountInfo().getAccountNumber();
+	}
+
+	private long operationCount(String operation, String code) {
+		Timer timer = meterRegistry.find("bank.operation").tags("operation", operation, "code", code).timer();
+		return timer == null ? 0 : timer.count();
+	}
+
+	private long queryCount(String operation) {
+		DistributionSummary summary = meterRegistry.find("bank.db.queries").tag("operation", operation).summary();
+		return summary == null ? 0 : summary.count();
+	}
+}
@@ -0,0 +1,44 @@
+package com.abhi.the_bank_app.money;
+
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void decimalAmountsAreHeldAsExactMinorUnits() {
+		assertThat(Money.of("1250.5").getMinorUnits()).isEqualTo(125050);
+		assertThat(Money.of("0.1").plus(Money.of("0.2"))).isEqualTo(Money.of("0.30"));
+		assertThat(Money.of("5.00").minus(Money.of("7.25")).toString()).isEqualTo("-2.25");
+		assertThat(Money.ofMinor(7).toString()).isEqualTo("0.07");
+		assertThat(Money.ofMinor(Long.MIN_VALUE).toBigDecimal()).isEqualByComparingTo(Money.ofMinor(Long.MIN_VALUE).toString());
+		assertThat(Money.of("3.50").toBigDecimal()).isEqualTo(new BigDecimal("3.50"));
+	}
+
+	@Test
+	void fractionsOfAMinorUnitAndOverflowAreRejected() {
+		assertThatThrownBy(() -> Money.of("1.005")).isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> Money.of("100000000000000000")).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void jsonKeepsThePlainDecimalFormat() throws Exception {
+		TransferRequest request = objectMapper.readValue(
+				"{\"sourceAccountNumber\":\"A\",\"destinationAccountNumber\":\"B\",\"amount\":100.5}", TransferRequest.class);
+
+		assertThat(request.getAmount()).isEqualTo(Money.ofMinor(10050));
+		assertThat(objectMapper.readValue("\"42\"", Money.class)).isEqualTo(Money.of("42.00"));
+		assertThat(objectMapper.writeValueAsString(request)).contains("\"amount\":100.50");
+		assertThatThrownBy(() -> objectMapper.readValue("12.345", Money.class)).isInstanceOf(InvalidFormatException.class);
+	}
+}
@@ -0,0 +1,134 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.metrics.QueryCountingStatementInspector;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AccountLookupTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private AccountLookupService accountLookupService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// A lookup is one statement whether or not the account exists, and it seeks the unique index
+	@Test
+	void accountIsLookedUpInOneIndexedQuery() {
+		String accountNumber = saveAccount("AL" + System.nanoTime(), "lookup-" + System.nanoTime() + "@example.com");
+
+		int before = QueryCountingStatementInspector.current();
+		assertThat(userRepository.findByAccountNumber(accountNumber)).isPresent();
+		assertThat(QueryCountingStatementInspector.current() - before).isEqualTo(1);
+
+		before = QueryCountingStatementInspector.current();
+		assertThat(userRepository.findByAccountNumber("NOSUCHACCOUNT")).isEmpty();
+		assertThat(QueryCountingStatementInspector.current() - before).isEqualTo(1);
+
+		assertThat(jdbcTemplate.queryForObject("explain select * from users where account_number = ?",
+				String.class, accountNumber)).containsIgnoringCase("uk_users_account_number");
+	}
+
+	@Test
+	void accountNumberAndEmailAreUnique() {
+		String accountNumber = "AL" + System.nanoTime();
+		String email = "unique-" + System.nanoTime() + "@example.com";
+		saveAccount(accountNumber, email);
+
+		assertThatThrownBy(() -> saveAccount(accountNumber, "other-" + System.nanoTime() + "@example.com"))
+				.isInstanceOf(DataIntegrityViolationException.class);
+		assertThatThrownBy(() -> saveAccount("AL" + System.nanoTime(), email))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	// An enquiry that misses the cache and reads the balance just before a credit commits must not leave
+	// that balance in the cache once the credit has evicted it
+	@Test
+	void enquiryRacingACreditDoesNotCacheTheOldBalance() throws Exception {
+		String accountNumber = "AL" + System.nanoTime();
+		userRepository.save(User.builder()
+				.firstName("Lookup")
+				.lastName("Test")
+				.accountNumber(accountNumber)
+				.accountBalance(Money.of("100.00"))
+				.email(accountNumber + "@example.com")
+				.status("ACTIVE")
+				.build());
+
+		// The enquiry has read the balance and is about to cache it when the credit commits
+		AtomicReference<Thread> enquirer = new AtomicReference<>();
+		CountDownLatch read = new CountDownLatch(1);
+		CountDownLatch credited = new CountDownLatch(1);
+		AccountLookupServiceImpl lookup = AopTestUtils.getTargetObject(accountLookupService);
+		Cache accounts = (Cache) ReflectionTestUtils.getField(lookup, "accounts");
+		ReflectionTestUtils.setField(lookup, "accounts", Proxy.newProxyInstance(Cache.class.getClassLoader(),
+				new Class<?>[] {Cache.class}, (proxy, method, args) -> {
+					if (method.getName().equals("put") && Thread.currentThread() == enquirer.get()) {
+						read.countDown();
+						assertThat(credited.await(10, TimeUnit.SECONDS)).isTrue();
+					}
+					try {
+						return method.invoke(accounts, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				}));
+		try {
+			CompletableFuture<Money> enquiry = CompletableFuture.supplyAsync(() -> {
+				enquirer.set(Thread.currentThread());
+				return userService.balanceEnquiry(new EnquiryRequest(accountNumber)).getAccountInfo().getAccountBalance();
+			});
+			assertThat(read.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(userService.creditAccount(new CreditDebitRequest(accountNumber, Money.of("50.00")))
+					.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_CREDITEd_SUCCESS);
+			credited.countDown();
+
+			assertThat(enquiry.get(10, TimeUnit.SECONDS)).isEqualByComparingTo(Money.of("100.00"));
+			assertThat(userService.balanceEnquiry(new EnquiryRequest(accountNumber)).getAccountInfo()
+					.getAccountBalance()).isEqualByComparingTo(Money.of("150.00"));
+		} finally {
+			ReflectionTestUtils.setField(lookup, "accounts", accounts);
+		}
+	}
+
+	private String saveAccount(String accountNumber, String email) {
+		userRepository.save(User.builder()
+				.firstName("Lookup")
+				.lastName("Test")
+				.accountNumber(accountNumber)
+				.accountBalance(Money.of("100.00"))
+				.email(email)
+				.status("ACTIVE")
+				.build());
+		return accountNumber;
+	}
+}
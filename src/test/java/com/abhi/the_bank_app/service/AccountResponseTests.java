@@ -0,0 +1,133 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.AccountInfo;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AccountResponseTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@AfterEach
+	void resetTransferMode() {
+		setTransferMode(AccountUtils.TRANSFER_MODE_LOCKING);
+	}
+
+	private void setTransferMode(String mode) {
+		UserServiceImpl target = AopTestUtils.getTargetObject(userService);
+		ReflectionTestUtils.setField(target, "transferMode", mode);
+	}
+
+	// Both modes answer with the same account name, number and balance after the change
+	@ParameterizedTest
+	@ValueSource(strings = {AccountUtils.TRANSFER_MODE_LOCKING, AccountUtils.TRANSFER_MODE_CONDITIONAL})
+	void balanceChangesReturnTheUpdatedAccount(String mode) {
+		setTransferMode(mode);
+		String source = createAccount("Source", "100.00");
+		String destination = createAccount("Destination", "0.00");
+
+		assertAccount(userService.creditAccount(new CreditDebitRequest(source, Money.of("25.50"))),
+				AccountUtils.ACCOUNT_CREDITEd_SUCCESS, "Response Source", source, "125.50");
+		assertAccount(userService.debitAccount(new CreditDebitRequest(source, Money.of("5.50"))),
+				"007", "Response Source", source, "120.00");
+		assertAccount(userService.debitAccount(new CreditDebitRequest(source, Money.of("500.00"))),
+				"006", "Response Source", source, "120.00");
+		assertAccount(userService.transfer(new TransferRequest(source, destination, Money.of("20.00"))),
+				AccountUtils.TRANSFER_SUCCESS_CODE, "Response Source", source, "100.00");
+		assertAccount(userService.transfer(new TransferRequest(source, destination, Money.of("500.00"))),
+				"006", "Response Source", source, "100.00");
+		assertAccount(userService.balanceEnquiry(new EnquiryRequest(destination)),
+				AccountUtils.ACCOUNT_FOUND_CODE, "Response Destination", destination, "20.00");
+	}
+
+	// Every unknown account gets the same shared response, whichever mode handled it
+	@ParameterizedTest
+	@ValueSource(strings = {AccountUtils.TRANSFER_MODE_LOCKING, AccountUtils.TRANSFER_MODE_CONDITIONAL})
+	void unknownAccountsGetTheSharedResponse(String mode) {
+		setTransferMode(mode);
+		String account = createAccount("Known", "10.00");
+
+		assertThat(userService.creditAccount(new CreditDebitRequest("NOSUCHACCOUNT", Money.of("1.00"))))
+				.isSameAs(BankResponses.ACCOUNT_NOT_EXIST);
+		assertThat(userService.debitAccount(new CreditDebitRequest("NOSUCHACCOUNT", Money.of("1.00"))))
+				.isSameAs(BankResponses.ACCOUNT_NOT_EXIST);
+		assertThat(userService.balanceEnquiry(new EnquiryRequest("NOSUCHACCOUNT")))
+				.isSameAs(BankResponses.ACCOUNT_NOT_EXIST);
+		assertThat(userService.transfer(new TransferRequest("NOSUCHACCOUNT", account, Money.of("1.00"))))
+				.isSameAs(BankResponses.SOURCE_ACCOUNT_NOT_EXIST);
+		assertThat(userService.transfer(new TransferRequest(account, "NOSUCHACCOUNT", Money.of("1.00"))))
+				.isSameAs(BankResponses.DESTINATION_ACCOUNT_NOT_EXIST);
+		// The failed transfer was rolled back
+		assertThat(userService.balanceEnquiry(new EnquiryRequest(account)).getAccountInfo().getAccountBalance())
+				.isEqualByComparingTo(Money.of("10.00"));
+	}
+
+	@Test
+	void sharedResponsesCannotBeChanged() throws Exception {
+		BankResponse shared = BankResponses.ACCOUNT_NOT_EXIST;
+
+		assertThatThrownBy(() -> shared.setResponseCode(AccountUtils.ACCOUNT_FOUND_CODE))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> shared.setResponseMessage("changed"))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> shared.setAccountInfo(AccountInfo.builder().build()))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThat(shared.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_NOT_EXIST_CODE);
+		assertThat(shared.getAccountInfo()).isNull();
+
+		// Serialized like any other response, through the Blackbird-enabled mapper
+		assertThat(objectMapper.getRegisteredModuleIds()).contains(new BlackbirdModule().getTypeId());
+		BankResponse read = objectMapper.readValue(objectMapper.writeValueAsString(shared), BankResponse.class);
+		assertThat(read.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_NOT_EXIST_CODE);
+		assertThat(read.getResponseMessage()).isEqualTo(AccountUtils.ACCOUNT_NOT_EXIST_MESSAGE);
+	}
+
+	private String createAccount(String lastName, String balance) {
+		String accountNumber = "AR" + System.nanoTime();
+		userRepository.save(User.builder()
+				.firstName("Response")
+				.lastName(lastName)
+				.accountNumber(accountNumber)
+				.accountBalance(Money.of(balance))
+				.email(accountNumber + "@example.com")
+				.status("ACTIVE")
+				.build());
+		return accountNumber;
+	}
+
+	private static void assertAccount(BankResponse response, String code, String name, String accountNumber,
+			String balance) {
+		assertThat(response.getResponseCode()).isEqualTo(code);
+		assertThat(response.getAccountInfo().getAccountName()).isEqualTo(name);
+		assertThat(response.getAccountInfo().getAccountNumber()).isEqualTo(accountNumber);
+		assertThat(response.getAccountInfo().getAccountBalance()).isEqualByComparingTo(Money.of(balance));
+	}
+}
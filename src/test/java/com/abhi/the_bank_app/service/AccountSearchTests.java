@@ -0,0 +1,128 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.AccountSearchRequest;
+import com.abhi.the_bank_app.dto.AccountSearchResponse;
+import com.abhi.the_bank_app.dto.AccountSummary;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AccountSearchTests {
+
+	private static final int ACCOUNTS = 45;
+	private static final String[] FIRST_NAMES = {"Adaeze", "Bola", "Chinedu"};
+
+	@Autowired
+	private AccountSearchService accountSearchService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final List<String> accountNumbers = new ArrayList<>();
+	// Unique to this run, so accounts left behind by other tests can't match
+	private String lastName;
+
+	@BeforeEach
+	void createAccounts() {
+		lastName = "Okafor" + Long.toString(System.nanoTime(), 36).replaceAll("\\d", "x");
+		for (int i = 0; i < ACCOUNTS; i++) {
+			String accountNumber = "AS" + System.nanoTime() + i;
+			userRepository.save(User.builder()
+					.firstName(FIRST_NAMES[i % FIRST_NAMES.length])
+					.lastName(lastName)
+					.accountNumber(accountNumber)
+					.accountBalance(Money.ZERO)
+					.email(lastName + ".User" + i + "@Example.com")
+					.phoneNumber("0803" + accountNumber.substring(accountNumber.length() - 7))
+					.stateOfOrigin(i % 2 == 0 ? "Lagos" : "Enugu")
+					.status(i % 5 == 0 ? "DORMANT" : "ACTIVE")
+					.build());
+			accountNumbers.add(accountNumber);
+		}
+	}
+
+	@AfterEach
+	void deleteAccounts() {
+		accountNumbers.forEach(accountNumber ->
+				userRepository.findByAccountNumber(accountNumber).ifPresent(userRepository::delete));
+	}
+
+	// Walks every page of a name search: each account comes back exactly once, in (name, account number) order
+	@Test
+	void namePrefixPagesCoverEveryMatchOnce() {
+		List<AccountSummary> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			AccountSearchResponse response = accountSearchService.search(AccountSearchRequest.builder()
+					.name(lastName.substring(0, lastName.length() - 2).toUpperCase())
+					.limit(10)
+					.cursor(cursor)
+					.build());
+			assertThat(response.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_SEARCH_CODE);
+			seen.addAll(response.getAccounts());
+			cursor = response.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(5);
+		assertThat(seen).extracting(AccountSummary::getAccountNumber).containsExactlyInAnyOrderElementsOf(accountNumbers);
+		List<String> keys = seen.stream().map(summary -> summary.getSearchName() + " " + summary.getAccountNumber()).toList();
+		assertThat(keys).isSorted();
+
+		// "lastName firstName" narrows it down to one first name
+		AccountSearchResponse bolas = accountSearchService.search(AccountSearchRequest.builder()
+				.name(lastName + " bo").limit(100).build());
+		assertThat(bolas.getAccounts()).hasSize(ACCOUNTS / FIRST_NAMES.length)
+				.allSatisfy(summary -> assertThat(summary.getAccountName()).isEqualTo("Bola " + lastName));
+	}
+
+	@Test
+	void criteriaAreCombined() {
+		AccountSearchResponse byEmail = accountSearchService.search(AccountSearchRequest.builder()
+				.email(lastName.toUpperCase() + ".user7@example.COM").build());
+		assertThat(byEmail.getAccounts()).extracting(AccountSummary::getAccountNumber)
+				.containsExactly(accountNumbers.get(7));
+
+		AccountSearchResponse byPhone = accountSearchService.search(AccountSearchRequest.builder()
+				.phoneNumber(userRepository.findByAccountNumber(accountNumbers.get(3)).orElseThrow().getPhoneNumber())
+				.build());
+		assertThat(byPhone.getAccounts()).extracting(AccountSummary::getAccountNumber).contains(accountNumbers.get(3));
+
+		// Lagos are the even ones, DORMANT every fifth: 0, 10, 20, 30, 40
+		AccountSearchResponse dormantInLagos = accountSearchService.search(AccountSearchRequest.builder()
+				.name(lastName).stateOfOrigin("Lagos").status("DORMANT").limit(100).build());
+		assertThat(dormantInLagos.getAccounts()).extracting(AccountSummary::getAccountNumber)
+				.containsExactlyInAnyOrder(accountNumbers.get(0), accountNumbers.get(10), accountNumbers.get(20),
+						accountNumbers.get(30), accountNumbers.get(40));
+
+		assertThat(accountSearchService.search(AccountSearchRequest.builder().name(lastName).cursor("%%%").build())
+				.getResponseCode()).isEqualTo(AccountUtils.INVALID_REQUEST_CODE);
+	}
+
+	@Test
+	void fuzzySearchToleratesTyposAndWordOrder() {
+		accountSearchService.rebuildNameIndex();
+
+		// One letter dropped from the last name, and the names the other way round
+		String typo = lastName.substring(0, 3) + lastName.substring(4);
+		AccountSearchResponse response = accountSearchService.search(AccountSearchRequest.builder()
+				.name("chinedu " + typo).fuzzy(true).limit(5).build());
+
+		assertThat(response.getAccounts()).hasSize(5)
+				.allSatisfy(summary -> assertThat(summary.getAccountName()).isEqualTo("Chinedu " + lastName));
+		assertThat(response.getNextCursor()).isNull();
+	}
+}
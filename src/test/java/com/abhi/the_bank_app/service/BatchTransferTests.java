@@ -0,0 +1,100 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BatchTransferRequest;
+import com.abhi.the_bank_app.dto.BatchTransferResponse;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BatchTransferTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	// One failed transfer rolls the whole batch back; the transfers that would have gone through report 012
+	@Test
+	void allOrNothingRollsBackEveryTransfer() {
+		String first = fundedAccount("First", "100.00");
+		String second = fundedAccount("Second", "100.00");
+
+		BatchTransferResponse response = userService.batchTransfer(new BatchTransferRequest(List.of(
+				new TransferRequest(first, second, Money.of("30.00")),
+				new TransferRequest(second, first, Money.of("500.00")),
+				new TransferRequest(second, first, Money.of("10.00"))), AccountUtils.BATCH_MODE_ALL_OR_NOTHING));
+
+		assertThat(response.getResponseCode()).isEqualTo(AccountUtils.BATCH_TRANSFER_ROLLED_BACK_CODE);
+		assertThat(response.getResults()).extracting(BankResponse::getResponseCode).containsExactly(
+				AccountUtils.BATCH_TRANSFER_ROLLED_BACK_CODE, "006",
+				AccountUtils.BATCH_TRANSFER_ROLLED_BACK_CODE);
+		assertBalance(first, "100.00");
+		assertBalance(second, "100.00");
+	}
+
+	// Failures are skipped and the rest commit chunk by chunk, in request order, with the ledger kept in step
+	@Test
+	void bestEffortSkipsFailedTransfersAcrossChunks() {
+		String first = fundedAccount("First", "100.00");
+		String second = fundedAccount("Second", "50.00");
+		String third = fundedAccount("Third", "0.00");
+
+		UserServiceImpl target = AopTestUtils.getTargetObject(userService);
+		Object chunkSize = ReflectionTestUtils.getField(target, "batchTransferChunkSize");
+		ReflectionTestUtils.setField(target, "batchTransferChunkSize", 2);
+		BatchTransferResponse response;
+		try {
+			response = userService.batchTransfer(new BatchTransferRequest(List.of(
+					new TransferRequest(first, second, Money.of("60.00")),
+					new TransferRequest(third, first, Money.of("1.00")),
+					new TransferRequest(second, third, Money.of("110.00")),
+					new TransferRequest(first, third, Money.of("0.00")),
+					new TransferRequest(first, "NOSUCHACCOUNT", Money.of("1.00")),
+					new TransferRequest(first, third, Money.of("40.00"))), AccountUtils.BATCH_MODE_BEST_EFFORT));
+		} finally {
+			ReflectionTestUtils.setField(target, "batchTransferChunkSize", chunkSize);
+		}
+
+		assertThat(response.getResponseCode()).isEqualTo(AccountUtils.BATCH_TRANSFER_PARTIAL_CODE);
+		assertThat(response.getResults()).extracting(BankResponse::getResponseCode).containsExactly(
+				AccountUtils.TRANSFER_SUCCESS_CODE, "006",
+				AccountUtils.TRANSFER_SUCCESS_CODE, AccountUtils.INVALID_REQUEST_CODE,
+				AccountUtils.ACCOUNT_NOT_EXIST_CODE, AccountUtils.TRANSFER_SUCCESS_CODE);
+		assertBalance(first, "0.00");
+		assertBalance(second, "0.00");
+		assertBalance(third, "150.00");
+	}
+
+	private String fundedAccount(String lastName, String balance) {
+		String accountNumber = userService.createAccount(UserRequest.builder()
+				.firstName("Batch")
+				.lastName(lastName)
+				.email("batch-" + System.nanoTime() + "@example.com")
+				.build()).getAccountInfo().getAccountNumber();
+		if (Money.of(balance).signum() > 0) {
+			userService.creditAccount(new CreditDebitRequest(accountNumber, Money.of(balance)));
+		}
+		return accountNumber;
+	}
+
+	private void assertBalance(String accountNumber, String balance) {
+		assertThat(userService.balanceEnquiry(new EnquiryRequest(accountNumber)).getAccountInfo().getAccountBalance())
+				.isEqualByComparingTo(Money.of(balance));
+		assertThat(ledgerService.ledgerBalance(accountNumber)).isEqualByComparingTo(Money.of(balance));
+	}
+}
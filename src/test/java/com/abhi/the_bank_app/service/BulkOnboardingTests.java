@@ -0,0 +1,111 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.controller.UserController;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.entity.EmailOutbox;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.EmailOutboxRepository;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "bank.email.outbox.enabled=false")
+class BulkOnboardingTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserController userController;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// Emails already registered, or repeated earlier in the chunk, are rejected; the rest get accounts, in order
+	@Test
+	void createAccountsRejectsDuplicateEmailsAndKeepsOrder() {
+		String prefix = "bulk-" + System.nanoTime();
+		String existing = userService.createAccount(request("Existing", prefix + "-existing@example.com"))
+				.getAccountInfo().getAccountNumber();
+
+		List<BankResponse> responses = userService.createAccounts(List.of(
+				request("First", prefix + "-1@example.com"),
+				request("Existing", prefix + "-existing@example.com"),
+				request("Second", prefix + "-2@example.com"),
+				request("Repeat", prefix + "-1@example.com")));
+
+		assertThat(responses).extracting(BankResponse::getResponseCode).containsExactly(
+				AccountUtils.ACCOUNT_CREATION_SUCCESS, AccountUtils.ACCOUNT_EXIST_CODE,
+				AccountUtils.ACCOUNT_CREATION_SUCCESS, AccountUtils.ACCOUNT_EXIST_CODE);
+		assertThat(responses.get(0).getAccountInfo().getAccountName()).startsWith("Bulk First");
+		assertThat(responses.get(2).getAccountInfo().getAccountName()).startsWith("Bulk Second");
+
+		List<String> created = List.of(responses.get(0).getAccountInfo().getAccountNumber(),
+				responses.get(2).getAccountInfo().getAccountNumber());
+		assertThat(created).doesNotHaveDuplicates().doesNotContain(existing);
+		for (String accountNumber : created) {
+			User user = userRepository.findByAccountNumber(accountNumber).orElseThrow();
+			assertThat(user.getAccountBalance()).isEqualByComparingTo(Money.ZERO);
+			assertThat(user.getStatus()).isEqualTo("ACTIVE");
+		}
+		// One welcome email per created account
+		assertThat(emailOutboxRepository.findAll()).extracting(EmailOutbox::getRecipient)
+				.containsOnlyOnce(prefix + "-1@example.com", prefix + "-2@example.com");
+	}
+
+	// The upload answers every non-blank line in input order, across chunk boundaries; unreadable lines get 009
+	@Test
+	void uploadStreamsOneResponsePerLine() throws Exception {
+		String prefix = "upload-" + System.nanoTime();
+		String upload = String.join("\n",
+				objectMapper.writeValueAsString(request("One", prefix + "-1@example.com")),
+				"{not json",
+				"",
+				objectMapper.writeValueAsString(request("Two", prefix + "-2@example.com")),
+				objectMapper.writeValueAsString(request("Again", prefix + "-1@example.com")),
+				objectMapper.writeValueAsString(request("Three", prefix + "-3@example.com")));
+		MockHttpServletRequest httpRequest = new MockHttpServletRequest("POST", "/api/user/bulk");
+		httpRequest.setContent(upload.getBytes(StandardCharsets.UTF_8));
+
+		Object chunkSize = ReflectionTestUtils.getField(userController, "bulkChunkSize");
+		ReflectionTestUtils.setField(userController, "bulkChunkSize", 2);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try {
+			userController.createAccounts(httpRequest).writeTo(output);
+		} finally {
+			ReflectionTestUtils.setField(userController, "bulkChunkSize", chunkSize);
+		}
+
+		List<String> codes = new ArrayList<>();
+		for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+			codes.add(objectMapper.readValue(line, BankResponse.class).getResponseCode());
+		}
+		assertThat(codes).containsExactly(AccountUtils.ACCOUNT_CREATION_SUCCESS, AccountUtils.INVALID_REQUEST_CODE,
+				AccountUtils.ACCOUNT_CREATION_SUCCESS, AccountUtils.ACCOUNT_EXIST_CODE,
+				AccountUtils.ACCOUNT_CREATION_SUCCESS);
+	}
+
+	private static UserRequest request(String lastName, String email) {
+		return UserRequest.builder().firstName("Bulk").lastName(lastName).email(email).build();
+	}
+}
@@ -0,0 +1,164 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.EmailDetails;
+import com.abhi.the_bank_app.entity.EmailOutbox;
+import com.abhi.the_bank_app.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sends to an in-process SMTP server. The scheduled poll is pushed out of the way, so the test drives the
+// dispatcher itself; its own database keeps other test contexts' dispatchers away from these messages.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+		"spring.mail.host=localhost",
+		"spring.mail.port=3025",
+		"spring.mail.username=bank@example.com",
+		"spring.mail.password=secret",
+		"spring.mail.properties.mail.smtp.starttls.enable=false",
+		"spring.mail.properties.mail.smtp.starttls.required=false",
+		"bank.email.outbox.poll-interval-ms=3600000",
+		"bank.email.outbox.purge-interval-ms=3600000",
+		"bank.email.outbox.batch-size=5"
+})
+class EmailOutboxTests {
+
+	@RegisterExtension
+	static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP)
+			.withConfiguration(GreenMailConfiguration.aConfig().withUser("bank@example.com", "secret"));
+
+	@Autowired
+	private EmailService emailService;
+
+	@Autowired
+	private EmailOutboxDispatcher emailOutboxDispatcher;
+
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+
+	@AfterEach
+	void emptyOutbox() {
+		emailOutboxRepository.deleteAll();
+	}
+
+	// Polls running at the same time each claim their own messages, so every email goes out exactly once
+	@Test
+	void concurrentPollsSendEveryEmailOnce() throws Exception {
+		for (int i = 0; i < 40; i++) {
+			emailService.queueEmailAlert(EmailDetails.builder()
+					.recipient("outbox" + i + "@example.com")
+					.subject("Outbox " + i)
+					.messageBody("Message " + i)
+					.build());
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> polls = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			polls.add(pool.submit(() -> {
+				start.await();
+				emailOutboxDispatcher.dispatch();
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> poll : polls) {
+			poll.get(1, TimeUnit.MINUTES);
+		}
+		pool.shutdown();
+		// Whatever the first round left for the next poll
+		emailOutboxDispatcher.dispatch();
+
+		MimeMessage[] received = smtp.getReceivedMessages();
+		assertThat(received).hasSize(40);
+		assertThat(received).extracting(MimeMessage::getSubject).doesNotHaveDuplicates();
+		assertThat(emailOutboxRepository.findAll()).hasSize(40)
+				.allSatisfy(outbox -> assertThat(outbox.getStatus()).isEqualTo(EmailOutbox.STATUS_SENT));
+	}
+
+	// A message claimed by a poll that never finished waits out the lease instead of being sent again at once
+	@Test
+	void claimedMessagesWaitForTheLease() {
+		emailService.queueEmailAlert(EmailDetails.builder()
+				.recipient("leased@example.com").subject("Leased").messageBody("Leased").build());
+		EmailOutbox claimed = emailOutboxRepository.findAll().get(0);
+		claimed.setClaimToken("crashed-poll");
+		claimed.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+		emailOutboxRepository.save(claimed);
+
+		emailOutboxDispatcher.dispatch();
+		assertThat(smtp.getReceivedMessages()).isEmpty();
+
+		claimed.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+		emailOutboxRepository.save(claimed);
+		emailOutboxDispatcher.dispatch();
+		assertThat(smtp.getReceivedMessages()).hasSize(1);
+	}
+
+	// A message that cannot be built fails for good on its own; the rest of its batch is still sent and recorded
+	@Test
+	void messageWithoutRecipientFailsWithoutHoldingUpTheBatch() {
+		emailService.queueEmailAlert(EmailDetails.builder()
+				.recipient(null).subject("Nobody").messageBody("Nobody").build());
+		emailService.queueEmailAlert(EmailDetails.builder()
+				.recipient("somebody@example.com").subject("Somebody").messageBody("Somebody").build());
+
+		emailOutboxDispatcher.dispatch();
+
+		assertThat(smtp.getReceivedMessages()).extracting(MimeMessage::getSubject).containsExactly("Somebody");
+		assertThat(emailOutboxRepository.findAll()).allSatisfy(outbox -> {
+			if (outbox.getRecipient() == null) {
+				assertThat(outbox.getStatus()).isEqualTo(EmailOutbox.STATUS_FAILED);
+				assertThat(outbox.getAttempts()).isEqualTo(1);
+			} else {
+				assertThat(outbox.getStatus()).isEqualTo(EmailOutbox.STATUS_SENT);
+			}
+		});
+
+		// Neither is picked up again
+		emailOutboxDispatcher.dispatch();
+		assertThat(smtp.getReceivedMessages()).hasSize(1);
+	}
+
+	@Test
+	void sentEmailsArePurgedAfterTheRetention() {
+		emailOutboxRepository.saveAll(List.of(
+				sent("old@example.com", LocalDateTime.now().minusDays(8)),
+				sent("recent@example.com", LocalDateTime.now().minusDays(1)),
+				EmailOutbox.builder().recipient("failed@example.com").status(EmailOutbox.STATUS_FAILED).attempts(8)
+						.nextAttemptAt(LocalDateTime.now().minusDays(30)).build()));
+
+		emailOutboxDispatcher.purgeSent();
+
+		assertThat(emailOutboxRepository.findAll()).extracting(EmailOutbox::getRecipient)
+				.containsExactlyInAnyOrder("recent@example.com", "failed@example.com");
+	}
+
+	private static EmailOutbox sent(String recipient, LocalDateTime sentAt) {
+		return EmailOutbox.builder()
+				.recipient(recipient)
+				.status(EmailOutbox.STATUS_SENT)
+				.attempts(0)
+				.nextAttemptAt(sentAt)
+				.sentAt(sentAt)
+				.build();
+	}
+}
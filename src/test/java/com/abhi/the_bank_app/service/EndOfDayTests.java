@@ -0,0 +1,182 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.EndOfDayResponse;
+import com.abhi.the_bank_app.entity.EndOfDayPartition;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.EndOfDayPartitionRepository;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 3.65% a year is 0.01% a day, so 1,000,000.00 earns exactly 100.00
+@SpringBootTest(properties = {
+		"bank.eod.interest.annual-rate=0.0365",
+		"bank.eod.maintenance-fee=50.00",
+		"bank.eod.threads=2",
+		"bank.eod.partitions-per-thread=2",
+		"bank.eod.chunk-size=3"
+})
+class EndOfDayTests {
+
+	@Autowired
+	private EndOfDayService endOfDayService;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EndOfDayPartitionRepository partitionRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final List<String> accountNumbers = new ArrayList<>();
+
+	// Each test starts without any end-of-day history, so its first date may be any day up to today
+	@AfterEach
+	void deleteAccountsAndRuns() {
+		accountNumbers.forEach(accountNumber ->
+				userRepository.findByAccountNumber(accountNumber).ifPresent(userRepository::delete));
+		partitionRepository.deleteAll();
+	}
+
+	@Test
+	void postsInterestAndMonthEndFeeOnce() {
+		User rich = account("1000000.00", "ACTIVE");
+		User poor = account("20.00", "ACTIVE");
+		User dormant = account("500.00", "DORMANT");
+		LocalDate monthEnd = LocalDate.of(2025, 1, 31);
+
+		EndOfDayResponse response = endOfDayService.runEndOfDay(monthEnd);
+
+		assertThat(response.getResponseCode()).isEqualTo(AccountUtils.END_OF_DAY_COMPLETED_CODE);
+		assertThat(response.getPartitionsDone()).isEqualTo(response.getPartitions()).isPositive();
+		// 100.00 interest less the 50.00 fee; the fee takes no more than is there; dormant accounts are left alone
+		assertThat(balance(rich)).isEqualTo(Money.of("1000050.00"));
+		assertThat(balance(poor)).isEqualTo(Money.ZERO);
+		assertThat(balance(dormant)).isEqualTo(Money.of("500.00"));
+		assertThat(ledgerService.ledgerBalance(rich.getAccountNumber())).isEqualTo(Money.of("50.00"));
+		assertThat(ledgerService.ledgerBalance(poor.getAccountNumber())).isEqualTo(Money.of("-20.00"));
+
+		// A finished date is only reported
+		EndOfDayResponse again = endOfDayService.runEndOfDay(monthEnd);
+		assertThat(again.getResponseCode()).isEqualTo(AccountUtils.END_OF_DAY_COMPLETED_CODE);
+		assertThat(again.getAccountsProcessed()).isEqualTo(response.getAccountsProcessed());
+		assertThat(again.getInterestPaid()).isEqualTo(response.getInterestPaid());
+		assertThat(balance(rich)).isEqualTo(Money.of("1000050.00"));
+	}
+
+	// A run that stopped after its first two accounts is picked up from its checkpoint
+	@Test
+	void resumesFromCheckpoint() {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			users.add(account("1000000.00", "ACTIVE"));
+		}
+		LocalDate businessDate = LocalDate.of(2025, 2, 10);
+		partitionRepository.save(EndOfDayPartition.builder()
+				.businessDate(businessDate)
+				.partitionNo(0)
+				.firstId(users.get(0).getId())
+				.lastId(users.get(4).getId())
+				.nextId(users.get(1).getId())
+				.status(EndOfDayPartition.STATUS_PENDING)
+				.accounts(2)
+				.interest(Money.of("200.00"))
+				.fees(Money.ZERO)
+				.updatedAt(LocalDateTime.now())
+				.build());
+
+		EndOfDayResponse response = endOfDayService.runEndOfDay(businessDate);
+
+		assertThat(response.getResponseCode()).isEqualTo(AccountUtils.END_OF_DAY_COMPLETED_CODE);
+		assertThat(response.getPartitions()).isEqualTo(1);
+		assertThat(response.getAccountsProcessed()).isEqualTo(5);
+		assertThat(response.getInterestPaid()).isEqualTo(Money.of("500.00"));
+		assertThat(users).extracting(this::balance).containsExactly(Money.of("1000000.00"), Money.of("1000000.00"),
+				Money.of("1000100.00"), Money.of("1000100.00"), Money.of("1000100.00"));
+	}
+
+	@Test
+	void runsDatesInOrderAndNeverAheadOfToday() {
+		User user = account("1000000.00", "ACTIVE");
+		LocalDate today = LocalDate.now();
+
+		assertThat(endOfDayService.runEndOfDay(today.plusDays(1)).getResponseCode())
+				.isEqualTo(AccountUtils.END_OF_DAY_FUTURE_DATE_CODE);
+		assertThat(endOfDayService.runEndOfDay(today.minusDays(3)).getResponseCode())
+				.isEqualTo(AccountUtils.END_OF_DAY_COMPLETED_CODE);
+		Money afterFirstDay = balance(user);
+
+		// Skipping a day, or going back to a day before the last one, posts nothing
+		assertThat(endOfDayService.runEndOfDay(today.minusDays(1)).getResponseCode())
+				.isEqualTo(AccountUtils.END_OF_DAY_OUT_OF_SEQUENCE_CODE);
+		assertThat(endOfDayService.runEndOfDay(today.minusDays(4)).getResponseCode())
+				.isEqualTo(AccountUtils.END_OF_DAY_OUT_OF_SEQUENCE_CODE);
+		assertThat(balance(user)).isEqualTo(afterFirstDay);
+
+		assertThat(endOfDayService.runEndOfDay(today.minusDays(2)).getResponseCode())
+				.isEqualTo(AccountUtils.END_OF_DAY_COMPLETED_CODE);
+		assertThat(balance(user)).isGreaterThan(afterFirstDay);
+	}
+
+	// A checkpoint only moves from where the chunk started, so a second run of the same chunk can't commit
+	@Test
+	void checkpointIsCompareAndSet() {
+		User user = account("1000.00", "ACTIVE");
+		EndOfDayPartition partition = partitionRepository.save(EndOfDayPartition.builder()
+				.businessDate(LocalDate.of(2025, 3, 1))
+				.partitionNo(0)
+				.firstId(user.getId())
+				.lastId(user.getId())
+				.nextId(user.getId() - 1)
+				.status(EndOfDayPartition.STATUS_PENDING)
+				.interest(Money.ZERO)
+				.fees(Money.ZERO)
+				.updatedAt(LocalDateTime.now())
+				.build());
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		Integer first = transaction.execute(status -> partitionRepository.checkpoint(partition.getId(),
+				user.getId() - 1, user.getId(), EndOfDayPartition.STATUS_DONE, 1, 0, Money.of("1.00"), Money.ZERO));
+		Integer replayed = transaction.execute(status -> partitionRepository.checkpoint(partition.getId(),
+				user.getId() - 1, user.getId(), EndOfDayPartition.STATUS_DONE, 1, 0, Money.of("1.00"), Money.ZERO));
+
+		assertThat(first).isEqualTo(1);
+		assertThat(replayed).isZero();
+		assertThat(partitionRepository.findById(partition.getId()).orElseThrow().getInterest()).isEqualTo(Money.of("1.00"));
+	}
+
+	private User account(String balance, String status) {
+		String accountNumber = "EOD" + System.nanoTime();
+		accountNumbers.add(accountNumber);
+		return userRepository.save(User.builder()
+				.firstName("End")
+				.lastName("OfDay")
+				.accountNumber(accountNumber)
+				.accountBalance(Money.of(balance))
+				.email(accountNumber + "@example.com")
+				.status(status)
+				.build());
+	}
+
+	private Money balance(User user) {
+		return userRepository.findByAccountNumber(user.getAccountNumber()).orElseThrow().getAccountBalance();
+	}
+}
@@ -0,0 +1,136 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BalanceSlotsRequest;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.AccountSlotRepository;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HotAccountTests {
+
+	private static final int ACCOUNTS = 8;
+	private static final int SLOTS = 8;
+	private static final Money OPENING_BALANCE = Money.of("1000.00");
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private HotAccountService hotAccountService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private AccountSlotRepository accountSlotRepository;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	private final List<String> accountNumbers = new ArrayList<>();
+	private String hotAccount;
+
+	@BeforeEach
+	void createAccounts() {
+		for (int i = 0; i < ACCOUNTS; i++) {
+			String accountNumber = "HA" + System.nanoTime() + i;
+			userRepository.save(User.builder()
+					.firstName("Hot")
+					.lastName("Test" + i)
+					.accountNumber(accountNumber)
+					.accountBalance(OPENING_BALANCE)
+					.email(accountNumber + "@example.com")
+					.status("ACTIVE")
+					.build());
+			accountNumbers.add(accountNumber);
+		}
+		hotAccount = accountNumbers.get(0);
+		assertThat(hotAccountService.setBalanceSlots(new BalanceSlotsRequest(hotAccount, SLOTS)).getResponseCode())
+				.isEqualTo(AccountUtils.BALANCE_SLOTS_UPDATED_CODE);
+	}
+
+	@AfterEach
+	void deleteAccounts() {
+		hotAccountService.setBalanceSlots(new BalanceSlotsRequest(hotAccount, 0));
+		accountNumbers.forEach(accountNumber ->
+				userRepository.findByAccountNumber(accountNumber).ifPresent(userRepository::delete));
+		setTransferMode(AccountUtils.TRANSFER_MODE_LOCKING);
+	}
+
+	private void setTransferMode(String mode) {
+		UserServiceImpl target = AopTestUtils.getTargetObject(userService);
+		ReflectionTestUtils.setField(target, "transferMode", mode);
+	}
+
+	// Credits, debits and transfers in and out of a striped account from many threads; the striped balance
+	// (users row plus slots) must always match the ledger and no money may appear or vanish
+	@ParameterizedTest
+	@ValueSource(strings = {AccountUtils.TRANSFER_MODE_LOCKING, AccountUtils.TRANSFER_MODE_CONDITIONAL})
+	void stripedAccountConservesBalance(String mode) throws Exception {
+		setTransferMode(mode);
+
+		int threads = 8;
+		int operationsPerThread = 150;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(pool.submit(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < operationsPerThread; i++) {
+					String other = accountNumbers.get(random.nextInt(1, ACCOUNTS));
+					Money amount = Money.ofMinor(random.nextInt(100, 30000));
+					switch (random.nextInt(4)) {
+						case 0 -> userService.creditAccount(new CreditDebitRequest(hotAccount, amount));
+						case 1 -> userService.transfer(new TransferRequest(other, hotAccount, amount));
+						case 2 -> userService.transfer(new TransferRequest(hotAccount, other, amount));
+						default -> userService.debitAccount(new CreditDebitRequest(hotAccount, amount));
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		pool.shutdown();
+		assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		for (String accountNumber : accountNumbers) {
+			Money balance = userRepository.findByAccountNumber(accountNumber).orElseThrow().getAccountBalance()
+					.plus(Money.ofMinor(accountSlotRepository.sumBalance(accountNumber)));
+			assertThat(balance).isGreaterThanOrEqualTo(Money.ZERO);
+			assertThat(OPENING_BALANCE.plus(ledgerService.ledgerBalance(accountNumber))).isEqualTo(balance);
+		}
+		Money hotBalance = OPENING_BALANCE.plus(ledgerService.ledgerBalance(hotAccount));
+		assertThat(userService.balanceEnquiry(new EnquiryRequest(hotAccount)).getAccountInfo().getAccountBalance())
+				.isEqualTo(hotBalance);
+
+		// Turning striping off moves the slots back into the users row
+		hotAccountService.setBalanceSlots(new BalanceSlotsRequest(hotAccount, 0));
+		assertThat(hotAccountService.isStriped(hotAccount)).isFalse();
+		assertThat(accountSlotRepository.sumBalance(hotAccount)).isZero();
+		assertThat(userRepository.findByAccountNumber(hotAccount).orElseThrow().getAccountBalance()).isEqualTo(hotBalance);
+	}
+}
@@ -0,0 +1,152 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.IdempotencyRecordRepository;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class IdempotencyTests {
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void resetTransferMode() {
+		setTransferMode(AccountUtils.TRANSFER_MODE_LOCKING);
+	}
+
+	private void setTransferMode(String mode) {
+		UserServiceImpl target = AopTestUtils.getTargetObject(userService);
+		ReflectionTestUtils.setField(target, "transferMode", mode);
+	}
+
+	// A retry with the same key gets the first answer back and moves no money
+	@Test
+	void repeatedRequestIsReplayed() {
+		String account = createAccount("100.00");
+		String key = "replay-" + System.nanoTime();
+
+		BankResponse first = credit(key, account, "25.00");
+		BankResponse retry = credit(key, account, "25.00");
+
+		assertThat(first.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_CREDITEd_SUCCESS);
+		assertThat(retry.getResponseCode()).isEqualTo(first.getResponseCode());
+		assertThat(retry.getAccountInfo().getAccountBalance()).isEqualByComparingTo(Money.of("125.00"));
+		assertBalance(account, "125.00");
+	}
+
+	@Test
+	void keyReusedForAnotherRequestIsRejected() {
+		String account = createAccount("100.00");
+		String key = "reused-" + System.nanoTime();
+
+		credit(key, account, "25.00");
+
+		assertThat(credit(key, account, "30.00")).isSameAs(BankResponses.IDEMPOTENCY_KEY_REUSED);
+		assertThat(idempotencyService.execute(key, "debit", new CreditDebitRequest(account, Money.of("25.00")),
+				() -> userService.debitAccount(new CreditDebitRequest(account, Money.of("25.00")))))
+				.isSameAs(BankResponses.IDEMPOTENCY_KEY_REUSED);
+		assertBalance(account, "125.00");
+	}
+
+	// A failed transfer's answer is kept under its key in both modes, even once a retry would now succeed
+	@ParameterizedTest
+	@ValueSource(strings = {AccountUtils.TRANSFER_MODE_LOCKING, AccountUtils.TRANSFER_MODE_CONDITIONAL})
+	void failedTransferIsReplayedInEveryMode(String mode) {
+		setTransferMode(mode);
+		String source = createAccount("10.00");
+		String destination = createAccount("0.00");
+		String key = "failed-" + System.nanoTime();
+		TransferRequest request = new TransferRequest(source, destination, Money.of("50.00"));
+
+		assertThat(transfer(key, request).getResponseCode()).isEqualTo("006");
+		userService.creditAccount(new CreditDebitRequest(source, Money.of("100.00")));
+
+		assertThat(transfer(key, request).getResponseCode()).isEqualTo("006");
+		assertThat(idempotencyRecordRepository.findById(key)).isPresent();
+		assertBalance(source, "110.00");
+		assertBalance(destination, "0.00");
+	}
+
+	// A key that has expired but not been purged yet is free again, instead of failing the new request
+	@Test
+	void expiredKeyRunsTheRequestAgain() {
+		String account = createAccount("100.00");
+		String key = "expired-" + System.nanoTime();
+		credit(key, account, "25.00");
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> idempotencyRecordRepository
+				.findById(key).orElseThrow().setExpiresAt(LocalDateTime.now().minusMinutes(1)));
+		IdempotencyServiceImpl target = AopTestUtils.getTargetObject(idempotencyService);
+		((Cache<String, ?>) ReflectionTestUtils.getField(target, "recentResponses")).invalidate(key);
+
+		assertThat(credit(key, account, "25.00").getAccountInfo().getAccountBalance())
+				.isEqualByComparingTo(Money.of("150.00"));
+		assertThat(idempotencyRecordRepository.findById(key).orElseThrow().getExpiresAt()).isAfter(LocalDateTime.now());
+		// And the new answer is replayed from then on
+		assertThat(credit(key, account, "25.00").getAccountInfo().getAccountBalance())
+				.isEqualByComparingTo(Money.of("150.00"));
+		assertBalance(account, "150.00");
+	}
+
+	private BankResponse credit(String key, String accountNumber, String amount) {
+		CreditDebitRequest request = new CreditDebitRequest(accountNumber, Money.of(amount));
+		return idempotencyService.execute(key, "credit", request, () -> userService.creditAccount(request));
+	}
+
+	private BankResponse transfer(String key, TransferRequest request) {
+		return idempotencyService.execute(key, "transfer", request, () -> userService.transfer(request));
+	}
+
+	private String createAccount(String balance) {
+		String accountNumber = "ID" + System.nanoTime();
+		userRepository.save(User.builder()
+				.firstName("Idempotency")
+				.lastName("Test")
+				.accountNumber(accountNumber)
+				.accountBalance(Money.of(balance))
+				.email(accountNumber + "@example.com")
+				.status("ACTIVE")
+				.build());
+		return accountNumber;
+	}
+
+	private void assertBalance(String accountNumber, String balance) {
+		assertThat(userService.balanceEnquiry(new EnquiryRequest(accountNumber)).getAccountInfo().getAccountBalance())
+				.isEqualByComparingTo(Money.of(balance));
+	}
+}
@@ -0,0 +1,108 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BalanceSlotsRequest;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LedgerRebuildTests {
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private HotAccountService hotAccountService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	// A stored balance that drifted from the ledger is put back to the ledger's figure, slots included
+	@Test
+	void rebuildRestoresTheLedgerBalance() {
+		String account = createAccount("Rebuilt");
+		String other = createAccount("Other");
+		userService.creditAccount(new CreditDebitRequest(account, Money.of("100.00")));
+		userService.debitAccount(new CreditDebitRequest(account, Money.of("30.00")));
+		userService.transfer(new TransferRequest(account, other, Money.of("20.00")));
+		hotAccountService.setBalanceSlots(new BalanceSlotsRequest(account, 4));
+		try {
+			userService.creditAccount(new CreditDebitRequest(account, Money.of("15.00")));
+			assertThat(hotAccountService.slotBalance(account)).isEqualByComparingTo(Money.of("15.00"));
+
+			User user = userRepository.findByAccountNumber(account).orElseThrow();
+			user.setAccountBalance(Money.of("999.00"));
+			userRepository.save(user);
+
+			BankResponse rebuilt = ledgerService.rebuildBalance(account);
+
+			assertThat(rebuilt.getResponseCode()).isEqualTo(AccountUtils.BALANCE_REBUILT_CODE);
+			assertThat(rebuilt.getAccountInfo().getAccountBalance()).isEqualByComparingTo(Money.of("65.00"));
+			assertThat(hotAccountService.slotBalance(account)).isEqualByComparingTo(Money.ZERO);
+			assertThat(userService.balanceEnquiry(new EnquiryRequest(account)).getAccountInfo().getAccountBalance())
+					.isEqualByComparingTo(Money.of("65.00"));
+		} finally {
+			hotAccountService.setBalanceSlots(new BalanceSlotsRequest(account, 0));
+		}
+	}
+
+	// An opening balance loaded outside the ledger has no legs, so rebuilding would lose it
+	@Test
+	void balanceThatPredatesTheLedgerIsNotRebuilt() {
+		String accountNumber = "LR" + System.nanoTime();
+		userRepository.save(User.builder()
+				.firstName("Ledger")
+				.lastName("Opening")
+				.accountNumber(accountNumber)
+				.accountBalance(Money.of("500.00"))
+				.email(accountNumber + "@example.com")
+				.status("ACTIVE")
+				.build());
+		userService.creditAccount(new CreditDebitRequest(accountNumber, Money.of("10.00")));
+
+		assertThat(ledgerService.rebuildBalance(accountNumber)).isSameAs(BankResponses.BALANCE_PREDATES_LEDGER);
+		assertThat(ledgerService.rebuildBalance("NOSUCHACCOUNT")).isSameAs(BankResponses.ACCOUNT_NOT_EXIST);
+		assertThat(userService.balanceEnquiry(new EnquiryRequest(accountNumber)).getAccountInfo().getAccountBalance())
+				.isEqualByComparingTo(Money.of("510.00"));
+	}
+
+	@Test
+	void rebuildIsRefusedWithTheLedgerOff() {
+		String account = createAccount("Disabled");
+		LedgerServiceImpl target = AopTestUtils.getTargetObject(ledgerService);
+		ReflectionTestUtils.setField(target, "ledgerEnabled", false);
+		try {
+			assertThat(ledgerService.rebuildBalance(account)).isSameAs(BankResponses.LEDGER_DISABLED);
+			// Accounts opened while it is off don't count as starting in the ledger
+			String unrecorded = createAccount("Unrecorded");
+			assertThat(userRepository.findByAccountNumber(unrecorded).orElseThrow().getLedgerSince()).isNull();
+		} finally {
+			ReflectionTestUtils.setField(target, "ledgerEnabled", true);
+		}
+	}
+
+	private String createAccount(String lastName) {
+		return userService.createAccount(UserRequest.builder()
+				.firstName("Ledger")
+				.lastName(lastName)
+				.email("ledger-" + System.nanoTime() + "@example.com")
+				.build()).getAccountInfo().getAccountNumber();
+	}
+}
@@ -0,0 +1,76 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.StatementRequest;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.entity.EmailOutbox;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.EmailOutboxRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The outbox dispatcher is off, so the queued email and its attachment stay as emailStatement left them
+@SpringBootTest(properties = "bank.email.outbox.enabled=false")
+class StatementTests {
+
+	@Autowired
+	private StatementService statementService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+
+	@Test
+	void emailedStatementIsQueuedInTheOutbox() throws Exception {
+		String email = "statement-" + System.nanoTime() + "@example.com";
+		String accountNumber = userService.createAccount(UserRequest.builder()
+				.firstName("Statement").lastName("Test").email(email).build()).getAccountInfo().getAccountNumber();
+		userService.creditAccount(new CreditDebitRequest(accountNumber, Money.of("125.50")));
+
+		BankResponse response = statementService.emailStatement(StatementRequest.builder()
+				.accountNumber(accountNumber).format("CSV").build());
+
+		assertThat(response.getResponseCode()).isEqualTo(AccountUtils.STATEMENT_EMAILED_CODE);
+		EmailOutbox queued = emailOutboxRepository.findAll().stream()
+				.filter(outbox -> email.equals(outbox.getRecipient()) && outbox.getAttachment() != null)
+				.findFirst()
+				.orElseThrow();
+		assertThat(queued.getStatus()).isEqualTo(EmailOutbox.STATUS_PENDING);
+		Path attachment = Path.of(queued.getAttachment());
+		try {
+			assertThat(Files.readString(attachment)).startsWith("date,reference,type,amount").contains("125.50");
+		} finally {
+			Files.deleteIfExists(attachment);
+		}
+	}
+
+	@Test
+	void unknownFormatsAndAccountsAreRejected() {
+		String accountNumber = userService.createAccount(UserRequest.builder()
+				.firstName("Statement").lastName("Test").email("statement-" + System.nanoTime() + "@example.com")
+				.build()).getAccountInfo().getAccountNumber();
+		long queued = emailOutboxRepository.count();
+
+		assertThat(statementService.emailStatement(StatementRequest.builder()
+				.accountNumber(accountNumber).format("xlsx").build()).getResponseCode())
+				.isEqualTo(AccountUtils.INVALID_REQUEST_CODE);
+		assertThat(statementService.emailStatement(StatementRequest.builder()
+				.accountNumber("NOSUCHACCOUNT").build()).getResponseCode())
+				.isEqualTo(AccountUtils.ACCOUNT_NOT_EXIST_CODE);
+		assertThat(statementService.rejectionOf(StatementRequest.builder().accountNumber("NOSUCHACCOUNT").build()))
+				.hasValueSatisfying(rejection ->
+						assertThat(rejection.getResponseCode()).isEqualTo(AccountUtils.ACCOUNT_NOT_EXIST_CODE));
+		assertThat(statementService.rejectionOf(StatementRequest.builder().accountNumber(accountNumber).build())).isEmpty();
+		assertThat(emailOutboxRepository.count()).isEqualTo(queued);
+	}
+}
@@ -0,0 +1,161 @@
+package com.abhi.the_bank_app.service;
+
+import com.abhi.the_bank_app.dto.BankResponses;
+import com.abhi.the_bank_app.dto.BatchTransferRequest;
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.entity.User;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.UserRepository;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TransferConcurrencyTests {
+
+	private static final int ACCOUNTS = 20;
+	private static final Money OPENING_BALANCE = Money.of("1000.00");
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	private final List<String> accountNumbers = new ArrayList<>();
+
+	@BeforeEach
+	void createAccounts() {
+		for (int i = 0; i < ACCOUNTS; i++) {
+			String accountNumber = "TC" + System.nanoTime() + i;
+			userRepository.save(User.builder()
+					.firstName("Stress")
+					.lastName("Test" + i)
+					.accountNumber(accountNumber)
+					.accountBalance(OPENING_BALANCE)
+					.email(accountNumber + "@example.com")
+					.status("ACTIVE")
+					.build());
+			accountNumbers.add(accountNumber);
+		}
+	}
+
+	@AfterEach
+	void deleteAccounts() {
+		accountNumbers.forEach(accountNumber ->
+				userRepository.findByAccountNumber(accountNumber).ifPresent(userRepository::delete));
+		setTransferMode(AccountUtils.TRANSFER_MODE_LOCKING);
+	}
+
+	private void setTransferMode(String mode) {
+		UserServiceImpl target = AopTestUtils.getTargetObject(userService);
+		ReflectionTestUtils.setField(target, "transferMode", mode);
+	}
+
+	// Random transfers between a small set of accounts from many threads must never create or destroy money
+	@ParameterizedTest
+	@ValueSource(strings = {AccountUtils.TRANSFER_MODE_LOCKING, AccountUtils.TRANSFER_MODE_CONDITIONAL})
+	void concurrentTransfersConserveTotalBalance(String mode) throws Exception {
+		setTransferMode(mode);
+
+		int threads = 8;
+		int transfersPerThread = 200;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(pool.submit(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < transfersPerThread; i++) {
+					userService.transfer(TransferRequest.builder()
+							.sourceAccountNumber(accountNumbers.get(random.nextInt(ACCOUNTS)))
+							.destinationAccountNumber(accountNumbers.get(random.nextInt(ACCOUNTS)))
+							.amount(Money.ofMinor(random.nextInt(100, 30000)))
+							.build());
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		pool.shutdown();
+		assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		Money total = Money.ZERO;
+		for (String accountNumber : accountNumbers) {
+			Money balance = userRepository.findByAccountNumber(accountNumber).orElseThrow().getAccountBalance();
+			assertThat(balance).isGreaterThanOrEqualTo(Money.ZERO);
+			// The stored balance must match the opening balance plus everything the ledger recorded
+			assertThat(OPENING_BALANCE.plus(ledgerService.ledgerBalance(accountNumber))).isEqualByComparingTo(balance);
+			total = total.plus(balance);
+		}
+		assertThat(total).isEqualByComparingTo(Money.ofMinor(OPENING_BALANCE.getMinorUnits() * ACCOUNTS));
+	}
+
+	// Zero, negative and missing amounts are rejected in both modes and leave every balance and the ledger alone
+	@ParameterizedTest
+	@ValueSource(strings = {AccountUtils.TRANSFER_MODE_LOCKING, AccountUtils.TRANSFER_MODE_CONDITIONAL})
+	void nonPositiveAmountsAreRejected(String mode) {
+		setTransferMode(mode);
+		String source = accountNumbers.get(0);
+		String destination = accountNumbers.get(1);
+
+		for (Money amount : new Money[] {Money.ZERO, Money.of("-50.00"), null}) {
+			assertThat(userService.creditAccount(new CreditDebitRequest(source, amount)).getResponseCode())
+					.isEqualTo(AccountUtils.INVALID_REQUEST_CODE);
+			assertThat(userService.debitAccount(new CreditDebitRequest(source, amount)).getResponseCode())
+					.isEqualTo(AccountUtils.INVALID_REQUEST_CODE);
+			assertThat(userService.transfer(new TransferRequest(source, destination, amount)).getResponseCode())
+					.isEqualTo(AccountUtils.INVALID_REQUEST_CODE);
+		}
+
+		for (String accountNumber : List.of(source, destination)) {
+			assertThat(userRepository.findByAccountNumber(accountNumber).orElseThrow().getAccountBalance())
+					.isEqualByComparingTo(OPENING_BALANCE);
+			assertThat(ledgerService.ledgerBalance(accountNumber)).isEqualByComparingTo(Money.ZERO);
+		}
+	}
+
+	// A missing account number is reported as a missing account and a transfer to the same account is refused,
+	// in both modes and in a batch, without touching the balance or the ledger
+	@ParameterizedTest
+	@ValueSource(strings = {AccountUtils.TRANSFER_MODE_LOCKING, AccountUtils.TRANSFER_MODE_CONDITIONAL})
+	void missingOrRepeatedAccountNumbersAreRejected(String mode) {
+		setTransferMode(mode);
+		String account = accountNumbers.get(0);
+		Money amount = Money.of("10.00");
+
+		assertThat(userService.transfer(new TransferRequest(null, account, amount)))
+				.isSameAs(BankResponses.SOURCE_ACCOUNT_NOT_EXIST);
+		assertThat(userService.transfer(new TransferRequest(account, null, amount)))
+				.isSameAs(BankResponses.DESTINATION_ACCOUNT_NOT_EXIST);
+		assertThat(userService.transfer(new TransferRequest(account, account, amount)))
+				.isSameAs(BankResponses.INVALID_REQUEST);
+		BatchTransferRequest batch = new BatchTransferRequest(List.of(new TransferRequest(account, account, amount)),
+				AccountUtils.BATCH_MODE_BEST_EFFORT);
+		assertThat(userService.batchTransfer(batch).getResults()).containsExactly(BankResponses.INVALID_REQUEST);
+
+		assertThat(userRepository.findByAccountNumber(account).orElseThrow().getAccountBalance())
+				.isEqualByComparingTo(OPENING_BALANCE);
+		assertThat(ledgerService.ledgerBalance(account)).isEqualByComparingTo(Money.ZERO);
+	}
+}
@@ -0,0 +1,242 @@
+package com.abhi.the_bank_app.sharding;
+
+import com.abhi.the_bank_app.dto.CreditDebitRequest;
+import com.abhi.the_bank_app.dto.EnquiryRequest;
+import com.abhi.the_bank_app.dto.TransferRequest;
+import com.abhi.the_bank_app.dto.UserRequest;
+import com.abhi.the_bank_app.entity.TransferSaga;
+import com.abhi.the_bank_app.money.Money;
+import com.abhi.the_bank_app.repository.TransferSagaRepository;
+import com.abhi.the_bank_app.dto.BankResponse;
+import com.abhi.the_bank_app.service.IdempotencyService;
+import com.abhi.the_bank_app.service.UserService;
+import com.abhi.the_bank_app.utils.AccountUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"bank.sharding.enabled=true",
+		"bank.sharding.shard-count=4",
+		"bank.sharding.url-template=jdbc:h2:mem:shard{shard};DB_CLOSE_DELAY=-1",
+		"bank.sharding.saga.retry-after-ms=0",
+		"bank.sharding.saga.recovery-interval-ms=3600000",
+		"bank.email.outbox.enabled=false"
+})
+class ShardedTransferTests {
+
+	private static final Money OPENING_BALANCE = Money.of("1000.00");
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private CrossShardTransferSaga crossShardTransferSaga;
+
+	@Autowired
+	private TransferSagaRepository transferSagaRepository;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	private List<String> createAccounts(int count) {
+		List<String> accountNumbers = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String accountNumber = userService.createAccount(UserRequest.builder()
+					.firstName("Shard")
+					.lastName("Test" + i)
+					.email("shard" + System.nanoTime() + i + "@example.com")
+					.build()).getAccountInfo().getAccountNumber();
+			userService.creditAccount(new CreditDebitRequest(accountNumber, OPENING_BALANCE));
+			accountNumbers.add(accountNumber);
+		}
+		return accountNumbers;
+	}
+
+	private Money balance(String accountNumber) {
+		return userService.balanceEnquiry(new EnquiryRequest(accountNumber)).getAccountInfo().getAccountBalance();
+	}
+
+	@Test
+	void accountsAreSpreadOverShardsAndFoundWhereTheyWereCreated() {
+		Set<Integer> shards = new HashSet<>();
+		for (String accountNumber : createAccounts(40)) {
+			shards.add(shardRouter.shardOf(accountNumber));
+			assertThat(balance(accountNumber)).isEqualByComparingTo(OPENING_BALANCE);
+		}
+		assertThat(shards).hasSize(4);
+	}
+
+	// Same-shard and cross-shard transfers from many threads must never create or destroy money
+	@Test
+	void concurrentTransfersAcrossShardsConserveTotalBalance() throws Exception {
+		List<String> accountNumbers = createAccounts(16);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<?>> workers = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			workers.add(pool.submit(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < 100; i++) {
+					userService.transfer(new TransferRequest(
+							accountNumbers.get(random.nextInt(accountNumbers.size())),
+							accountNumbers.get(random.nextInt(accountNumbers.size())),
+							Money.ofMinor(random.nextInt(100, 30000))));
+				}
+			}));
+		}
+		for (Future<?> worker : workers) {
+			worker.get(2, TimeUnit.MINUTES);
+		}
+		pool.shutdown();
+
+		Money total = Money.ZERO;
+		for (String accountNumber : accountNumbers) {
+			Money balance = balance(accountNumber);
+			assertThat(balance.signum()).isGreaterThanOrEqualTo(0);
+			total = total.plus(balance);
+		}
+		assertThat(total).isEqualByComparingTo(Money.ofMinor(OPENING_BALANCE.getMinorUnits() * accountNumbers.size()));
+	}
+
+	// A cross-shard transfer of a negative amount would otherwise run the saga backwards
+	@Test
+	void crossShardTransfersRejectNonPositiveAmounts() {
+		List<String> accountNumbers = createAccounts(8);
+		String source = accountNumbers.get(0);
+		String destination = accountNumbers.stream()
+				.filter(accountNumber -> shardRouter.shardOf(accountNumber) != shardRouter.shardOf(source))
+				.findFirst().orElseThrow();
+
+		for (Money amount : new Money[] {Money.ZERO, Money.of("-100.00"), null}) {
+			assertThat(userService.transfer(new TransferRequest(source, destination, amount)).getResponseCode())
+					.isEqualTo(AccountUtils.INVALID_REQUEST_CODE);
+		}
+		assertThat(balance(source)).isEqualByComparingTo(OPENING_BALANCE);
+		assertThat(balance(destination)).isEqualByComparingTo(OPENING_BALANCE);
+	}
+
+	// A retried cross-shard transfer is answered from the key's stored response; the same key with another body
+	// is refused
+	@Test
+	void crossShardTransferIsReplayedForItsIdempotencyKey() {
+		List<String> accountNumbers = createAccounts(8);
+		String source = accountNumbers.get(0);
+		String destination = accountNumbers.stream()
+				.filter(accountNumber -> shardRouter.shardOf(accountNumber) != shardRouter.shardOf(source))
+				.findFirst().orElseThrow();
+		String key = "cross-shard-" + UUID.randomUUID();
+		TransferRequest request = new TransferRequest(source, destination, Money.of("100.00"));
+
+		BankResponse first = transfer(key, request);
+		assertThat(first.getResponseCode()).isEqualTo(AccountUtils.TRANSFER_SUCCESS_CODE);
+		assertThat(transfer(key, new TransferRequest(source, destination, Money.of("100.00"))).getAccountInfo()
+				.getAccountBalance()).isEqualByComparingTo(first.getAccountInfo().getAccountBalance());
+		assertThat(transfer(key, new TransferRequest(source, destination, Money.of("250.00"))).getResponseCode())
+				.isEqualTo(AccountUtils.IDEMPOTENCY_KEY_REUSED_CODE);
+
+		assertThat(balance(source)).isEqualByComparingTo(OPENING_BALANCE.minus(Money.of("100.00")));
+		assertThat(balance(destination)).isEqualByComparingTo(OPENING_BALANCE.plus(Money.of("100.00")));
+	}
+
+	// First attempts racing with one key move the money once, whether the transfer stays on a shard or not;
+	// the others get the winner's response or are told the request is still in progress
+	@Test
+	void concurrentFirstAttemptsWithOneKeyMoveMoneyOnce() throws Exception {
+		List<String> accountNumbers = createAccounts(12);
+		String source = accountNumbers.get(0);
+		String crossShard = accountNumbers.stream()
+				.filter(accountNumber -> shardRouter.shardOf(accountNumber) != shardRouter.shardOf(source))
+				.findFirst().orElseThrow();
+		String sameShard = createAccounts(40).stream()
+				.filter(accountNumber -> shardRouter.shardOf(accountNumber) == shardRouter.shardOf(source))
+				.findFirst().orElseThrow();
+
+		for (String destination : List.of(crossShard, sameShard)) {
+			String key = "race-" + UUID.randomUUID();
+			ExecutorService pool = Executors.newFixedThreadPool(8);
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<BankResponse>> attempts = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				attempts.add(pool.submit(() -> {
+					start.await();
+					return transfer(key, new TransferRequest(source, destination, Money.of("10.00")));
+				}));
+			}
+			start.countDown();
+			for (Future<BankResponse> attempt : attempts) {
+				assertThat(attempt.get(1, TimeUnit.MINUTES).getResponseCode()).isIn(
+						AccountUtils.TRANSFER_SUCCESS_CODE, AccountUtils.IDEMPOTENCY_KEY_IN_PROGRESS_CODE);
+			}
+			pool.shutdown();
+			assertThat(balance(destination)).isEqualByComparingTo(OPENING_BALANCE.plus(Money.of("10.00")));
+		}
+		assertThat(balance(source)).isEqualByComparingTo(OPENING_BALANCE.minus(Money.of("20.00")));
+	}
+
+	private BankResponse transfer(String idempotencyKey, TransferRequest request) {
+		return idempotencyService.execute(idempotencyKey, "transfer", request, () -> userService.transfer(request));
+	}
+
+	// A saga that stopped after the debit is credited by the recovery job; one whose destination is gone is reversed
+	@Test
+	void recoveryFinishesOrReversesInterruptedSagas() {
+		List<String> accountNumbers = createAccounts(8);
+		String source = accountNumbers.get(0);
+		String destination = accountNumbers.stream()
+				.filter(accountNumber -> shardRouter.shardOf(accountNumber) != shardRouter.shardOf(source))
+				.findFirst().orElseThrow();
+		String missing = accountNumbers.stream().map(accountNumber -> accountNumber + "0")
+				.filter(accountNumber -> shardRouter.shardOf(accountNumber) != shardRouter.shardOf(source))
+				.findFirst().orElseThrow();
+
+		// What the first saga step leaves behind: the source debited and a DEBITED saga row
+		Money amount = Money.of("100.00");
+		userService.debitAccount(new CreditDebitRequest(source, amount.plus(amount)));
+		shardRouter.call(shardRouter.shardOf(source), () -> transferSagaRepository.saveAll(List.of(
+				interruptedSaga(source, destination, amount), interruptedSaga(source, missing, amount))));
+
+		crossShardTransferSaga.recover();
+
+		assertThat(balance(destination)).isEqualByComparingTo(OPENING_BALANCE.plus(amount));
+		assertThat(balance(source)).isEqualByComparingTo(OPENING_BALANCE.minus(amount));
+		List<String> statuses = shardRouter.call(shardRouter.shardOf(source), () -> transferSagaRepository.findAll()
+				.stream().filter(saga -> saga.getSourceAccountNumber().equals(source)).map(TransferSaga::getStatus)
+				.toList());
+		assertThat(statuses).containsExactlyInAnyOrder(TransferSaga.STATUS_COMPLETED, TransferSaga.STATUS_COMPENSATED);
+
+		// Running it again changes nothing
+		crossShardTransferSaga.recover();
+		assertThat(balance(destination)).isEqualByComparingTo(OPENING_BALANCE.plus(amount));
+		assertThat(AccountUtils.shardOf(source, 4)).isEqualTo(shardRouter.shardOf(source));
+	}
+
+	private static TransferSaga interruptedSaga(String source, String destination, Money amount) {
+		return TransferSaga.builder()
+				.transactionReference(UUID.randomUUID().toString())
+				.sourceAccountNumber(source)
+				.destinationAccountNumber(destination)
+				.amount(amount)
+				.status(TransferSaga.STATUS_DEBITED)
+				.createdAt(LocalDateTime.now().minusMinutes(1))
+				.updatedAt(LocalDateTime.now().minusMinutes(1))
+				.build();
+	}
+}
@@ -0,0 +1,50 @@
+package com.abhi.the_bank_app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountUtilsTests {
+
+	@Test
+	void luhnCheckDigitMatchesKnownValues() {
+		assertThat(AccountUtils.luhnCheckDigit("7992739871")).isEqualTo(3);
+		assertThat(AccountUtils.isValidAccountNumber("79927398713")).isTrue();
+		assertThat(AccountUtils.isValidAccountNumber("79927398710")).isFalse();
+	}
+
+	@Test
+	void formattedAccountNumbersCarryAValidCheckDigit() {
+		String accountNumber = AccountUtils.formatAccountNumber(2024, 42);
+
+		assertThat(accountNumber).startsWith("2024000042").hasSize(11);
+		assertThat(AccountUtils.isValidAccountNumber(accountNumber)).isTrue();
+		// A single mistyped digit is always caught
+		assertThat(AccountUtils.isValidAccountNumber("2024000043" + accountNumber.charAt(10))).isFalse();
+	}
+
+	@Test
+	void snowflakeNumbersAreUniqueAndValid() {
+		SnowflakeAccountNumberGenerator generator = new SnowflakeAccountNumberGenerator(7);
+		Set<String> seen = new HashSet<>();
+		for (String accountNumber : generator.nextAccountNumbers(20_000)) {
+			assertThat(AccountUtils.isValidAccountNumber(accountNumber)).isTrue();
+			assertThat(seen.add(accountNumber)).isTrue();
+		}
+	}
+
+	@Test
+	void consecutiveAccountNumbersSpreadEvenlyOverShards() {
+		int[] perShard = new int[4];
+		for (int serial = 0; serial < 40_000; serial++) {
+			perShard[AccountUtils.shardOf(AccountUtils.formatAccountNumber(2024, serial), 4)]++;
+		}
+		for (int count : perShard) {
+			assertThat(count).isBetween(9_000, 11_000);
+		}
+		assertThat(AccountUtils.shardOf("20240000424", 1)).isZero();
+	}
+}